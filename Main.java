@@ -1,8 +1,19 @@
+import java.io.IOException;
+import java.nio.file.Paths;
 import java.util.InputMismatchException;
 import java.util.Random;
 import java.util.Scanner;
 
+import helpers.BatchRunner;
+import helpers.ExternalSorter;
+import helpers.IndexedSorting;
+import helpers.MappedRecords;
+import helpers.MonitoredComparator;
 import helpers.PerformanceTable;
+import helpers.RecordFormat;
+import helpers.SearchPerformanceTable;
+import helpers.SelectionPerformanceTable;
+import helpers.SortMetrics;
 import static helpers.Searching.linearSearch;
 import static helpers.Searching.binarySearch;
 import static helpers.Sorting.insertionSort;
@@ -11,6 +22,9 @@ import static helpers.Sorting.quickSort;
 
 public class Main {
     public static void main(String[] args) {
+        if (args.length > 0) {
+            System.exit(BatchRunner.run(args));
+        }
         Scanner scanner = new Scanner(System.in);
         String input = "";
 
@@ -33,12 +47,24 @@ public class Main {
                 case "5":
                     new PerformanceTable();
                     break;
+                case "6":
+                    sortFile(scanner);
+                    break;
+                case "7":
+                    sortMappedFile(scanner);
+                    break;
+                case "8":
+                    new SearchPerformanceTable();
+                    break;
+                case "9":
+                    new SelectionPerformanceTable();
+                    break;
                 case "q":
                 case "Q":
                     break;
                 default:
                     System.out.println("\nInvalid input: " + input);
-                    System.out.println("Please only input values from 1-5, or enter q to quit.\n");
+                    System.out.println("Please only input values from 1-9, or enter q to quit.\n");
                     break;
             }
         }
@@ -52,7 +78,11 @@ public class Main {
         System.out.println("2)\tBinary searching");
         System.out.println("3)\t0(n^2) type of sorting");
         System.out.println("4)\t0(n*log(n)) type of sorting");
-        System.out.println("5)\tSorting performance\n");
+        System.out.println("5)\tSorting performance");
+        System.out.println("6)\tExternal file sorting");
+        System.out.println("7)\tMemory-mapped file sorting");
+        System.out.println("8)\tSearching performance");
+        System.out.println("9)\tSelection performance\n");
         System.out.println("q/Q)\tQuit\n");
         System.out.print("Your choice: ");
     }
@@ -108,4 +138,39 @@ public class Main {
         System.out.println("Data set after " + sortingMethod + ":");
         printArray(randomList);
     }
+
+    private static void sortFile(Scanner scanner) {
+        System.out.print("Input file: ");
+        String input = scanner.next();
+        System.out.print("Output file: ");
+        String output = scanner.next();
+        System.out.print("Record format (binaryInt, binaryLong or text): ");
+        String format = scanner.next();
+        try {
+            long start = System.currentTimeMillis();
+            SortMetrics metrics = new ExternalSorter().sort(Paths.get(input), Paths.get(output),
+                    RecordFormat.fromName(format));
+            long time = System.currentTimeMillis() - start;
+            System.out.println("\nSorted " + input + " into " + output + " in " + time + " ms");
+            System.out.println(metrics + "\n");
+        } catch (IOException | IllegalArgumentException e) {
+            System.out.println("\nExternal sorting failed: " + e.getMessage() + "\n");
+        }
+    }
+
+    private static void sortMappedFile(Scanner scanner) {
+        System.out.print("File to sort in place: ");
+        String file = scanner.next();
+        System.out.print("Record format (binaryInt or binaryLong): ");
+        String format = scanner.next();
+        try (MappedRecords records = new MappedRecords(Paths.get(file), RecordFormat.fromName(format))) {
+            long start = System.currentTimeMillis();
+            IndexedSorting.introSort(records);
+            long time = System.currentTimeMillis() - start;
+            System.out.println("\nSorted " + records.size() + " records of " + file + " in " + time + " ms");
+            System.out.println(MonitoredComparator.getLastMetrics() + "\n");
+        } catch (IOException | IllegalArgumentException e) {
+            System.out.println("\nMemory-mapped sorting failed: " + e.getMessage() + "\n");
+        }
+    }
 }
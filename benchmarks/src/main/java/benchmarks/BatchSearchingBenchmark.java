@@ -0,0 +1,120 @@
+package benchmarks;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import helpers.Searching;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * JMH benchmarks of answering many binary search probes against the same
+ * sorted array. Every invocation answers the same batch of seeded targets,
+ * about half of which are present, and counts as one operation per probe,
+ * so the scores are probes per second.
+ *
+ * @author JaniOC
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@OperationsPerInvocation(BatchSearchingBenchmark.PROBES)
+public class BatchSearchingBenchmark {
+    // Number of probes answered per invocation
+    static final int PROBES = 65536;
+
+    @Param({"1000", "100000", "10000000"})
+    public int size;
+
+    private int[] data;
+    private long[] longData;
+    private Integer[] boxedData;
+    private int[] targets;
+    private long[] longTargets;
+    private Integer[] boxedTargets;
+
+    @Setup
+    public void setUp() {
+        data = Inputs.generate("random", size);
+        Arrays.sort(data);
+        longData = Arrays.stream(data).asLongStream().toArray();
+        boxedData = Inputs.box(data);
+
+        // targets range over twice the value range, so roughly half miss
+        Random rand = new Random(Inputs.SEED + 1);
+        targets = new int[PROBES];
+        for (int i = 0; i < PROBES; i++) {
+            targets[i] = rand.nextInt(2 * size);
+        }
+        longTargets = Arrays.stream(targets).asLongStream().toArray();
+        boxedTargets = Inputs.box(targets);
+    }
+
+    @Benchmark
+    public void recursiveBinarySearch(Blackhole blackhole) {
+        for (Integer target : boxedTargets) {
+            blackhole.consume(Searching.binarySearch(boxedData, 0, boxedData.length - 1, target));
+        }
+    }
+
+    @Benchmark
+    public void branchlessBinarySearch(Blackhole blackhole) {
+        for (Integer target : boxedTargets) {
+            blackhole.consume(Searching.binarySearch(boxedData, target));
+        }
+    }
+
+    @Benchmark
+    public int[] binarySearchAll() {
+        return Searching.binarySearchAll(boxedData, boxedTargets);
+    }
+
+    @Benchmark
+    public int[] parallelBinarySearchAll() {
+        return Searching.parallelBinarySearchAll(boxedData, boxedTargets);
+    }
+
+    @Benchmark
+    public void intBinarySearch(Blackhole blackhole) {
+        for (int target : targets) {
+            blackhole.consume(Searching.binarySearch(data, target));
+        }
+    }
+
+    @Benchmark
+    public int[] intBinarySearchAll() {
+        return Searching.binarySearchAll(data, targets);
+    }
+
+    @Benchmark
+    public int[] intParallelBinarySearchAll() {
+        return Searching.parallelBinarySearchAll(data, targets);
+    }
+
+    @Benchmark
+    public void longBinarySearch(Blackhole blackhole) {
+        for (long target : longTargets) {
+            blackhole.consume(Searching.binarySearch(longData, target));
+        }
+    }
+
+    @Benchmark
+    public int[] longBinarySearchAll() {
+        return Searching.binarySearchAll(longData, longTargets);
+    }
+}
@@ -0,0 +1,43 @@
+package benchmarks;
+
+import helpers.InputDistribution;
+
+/**
+ * Seeded input data for the benchmarks, so every fork and every algorithm
+ * sees exactly the same arrays for a given size and distribution.
+ *
+ * @author JaniOC
+ */
+final class Inputs {
+    // Seed shared by all benchmarks
+    static final long SEED = 42L;
+
+    private Inputs() {
+    }
+
+    /**
+     * Generates an int array of the given size and distribution with
+     * values between 0 and the size.
+     *
+     * @param distribution the name of an InputDistribution
+     * @param size the size of the array to generate
+     * @return the generated array
+     */
+    static int[] generate(String distribution, int size) {
+        return InputDistribution.fromName(distribution).generate(size, SEED);
+    }
+
+    /**
+     * Copies an int array into a new array of boxed Integers.
+     *
+     * @param values the values to box
+     * @return a boxed copy of the values
+     */
+    static Integer[] box(int[] values) {
+        Integer[] array = new Integer[values.length];
+        for (int i = 0; i < values.length; i++) {
+            array[i] = values[i];
+        }
+        return array;
+    }
+}
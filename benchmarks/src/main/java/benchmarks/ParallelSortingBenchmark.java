@@ -0,0 +1,79 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import helpers.ParallelSorting;
+import helpers.RadixSorting;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * JMH scaling benchmark for the parallel sample sort and LSD radix sort in
+ * ParallelSorting, from one thread up to the cores of the machine and from
+ * a million up to 500 million ints. Each sort takes long enough to be
+ * timed one at a time, and every invocation sorts a fresh copy of the same
+ * seeded input, made outside the measurement. lsdRadixSort is the
+ * sequential baseline. Thread counts above the number of cores only show
+ * the cost of oversubscription; pass your own with -p threads=....
+ * The largest size needs about 10 GB of heap.
+ *
+ * @author JaniOC
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx12g")
+public class ParallelSortingBenchmark {
+    @Param({"1000000", "10000000", "100000000", "500000000"})
+    public int size;
+
+    @Param({"1", "2", "4", "8", "16"})
+    public int threads;
+
+    @Param({"random"})
+    public String distribution;
+
+    private int[] input;
+    private int[] data;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        input = Inputs.generate(distribution, size);
+    }
+
+    @Setup(Level.Invocation)
+    public void copyInput() {
+        data = input.clone();
+    }
+
+    @Benchmark
+    public void lsdRadixSort(Blackhole blackhole) {
+        RadixSorting.lsdRadixSort(data);
+        blackhole.consume(data);
+    }
+
+    @Benchmark
+    public void parallelLsdRadixSort(Blackhole blackhole) {
+        ParallelSorting.parallelLsdRadixSort(data, threads);
+        blackhole.consume(data);
+    }
+
+    @Benchmark
+    public void parallelSampleSort(Blackhole blackhole) {
+        ParallelSorting.parallelSampleSort(data, threads);
+        blackhole.consume(data);
+    }
+}
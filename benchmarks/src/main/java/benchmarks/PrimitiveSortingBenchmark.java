@@ -0,0 +1,100 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import helpers.Sorting;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * JMH benchmarks for the int, long and double overloads in Sorting.
+ * The quadratic sorts are included; keep the sizes small when running them.
+ *
+ * @author JaniOC
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class PrimitiveSortingBenchmark {
+    @Param({"1000", "10000"})
+    public int size;
+
+    @Param({"random", "sorted", "reversed", "nearlySorted", "fewUnique", "organPipe", "zipf"})
+    public String distribution;
+
+    @Param({"int", "long", "double"})
+    public String type;
+
+    private int[] ints;
+    private long[] longs;
+    private double[] doubles;
+
+    @Setup
+    public void setUp() {
+        ints = Inputs.generate(distribution, size);
+        longs = new long[size];
+        doubles = new double[size];
+        for (int i = 0; i < size; i++) {
+            longs[i] = ints[i];
+            doubles[i] = ints[i];
+        }
+    }
+
+    @Benchmark
+    public void bubbleSort(Blackhole blackhole) {
+        switch (type) {
+            case "int": { int[] data = ints.clone(); Sorting.bubbleSort(data); blackhole.consume(data); break; }
+            case "long": { long[] data = longs.clone(); Sorting.bubbleSort(data); blackhole.consume(data); break; }
+            default: { double[] data = doubles.clone(); Sorting.bubbleSort(data); blackhole.consume(data); }
+        }
+    }
+
+    @Benchmark
+    public void insertionSort(Blackhole blackhole) {
+        switch (type) {
+            case "int": { int[] data = ints.clone(); Sorting.insertionSort(data); blackhole.consume(data); break; }
+            case "long": { long[] data = longs.clone(); Sorting.insertionSort(data); blackhole.consume(data); break; }
+            default: { double[] data = doubles.clone(); Sorting.insertionSort(data); blackhole.consume(data); }
+        }
+    }
+
+    @Benchmark
+    public void selectionSort(Blackhole blackhole) {
+        switch (type) {
+            case "int": { int[] data = ints.clone(); Sorting.selectionSort(data); blackhole.consume(data); break; }
+            case "long": { long[] data = longs.clone(); Sorting.selectionSort(data); blackhole.consume(data); break; }
+            default: { double[] data = doubles.clone(); Sorting.selectionSort(data); blackhole.consume(data); }
+        }
+    }
+
+    @Benchmark
+    public void mergeSort(Blackhole blackhole) {
+        switch (type) {
+            case "int": { int[] data = ints.clone(); Sorting.mergeSort(data); blackhole.consume(data); break; }
+            case "long": { long[] data = longs.clone(); Sorting.mergeSort(data); blackhole.consume(data); break; }
+            default: { double[] data = doubles.clone(); Sorting.mergeSort(data); blackhole.consume(data); }
+        }
+    }
+
+    @Benchmark
+    public void quickSort(Blackhole blackhole) {
+        switch (type) {
+            case "int": { int[] data = ints.clone(); Sorting.quickSort(data); blackhole.consume(data); break; }
+            case "long": { long[] data = longs.clone(); Sorting.quickSort(data); blackhole.consume(data); break; }
+            default: { double[] data = doubles.clone(); Sorting.quickSort(data); blackhole.consume(data); }
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import helpers.Sorting;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * JMH benchmarks for the O(n^2) sorts in Sorting on boxed Integer arrays.
+ * Kept apart from SortingBenchmark so they get smaller sizes.
+ *
+ * @author JaniOC
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class QuadraticSortingBenchmark {
+    @Param({"1000", "5000", "10000"})
+    public int size;
+
+    @Param({"random", "sorted", "reversed", "nearlySorted", "fewUnique", "organPipe", "zipf"})
+    public String distribution;
+
+    private Integer[] input;
+
+    @Setup
+    public void setUp() {
+        input = Inputs.box(Inputs.generate(distribution, size));
+    }
+
+    @Benchmark
+    public void bubbleSort(Blackhole blackhole) {
+        Integer[] data = input.clone();
+        Sorting.bubbleSort(data);
+        blackhole.consume(data);
+    }
+
+    @Benchmark
+    public void insertionSort(Blackhole blackhole) {
+        Integer[] data = input.clone();
+        Sorting.insertionSort(data);
+        blackhole.consume(data);
+    }
+
+    @Benchmark
+    public void selectionSort(Blackhole blackhole) {
+        Integer[] data = input.clone();
+        Sorting.selectionSort(data);
+        blackhole.consume(data);
+    }
+}
@@ -0,0 +1,94 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import helpers.RadixSorting;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * JMH benchmarks for the int and long counting and radix sorts in
+ * RadixSorting, with a configurable number of bits per digit.
+ *
+ * @author JaniOC
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class RadixSortingBenchmark {
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int size;
+
+    @Param({"random", "sorted", "fewUnique", "zipf"})
+    public String distribution;
+
+    @Param({"int", "long"})
+    public String type;
+
+    @Param({"8"})
+    public int bits;
+
+    private int[] ints;
+    private long[] longs;
+
+    @Setup
+    public void setUp() {
+        ints = Inputs.generate(distribution, size);
+        longs = new long[size];
+        for (int i = 0; i < size; i++) {
+            longs[i] = ints[i];
+        }
+    }
+
+    @Benchmark
+    public void countingSort(Blackhole blackhole) {
+        if (type.equals("int")) {
+            int[] data = ints.clone();
+            RadixSorting.countingSort(data);
+            blackhole.consume(data);
+        } else {
+            long[] data = longs.clone();
+            RadixSorting.countingSort(data);
+            blackhole.consume(data);
+        }
+    }
+
+    @Benchmark
+    public void lsdRadixSort(Blackhole blackhole) {
+        if (type.equals("int")) {
+            int[] data = ints.clone();
+            RadixSorting.lsdRadixSort(data, bits);
+            blackhole.consume(data);
+        } else {
+            long[] data = longs.clone();
+            RadixSorting.lsdRadixSort(data, bits);
+            blackhole.consume(data);
+        }
+    }
+
+    @Benchmark
+    public void msdRadixSort(Blackhole blackhole) {
+        if (type.equals("int")) {
+            int[] data = ints.clone();
+            RadixSorting.msdRadixSort(data, bits);
+            blackhole.consume(data);
+        } else {
+            long[] data = longs.clone();
+            RadixSorting.msdRadixSort(data, bits);
+            blackhole.consume(data);
+        }
+    }
+}
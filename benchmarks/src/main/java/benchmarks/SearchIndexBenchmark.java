@@ -0,0 +1,82 @@
+package benchmarks;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import helpers.BTreeIndex;
+import helpers.EytzingerIndex;
+import helpers.SearchIndex;
+import helpers.Searching;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * JMH benchmarks of the latency of a single lookup in the search index
+ * layouts, against binary search on the sorted array. Sizes go from an
+ * array that fits in L1 cache (1K ints, 4 KB) to one far larger than the
+ * last level cache (100M ints, 400 MB). Targets come from a xorshift
+ * generator rather than a precomputed list, so large arrays are probed at
+ * random places and their search paths do not stay cached.
+ *
+ * @author JaniOC
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = "-Xmx3g")
+public class SearchIndexBenchmark {
+    @Param({"1000", "10000", "100000", "1000000", "10000000", "100000000"})
+    public int size;
+
+    private int[] data;
+    private SearchIndex eytzinger;
+    private SearchIndex bTree;
+    private int state;
+
+    @Setup
+    public void setUp() {
+        data = Inputs.generate("random", size);
+        Arrays.sort(data);
+        eytzinger = new EytzingerIndex(data);
+        bTree = new BTreeIndex(data);
+        state = (int) Inputs.SEED;
+    }
+
+    /**
+     * Gets the next target, over twice the value range so roughly half miss.
+     *
+     * @return the next target
+     */
+    private int nextTarget() {
+        state ^= state << 13;
+        state ^= state >>> 17;
+        state ^= state << 5;
+        return (state >>> 1) % (2 * size);
+    }
+
+    @Benchmark
+    public int binarySearch() {
+        return Searching.binarySearch(data, nextTarget());
+    }
+
+    @Benchmark
+    public int eytzingerSearch() {
+        return eytzinger.search(nextTarget());
+    }
+
+    @Benchmark
+    public int bTreeSearch() {
+        return bTree.search(nextTarget());
+    }
+}
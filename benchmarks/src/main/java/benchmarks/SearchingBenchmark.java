@@ -0,0 +1,73 @@
+package benchmarks;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import helpers.Searching;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * JMH benchmarks for the Searching methods. Each invocation looks up the
+ * next target from a fixed, seeded set of targets, about half of which
+ * are present in the data.
+ *
+ * @author JaniOC
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class SearchingBenchmark {
+    // Number of precomputed targets, a power of two so the index can be masked
+    private static final int TARGETS = 1024;
+
+    @Param({"1000", "10000", "100000"})
+    public int size;
+
+    private Integer[] data;
+    private Integer[] targets;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        int[] values = Inputs.generate("random", size);
+        Arrays.sort(values);
+        data = Inputs.box(values);
+
+        // targets range over twice the value range, so roughly half miss
+        Random rand = new Random(Inputs.SEED + 1);
+        targets = new Integer[TARGETS];
+        for (int i = 0; i < TARGETS; i++) {
+            targets[i] = rand.nextInt(2 * size);
+        }
+    }
+
+    private Integer nextTarget() {
+        next = (next + 1) & (TARGETS - 1);
+        return targets[next];
+    }
+
+    @Benchmark
+    public void linearSearch(Blackhole blackhole) {
+        blackhole.consume(Searching.linearSearch(data, 0, data.length - 1, nextTarget()));
+    }
+
+    @Benchmark
+    public void binarySearch(Blackhole blackhole) {
+        blackhole.consume(Searching.binarySearch(data, 0, data.length - 1, nextTarget()));
+    }
+}
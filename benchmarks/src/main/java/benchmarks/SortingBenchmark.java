@@ -0,0 +1,151 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import helpers.RadixSorting;
+import helpers.Sorting;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * JMH benchmarks for the O(n log n) sorts in Sorting on boxed Integer
+ * arrays. Every invocation sorts a fresh copy of the same seeded input;
+ * the copy is measured on its own by the copyOnly baseline so it can be
+ * subtracted. The plain quick sort recurses thousands of levels deep on
+ * the fewUnique and zipf inputs, so the forks get a larger thread stack.
+ *
+ * @author JaniOC
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = "-Xss16m")
+public class SortingBenchmark {
+    @Param({"1000", "10000", "100000"})
+    public int size;
+
+    @Param({"random", "sorted", "reversed", "nearlySorted", "sortedRuns", "fewUnique", "organPipe", "zipf"})
+    public String distribution;
+
+    private Integer[] input;
+
+    @Setup
+    public void setUp() {
+        input = Inputs.box(Inputs.generate(distribution, size));
+    }
+
+    @Benchmark
+    public void copyOnly(Blackhole blackhole) {
+        blackhole.consume(input.clone());
+    }
+
+    @Benchmark
+    public void mergeSort(Blackhole blackhole) {
+        Integer[] data = input.clone();
+        Sorting.mergeSort(data);
+        blackhole.consume(data);
+    }
+
+    @Benchmark
+    public void mergeSortBuffered(Blackhole blackhole) {
+        Integer[] data = input.clone();
+        Sorting.mergeSortBuffered(data);
+        blackhole.consume(data);
+    }
+
+    @Benchmark
+    public void bottomUpMergeSort(Blackhole blackhole) {
+        Integer[] data = input.clone();
+        Sorting.bottomUpMergeSort(data);
+        blackhole.consume(data);
+    }
+
+    @Benchmark
+    public void naturalMergeSort(Blackhole blackhole) {
+        Integer[] data = input.clone();
+        Sorting.naturalMergeSort(data);
+        blackhole.consume(data);
+    }
+
+    @Benchmark
+    public void quickSort(Blackhole blackhole) {
+        Integer[] data = input.clone();
+        Sorting.quickSort(data);
+        blackhole.consume(data);
+    }
+
+    @Benchmark
+    public void threeWayQuickSort(Blackhole blackhole) {
+        Integer[] data = input.clone();
+        Sorting.threeWayQuickSort(data);
+        blackhole.consume(data);
+    }
+
+    @Benchmark
+    public void dualPivotQuickSort(Blackhole blackhole) {
+        Integer[] data = input.clone();
+        Sorting.dualPivotQuickSort(data);
+        blackhole.consume(data);
+    }
+
+    @Benchmark
+    public void introSort(Blackhole blackhole) {
+        Integer[] data = input.clone();
+        Sorting.introSort(data);
+        blackhole.consume(data);
+    }
+
+    @Benchmark
+    public void heapSort(Blackhole blackhole) {
+        Integer[] data = input.clone();
+        Sorting.heapSort(data);
+        blackhole.consume(data);
+    }
+
+    @Benchmark
+    public void countingSort(Blackhole blackhole) {
+        Integer[] data = input.clone();
+        RadixSorting.countingSort(data);
+        blackhole.consume(data);
+    }
+
+    @Benchmark
+    public void lsdRadixSort(Blackhole blackhole) {
+        Integer[] data = input.clone();
+        RadixSorting.lsdRadixSort(data);
+        blackhole.consume(data);
+    }
+
+    @Benchmark
+    public void msdRadixSort(Blackhole blackhole) {
+        Integer[] data = input.clone();
+        RadixSorting.msdRadixSort(data);
+        blackhole.consume(data);
+    }
+
+    @Benchmark
+    public void parallelMergeSort(Blackhole blackhole) {
+        Integer[] data = input.clone();
+        Sorting.parallelMergeSort(data);
+        blackhole.consume(data);
+    }
+
+    @Benchmark
+    public void parallelQuickSort(Blackhole blackhole) {
+        Integer[] data = input.clone();
+        Sorting.parallelQuickSort(data);
+        blackhole.consume(data);
+    }
+}
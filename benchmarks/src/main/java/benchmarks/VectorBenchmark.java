@@ -0,0 +1,99 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import helpers.ScalarVectorOps;
+import helpers.Searching;
+import helpers.Sorting;
+import helpers.VectorOps;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * JMH benchmarks of the VectorOps kernels, with the scalar and the Vector
+ * API implementations run on the same data, and of the Searching and
+ * Sorting code they stand in for. The forks are started with the incubator
+ * module, so the vector implementation is always available here.
+ *
+ * @author JaniOC
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+public class VectorBenchmark {
+    // Size of the blocks sorted by sortSmall, the insertion sort threshold of the sorts
+    private static final int BLOCK = 16;
+
+    @Param({"16", "256", "4096"})
+    public int size;
+
+    @Param({"scalar", "vector"})
+    public String implementation;
+
+    private VectorOps ops;
+    private int[] data;
+    private Integer[] boxed;
+
+    @Setup
+    public void setUp() {
+        ops = implementation.equals("scalar") ? new ScalarVectorOps() : VectorOps.INSTANCE;
+        if (!ops.getName().startsWith(implementation)) {
+            throw new IllegalStateException("Vector API not available, got " + ops.getName());
+        }
+        data = Inputs.generate("random", size);
+        boxed = Inputs.box(data);
+    }
+
+    // the values are between 0 and size, so -1 is never found and every search scans the whole array
+
+    @Benchmark
+    public int linearSearch() {
+        return ops.indexOf(data, 0, data.length, -1);
+    }
+
+    @Benchmark
+    public boolean boxedLinearSearch() {
+        return Searching.linearSearch(boxed, 0, boxed.length - 1, -1);
+    }
+
+    @Benchmark
+    public int indexOfMin() {
+        return ops.indexOfMin(data, 0, data.length);
+    }
+
+    @Benchmark
+    public void selectionSort(Blackhole blackhole) {
+        int[] array = data.clone();
+        ops.selectionSort(array, 0, array.length);
+        blackhole.consume(array);
+    }
+
+    @Benchmark
+    public void countingSelectionSort(Blackhole blackhole) {
+        int[] array = data.clone();
+        Sorting.selectionSort(array);
+        blackhole.consume(array);
+    }
+
+    @Benchmark
+    public void sortSmallBlocks(Blackhole blackhole) {
+        int[] array = data.clone();
+        for (int from = 0; from < array.length; from += BLOCK) {
+            ops.sortSmall(array, from, Math.min(from + BLOCK, array.length));
+        }
+        blackhole.consume(array);
+    }
+}
@@ -0,0 +1,198 @@
+package helpers;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * AdaptiveSorting picks a sorting algorithm for each input instead of
+ * leaving the choice to the caller. The input is first profiled from a
+ * small sample (see InputProfile), and the profile is matched against a
+ * set of SortThresholds, which can be calibrated from a performance sweep.
+ * Each routing decision is logged at FINE level with the reason for it.
+ * The published metrics include the comparisons made while profiling.
+ *
+ * @author JaniOC
+ */
+public class AdaptiveSorting
+{
+    private static final Logger LOGGER = Logger.getLogger(AdaptiveSorting.class.getName());
+
+    // Thresholds the inputs are routed by
+    private static volatile SortThresholds thresholds = new SortThresholds();
+
+    private AdaptiveSorting() {
+    }
+
+    /**
+     * Gets the thresholds inputs are routed by.
+     *
+     * @return the current thresholds
+     */
+    public static SortThresholds getThresholds() {
+        return thresholds;
+    }
+
+    /**
+     * Sets the thresholds inputs are routed by, for example thresholds
+     * loaded from a calibration file.
+     *
+     * @param newThresholds the thresholds to use from now on
+     */
+    public static void setThresholds(SortThresholds newThresholds) {
+        thresholds = newThresholds;
+    }
+
+    /**
+     * Sorts the specified array of objects with the algorithm that best fits
+     * its profile. Integers can also be routed to the non-comparison sorts.
+     *
+     * @param data the array to be sorted
+     */
+    public static <T extends Comparable<T>>
+    void adaptiveSort(T[] data) {
+        adaptiveSort(data, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Sorts the specified array of objects with the algorithm that best fits
+     * its profile, running the parallel sort on the given pool.
+     *
+     * @param data the array to be sorted
+     * @param pool the fork-join pool large inputs are sorted on
+     */
+    static <T extends Comparable<T>>
+    void adaptiveSort(T[] data, ForkJoinPool pool) {
+        MonitoredComparator<T> comparator = new MonitoredComparator<>();
+        InputProfile profile = InputProfile.of(data, comparator);
+        SortStrategy strategy = choose(profile, false);
+
+        switch (strategy) {
+            case INSERTION:
+                Sorting.insertionSort(data);
+                break;
+            case NATURAL_MERGE:
+                Sorting.naturalMergeSort(data);
+                break;
+            case THREE_WAY_QUICK:
+                Sorting.threeWayQuickSort(data);
+                break;
+            case RADIX:
+                Integer[] integers = (Integer[]) data;
+                if (isDense(profile)) {
+                    RadixSorting.countingSort(integers);
+                } else {
+                    RadixSorting.lsdRadixSort(integers);
+                }
+                break;
+            case PARALLEL:
+                // merges through one buffer, so large inputs allocate only a copy of the data
+                Sorting.parallelMergeSort(data, Sorting.DEFAULT_PARALLEL_THRESHOLD, pool);
+                break;
+            default:
+                Sorting.introSort(data);
+                break;
+        }
+        comparator.add(MonitoredComparator.getLastMetrics());
+        comparator.publish(data);
+    }
+
+    /**
+     * Sorts the specified array of ints with the algorithm that best fits
+     * its profile. There is no three-way or parallel version for ints, so
+     * inputs with many duplicates or of large size go to radix sort.
+     *
+     * @param data the array to be sorted
+     */
+    public static void adaptiveSort(int[] data) {
+        MonitoredComparator<Integer> comparator = new MonitoredComparator<>();
+        InputProfile profile = InputProfile.of(data, comparator);
+        SortStrategy strategy = choose(profile, true);
+
+        switch (strategy) {
+            case INSERTION:
+                Sorting.insertionSort(data);
+                break;
+            case NATURAL_MERGE:
+                Sorting.naturalMergeSort(data);
+                break;
+            case RADIX:
+                if (isDense(profile)) {
+                    RadixSorting.countingSort(data);
+                } else {
+                    RadixSorting.lsdRadixSort(data);
+                }
+                break;
+            default:
+                Sorting.quickSort(data);
+                break;
+        }
+        comparator.add(MonitoredComparator.getLastMetrics());
+        comparator.publish(data);
+    }
+
+    /**
+     * Chooses the strategy for an input profile and logs the reason.
+     * The rules are tried in order: small inputs, inputs presorted in either
+     * direction, inputs with many duplicates, integer keys, large inputs,
+     * and otherwise the general purpose sort.
+     *
+     * @param profile the profile of the input
+     * @param primitive true for int arrays, which have no three-way or
+     *                  parallel version
+     * @return the chosen strategy
+     */
+    public static SortStrategy choose(InputProfile profile, boolean primitive) {
+        SortThresholds limits = thresholds;
+        SortStrategy strategy;
+        String reason;
+
+        if (profile.getSize() <= limits.getInsertionMaxSize()) {
+            strategy = SortStrategy.INSERTION;
+            reason = "size " + profile.getSize() + " <= " + limits.getInsertionMaxSize();
+        } else if (profile.getAverageRunLength() >= limits.getMinRunLength()) {
+            strategy = SortStrategy.NATURAL_MERGE;
+            reason = String.format("average run length %.1f >= %d", profile.getAverageRunLength(),
+                                   limits.getMinRunLength());
+        } else if (profile.getInversionRatio() <= limits.getMaxInversionRatio()) {
+            strategy = SortStrategy.NATURAL_MERGE;
+            reason = String.format("inversion ratio %.3f <= %.3f", profile.getInversionRatio(),
+                                   limits.getMaxInversionRatio());
+        } else if (profile.getInversionRatio() >= 1 - limits.getMaxInversionRatio()) {
+            strategy = SortStrategy.NATURAL_MERGE;
+            reason = String.format("inversion ratio %.3f >= %.3f, mostly descending",
+                                   profile.getInversionRatio(), 1 - limits.getMaxInversionRatio());
+        } else if (!primitive && profile.getDuplicateRatio() >= limits.getMinDuplicateRatio()) {
+            strategy = SortStrategy.THREE_WAY_QUICK;
+            reason = String.format("duplicate ratio %.3f >= %.3f", profile.getDuplicateRatio(),
+                                   limits.getMinDuplicateRatio());
+        } else if (profile.getKeyRange() >= 0 && profile.getSize() >= limits.getRadixMinSize()) {
+            strategy = SortStrategy.RADIX;
+            reason = "integer keys and size " + profile.getSize() + " >= " + limits.getRadixMinSize();
+        } else if (!primitive && profile.getSize() >= limits.getParallelMinSize()
+                   && Runtime.getRuntime().availableProcessors() > 1) {
+            strategy = SortStrategy.PARALLEL;
+            reason = "size " + profile.getSize() + " >= " + limits.getParallelMinSize();
+        } else {
+            strategy = SortStrategy.GENERAL;
+            reason = "no other rule applies";
+        }
+
+        if (LOGGER.isLoggable(Level.FINE)) {
+            LOGGER.fine("adaptiveSort chose " + strategy.getName() + " because " + reason + " [" + profile + "]");
+        }
+        return strategy;
+    }
+
+    /**
+     * Checks whether the keys are dense enough for counting sort: no wider
+     * a range than there are keys, so the count array is no larger than
+     * the data.
+     *
+     * @param profile the profile of the input
+     * @return true if counting sort should be used over radix sort
+     */
+    private static boolean isDense(InputProfile profile) {
+        return profile.getKeyRange() < Math.min(profile.getSize(), RadixSorting.MAX_COUNTING_RANGE);
+    }
+}
@@ -0,0 +1,438 @@
+package helpers;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Runs a performance sweep without the interactive menu, so it can be
+ * scripted into scheduled jobs. The sweep is described by --name=value
+ * options on the command line or by the same names as keys of a properties
+ * file given with --config; options on the command line override the file.
+ * Lists are separated by commas.
+ *
+ * When the sweep finishes, its results are printed to standard output in
+ * the format of the sweep, so they can be piped into a file or another
+ * tool; messages go to standard error. With a baseline, every cell whose
+ * median time grew by more than the tolerance is reported as a regression.
+ * The exit code tells the outcome: EXIT_OK, EXIT_FAILURE, EXIT_USAGE or
+ * EXIT_REGRESSION.
+ *
+ * @author JaniOC
+ */
+public class BatchRunner {
+    /** The sweep ran and no cell regressed. */
+    public static final int EXIT_OK = 0;
+
+    /** The sweep failed, for example because a file could not be read or written. */
+    public static final int EXIT_FAILURE = 1;
+
+    /** An option was unknown or invalid. */
+    public static final int EXIT_USAGE = 2;
+
+    /** The sweep ran and at least one cell was slower than its baseline. */
+    public static final int EXIT_REGRESSION = 3;
+
+    // Name of the input file that reads standard input
+    private static final String STANDARD_INPUT = "-";
+
+    // Options and what they set, in the order of the usage text
+    private static final String[][] OPTIONS = {
+        {"config", "properties file of options; command-line options override it"},
+        {"algorithms", "sorting algorithms to run (default: all)"},
+        {"types", "element types, Integer and/or int (default: both)"},
+        {"distributions", "generated input distributions (default: all)"},
+        {"sizes", "input sizes (default: 1000,2000,5000,10000)"},
+        {"trials", "timed runs per cell (default: 5)"},
+        {"warmup", "untimed runs per cell before the timed ones (default: 1)"},
+        {"threads", "cells measured at the same time in shared isolation (default: processors)"},
+        {"sort-threads", "worker threads of the parallel sorts (default: the common fork-join pool)"},
+        {"isolation", "shared, exclusive or forked (default: shared)"},
+        {"seed", "seed of the generated inputs (default: 42)"},
+        {"input", "file of values to sort instead of the distributions, or - for standard input"},
+        {"input-format", "text, binaryInt or binaryLong (default: text)"},
+        {"output", "results file (default: sweep.csv)"},
+        {"format", "csv or json (default: csv)"},
+        {"resume", "skip the cells already in the results file (default: false)"},
+        {"histograms", "directory of the latency histograms of the cells"},
+        {"baseline", "results file of an earlier sweep to compare the medians with"},
+        {"tolerance", "percent a median may grow over the baseline (default: 10)"},
+        {"help", "print this text"}
+    };
+
+    private BatchRunner() {
+    }
+
+    /**
+     * Runs a sweep described by command-line options and prints its results.
+     *
+     * @param args the options, each --name=value, or --name for true
+     * @return the exit code
+     */
+    public static int run(String[] args) {
+        Properties options;
+        try {
+            options = parseOptions(args);
+        } catch (IOException e) {
+            System.err.println("Cannot read the config file: " + e);
+            return EXIT_USAGE;
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            printUsage();
+            return EXIT_USAGE;
+        }
+        if (Boolean.parseBoolean(options.getProperty("help"))) {
+            printUsage();
+            return EXIT_OK;
+        }
+
+        SweepConfig config;
+        try {
+            config = toConfig(options);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            printUsage();
+            return EXIT_USAGE;
+        }
+
+        Path stdinDirectory = null;
+        try {
+            if (STANDARD_INPUT.equals(options.getProperty("input"))) {
+                // The input is read more than once, so standard input is copied to a file first
+                stdinDirectory = Files.createTempDirectory("sweep-stdin");
+                Path stdin = stdinDirectory.resolve("stdin");
+                Files.copy(System.in, stdin);
+                config.setInput(stdin, config.getInputFormat());
+            }
+
+            long start = System.nanoTime();
+            List<SweepResult> results = new SweepEngine(config).run();
+            System.err.printf("Measured %d cells in %.1f s%n", results.size(), (System.nanoTime() - start) / 1e9);
+
+            SweepFormat format = config.getFormat();
+            if (format.header() != null) {
+                System.out.println(format.header());
+            }
+            for (SweepResult result : results) {
+                System.out.println(format.format(result));
+            }
+
+            String baseline = options.getProperty("baseline");
+            if (baseline != null) {
+                int regressions = compare(readResults(Paths.get(baseline)), results, tolerance(options));
+                if (regressions > 0) {
+                    System.err.println(regressions + " of " + results.size() + " cells regressed");
+                    return EXIT_REGRESSION;
+                }
+            }
+            return EXIT_OK;
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Sweep failed: " + e);
+            return EXIT_FAILURE;
+        } finally {
+            deleteStandardInput(stdinDirectory);
+        }
+    }
+
+    /**
+     * Collects the options of the command line on top of the options of the
+     * config file, if one is given.
+     *
+     * @param args the command-line options
+     * @return the options by name
+     * @throws IOException if the config file cannot be read
+     * @throws IllegalArgumentException if an option is malformed or unknown
+     */
+    private static Properties parseOptions(String[] args) throws IOException {
+        Properties commandLine = new Properties();
+        for (String arg : args) {
+            if (!arg.startsWith("--")) {
+                throw new IllegalArgumentException("Options must look like --name=value: " + arg);
+            }
+            int equals = arg.indexOf('=');
+            String name = equals < 0 ? arg.substring(2) : arg.substring(2, equals);
+            commandLine.setProperty(name, equals < 0 ? "true" : arg.substring(equals + 1));
+        }
+
+        Properties options = new Properties();
+        String config = commandLine.getProperty("config");
+        if (config != null) {
+            try (Reader reader = Files.newBufferedReader(Paths.get(config), StandardCharsets.UTF_8)) {
+                options.load(reader);
+            }
+        }
+        options.putAll(commandLine);
+
+        for (String name : options.stringPropertyNames()) {
+            if (!isOption(name)) {
+                throw new IllegalArgumentException("Unknown option: " + name);
+            }
+        }
+        return options;
+    }
+
+    /**
+     * Builds the settings of the sweep from the options. Options that are
+     * not given keep the defaults of SweepConfig, except resume, which is
+     * off so that a scheduled job measures everything again.
+     *
+     * @param options the options by name
+     * @return the settings of the sweep
+     * @throws IllegalArgumentException if a value is invalid
+     */
+    private static SweepConfig toConfig(Properties options) {
+        SweepConfig config = new SweepConfig();
+        config.setResume(false);
+        for (String name : options.stringPropertyNames()) {
+            String value = options.getProperty(name).trim();
+            switch (name) {
+                case "algorithms":
+                    config.setAlgorithms(split(value));
+                    break;
+                case "types":
+                    config.setTypes(split(value));
+                    break;
+                case "distributions":
+                    String[] names = split(value);
+                    InputDistribution[] distributions = new InputDistribution[names.length];
+                    for (int i = 0; i < names.length; i++) {
+                        distributions[i] = InputDistribution.fromName(names[i]);
+                    }
+                    config.setDistributions(distributions);
+                    break;
+                case "sizes":
+                    String[] sizes = split(value);
+                    int[] parsed = new int[sizes.length];
+                    for (int i = 0; i < sizes.length; i++) {
+                        parsed[i] = parseInt(name, sizes[i]);
+                    }
+                    config.setSizes(parsed);
+                    break;
+                case "trials":
+                    config.setTrials(parseInt(name, value));
+                    break;
+                case "warmup":
+                    config.setWarmupTrials(parseInt(name, value));
+                    break;
+                case "threads":
+                    config.setParallelism(parseInt(name, value));
+                    break;
+                case "sort-threads":
+                    config.setSortParallelism(parseInt(name, value));
+                    break;
+                case "isolation":
+                    config.setIsolation(SweepIsolation.fromName(value));
+                    break;
+                case "seed":
+                    config.setSeed(parseLong(name, value));
+                    break;
+                case "input":
+                    config.setInput(Paths.get(value), config.getInputFormat());
+                    break;
+                case "input-format":
+                    config.setInput(config.getInput(), RecordFormat.fromName(value));
+                    break;
+                case "output":
+                    config.setOutput(Paths.get(value));
+                    break;
+                case "format":
+                    config.setFormat(SweepFormat.fromName(value));
+                    break;
+                case "resume":
+                    config.setResume(parseBoolean(name, value));
+                    break;
+                case "histograms":
+                    config.setHistograms(Paths.get(value));
+                    break;
+                case "tolerance":
+                    tolerance(options);
+                    break;
+                default:
+                    // config, baseline and help are read by run
+                    break;
+            }
+        }
+
+        // an input file is sorted whole unless sizes are given
+        if (config.getInput() != null && options.getProperty("sizes") == null) {
+            config.setSizes(Integer.MAX_VALUE);
+        }
+        return config;
+    }
+
+    /**
+     * Gets the tolerance of the comparison with the baseline.
+     *
+     * @param options the options by name
+     * @return the percent a median may grow, 10 if not given
+     * @throws IllegalArgumentException if the tolerance is not a number or is negative
+     */
+    private static double tolerance(Properties options) {
+        String value = options.getProperty("tolerance", "10").trim();
+        double tolerance;
+        try {
+            tolerance = Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Option tolerance must be a number: " + value);
+        }
+        if (!(tolerance >= 0)) {
+            throw new IllegalArgumentException("Option tolerance must not be negative: " + value);
+        }
+        return tolerance;
+    }
+
+    /**
+     * Compares the median times of a sweep with those of the same cells in
+     * a baseline, and reports every cell that is slower by more than the
+     * tolerance. Cells missing from the baseline are not compared.
+     *
+     * @param baseline  the results of the earlier sweep
+     * @param results   the results of this sweep
+     * @param tolerance the percent a median may grow
+     * @return the number of cells that regressed
+     */
+    private static int compare(List<SweepResult> baseline, List<SweepResult> results, double tolerance) {
+        Map<String, SweepResult> earlier = new HashMap<>();
+        for (SweepResult result : baseline) {
+            earlier.put(result.getKey(), result);
+        }
+        int regressions = 0;
+        for (SweepResult result : results) {
+            SweepResult before = earlier.get(result.getKey());
+            if (before == null || before.getMedianNanos() == 0) {
+                continue;
+            }
+            double change = 100.0 * (result.getMedianNanos() - before.getMedianNanos()) / before.getMedianNanos();
+            if (change > tolerance) {
+                System.err.printf("Regression in %s: median %d ns, baseline %d ns (+%.1f%%)%n",
+                        result.getKey(), result.getMedianNanos(), before.getMedianNanos(), change);
+                regressions++;
+            }
+        }
+        return regressions;
+    }
+
+    /**
+     * Reads the results of an earlier sweep in either format.
+     *
+     * @param file the results file
+     * @return the results, empty if the file holds none
+     * @throws IOException if the file cannot be read
+     */
+    private static List<SweepResult> readResults(Path file) throws IOException {
+        List<SweepResult> results = List.of();
+        for (SweepFormat format : SweepFormat.values()) {
+            results = format.read(file);
+            if (!results.isEmpty()) {
+                break;
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Deletes the copy of standard input and its directory.
+     *
+     * @param directory the directory of the copy, or null if none was made
+     */
+    private static void deleteStandardInput(Path directory) {
+        if (directory == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(directory.resolve("stdin"));
+            Files.deleteIfExists(directory);
+        } catch (IOException e) {
+            System.err.println("Could not delete " + directory + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Checks whether a name is one of the OPTIONS.
+     *
+     * @param name the option name
+     * @return true if the option exists
+     */
+    private static boolean isOption(String name) {
+        for (String[] option : OPTIONS) {
+            if (option[0].equals(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Splits a comma-separated list, trimming the items.
+     *
+     * @param value the list
+     * @return the items
+     */
+    private static String[] split(String value) {
+        return value.trim().split("\\s*,\\s*");
+    }
+
+    /**
+     * Parses the int value of an option.
+     *
+     * @param name  the option name, for the message
+     * @param value the value
+     * @return the parsed value
+     * @throws IllegalArgumentException if the value is not an int
+     */
+    private static int parseInt(String name, String value) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Option " + name + " must be an integer: " + value);
+        }
+    }
+
+    /**
+     * Parses the long value of an option.
+     *
+     * @param name  the option name, for the message
+     * @param value the value
+     * @return the parsed value
+     * @throws IllegalArgumentException if the value is not a long
+     */
+    private static long parseLong(String name, String value) {
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Option " + name + " must be an integer: " + value);
+        }
+    }
+
+    /**
+     * Parses the boolean value of an option.
+     *
+     * @param name  the option name, for the message
+     * @param value the value, true or false
+     * @return the parsed value
+     * @throws IllegalArgumentException if the value is neither true nor false
+     */
+    private static boolean parseBoolean(String name, String value) {
+        if (!value.equalsIgnoreCase("true") && !value.equalsIgnoreCase("false")) {
+            throw new IllegalArgumentException("Option " + name + " must be true or false: " + value);
+        }
+        return Boolean.parseBoolean(value);
+    }
+
+    /**
+     * Prints the options to standard error.
+     */
+    private static void printUsage() {
+        System.err.println("Usage: java Main [--name=value ...]");
+        for (String[] option : OPTIONS) {
+            System.err.printf("  --%-15s %s%n", option[0], option[1]);
+        }
+    }
+}
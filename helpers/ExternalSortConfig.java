@@ -0,0 +1,160 @@
+package helpers;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Settings of an ExternalSorter: how much memory it may use, how large its
+ * sorted runs are, how many runs are merged at once, how many runs are
+ * sorted in parallel and where the runs are spilled.
+ *
+ * @author JaniOC
+ */
+public class ExternalSortConfig {
+    // Bytes of heap the sort may use for chunks and merge buffers
+    private long memoryBudget = 64L * 1024 * 1024;
+
+    // Largest number of records in one sorted run
+    private int runSize = 1 << 20;
+
+    // Largest number of runs merged in a single pass
+    private int fanIn = 16;
+
+    // Number of chunks sorted at the same time
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+
+    // Directory the temporary run files are created in
+    private Path tempDirectory = Paths.get(System.getProperty("java.io.tmpdir"));
+
+    /**
+     * Gets the memory budget.
+     *
+     * @return the bytes of heap the sort may use
+     */
+    public long getMemoryBudget() {
+        return memoryBudget;
+    }
+
+    /**
+     * Sets the memory budget. Chunks in flight and merge buffers together
+     * stay within it, so it also limits the effective run size.
+     *
+     * @param memoryBudget the bytes of heap the sort may use
+     * @throws IllegalArgumentException if the budget is below 1 MB
+     */
+    public void setMemoryBudget(long memoryBudget) {
+        if (memoryBudget < 1024 * 1024) {
+            throw new IllegalArgumentException("Memory budget must be at least 1 MB: " + memoryBudget);
+        }
+        this.memoryBudget = memoryBudget;
+    }
+
+    /**
+     * Gets the largest number of records in one sorted run.
+     *
+     * @return the run size
+     */
+    public int getRunSize() {
+        return runSize;
+    }
+
+    /**
+     * Sets the largest number of records in one sorted run.
+     *
+     * @param runSize the run size
+     * @throws IllegalArgumentException if the run size is not positive
+     */
+    public void setRunSize(int runSize) {
+        if (runSize < 1) {
+            throw new IllegalArgumentException("Run size must be positive: " + runSize);
+        }
+        this.runSize = runSize;
+    }
+
+    /**
+     * Gets the largest number of runs merged in a single pass.
+     *
+     * @return the merge fan-in
+     */
+    public int getFanIn() {
+        return fanIn;
+    }
+
+    /**
+     * Sets the largest number of runs merged in a single pass. With more
+     * runs than this, runs are merged in several passes.
+     *
+     * @param fanIn the merge fan-in
+     * @throws IllegalArgumentException if the fan-in is below 2
+     */
+    public void setFanIn(int fanIn) {
+        if (fanIn < 2) {
+            throw new IllegalArgumentException("Fan-in must be at least 2: " + fanIn);
+        }
+        this.fanIn = fanIn;
+    }
+
+    /**
+     * Gets the number of chunks sorted at the same time.
+     *
+     * @return the parallelism
+     */
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Sets the number of chunks sorted at the same time.
+     *
+     * @param parallelism the parallelism
+     * @throws IllegalArgumentException if the parallelism is not positive
+     */
+    public void setParallelism(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be positive: " + parallelism);
+        }
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Gets the directory temporary run files are created in.
+     *
+     * @return the temporary directory
+     */
+    public Path getTempDirectory() {
+        return tempDirectory;
+    }
+
+    /**
+     * Sets the directory temporary run files are created in.
+     *
+     * @param tempDirectory the temporary directory
+     */
+    public void setTempDirectory(Path tempDirectory) {
+        this.tempDirectory = tempDirectory;
+    }
+
+    /**
+     * Calculates the number of records per run that fits the memory budget
+     * when parallelism chunks are sorted at once. Each record takes 8 bytes
+     * in its chunk and 8 more in the merge sort's scratch space.
+     *
+     * @return the effective run size
+     */
+    public int effectiveRunSize() {
+        long fitting = memoryBudget / (16L * parallelism);
+        return (int) Math.max(1, Math.min(runSize, fitting));
+    }
+
+    /**
+     * Calculates the size of the read buffer of each run during a merge,
+     * so that fanIn input buffers and one output buffer fit the budget.
+     *
+     * @return the buffer size in bytes, a multiple of 8
+     */
+    public int mergeBufferBytes() {
+        long perBuffer = memoryBudget / (fanIn + 1);
+        perBuffer = Math.max(4096, Math.min(perBuffer, 8 * 1024 * 1024));
+        return (int) (perBuffer - perBuffer % Long.BYTES);
+    }
+}
@@ -0,0 +1,531 @@
+package helpers;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+/**
+ * ExternalSorter sorts files of integer records that are larger than the
+ * heap. The input is read in chunks, each chunk is sorted in memory with
+ * the primitive merge sort from Sorting and spilled to a temporary run
+ * file. The runs are then merged with a heap, fanIn at a time, through
+ * bounded read buffers until a single sorted output remains.
+ *
+ * <p>The metrics returned by a sort hold the comparisons of the chunk sorts
+ * and merges, one pass for forming the runs and one per merge pass, and the
+ * bytes written by each of those passes.
+ *
+ * @author JaniOC
+ */
+public class ExternalSorter {
+    // Size of the buffers used to read the input and write files
+    private static final int IO_BUFFER_BYTES = 64 * 1024;
+
+    private final ExternalSortConfig config;
+
+    /**
+     * Constructs an external sorter with the default configuration.
+     */
+    public ExternalSorter() {
+        this(new ExternalSortConfig());
+    }
+
+    /**
+     * Constructs an external sorter with the given configuration.
+     *
+     * @param config the memory budget, run size, fan-in and parallelism to use
+     */
+    public ExternalSorter(ExternalSortConfig config) {
+        this.config = config;
+    }
+
+    /**
+     * Sorts the records of the input file into the output file. Both files
+     * use the same record format. Temporary runs are deleted afterwards,
+     * also when the sort fails.
+     *
+     * @param input  the file to sort
+     * @param output the file to write the sorted records to
+     * @param format the record format of both files
+     * @return the metrics of the sort
+     * @throws IOException if a file cannot be read or written, or the input
+     *                     holds an invalid record
+     */
+    public SortMetrics sort(Path input, Path output, RecordFormat format) throws IOException {
+        MonitoredComparator<Long> comparator = new MonitoredComparator<>();
+        Path workDirectory = Files.createTempDirectory(config.getTempDirectory(), "external-sort");
+        try {
+            List<Path> runs = createRuns(input, format, workDirectory, comparator);
+            while (runs.size() > config.getFanIn()) {
+                runs = mergePass(runs, workDirectory, comparator);
+            }
+            try (RecordSink sink = openSink(output, format)) {
+                merge(runs, sink, comparator);
+            }
+            comparator.recordPass(Files.size(output));
+        } finally {
+            deleteRecursively(workDirectory);
+        }
+        comparator.publish();
+        return comparator.getMetrics();
+    }
+
+    /**
+     * Reads the input in chunks of the effective run size and sorts and
+     * spills each chunk on a worker pool. At most parallelism chunks are
+     * held in memory at once.
+     *
+     * @param input  the file to sort
+     * @param format the record format of the file
+     * @param workDirectory the directory to create the runs in
+     * @param comparator the MonitoredComparator collecting the metrics
+     * @return the sorted run files, in input order
+     * @throws IOException if the input cannot be read or a run cannot be written
+     */
+    private List<Path> createRuns(Path input, RecordFormat format, Path workDirectory,
+                                  MonitoredComparator<Long> comparator) throws IOException {
+        int parallelism = config.getParallelism();
+        int runSize = config.effectiveRunSize();
+        if (format.getRecordBytes() > 0) {
+            // no need for chunks larger than the whole file
+            runSize = (int) Math.max(1, Math.min(runSize, Files.size(input) / format.getRecordBytes()));
+        }
+
+        List<Path> runs = new ArrayList<>();
+        Deque<Future<SortMetrics>> pending = new ArrayDeque<>();
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+        long records = 0;
+        try (RecordSource source = openSource(input, format)) {
+            while (true) {
+                if (pending.size() == parallelism) {
+                    comparator.add(await(pending.removeFirst()));
+                }
+
+                long[] chunk = new long[runSize];
+                int count = source.read(chunk);
+                if (count == 0) {
+                    break;
+                }
+                long[] data = count == runSize ? chunk : Arrays.copyOf(chunk, count);
+                Path run = Files.createTempFile(workDirectory, "run", ".bin");
+                runs.add(run);
+                records += count;
+                pending.addLast(executor.submit(() -> sortAndSpill(data, run)));
+            }
+            while (!pending.isEmpty()) {
+                comparator.add(await(pending.removeFirst()));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        comparator.recordPass(records * Long.BYTES);
+        return runs;
+    }
+
+    /**
+     * Sorts a chunk in memory and writes it to a run file.
+     *
+     * @param data the chunk to sort
+     * @param run  the run file to write
+     * @return the metrics of the in-memory sort
+     * @throws IOException if the run cannot be written
+     */
+    private SortMetrics sortAndSpill(long[] data, Path run) throws IOException {
+        Sorting.mergeSort(data);
+        SortMetrics metrics = MonitoredComparator.getLastMetrics();
+        try (RecordSink sink = new BinarySink(run, Long.BYTES, IO_BUFFER_BYTES)) {
+            for (long value : data) {
+                sink.write(value);
+            }
+        }
+        return metrics;
+    }
+
+    /**
+     * Merges the runs in groups of fanIn into fewer, longer runs and
+     * deletes the merged runs.
+     *
+     * @param runs the runs to merge
+     * @param workDirectory the directory to create the new runs in
+     * @param comparator the MonitoredComparator collecting the metrics
+     * @return the new runs
+     * @throws IOException if a run cannot be read or written
+     */
+    private List<Path> mergePass(List<Path> runs, Path workDirectory, MonitoredComparator<Long> comparator)
+            throws IOException {
+        List<Path> merged = new ArrayList<>();
+        long bytes = 0;
+        for (int first = 0; first < runs.size(); first += config.getFanIn()) {
+            List<Path> group = runs.subList(first, Math.min(first + config.getFanIn(), runs.size()));
+            Path run = Files.createTempFile(workDirectory, "run", ".bin");
+            try (RecordSink sink = new BinarySink(run, Long.BYTES, config.mergeBufferBytes())) {
+                merge(group, sink, comparator);
+            }
+            for (Path input : group) {
+                Files.delete(input);
+            }
+            bytes += Files.size(run);
+            merged.add(run);
+        }
+        comparator.recordPass(bytes);
+        return merged;
+    }
+
+    /**
+     * Merges sorted runs into a sink with a heap holding the current
+     * record of every run.
+     *
+     * @param runs the sorted runs to merge
+     * @param sink the sink to write the merged records to
+     * @param comparator the MonitoredComparator counting the heap comparisons
+     * @throws IOException if a run cannot be read or the sink cannot be written
+     */
+    private void merge(List<Path> runs, RecordSink sink, MonitoredComparator<Long> comparator)
+            throws IOException {
+        Comparator<RunCursor> order = (cursor1, cursor2) -> comparator.compare(cursor1.head, cursor2.head);
+        PriorityQueue<RunCursor> heap = new PriorityQueue<>(Math.max(1, runs.size()), order);
+        List<RunCursor> cursors = new ArrayList<>();
+        try {
+            for (Path run : runs) {
+                RunCursor cursor = new RunCursor(run, config.mergeBufferBytes());
+                cursors.add(cursor);
+                if (cursor.advance()) {
+                    heap.add(cursor);
+                }
+            }
+            while (!heap.isEmpty()) {
+                RunCursor cursor = heap.poll();
+                sink.write(cursor.head);
+                if (cursor.advance()) {
+                    heap.add(cursor);
+                }
+            }
+        } finally {
+            for (RunCursor cursor : cursors) {
+                cursor.close();
+            }
+        }
+    }
+
+    /**
+     * Waits for a chunk to be sorted and spilled.
+     *
+     * @param future the task sorting the chunk
+     * @return the metrics of the chunk sort
+     * @throws IOException if the task failed to write its run, or was interrupted
+     */
+    private static SortMetrics await(Future<SortMetrics> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while sorting a chunk");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    /**
+     * Deletes a directory and everything in it, if it exists.
+     *
+     * @param directory the directory to delete
+     * @throws IOException if a file cannot be deleted
+     */
+    private static void deleteRecursively(Path directory) throws IOException {
+        if (!Files.exists(directory)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    /**
+     * Opens a reader of the records of a file.
+     *
+     * @param file   the file to read
+     * @param format the record format of the file
+     * @return the record source
+     * @throws IOException if the file cannot be opened
+     */
+    private static RecordSource openSource(Path file, RecordFormat format) throws IOException {
+        if (format == RecordFormat.TEXT) {
+            return new TextSource(file);
+        }
+        return new BinarySource(file, format.getRecordBytes());
+    }
+
+    /**
+     * Opens a writer of records to a file, replacing its contents.
+     *
+     * @param file   the file to write
+     * @param format the record format of the file
+     * @return the record sink
+     * @throws IOException if the file cannot be opened
+     */
+    private RecordSink openSink(Path file, RecordFormat format) throws IOException {
+        if (format == RecordFormat.TEXT) {
+            return new TextSink(file);
+        }
+        return new BinarySink(file, format.getRecordBytes(), config.mergeBufferBytes());
+    }
+
+    /**
+     * A source of records read in bulk.
+     */
+    private interface RecordSource extends AutoCloseable {
+        /**
+         * Reads records into the chunk until it is full or the input ends.
+         *
+         * @param chunk the array to fill
+         * @return the number of records read, 0 at the end of the input
+         * @throws IOException if the input cannot be read or is invalid
+         */
+        int read(long[] chunk) throws IOException;
+
+        @Override
+        void close() throws IOException;
+    }
+
+    /**
+     * A destination of records written one at a time.
+     */
+    private interface RecordSink extends AutoCloseable {
+        /**
+         * Writes a record.
+         *
+         * @param value the record to write
+         * @throws IOException if the output cannot be written
+         */
+        void write(long value) throws IOException;
+
+        @Override
+        void close() throws IOException;
+    }
+
+    /**
+     * Reads fixed-width big-endian int or long records through a file channel.
+     */
+    private static class BinarySource implements RecordSource {
+        private final FileChannel channel;
+        private final ByteBuffer buffer;
+        private final int recordBytes;
+
+        BinarySource(Path file, int recordBytes) throws IOException {
+            this.channel = FileChannel.open(file, StandardOpenOption.READ);
+            this.buffer = ByteBuffer.allocate(IO_BUFFER_BYTES);
+            this.buffer.flip();
+            this.recordBytes = recordBytes;
+        }
+
+        @Override
+        public int read(long[] chunk) throws IOException {
+            int count = 0;
+            while (count < chunk.length) {
+                if (buffer.remaining() < recordBytes && !fill()) {
+                    break;
+                }
+                chunk[count++] = recordBytes == Integer.BYTES ? buffer.getInt() : buffer.getLong();
+            }
+            return count;
+        }
+
+        /**
+         * Refills the buffer with at least one whole record.
+         *
+         * @return false at the end of the file
+         * @throws IOException if the file ends inside a record
+         */
+        private boolean fill() throws IOException {
+            buffer.compact();
+            while (buffer.position() < recordBytes && channel.read(buffer) >= 0) {
+                // keep reading until a whole record is buffered
+            }
+            buffer.flip();
+            if (buffer.remaining() >= recordBytes) {
+                return true;
+            }
+            if (buffer.hasRemaining()) {
+                throw new IOException("File ends with a partial record of " + buffer.remaining() + " bytes");
+            }
+            return false;
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+
+    /**
+     * Reads one decimal integer per line, skipping blank lines.
+     */
+    private static class TextSource implements RecordSource {
+        private final BufferedReader reader;
+        private long lineNumber = 0;
+
+        TextSource(Path file) throws IOException {
+            this.reader = Files.newBufferedReader(file, StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public int read(long[] chunk) throws IOException {
+            int count = 0;
+            String line;
+            while (count < chunk.length && (line = reader.readLine()) != null) {
+                lineNumber++;
+                line = line.trim();
+                if (line.isEmpty()) {
+                    continue;
+                }
+                try {
+                    chunk[count++] = Long.parseLong(line);
+                } catch (NumberFormatException e) {
+                    throw new IOException("Invalid record on line " + lineNumber + ": " + line, e);
+                }
+            }
+            return count;
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.close();
+        }
+    }
+
+    /**
+     * Writes fixed-width big-endian int or long records through a file channel.
+     */
+    private static class BinarySink implements RecordSink {
+        private final FileChannel channel;
+        private final ByteBuffer buffer;
+        private final int recordBytes;
+
+        BinarySink(Path file, int recordBytes, int bufferBytes) throws IOException {
+            this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+            this.buffer = ByteBuffer.allocate(bufferBytes);
+            this.recordBytes = recordBytes;
+        }
+
+        @Override
+        public void write(long value) throws IOException {
+            if (buffer.remaining() < recordBytes) {
+                flush();
+            }
+            if (recordBytes == Integer.BYTES) {
+                buffer.putInt((int) value);
+            } else {
+                buffer.putLong(value);
+            }
+        }
+
+        private void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                flush();
+            } finally {
+                channel.close();
+            }
+        }
+    }
+
+    /**
+     * Writes one decimal integer per line.
+     */
+    private static class TextSink implements RecordSink {
+        private final BufferedWriter writer;
+
+        TextSink(Path file) throws IOException {
+            this.writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public void write(long value) throws IOException {
+            writer.write(Long.toString(value));
+            writer.newLine();
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.close();
+        }
+    }
+
+    /**
+     * Reads a sorted run of long records through a bounded buffer, keeping
+     * the current record in head.
+     */
+    private static class RunCursor {
+        private final FileChannel channel;
+        private final ByteBuffer buffer;
+        private long head;
+
+        RunCursor(Path run, int bufferBytes) throws IOException {
+            this.channel = FileChannel.open(run, StandardOpenOption.READ);
+            this.buffer = ByteBuffer.allocate(bufferBytes);
+            this.buffer.flip();
+        }
+
+        /**
+         * Moves to the next record of the run.
+         *
+         * @return false when the run is exhausted
+         * @throws IOException if the run cannot be read
+         */
+        boolean advance() throws IOException {
+            if (!buffer.hasRemaining()) {
+                buffer.clear();
+                while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                    // runs hold whole records, so a full read ends on a record boundary
+                }
+                buffer.flip();
+                if (!buffer.hasRemaining()) {
+                    return false;
+                }
+            }
+            head = buffer.getLong();
+            return true;
+        }
+
+        void close() throws IOException {
+            channel.close();
+        }
+    }
+}
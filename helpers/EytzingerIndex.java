@@ -0,0 +1,92 @@
+package helpers;
+
+/**
+ * EytzingerIndex stores a sorted array of ints in Eytzinger (breadth-first)
+ * order: the root at position 1 and the children of position k at 2k and
+ * 2k + 1. A search walks down the implicit tree, and because the nodes of
+ * the next levels are next to each other in memory, the 16 descendants four
+ * levels below a node share one cache line.
+ *
+ * <p>Java has no prefetch instruction, so the search reads that cache line
+ * itself four levels ahead and keeps going without waiting for it. The
+ * processor overlaps those loads with the comparisons in between, which
+ * hides most of the memory latency on arrays larger than the caches. The
+ * values read ahead are only used locally, so concurrent searches share
+ * nothing but the read-only arrays. The sorted position of every node is
+ * kept alongside it so that results can be reported like binarySearch does.
+ *
+ * <p>Positions below a node at or past 2^30 do not fit in an int, so they
+ * are compared as unsigned ints, which holds them up to 2^32 - 1.
+ *
+ * @author JaniOC
+ */
+public class EytzingerIndex implements SearchIndex {
+    // Number of levels the search reads ahead, 16 ints being one cache line
+    private static final int PREFETCH_LEVELS = 4;
+
+    private final int[] tree;
+    private final int[] ranks;
+    private final int size;
+
+    // Largest position whose descendants PREFETCH_LEVELS down are in the tree
+    private final int readAheadLimit;
+
+    /**
+     * Builds an index of the specified sorted array.
+     *
+     * @param sorted the sorted values to index
+     */
+    public EytzingerIndex(int[] sorted) {
+        size = sorted.length;
+        tree = new int[size + 1];
+        ranks = new int[size + 1];
+        readAheadLimit = size >>> PREFETCH_LEVELS;
+        build(sorted, 0, 1);
+    }
+
+    /**
+     * Fills the subtree at position k with an in-order walk of the sorted
+     * values, starting from the given rank.
+     *
+     * @param sorted the sorted values to index
+     * @param rank   the rank of the next value to place
+     * @param k      the position of the root of the subtree
+     * @return the rank of the next value after the subtree
+     */
+    private int build(int[] sorted, int rank, int k) {
+        if (Integer.compareUnsigned(k, size) <= 0) {
+            rank = build(sorted, rank, 2 * k);
+            tree[k] = sorted[rank];
+            ranks[k] = rank++;
+            rank = build(sorted, rank, 2 * k + 1);
+        }
+        return rank;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public int search(int target) {
+        int k = 1;
+        int prefetched = 0;
+        while (Integer.compareUnsigned(k, size) <= 0) {
+            // touch the cache line holding the descendants four levels down
+            prefetched += tree[k <= readAheadLimit ? k << PREFETCH_LEVELS : size];
+            k = 2 * k + (tree[k] < target ? 1 : 0);
+        }
+        if (prefetched == target) {
+            // uses the read-ahead loads so they are not optimized away; the hint has no effect
+            Thread.onSpinWait();
+        }
+
+        // undo the right turns taken after the last left turn, which was the lower bound
+        k >>>= Integer.numberOfTrailingZeros(~k) + 1;
+        if (k == 0) {
+            return -(size + 1);
+        }
+        return tree[k] == target ? ranks[k] : -(ranks[k] + 1);
+    }
+}
@@ -0,0 +1,37 @@
+package helpers;
+
+/**
+ * A collection that can be sorted through its indexes alone, without
+ * taking its elements out. Used to sort data that does not live in a Java
+ * array, such as a memory-mapped file, with the algorithms of
+ * IndexedSorting. Indexes are longs so that collections can hold more than
+ * Integer.MAX_VALUE elements.
+ *
+ * @author JaniOC
+ */
+public interface IndexedSortable {
+    /**
+     * Gets the number of elements.
+     *
+     * @return the number of elements
+     */
+    long size();
+
+    /**
+     * Compares the elements at two indexes.
+     *
+     * @param index1 the index of the first element
+     * @param index2 the index of the second element
+     * @return a negative integer, zero, or a positive integer as the first
+     *         element is less than, equal to, or greater than the second
+     */
+    int compare(long index1, long index2);
+
+    /**
+     * Swaps the elements at two indexes.
+     *
+     * @param index1 the index of the first element
+     * @param index2 the index of the second element
+     */
+    void swap(long index1, long index2);
+}
@@ -0,0 +1,259 @@
+package helpers;
+
+/**
+ * IndexedSorting demonstrates sorting algorithms that work on an
+ * IndexedSortable instead of an array. They only compare and swap
+ * elements in place, so they sort data such as memory-mapped files
+ * without copying it onto the heap.
+ *
+ * @author JaniOC
+ */
+public class IndexedSorting {
+    // Ranges at most this long are finished with insertion sort
+    private static final int INSERTION_SORT_THRESHOLD = 16;
+
+    /**
+     * Compares two elements of the sortable and counts the comparison.
+     *
+     * @param data   the sortable containing the elements
+     * @param index1 the index of the first element
+     * @param index2 the index of the second element
+     * @param comparator the MonitoredComparator tracking comparisons
+     * @return the result of the comparison
+     */
+    private static int compare(IndexedSortable data, long index1, long index2,
+                               MonitoredComparator<Long> comparator) {
+        comparator.recordComparison();
+        return data.compare(index1, index2);
+    }
+
+    /**
+     * Swaps two elements of the sortable and counts the swap.
+     *
+     * @param data   the sortable containing the elements
+     * @param index1 the index of the first element
+     * @param index2 the index of the second element
+     * @param comparator the MonitoredComparator tracking the swap
+     */
+    private static void swap(IndexedSortable data, long index1, long index2,
+                             MonitoredComparator<Long> comparator) {
+        comparator.recordSwap();
+        data.swap(index1, index2);
+    }
+
+    /**
+     * Sorts the specified sortable using an insertion sort algorithm.
+     *
+     * @param data the sortable to be sorted
+     */
+    public static void insertionSort(IndexedSortable data) {
+        MonitoredComparator<Long> comparator = new MonitoredComparator<>();
+        insertionSort(data, 0, data.size() - 1, comparator);
+        comparator.publish();
+    }
+
+    /**
+     * Sorts a range of the specified sortable using insertion sort. Without
+     * access to the elements it swaps each element down into place instead
+     * of shifting the larger ones.
+     *
+     * @param data the sortable to be sorted
+     * @param min  the index of the first element
+     * @param max  the index of the last element
+     * @param comparator the MonitoredComparator tracking comparisons
+     */
+    private static void insertionSort(IndexedSortable data, long min, long max,
+                                      MonitoredComparator<Long> comparator) {
+        for (long index = min + 1; index <= max; index++) {
+            for (long position = index; position > min
+                    && compare(data, position - 1, position, comparator) > 0; position--) {
+                swap(data, position - 1, position, comparator);
+            }
+        }
+    }
+
+    /**
+     * Sorts the specified sortable using introsort: a quick sort with
+     * median-of-three pivots that finishes small ranges with insertion sort
+     * and switches to heap sort when the recursion gets too deep. Files are
+     * often partly sorted already, and a file too large for the heap is too
+     * large to risk the quadratic worst case of a plain quick sort on.
+     *
+     * @param data the sortable to be sorted
+     */
+    public static void introSort(IndexedSortable data) {
+        MonitoredComparator<Long> comparator = new MonitoredComparator<>();
+        long size = data.size();
+        if (size > 1) {
+            int depthLimit = 2 * (63 - Long.numberOfLeadingZeros(size));
+            introSort(data, 0, size - 1, depthLimit, comparator);
+        }
+        comparator.publish();
+    }
+
+    /**
+     * Sorts a range of the specified sortable using introsort. Loops on the
+     * larger partition and recurses on the smaller one.
+     *
+     * @param data       the sortable to be sorted
+     * @param min        the minimum index in the range to be sorted
+     * @param max        the maximum index in the range to be sorted
+     * @param depthLimit the number of partitioning levels left before
+     *                   falling back to heap sort
+     * @param comparator the MonitoredComparator tracking comparisons
+     */
+    private static void introSort(IndexedSortable data, long min, long max, int depthLimit,
+                                  MonitoredComparator<Long> comparator) {
+        comparator.enter();
+        while (max - min + 1 > INSERTION_SORT_THRESHOLD && depthLimit > 0) {
+            depthLimit--;
+
+            // put the median of the first, middle and last values where partition takes its pivot
+            medianOfThree(data, min, max, comparator);
+            long indexofpartition = partition(data, min, max, comparator);
+
+            if (indexofpartition - min < max - indexofpartition) {
+                introSort(data, min, indexofpartition - 1, depthLimit, comparator);
+                min = indexofpartition + 1;
+            } else {
+                introSort(data, indexofpartition + 1, max, depthLimit, comparator);
+                max = indexofpartition - 1;
+            }
+        }
+
+        if (max - min + 1 > INSERTION_SORT_THRESHOLD) {
+            heapSort(data, min, max, comparator);
+        } else {
+            insertionSort(data, min, max, comparator);
+        }
+        comparator.exit();
+    }
+
+    /**
+     * Orders the first, middle and last elements of a range so that the
+     * median of the three ends up in the middle, where partition takes
+     * its pivot from.
+     *
+     * @param data the sortable containing the range
+     * @param min  the minimum index in the range
+     * @param max  the maximum index in the range
+     * @param comparator the MonitoredComparator tracking comparisons
+     */
+    private static void medianOfThree(IndexedSortable data, long min, long max,
+                                      MonitoredComparator<Long> comparator) {
+        long middle = min + (max - min) / 2;
+        if (compare(data, middle, min, comparator) < 0) {
+            swap(data, middle, min, comparator);
+        }
+        if (compare(data, max, middle, comparator) < 0) {
+            swap(data, max, middle, comparator);
+            if (compare(data, middle, min, comparator) < 0) {
+                swap(data, middle, min, comparator);
+            }
+        }
+    }
+
+    /**
+     * Used by introsort to find the partition. The pivot is
+     * the middle element, which is kept at the start of the range while
+     * the rest is partitioned and compared by its index there.
+     *
+     * @param data the sortable to be sorted
+     * @param min  the minimum index in the range to be sorted
+     * @param max  the maximum index in the range to be sorted
+     * @param comparator the MonitoredComparator tracking comparisons
+     * @return the final index of the pivot
+     */
+    private static long partition(IndexedSortable data, long min, long max,
+                                  MonitoredComparator<Long> comparator) {
+        long middle = min + (max - min) / 2;
+
+        // move the pivot out of the way for now
+        swap(data, middle, min, comparator);
+
+        long left = min;
+        long right = max;
+
+        while (left < right) {
+            // search for an element that is > the pivot
+            while (left < right && compare(data, left, min, comparator) <= 0) {
+                left++;
+            }
+
+            // search for an element that is < the pivot
+            while (compare(data, right, min, comparator) > 0) {
+                right--;
+            }
+
+            // swap the elements
+            if (left < right) {
+                swap(data, left, right, comparator);
+            }
+        }
+
+        // move the pivot into place
+        swap(data, min, right, comparator);
+
+        return right;
+    }
+
+    /**
+     * Sorts the specified sortable using the heap sort algorithm, which
+     * guarantees O(n log n) time whatever the input.
+     *
+     * @param data the sortable to be sorted
+     */
+    public static void heapSort(IndexedSortable data) {
+        MonitoredComparator<Long> comparator = new MonitoredComparator<>();
+        heapSort(data, 0, data.size() - 1, comparator);
+        comparator.publish();
+    }
+
+    /**
+     * Sorts a range of the specified sortable using heap sort, by building
+     * a max-heap over the range and repeatedly moving its root to the end.
+     *
+     * @param data the sortable to be sorted
+     * @param min  the minimum index in the range to be sorted
+     * @param max  the maximum index in the range to be sorted
+     * @param comparator the MonitoredComparator tracking comparisons
+     */
+    private static void heapSort(IndexedSortable data, long min, long max,
+                                 MonitoredComparator<Long> comparator) {
+        long length = max - min + 1;
+        for (long parent = length / 2 - 1; parent >= 0; parent--) {
+            siftDown(data, min, parent, length, comparator);
+        }
+        for (long last = length - 1; last > 0; last--) {
+            swap(data, min, min + last, comparator);
+            siftDown(data, min, 0, last, comparator);
+        }
+    }
+
+    /**
+     * Moves an element of a heap down until both its children are no
+     * larger than it. Heap positions are relative to the start of the range.
+     *
+     * @param data   the sortable containing the heap
+     * @param offset the index of the root of the heap
+     * @param parent the heap position of the element to move down
+     * @param length the number of elements in the heap
+     * @param comparator the MonitoredComparator tracking comparisons
+     */
+    private static void siftDown(IndexedSortable data, long offset, long parent, long length,
+                                 MonitoredComparator<Long> comparator) {
+        long child = 2 * parent + 1;
+        while (child < length) {
+            // pick the larger of the two children
+            if (child + 1 < length && compare(data, offset + child, offset + child + 1, comparator) < 0) {
+                child++;
+            }
+            if (compare(data, offset + parent, offset + child, comparator) >= 0) {
+                return;
+            }
+            swap(data, offset + parent, offset + child, comparator);
+            parent = child;
+            child = 2 * parent + 1;
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package helpers;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * The standard input distributions for the performance tables. Every
+ * distribution draws values between 0 and the array size from a seeded
+ * random number generator, so runs are reproducible.
+ *
+ * @author JaniOC
+ */
+public enum InputDistribution implements InputGenerator {
+    /** Uniformly random values. */
+    RANDOM("random") {
+        @Override
+        public int[] generate(int size, long seed) {
+            return uniform(size, new Random(seed));
+        }
+    },
+
+    /** Uniformly random values in ascending order. */
+    SORTED("sorted") {
+        @Override
+        public int[] generate(int size, long seed) {
+            int[] array = uniform(size, new Random(seed));
+            Arrays.sort(array);
+            return array;
+        }
+    },
+
+    /** Uniformly random values in descending order. */
+    REVERSED("reversed") {
+        @Override
+        public int[] generate(int size, long seed) {
+            int[] array = SORTED.generate(size, seed);
+            for (int i = 0, j = size - 1; i < j; i++, j--) {
+                int temp = array[i];
+                array[i] = array[j];
+                array[j] = temp;
+            }
+            return array;
+        }
+    },
+
+    /** Sorted values with about 1% of the elements swapped with random partners. */
+    NEARLY_SORTED("nearlySorted") {
+        @Override
+        public int[] generate(int size, long seed) {
+            int[] array = SORTED.generate(size, seed);
+            Random rand = new Random(seed + 1);
+            int swaps = size < 2 ? 0 : Math.max(1, size / 100);
+            for (int i = 0; i < swaps; i++) {
+                int index1 = rand.nextInt(size);
+                int index2 = rand.nextInt(size);
+                int temp = array[index1];
+                array[index1] = array[index2];
+                array[index2] = temp;
+            }
+            return array;
+        }
+    },
+
+    /** Uniformly random values in a few sorted batches, one after the other. */
+    SORTED_RUNS("sortedRuns") {
+        @Override
+        public int[] generate(int size, long seed) {
+            int[] array = uniform(size, new Random(seed));
+            int batch = Math.max(1, size / SORTED_RUNS_BATCHES);
+            for (int first = 0; first < size; first += batch) {
+                Arrays.sort(array, first, Math.min(size, first + batch));
+            }
+            return array;
+        }
+    },
+
+    /** Random values drawn from only a handful of distinct keys. */
+    FEW_UNIQUE("fewUnique") {
+        @Override
+        public int[] generate(int size, long seed) {
+            int[] array = new int[size];
+            Random rand = new Random(seed);
+            int step = Math.max(1, size / FEW_UNIQUE_KEYS);
+            for (int i = 0; i < size; i++) {
+                array[i] = rand.nextInt(FEW_UNIQUE_KEYS) * step;
+            }
+            return array;
+        }
+    },
+
+    /** Sorted values rising to the middle of the array and falling after it. */
+    ORGAN_PIPE("organPipe") {
+        @Override
+        public int[] generate(int size, long seed) {
+            int[] sorted = SORTED.generate(size, seed);
+            int[] array = new int[size];
+            // even ranks fill the front ascending, odd ranks fill the back descending
+            for (int i = 0; i < size; i++) {
+                if (i % 2 == 0) {
+                    array[i / 2] = sorted[i];
+                } else {
+                    array[size - 1 - i / 2] = sorted[i];
+                }
+            }
+            return array;
+        }
+    },
+
+    /** Values following a Zipf distribution, so small values are very common. */
+    ZIPF("zipf") {
+        @Override
+        public int[] generate(int size, long seed) {
+            int[] array = new int[size];
+            if (size == 0) {
+                return array;
+            }
+
+            // cumulative weights of the values 0..size-1, value k having weight 1/(k+1)^s
+            double[] cumulative = new double[size];
+            double total = 0;
+            for (int k = 0; k < size; k++) {
+                total += 1.0 / Math.pow(k + 1, ZIPF_EXPONENT);
+                cumulative[k] = total;
+            }
+
+            Random rand = new Random(seed);
+            for (int i = 0; i < size; i++) {
+                int index = Arrays.binarySearch(cumulative, rand.nextDouble() * total);
+                array[i] = Math.min(size - 1, index >= 0 ? index : -index - 1);
+            }
+            return array;
+        }
+    };
+
+    // Number of sorted batches in the sorted-runs distribution
+    private static final int SORTED_RUNS_BATCHES = 8;
+
+    // Number of distinct keys in the few-unique distribution
+    private static final int FEW_UNIQUE_KEYS = 8;
+
+    // Exponent of the Zipf distribution
+    private static final double ZIPF_EXPONENT = 1.0;
+
+    private final String name;
+
+    InputDistribution(String name) {
+        this.name = name;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Finds the distribution with the given name.
+     *
+     * @param name the distribution name, as returned by getName
+     * @return the matching distribution
+     * @throws IllegalArgumentException if no distribution has that name
+     */
+    public static InputDistribution fromName(String name) {
+        for (InputDistribution distribution : values()) {
+            if (distribution.name.equalsIgnoreCase(name)) {
+                return distribution;
+            }
+        }
+        throw new IllegalArgumentException("Unknown distribution: " + name);
+    }
+
+    /**
+     * Generates uniformly random values between 0 and the size.
+     *
+     * @param size the size of the array to generate
+     * @param rand the random number generator to draw from
+     * @return the generated array
+     */
+    private static int[] uniform(int size, Random rand) {
+        int[] array = new int[size];
+        for (int i = 0; i < size; i++) {
+            array[i] = rand.nextInt(size);
+        }
+        return array;
+    }
+}
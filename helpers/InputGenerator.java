@@ -0,0 +1,26 @@
+package helpers;
+
+/**
+ * A generator of input data for the performance tables. Implementations
+ * must be reproducible: the same size and seed always give the same array.
+ *
+ * @author JaniOC
+ */
+public interface InputGenerator {
+    /**
+     * Gets the name of the generated distribution, used in table row labels.
+     *
+     * @return the distribution name
+     */
+    String getName();
+
+    /**
+     * Generates an array of integers with values between 0 and the
+     * specified size.
+     *
+     * @param size the size of the array to generate
+     * @param seed the seed of the random number generator
+     * @return the generated array
+     */
+    int[] generate(int size, long seed);
+}
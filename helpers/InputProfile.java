@@ -0,0 +1,277 @@
+package helpers;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Characteristics of an input estimated from a small random sample, used
+ * by AdaptiveSorting to pick an algorithm: the size, how presorted the
+ * input is (its ascending runs and inversions), how many keys repeat and,
+ * for integer keys, the range of the keys. Sampling takes a fixed number
+ * of comparisons whatever the size of the input, so profiling stays cheap
+ * next to the sort itself. The key range is the exception: it is found with
+ * a full O(n) pass, because a range taken from the sample could miss an
+ * extreme key and send too wide a range to counting sort. The pass makes
+ * no comparisons and is reported as a pass over the data, not as sampling.
+ *
+ * @author JaniOC
+ */
+public class InputProfile {
+    // Number of positions, pairs and values sampled for each estimate
+    static final int SAMPLE_SIZE = 128;
+
+    // Seed of the sampling, so the same input always gets the same profile
+    private static final long SAMPLE_SEED = 42L;
+
+    private final int size;
+    private final double runs;
+    private final double inversionRatio;
+    private final double duplicateRatio;
+    private final long keyRange;
+
+    /**
+     * Constructs a profile.
+     *
+     * @param size the number of elements
+     * @param runs the estimated number of ascending runs
+     * @param inversionRatio the estimated fraction of pairs that are out of order
+     * @param duplicateRatio the estimated fraction of sampled keys that repeat
+     * @param keyRange the largest key minus the smallest, or -1 if the keys are not integers
+     */
+    public InputProfile(int size, double runs, double inversionRatio, double duplicateRatio, long keyRange) {
+        this.size = size;
+        this.runs = runs;
+        this.inversionRatio = inversionRatio;
+        this.duplicateRatio = duplicateRatio;
+        this.keyRange = keyRange;
+    }
+
+    /**
+     * Profiles an array of ints. The key range is found with a full pass,
+     * as a sampled range could miss the extremes.
+     *
+     * @param data the array to profile
+     * @return the profile of the array
+     */
+    public static InputProfile of(int[] data) {
+        return of(data, new MonitoredComparator<>());
+    }
+
+    /**
+     * Profiles an array of ints, counting the comparisons made.
+     *
+     * @param data the array to profile
+     * @param comparator the MonitoredComparator tracking comparisons
+     * @return the profile of the array
+     */
+    static InputProfile of(int[] data, MonitoredComparator<Integer> comparator) {
+        int length = data.length;
+        if (length < 2) {
+            return new InputProfile(length, length, 0, 0, 0);
+        }
+        SplittableRandom random = new SplittableRandom(SAMPLE_SEED);
+
+        // descents between neighbours start new runs
+        int descents = 0;
+        for (int i = 0; i < SAMPLE_SIZE; i++) {
+            int index = random.nextInt(length - 1);
+            if (comparator.compare(data[index], data[index + 1]) > 0) {
+                descents++;
+            }
+        }
+
+        // pairs out of order anywhere in the array are inversions
+        int inversions = 0;
+        for (int i = 0; i < SAMPLE_SIZE; i++) {
+            int first = random.nextInt(length - 1);
+            int second = first + 1 + random.nextInt(length - first - 1);
+            if (comparator.compare(data[first], data[second]) > 0) {
+                inversions++;
+            }
+        }
+
+        // equal neighbours in a sorted sample are repeated keys
+        int[] sample = new int[Math.min(SAMPLE_SIZE, length)];
+        for (int i = 0; i < sample.length; i++) {
+            sample[i] = data[samplePosition(i, sample.length, length, random)];
+        }
+        Arrays.sort(sample);
+        int duplicates = 0;
+        for (int i = 1; i < sample.length; i++) {
+            if (comparator.compare(sample[i - 1], sample[i]) == 0) {
+                duplicates++;
+            }
+        }
+
+        // the one full pass: a sampled range could miss the extremes
+        int min = data[0], max = data[0];
+        for (int value : data) {
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+        }
+        comparator.recordPass(0);
+
+        return new InputProfile(length, 1 + (double) descents / SAMPLE_SIZE * (length - 1),
+                                (double) inversions / SAMPLE_SIZE, (double) duplicates / (sample.length - 1),
+                                (long) max - min);
+    }
+
+    /**
+     * Profiles an array of objects. The key range is only known for Integers,
+     * and is found with a full pass as for ints.
+     *
+     * @param data the array to profile
+     * @return the profile of the array
+     */
+    public static <T extends Comparable<T>> InputProfile of(T[] data) {
+        return of(data, new MonitoredComparator<>());
+    }
+
+    /**
+     * Profiles an array of objects, counting the comparisons made.
+     *
+     * @param data the array to profile
+     * @param comparator the MonitoredComparator tracking comparisons
+     * @return the profile of the array
+     */
+    static <T extends Comparable<T>> InputProfile of(T[] data, MonitoredComparator<T> comparator) {
+        int length = data.length;
+        if (length < 2) {
+            return new InputProfile(length, length, 0, 0, data instanceof Integer[] ? 0 : -1);
+        }
+        SplittableRandom random = new SplittableRandom(SAMPLE_SEED);
+
+        // descents between neighbours start new runs
+        int descents = 0;
+        for (int i = 0; i < SAMPLE_SIZE; i++) {
+            int index = random.nextInt(length - 1);
+            if (comparator.compare(data[index], data[index + 1]) > 0) {
+                descents++;
+            }
+        }
+
+        // pairs out of order anywhere in the array are inversions
+        int inversions = 0;
+        for (int i = 0; i < SAMPLE_SIZE; i++) {
+            int first = random.nextInt(length - 1);
+            int second = first + 1 + random.nextInt(length - first - 1);
+            if (comparator.compare(data[first], data[second]) > 0) {
+                inversions++;
+            }
+        }
+
+        // equal neighbours in a sorted sample are repeated keys
+        Object[] sample = new Object[Math.min(SAMPLE_SIZE, length)];
+        for (int i = 0; i < sample.length; i++) {
+            sample[i] = data[samplePosition(i, sample.length, length, random)];
+        }
+        Arrays.sort(sample);
+        int duplicates = 0;
+        for (int i = 1; i < sample.length; i++) {
+            @SuppressWarnings("unchecked")
+            T previous = (T) sample[i - 1];
+            @SuppressWarnings("unchecked")
+            T current = (T) sample[i];
+            if (comparator.compare(previous, current) == 0) {
+                duplicates++;
+            }
+        }
+
+        long keyRange = -1;
+        if (data instanceof Integer[]) {
+            // the one full pass: a sampled range could miss the extremes
+            int min = Integer.MAX_VALUE, max = Integer.MIN_VALUE;
+            for (T value : data) {
+                min = Math.min(min, (Integer) value);
+                max = Math.max(max, (Integer) value);
+            }
+            comparator.recordPass(0);
+            keyRange = (long) max - min;
+        }
+
+        return new InputProfile(length, 1 + (double) descents / SAMPLE_SIZE * (length - 1),
+                                (double) inversions / SAMPLE_SIZE, (double) duplicates / (sample.length - 1),
+                                keyRange);
+    }
+
+    /**
+     * Picks a random position within the i-th of count equal slices of the
+     * input, so no position is sampled twice and repeated keys in the
+     * sample are repeated in the input too.
+     *
+     * @param i the index of the slice
+     * @param count the number of slices
+     * @param length the length of the input
+     * @param random the source of randomness
+     * @return the sampled position
+     */
+    private static int samplePosition(int i, int count, int length, SplittableRandom random) {
+        int start = (int) ((long) i * length / count);
+        int end = (int) ((long) (i + 1) * length / count);
+        return start + random.nextInt(end - start);
+    }
+
+    /**
+     * Gets the number of elements.
+     *
+     * @return the size of the input
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Gets the estimated number of ascending runs, 1 for sorted input and
+     * close to the size for input in reverse order.
+     *
+     * @return the estimated number of runs
+     */
+    public double getRuns() {
+        return runs;
+    }
+
+    /**
+     * Gets the estimated average length of the ascending runs.
+     *
+     * @return the size divided by the number of runs
+     */
+    public double getAverageRunLength() {
+        return runs == 0 ? 0 : size / runs;
+    }
+
+    /**
+     * Gets the estimated fraction of pairs of elements that are out of
+     * order: 0 for sorted input, about 0.5 for random input and 1 for input
+     * in reverse order.
+     *
+     * @return the estimated inversion ratio
+     */
+    public double getInversionRatio() {
+        return inversionRatio;
+    }
+
+    /**
+     * Gets the estimated fraction of keys equal to another key, from 0 when
+     * every key is distinct to almost 1 when there are only a few keys.
+     *
+     * @return the estimated duplicate ratio
+     */
+    public double getDuplicateRatio() {
+        return duplicateRatio;
+    }
+
+    /**
+     * Gets the largest key minus the smallest.
+     *
+     * @return the key range, or -1 if the keys are not integers
+     */
+    public long getKeyRange() {
+        return keyRange;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("size=%d, runs=%.0f, inversionRatio=%.3f, duplicateRatio=%.3f, keyRange=%d",
+                             size, runs, inversionRatio, duplicateRatio, keyRange);
+    }
+}
@@ -0,0 +1,345 @@
+package helpers;
+
+import java.util.Arrays;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * KeySorting sorts by key without moving the sorted elements themselves.
+ * The argsort methods return the permutation that would sort the data, as
+ * an int[] of indexes, so sorting large records only moves 4-byte indexes
+ * and the records stay where they are. The key extractor versions read a
+ * primitive key from every element once, so no comparison goes through
+ * compareTo. The sortByKey methods sort parallel primitive key and payload
+ * arrays together.
+ *
+ * All the sorts are stable merge sorts: elements with equal keys keep
+ * their order. Like the array sorts, they count their comparisons and
+ * moves with a MonitoredComparator published when they finish; the moves
+ * are moves of indexes.
+ *
+ * @author JaniOC
+ */
+public class KeySorting {
+    // Length of the runs sorted with insertion sort before merging
+    private static final int INSERTION_RUN_LENGTH = 16;
+
+    /**
+     * Compares the keys at two indexes, counting the comparison.
+     */
+    private interface IndexComparator {
+        int compare(int index1, int index2);
+    }
+
+    /**
+     * Returns the permutation that sorts the specified array of objects by
+     * their natural order. Element order[i] of the result is the index of
+     * the element that belongs at position i.
+     *
+     * @param data the array to sort by, left unchanged
+     * @return the sorted permutation of the indexes of data
+     */
+    public static <T extends Comparable<T>>
+    int[] argsort(T[] data) {
+        MonitoredComparator<T> comparator = new MonitoredComparator<>();
+        int[] order = sortIndexes(data.length, (index1, index2) -> comparator.compare(data[index1], data[index2]),
+                                  comparator);
+        comparator.publish();
+        return order;
+    }
+
+    /**
+     * Returns the permutation that sorts the specified array of objects by
+     * an int key. The key of every element is extracted once.
+     *
+     * @param data the array to sort by, left unchanged
+     * @param key  extracts the key of an element
+     * @return the sorted permutation of the indexes of data
+     */
+    public static <T> int[] argsortByInt(T[] data, ToIntFunction<? super T> key) {
+        int[] keys = new int[data.length];
+        for (int index = 0; index < data.length; index++) {
+            keys[index] = key.applyAsInt(data[index]);
+        }
+        return argsort(keys);
+    }
+
+    /**
+     * Returns the permutation that sorts the specified array of objects by
+     * a long key. The key of every element is extracted once.
+     *
+     * @param data the array to sort by, left unchanged
+     * @param key  extracts the key of an element
+     * @return the sorted permutation of the indexes of data
+     */
+    public static <T> int[] argsortByLong(T[] data, ToLongFunction<? super T> key) {
+        long[] keys = new long[data.length];
+        for (int index = 0; index < data.length; index++) {
+            keys[index] = key.applyAsLong(data[index]);
+        }
+        return argsort(keys);
+    }
+
+    /**
+     * Returns the permutation that sorts the specified array of objects by
+     * a double key, in the order of Double.compare. The key of every element
+     * is extracted once.
+     *
+     * @param data the array to sort by, left unchanged
+     * @param key  extracts the key of an element
+     * @return the sorted permutation of the indexes of data
+     */
+    public static <T> int[] argsortByDouble(T[] data, ToDoubleFunction<? super T> key) {
+        double[] keys = new double[data.length];
+        for (int index = 0; index < data.length; index++) {
+            keys[index] = key.applyAsDouble(data[index]);
+        }
+        return argsort(keys);
+    }
+
+    /**
+     * Returns the permutation that sorts the specified array of int keys.
+     *
+     * @param keys the keys to sort by, left unchanged
+     * @return the sorted permutation of the indexes of keys
+     */
+    public static int[] argsort(int[] keys) {
+        MonitoredComparator<Integer> comparator = new MonitoredComparator<>();
+        int[] order = sortIndexes(keys.length, (index1, index2) -> comparator.compare(keys[index1], keys[index2]),
+                                  comparator);
+        comparator.publish();
+        return order;
+    }
+
+    /**
+     * Returns the permutation that sorts the specified array of long keys.
+     *
+     * @param keys the keys to sort by, left unchanged
+     * @return the sorted permutation of the indexes of keys
+     */
+    public static int[] argsort(long[] keys) {
+        MonitoredComparator<Long> comparator = new MonitoredComparator<>();
+        int[] order = sortIndexes(keys.length, (index1, index2) -> comparator.compare(keys[index1], keys[index2]),
+                                  comparator);
+        comparator.publish();
+        return order;
+    }
+
+    /**
+     * Returns the permutation that sorts the specified array of double keys,
+     * in the order of Double.compare.
+     *
+     * @param keys the keys to sort by, left unchanged
+     * @return the sorted permutation of the indexes of keys
+     */
+    public static int[] argsort(double[] keys) {
+        MonitoredComparator<Double> comparator = new MonitoredComparator<>();
+        int[] order = sortIndexes(keys.length, (index1, index2) -> comparator.compare(keys[index1], keys[index2]),
+                                  comparator);
+        comparator.publish();
+        return order;
+    }
+
+    /**
+     * Sorts parallel arrays of int keys and int payloads by key. The payload
+     * at each index moves together with the key at that index, and entries
+     * with equal keys keep their order.
+     *
+     * @param keys     the keys to sort
+     * @param payloads the payloads to reorder along with the keys
+     * @throws IllegalArgumentException if the arrays differ in length
+     */
+    public static void sortByKey(int[] keys, int[] payloads) {
+        checkLengths(keys.length, payloads.length);
+        MonitoredComparator<Integer> comparator = new MonitoredComparator<>();
+        int[] order = sortIndexes(keys.length, (index1, index2) -> comparator.compare(keys[index1], keys[index2]),
+                                  comparator);
+        System.arraycopy(gather(keys, order), 0, keys, 0, keys.length);
+        System.arraycopy(gather(payloads, order), 0, payloads, 0, payloads.length);
+        comparator.recordMoves(2L * order.length);
+        comparator.publish();
+    }
+
+    /**
+     * Sorts parallel arrays of long keys and long payloads by key. The
+     * payload at each index moves together with the key at that index, and
+     * entries with equal keys keep their order.
+     *
+     * @param keys     the keys to sort
+     * @param payloads the payloads to reorder along with the keys
+     * @throws IllegalArgumentException if the arrays differ in length
+     */
+    public static void sortByKey(long[] keys, long[] payloads) {
+        checkLengths(keys.length, payloads.length);
+        MonitoredComparator<Long> comparator = new MonitoredComparator<>();
+        int[] order = sortIndexes(keys.length, (index1, index2) -> comparator.compare(keys[index1], keys[index2]),
+                                  comparator);
+        System.arraycopy(gather(keys, order), 0, keys, 0, keys.length);
+        System.arraycopy(gather(payloads, order), 0, payloads, 0, payloads.length);
+        comparator.recordMoves(2L * order.length);
+        comparator.publish();
+    }
+
+    /**
+     * Sorts parallel arrays of long keys and int payloads by key, such as
+     * keys with the indexes of the records they belong to. Entries with
+     * equal keys keep their order.
+     *
+     * @param keys     the keys to sort
+     * @param payloads the payloads to reorder along with the keys
+     * @throws IllegalArgumentException if the arrays differ in length
+     */
+    public static void sortByKey(long[] keys, int[] payloads) {
+        checkLengths(keys.length, payloads.length);
+        MonitoredComparator<Long> comparator = new MonitoredComparator<>();
+        int[] order = sortIndexes(keys.length, (index1, index2) -> comparator.compare(keys[index1], keys[index2]),
+                                  comparator);
+        System.arraycopy(gather(keys, order), 0, keys, 0, keys.length);
+        System.arraycopy(gather(payloads, order), 0, payloads, 0, payloads.length);
+        comparator.recordMoves(2L * order.length);
+        comparator.publish();
+    }
+
+    /**
+     * Copies the elements of an array into a new array in the order of a
+     * permutation, such as one returned by argsort.
+     *
+     * @param data  the array to reorder, left unchanged
+     * @param order the indexes of data in their new order
+     * @return a new array whose element i is data[order[i]]
+     */
+    public static <T> T[] permute(T[] data, int[] order) {
+        checkLengths(data.length, order.length);
+        T[] permuted = Arrays.copyOf(data, data.length);
+        for (int index = 0; index < order.length; index++) {
+            permuted[index] = data[order[index]];
+        }
+        return permuted;
+    }
+
+    /**
+     * Sorts the indexes 0 to length - 1 by their keys with a bottom-up
+     * merge sort. Runs of INSERTION_RUN_LENGTH indexes are first sorted with
+     * insertion sort and then merged back and forth between two index
+     * arrays, so the indexes are never copied back.
+     *
+     * @param length  the number of indexes
+     * @param keys    compares the keys at two indexes
+     * @param counter the MonitoredComparator tracking the moves
+     * @return the sorted indexes
+     */
+    private static int[] sortIndexes(int length, IndexComparator keys, MonitoredComparator<?> counter) {
+        int[] source = new int[length];
+        for (int index = 0; index < length; index++) {
+            source[index] = index;
+        }
+        for (int first = 0; first < length; first += INSERTION_RUN_LENGTH) {
+            insertionSort(source, first, Math.min(first + INSERTION_RUN_LENGTH, length) - 1, keys, counter);
+        }
+
+        int[] destination = new int[length];
+        for (int width = INSERTION_RUN_LENGTH; width < length; width *= 2) {
+            for (int first = 0; first < length; first += 2 * width) {
+                int mid = Math.min(first + width - 1, length - 1);
+                int last = Math.min(first + 2 * width - 1, length - 1);
+                merge(source, destination, first, mid, last, keys);
+            }
+            counter.recordMoves(length);
+            int[] temp = source;
+            source = destination;
+            destination = temp;
+        }
+        return source;
+    }
+
+    /**
+     * Sorts a range of indexes by their keys with insertion sort.
+     *
+     * @param order   the indexes to sort
+     * @param min     the position of the first index
+     * @param max     the position of the last index
+     * @param keys    compares the keys at two indexes
+     * @param counter the MonitoredComparator tracking the moves
+     */
+    private static void insertionSort(int[] order, int min, int max, IndexComparator keys,
+                                      MonitoredComparator<?> counter) {
+        for (int position = min + 1; position <= max; position++) {
+            int index = order[position];
+            int insert = position;
+            while (insert > min && keys.compare(order[insert - 1], index) > 0) {
+                order[insert] = order[insert - 1];
+                counter.recordMoves(1);
+                insert--;
+            }
+            order[insert] = index;
+        }
+    }
+
+    /**
+     * Merges two sorted ranges of indexes into the same positions of the
+     * destination. Indexes with equal keys are taken from the first range
+     * first, so the merge is stable.
+     *
+     * @param source      the indexes holding the two sorted ranges
+     * @param destination the indexes the merged range is written to
+     * @param first       the position of the first range
+     * @param mid         the position of the last index of the first range
+     * @param last        the position of the last index of the second range
+     * @param keys        compares the keys at two indexes
+     */
+    private static void merge(int[] source, int[] destination, int first, int mid, int last, IndexComparator keys) {
+        int index1 = first, index2 = mid + 1;
+        for (int index = first; index <= last; index++) {
+            if (index2 > last || (index1 <= mid && keys.compare(source[index1], source[index2]) <= 0)) {
+                destination[index] = source[index1++];
+            } else {
+                destination[index] = source[index2++];
+            }
+        }
+    }
+
+    /**
+     * Copies an array of ints in the order of a permutation.
+     *
+     * @param data  the array to reorder
+     * @param order the indexes of data in their new order
+     * @return a new array whose element i is data[order[i]]
+     */
+    private static int[] gather(int[] data, int[] order) {
+        int[] gathered = new int[order.length];
+        for (int index = 0; index < order.length; index++) {
+            gathered[index] = data[order[index]];
+        }
+        return gathered;
+    }
+
+    /**
+     * Copies an array of longs in the order of a permutation.
+     *
+     * @param data  the array to reorder
+     * @param order the indexes of data in their new order
+     * @return a new array whose element i is data[order[i]]
+     */
+    private static long[] gather(long[] data, int[] order) {
+        long[] gathered = new long[order.length];
+        for (int index = 0; index < order.length; index++) {
+            gathered[index] = data[order[index]];
+        }
+        return gathered;
+    }
+
+    /**
+     * Checks that two parallel arrays are equally long.
+     *
+     * @param length1 the length of the first array
+     * @param length2 the length of the second array
+     * @throws IllegalArgumentException if the lengths differ
+     */
+    private static void checkLengths(int length1, int length2) {
+        if (length1 != length2) {
+            throw new IllegalArgumentException("Arrays of lengths " + length1 + " and " + length2
+                    + " cannot be sorted together");
+        }
+    }
+}
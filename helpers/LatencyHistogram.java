@@ -0,0 +1,280 @@
+package helpers;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * A latency histogram in the style of HdrHistogram. Values are counted in
+ * buckets whose width grows with the value, so every recorded value is
+ * kept to a fixed number of significant decimal digits whatever its size,
+ * and recording costs the same for a nanosecond as for an hour. The
+ * histogram can be written in the percentile distribution format of
+ * HdrHistogram (.hgrm), which its plotting tools read.
+ *
+ * <p>Each bucket holds subBucketCount values: the first bucket covers 0 up
+ * to subBucketCount with a width of 1, and every following bucket covers
+ * twice the range of the one before in the top half of its sub-buckets,
+ * with twice their width. Buckets are added as larger values are recorded.
+ *
+ * @author JaniOC
+ */
+public class LatencyHistogram {
+    // Number of significant decimal digits kept when none is given
+    public static final int DEFAULT_SIGNIFICANT_DIGITS = 2;
+
+    // Percentile rows per halving of the distance to 100% in the output
+    private static final int TICKS_PER_HALF_DISTANCE = 5;
+
+    private final int significantDigits;
+    private final int subBucketBits;
+    private final int subBucketHalfCount;
+
+    private long[] counts;
+    private long totalCount;
+    private long min = Long.MAX_VALUE;
+    private long max;
+    private double sum;
+    private double sumOfSquares;
+
+    /**
+     * Constructs an empty histogram keeping DEFAULT_SIGNIFICANT_DIGITS
+     * significant digits.
+     */
+    public LatencyHistogram() {
+        this(DEFAULT_SIGNIFICANT_DIGITS);
+    }
+
+    /**
+     * Constructs an empty histogram.
+     *
+     * @param significantDigits the number of significant decimal digits
+     *                          kept of every value, from 1 to 5
+     * @throws IllegalArgumentException if the number of digits is out of range
+     */
+    public LatencyHistogram(int significantDigits) {
+        if (significantDigits < 1 || significantDigits > 5) {
+            throw new IllegalArgumentException("Significant digits must be between 1 and 5: " + significantDigits);
+        }
+        this.significantDigits = significantDigits;
+
+        // the sub-buckets must tell apart values one unit of the last digit apart
+        long largestSingleUnit = 2 * (long) Math.pow(10, significantDigits);
+        this.subBucketBits = 64 - Long.numberOfLeadingZeros(largestSingleUnit - 1);
+        this.subBucketHalfCount = 1 << (subBucketBits - 1);
+        this.counts = new long[2 * subBucketHalfCount];
+    }
+
+    /**
+     * Records a value.
+     *
+     * @param value the value, such as a duration in nanoseconds
+     * @throws IllegalArgumentException if the value is negative
+     */
+    public void record(long value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("Negative values cannot be recorded: " + value);
+        }
+        int index = indexOf(value);
+        if (index >= counts.length) {
+            counts = Arrays.copyOf(counts, index + subBucketHalfCount);
+        }
+        counts[index]++;
+        totalCount++;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+        sum += value;
+        sumOfSquares += (double) value * value;
+    }
+
+    /**
+     * Adds every value recorded by another histogram to this one.
+     *
+     * @param other a histogram keeping the same number of significant digits
+     * @throws IllegalArgumentException if the histograms keep different digits
+     */
+    public void add(LatencyHistogram other) {
+        if (other.significantDigits != significantDigits) {
+            throw new IllegalArgumentException("Histograms of " + other.significantDigits + " and "
+                    + significantDigits + " significant digits cannot be added");
+        }
+        if (other.counts.length > counts.length) {
+            counts = Arrays.copyOf(counts, other.counts.length);
+        }
+        for (int index = 0; index < other.counts.length; index++) {
+            counts[index] += other.counts[index];
+        }
+        totalCount += other.totalCount;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+        sum += other.sum;
+        sumOfSquares += other.sumOfSquares;
+    }
+
+    /**
+     * Gets the number of recorded values.
+     *
+     * @return the number of values
+     */
+    public long getTotalCount() {
+        return totalCount;
+    }
+
+    /**
+     * Gets the smallest recorded value, exactly.
+     *
+     * @return the smallest value, or 0 if nothing was recorded
+     */
+    public long getMin() {
+        return totalCount == 0 ? 0 : min;
+    }
+
+    /**
+     * Gets the largest recorded value, exactly.
+     *
+     * @return the largest value, or 0 if nothing was recorded
+     */
+    public long getMax() {
+        return max;
+    }
+
+    /**
+     * Gets the mean of the recorded values, exactly.
+     *
+     * @return the mean, or 0 if nothing was recorded
+     */
+    public double getMean() {
+        return totalCount == 0 ? 0 : sum / totalCount;
+    }
+
+    /**
+     * Gets the standard deviation of the recorded values.
+     *
+     * @return the standard deviation, or 0 if nothing was recorded
+     */
+    public double getStdDeviation() {
+        if (totalCount == 0) {
+            return 0;
+        }
+        double mean = getMean();
+        return Math.sqrt(Math.max(0, sumOfSquares / totalCount - mean * mean));
+    }
+
+    /**
+     * Gets the value at a percentile with the nearest-rank method, to the
+     * precision of the histogram: the largest value that falls in the same
+     * sub-bucket as the value of that rank, but never more than the largest
+     * recorded value.
+     *
+     * @param percentile the percentile, from 0 to 100
+     * @return the value at the percentile, or 0 if nothing was recorded
+     */
+    public long getValueAtPercentile(double percentile) {
+        if (totalCount == 0) {
+            return 0;
+        }
+        int index = indexAtRank(rankOf(percentile));
+        return Math.min(highestEquivalentValue(index), max);
+    }
+
+    /**
+     * Writes the percentile distribution of the histogram in the .hgrm
+     * format of HdrHistogram: one row per percentile, closer together
+     * towards 100%, followed by the mean, maximum and count.
+     *
+     * @param out the destination of the text
+     * @param unitScale the number of recorded units per output unit, such
+     *                  as 1000.0 to write nanoseconds as microseconds
+     * @throws IOException if the text cannot be written
+     */
+    public void outputPercentileDistribution(Appendable out, double unitScale) throws IOException {
+        String value = "%12." + significantDigits + "f";
+        out.append(String.format("%12s %14s %10s %14s%n%n", "Value", "Percentile", "TotalCount", "1/(1-Percentile)"));
+
+        if (totalCount > 0) {
+            double percentile = 0;
+            while (rankOf(percentile) < totalCount) {
+                int index = indexAtRank(rankOf(percentile));
+                out.append(String.format(value + " %2.12f %10d %14.2f%n",
+                        Math.min(highestEquivalentValue(index), max) / unitScale, percentile / 100,
+                        countUpTo(index), 1 / (1 - percentile / 100)));
+
+                // halve the step every time the distance to 100% halves
+                double halvings = Math.floor(Math.log(100 / (100 - percentile)) / Math.log(2)) + 1;
+                percentile += 100 / (TICKS_PER_HALF_DISTANCE * Math.pow(2, halvings));
+            }
+            out.append(String.format(value + " %2.12f %10d%n", max / unitScale, 1.0, totalCount));
+        }
+
+        out.append(String.format("#[Mean    = " + value + ", StdDeviation   = " + value + "]%n",
+                getMean() / unitScale, getStdDeviation() / unitScale));
+        out.append(String.format("#[Max     = " + value + ", Total count    = %12d]%n",
+                max / unitScale, totalCount));
+        out.append(String.format("#[Buckets = %12d, SubBuckets     = %12d]%n",
+                counts.length / subBucketHalfCount - 1, 2 * subBucketHalfCount));
+    }
+
+    /**
+     * Finds the counter of a value.
+     *
+     * @param value the value
+     * @return the index of its counter
+     */
+    private int indexOf(long value) {
+        int bucket = Math.max(0, 64 - Long.numberOfLeadingZeros(value) - subBucketBits);
+        return bucket * subBucketHalfCount + (int) (value >>> bucket);
+    }
+
+    /**
+     * Calculates the largest value counted by a counter.
+     *
+     * @param index the index of the counter
+     * @return the largest value of the counter
+     */
+    private long highestEquivalentValue(int index) {
+        int bucket = Math.max(0, index / subBucketHalfCount - 1);
+        long lowest = (long) (index - bucket * subBucketHalfCount) << bucket;
+        return lowest + (1L << bucket) - 1;
+    }
+
+    /**
+     * Calculates the nearest rank of a percentile.
+     *
+     * @param percentile the percentile, from 0 to 100
+     * @return the rank, from 1 to the number of values
+     */
+    private long rankOf(double percentile) {
+        long rank = (long) Math.ceil(Math.min(100, Math.max(0, percentile)) / 100 * totalCount);
+        return Math.max(1, rank);
+    }
+
+    /**
+     * Finds the counter holding the value of a rank.
+     *
+     * @param rank the rank, from 1 to the number of values
+     * @return the index of the counter
+     */
+    private int indexAtRank(long rank) {
+        long seen = 0;
+        for (int index = 0; index < counts.length; index++) {
+            seen += counts[index];
+            if (seen >= rank) {
+                return index;
+            }
+        }
+        return counts.length - 1;
+    }
+
+    /**
+     * Counts the values up to and including a counter.
+     *
+     * @param index the index of the last counter
+     * @return the number of values
+     */
+    private long countUpTo(int index) {
+        long count = 0;
+        for (int i = 0; i <= index; i++) {
+            count += counts[i];
+        }
+        return count;
+    }
+}
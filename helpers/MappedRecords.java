@@ -0,0 +1,150 @@
+package helpers;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * MappedRecords is a file of fixed-width int or long records mapped into
+ * memory, which IndexedSorting can sort in place. Records are read and
+ * written straight through the mapping, so nothing is parsed or copied
+ * onto the heap and the operating system's page cache does the I/O.
+ *
+ * <p>A single MappedByteBuffer is limited to 2 GB, so the file is mapped
+ * in segments. Segments are a multiple of the record size, so a record
+ * never spans two of them.
+ *
+ * @author JaniOC
+ */
+public class MappedRecords implements IndexedSortable, AutoCloseable {
+    // Size of each mapped segment, 1 GB
+    private static final int DEFAULT_SEGMENT_BYTES = 1 << 30;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer[] segments;
+    private final int recordBytes;
+    private final int segmentShift;
+    private final long segmentMask;
+    private final long size;
+
+    /**
+     * Maps the records of the specified file for reading and writing.
+     *
+     * @param file   the file to map
+     * @param format the record format of the file, binaryInt or binaryLong
+     * @throws IOException if the file cannot be mapped or does not hold
+     *                     whole records
+     */
+    public MappedRecords(Path file, RecordFormat format) throws IOException {
+        this(file, format, DEFAULT_SEGMENT_BYTES);
+    }
+
+    /**
+     * Maps the records of the specified file in segments of the given size.
+     *
+     * @param file   the file to map
+     * @param format the record format of the file, binaryInt or binaryLong
+     * @param segmentBytes the size of each segment, a power of two of at
+     *                     least 8 bytes and at most 1 GB
+     * @throws IOException if the file cannot be mapped or does not hold
+     *                     whole records
+     */
+    MappedRecords(Path file, RecordFormat format, int segmentBytes) throws IOException {
+        if (format.getRecordBytes() == 0) {
+            throw new IllegalArgumentException("Only fixed-width records can be mapped: " + format.getName());
+        }
+        if (Integer.bitCount(segmentBytes) != 1 || segmentBytes < Long.BYTES) {
+            throw new IllegalArgumentException("Segment size must be a power of two of at least 8: " + segmentBytes);
+        }
+        this.recordBytes = format.getRecordBytes();
+        this.segmentShift = Integer.numberOfTrailingZeros(segmentBytes);
+        this.segmentMask = segmentBytes - 1;
+
+        this.channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            long bytes = channel.size();
+            if (bytes % recordBytes != 0) {
+                throw new IOException("File size " + bytes + " is not a multiple of the "
+                        + recordBytes + "-byte record size");
+            }
+            this.size = bytes / recordBytes;
+
+            int count = (int) ((bytes + segmentMask) >>> segmentShift);
+            this.segments = new MappedByteBuffer[count];
+            for (int segment = 0; segment < count; segment++) {
+                long position = (long) segment << segmentShift;
+                long length = Math.min(segmentBytes, bytes - position);
+                segments[segment] = channel.map(FileChannel.MapMode.READ_WRITE, position, length);
+            }
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    @Override
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Gets the record at the specified index.
+     *
+     * @param index the index of the record
+     * @return the record, widened to a long
+     */
+    public long get(long index) {
+        long position = index * recordBytes;
+        MappedByteBuffer segment = segments[(int) (position >>> segmentShift)];
+        int offset = (int) (position & segmentMask);
+        return recordBytes == Integer.BYTES ? segment.getInt(offset) : segment.getLong(offset);
+    }
+
+    /**
+     * Sets the record at the specified index.
+     *
+     * @param index the index of the record
+     * @param value the new record, narrowed to an int for int records
+     */
+    public void set(long index, long value) {
+        long position = index * recordBytes;
+        MappedByteBuffer segment = segments[(int) (position >>> segmentShift)];
+        int offset = (int) (position & segmentMask);
+        if (recordBytes == Integer.BYTES) {
+            segment.putInt(offset, (int) value);
+        } else {
+            segment.putLong(offset, value);
+        }
+    }
+
+    @Override
+    public int compare(long index1, long index2) {
+        return Long.compare(get(index1), get(index2));
+    }
+
+    @Override
+    public void swap(long index1, long index2) {
+        long temp = get(index1);
+        set(index1, get(index2));
+        set(index2, temp);
+    }
+
+    /**
+     * Writes the changed records back to the file and closes it. The
+     * mappings are released once they are garbage collected.
+     *
+     * @throws IOException if the file cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            for (MappedByteBuffer segment : segments) {
+                segment.force();
+            }
+        } finally {
+            channel.close();
+        }
+    }
+}
@@ -1,14 +1,65 @@
 package helpers;
 
+import java.lang.reflect.Array;
+
 /**
  * A comparator that tracks the number of comparisons made during the comparison
- * process. It increments a shared static counter each time a comparison is made.
+ * process, along with the swaps, element moves, recursion depth and, for the
+ * non-comparison sorts, passes and bytes moved reported to it by the sorting
+ * algorithms.
+ *
+ * <p>Each sort invocation creates its own instance, so its counters are plain
+ * fields that are never shared between threads. Parallel sorts give every
+ * task its own instance with {@link #fork()} and add it back with
+ * {@link #join(MonitoredComparator)} once the task is done. When a sort
+ * finishes it publishes its metrics for the calling thread, where they can
+ * be read with {@link #getLastMetrics()}. The array sorts publish with the
+ * array they sorted, which also records the invocation as a SortEvent for
+ * JDK Flight Recorder when a recording is running.
+ *
+ * <p>Counting can be turned off with -Dhelpers.counting=false. The switch is
+ * a static final field, which the JIT compiler treats as a constant, so
+ * with counting off every counter update is compiled out and a compare
+ * costs no more than the comparison itself. All the metrics are then zero.
  *
  * @author JaniOC
  */
 public class MonitoredComparator<T extends Comparable<T>> {
-    // Shared counter across all instances
-    private static long comparisonCount = 0;
+    // Whether the counters are updated, read once when the class is loaded
+    public static final boolean COUNTING = Boolean.parseBoolean(System.getProperty("helpers.counting", "true"));
+
+    // Metrics of the last run published on each thread
+    private static final ThreadLocal<SortMetrics> lastMetrics =
+            ThreadLocal.withInitial(() -> SortMetrics.EMPTY);
+
+    private long comparisonCount = 0;
+    private long swapCount = 0;
+    private long readCount = 0;
+    private long writeCount = 0;
+    private int depth = 0;
+    private int maxDepth = 0;
+    private long passCount = 0;
+    private long bytesMoved = 0;
+
+    // Flight Recorder event of the sort invocation, or null for a subtask comparator
+    private final SortEvent event;
+
+    /**
+     * Creates a comparator for one sort invocation, and begins its SortEvent.
+     */
+    public MonitoredComparator() {
+        event = new SortEvent();
+        event.begin();
+    }
+
+    /**
+     * Creates a comparator with the given event.
+     *
+     * @param event the event of the sort invocation, or null for a subtask
+     */
+    private MonitoredComparator(SortEvent event) {
+        this.event = event;
+    }
 
     /**
      * Compares two objects and increments the comparison count.
@@ -19,23 +70,258 @@ public class MonitoredComparator<T extends Comparable<T>> {
      *         is less than, equal to, or greater than the second object
      */
     public int compare(T o1, T o2) {
-        comparisonCount++; // Increment the shared counter
+        if (COUNTING) {
+            comparisonCount++;
+        }
         return o1.compareTo(o2);
     }
 
     /**
-     * Returns the total number of comparisons made since the last reset.
+     * Compares two int values and increments the comparison count. Used by
+     * the primitive sorts so that no boxing happens per comparison.
+     *
+     * @param o1 the first value to compare
+     * @param o2 the second value to compare
+     * @return a negative integer, zero, or a positive integer as the first value
+     *         is less than, equal to, or greater than the second value
+     */
+    public int compare(int o1, int o2) {
+        if (COUNTING) {
+            comparisonCount++;
+        }
+        return Integer.compare(o1, o2);
+    }
+
+    /**
+     * Compares two long values and increments the comparison count.
+     *
+     * @param o1 the first value to compare
+     * @param o2 the second value to compare
+     * @return a negative integer, zero, or a positive integer as the first value
+     *         is less than, equal to, or greater than the second value
+     */
+    public int compare(long o1, long o2) {
+        if (COUNTING) {
+            comparisonCount++;
+        }
+        return Long.compare(o1, o2);
+    }
+
+    /**
+     * Compares two double values and increments the comparison count.
+     * Follows the total ordering of {@link Double#compare(double, double)}.
+     *
+     * @param o1 the first value to compare
+     * @param o2 the second value to compare
+     * @return a negative integer, zero, or a positive integer as the first value
+     *         is less than, equal to, or greater than the second value
+     */
+    public int compare(double o1, double o2) {
+        if (COUNTING) {
+            comparisonCount++;
+        }
+        return Double.compare(o1, o2);
+    }
+
+    /**
+     * Records a comparison made without this comparator, such as one made
+     * by an IndexedSortable on data that is not held in objects.
+     */
+    public void recordComparison() {
+        if (COUNTING) {
+            comparisonCount++;
+        }
+    }
+
+    /**
+     * Records a swap of two elements, which is two reads and two writes.
+     */
+    public void recordSwap() {
+        if (COUNTING) {
+            swapCount++;
+            readCount += 2;
+            writeCount += 2;
+        }
+    }
+
+    /**
+     * Records elements copied from one array slot to another, each of which
+     * is one read and one write.
+     *
+     * @param count the number of elements moved
+     */
+    public void recordMoves(long count) {
+        if (COUNTING) {
+            readCount += count;
+            writeCount += count;
+        }
+    }
+
+    /**
+     * Records a single array read of an element that is not compared.
+     */
+    public void recordRead() {
+        if (COUNTING) {
+            readCount++;
+        }
+    }
+
+    /**
+     * Records a single array write.
+     */
+    public void recordWrite() {
+        if (COUNTING) {
+            writeCount++;
+        }
+    }
+
+    /**
+     * Records a pass of a non-comparison sort over the data, and the bytes
+     * of keys it moved.
+     *
+     * @param bytes the number of bytes moved during the pass
+     */
+    public void recordPass(long bytes) {
+        if (COUNTING) {
+            passCount++;
+            bytesMoved += bytes;
+        }
+    }
+
+    /**
+     * Records entering one level deeper into a recursive algorithm.
+     */
+    public void enter() {
+        if (COUNTING) {
+            depth++;
+            if (depth > maxDepth) {
+                maxDepth = depth;
+            }
+        }
+    }
+
+    /**
+     * Records returning from one level of a recursive algorithm.
+     */
+    public void exit() {
+        if (COUNTING) {
+            depth--;
+        }
+    }
+
+    /**
+     * Creates a comparator for a parallel subtask. It starts with empty
+     * counters at the current recursion depth.
+     *
+     * @return a new comparator for the subtask
+     */
+    public MonitoredComparator<T> fork() {
+        MonitoredComparator<T> child = new MonitoredComparator<>(null);
+        child.depth = depth;
+        child.maxDepth = depth;
+        return child;
+    }
+
+    /**
+     * Adds the counts of a finished subtask comparator to this one.
+     *
+     * @param child a comparator created by {@link #fork()}
+     */
+    public void join(MonitoredComparator<T> child) {
+        comparisonCount += child.comparisonCount;
+        swapCount += child.swapCount;
+        readCount += child.readCount;
+        writeCount += child.writeCount;
+        maxDepth = Math.max(maxDepth, child.maxDepth);
+        passCount += child.passCount;
+        bytesMoved += child.bytesMoved;
+    }
+
+    /**
+     * Adds the metrics of a separately finished sort to this comparator,
+     * for operations that are built from several sorts.
+     *
+     * @param metrics the metrics to add
+     */
+    public void add(SortMetrics metrics) {
+        comparisonCount += metrics.getComparisons();
+        swapCount += metrics.getSwaps();
+        readCount += metrics.getReads();
+        writeCount += metrics.getWrites();
+        maxDepth = Math.max(maxDepth, depth + metrics.getMaxDepth());
+        passCount += metrics.getPasses();
+        bytesMoved += metrics.getBytesMoved();
+    }
+
+    /**
+     * Returns a snapshot of the counts recorded by this comparator.
+     *
+     * @return the metrics of this comparator
+     */
+    public SortMetrics getMetrics() {
+        return new SortMetrics(comparisonCount, swapCount, readCount, writeCount, maxDepth,
+                passCount, bytesMoved);
+    }
+
+    /**
+     * Publishes the metrics of this comparator as the last run of the
+     * current thread. Called by the sorting algorithms when they finish.
+     */
+    public void publish() {
+        lastMetrics.set(getMetrics());
+    }
+
+    /**
+     * Publishes the metrics of this comparator as the last run of the
+     * current thread, and commits the SortEvent of the sort if a recording
+     * wants it. The algorithm of the event is the name of the method that
+     * published, which is only looked up while recording.
+     *
+     * @param data the array that was sorted
+     */
+    public void publish(Object data) {
+        publish();
+        if (event == null) {
+            return;
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.algorithm = StackWalker.getInstance()
+                    .walk(frames -> frames.skip(1).findFirst().map(StackWalker.StackFrame::getMethodName))
+                    .orElse(null);
+            event.elementType = data.getClass().getComponentType().getSimpleName();
+            event.distribution = SortEvent.getDistribution();
+            event.size = Array.getLength(data);
+            event.comparisons = comparisonCount;
+            event.swaps = swapCount;
+            event.maxDepth = maxDepth;
+            event.commit();
+        }
+    }
+
+    /**
+     * Returns the metrics of the last sort finished on the current thread.
+     *
+     * @return the metrics of the last run
+     */
+    public static SortMetrics getLastMetrics() {
+        return lastMetrics.get();
+    }
+
+    /**
+     * Returns the number of comparisons made by the last sort finished on
+     * the current thread.
      *
      * @return the number of comparisons made
      */
     public static long getComparisonCount() {
-        return comparisonCount;
+        return lastMetrics.get().getComparisons();
     }
 
     /**
-     * Resets the comparison count to zero.
+     * Resets the metrics of the last run on the current thread.
      */
     public static void resetComparisonCount() {
-        comparisonCount = 0;
+        lastMetrics.set(SortMetrics.EMPTY);
     }
 }
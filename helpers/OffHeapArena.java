@@ -0,0 +1,89 @@
+package helpers;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * An OffHeapArena owns the off-heap arrays allocated from it and ends
+ * their lifetime together: once the arena is closed, every one of its
+ * arrays throws IllegalStateException when used, instead of reading
+ * memory that may already have been freed. Use it in a try-with-resources
+ * block around the work that needs the arrays.
+ *
+ * <p>The arrays are direct ByteBuffers, as the Foreign Memory API is still
+ * an incubator module in Java 17. Closing the arena drops its references
+ * to them and the JVM frees the memory once the buffers are collected;
+ * their size is limited by -XX:MaxDirectMemorySize, which defaults to
+ * the maximum heap size.
+ *
+ * @author JaniOC
+ */
+public class OffHeapArena implements AutoCloseable {
+    private final List<OffHeapArray> arrays = new ArrayList<>();
+    private long allocatedBytes;
+    private boolean closed;
+
+    /**
+     * Allocates an off-heap array of int or long keys, filled with zeros.
+     *
+     * @param size   the number of keys, which may exceed Integer.MAX_VALUE
+     * @param format the key format, binaryInt or binaryLong
+     * @return the new array, valid until the arena is closed
+     * @throws IllegalStateException if the arena is closed
+     */
+    public OffHeapArray allocate(long size, RecordFormat format) {
+        return allocate(size, format, OffHeapArray.DEFAULT_SEGMENT_BYTES);
+    }
+
+    /**
+     * Allocates an off-heap array made of segments of the given size.
+     *
+     * @param size         the number of keys
+     * @param format       the key format, binaryInt or binaryLong
+     * @param segmentBytes the size of each segment, a power of two of at
+     *                     least 8 bytes and at most 1 GB
+     * @return the new array, valid until the arena is closed
+     * @throws IllegalStateException if the arena is closed
+     */
+    synchronized OffHeapArray allocate(long size, RecordFormat format, int segmentBytes) {
+        if (closed) {
+            throw new IllegalStateException("Off-heap arena is closed");
+        }
+        OffHeapArray array = new OffHeapArray(size, format, segmentBytes);
+        arrays.add(array);
+        allocatedBytes += size * format.getRecordBytes();
+        return array;
+    }
+
+    /**
+     * Gets the number of bytes allocated by the arrays of this arena.
+     *
+     * @return the allocated bytes, 0 once the arena is closed
+     */
+    public synchronized long getAllocatedBytes() {
+        return allocatedBytes;
+    }
+
+    /**
+     * Checks whether the arrays of this arena can still be used.
+     *
+     * @return true until the arena is closed
+     */
+    public synchronized boolean isOpen() {
+        return !closed;
+    }
+
+    /**
+     * Releases every array of this arena. Closing a closed arena does
+     * nothing.
+     */
+    @Override
+    public synchronized void close() {
+        closed = true;
+        for (OffHeapArray array : arrays) {
+            array.release();
+        }
+        arrays.clear();
+        allocatedBytes = 0;
+    }
+}
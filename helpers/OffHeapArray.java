@@ -0,0 +1,188 @@
+package helpers;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * OffHeapArray is an array of int or long keys stored outside the Java
+ * heap, allocated from an OffHeapArena. A key costs 4 or 8 bytes instead
+ * of the 16 to 20 of a boxed Integer in an array, and the garbage collector
+ * never scans or copies the keys. Indexes are longs, so an array can hold
+ * more than Integer.MAX_VALUE keys.
+ *
+ * <p>A single direct ByteBuffer is limited to 2 GB, so the keys are stored
+ * in segments, the same way as in MappedRecords. Segments are a multiple
+ * of the key size, so a key never spans two of them. Keys are stored in
+ * the native byte order.
+ *
+ * @author JaniOC
+ */
+public class OffHeapArray implements IndexedSortable {
+    // Size of each segment, 1 GB
+    static final int DEFAULT_SEGMENT_BYTES = 1 << 30;
+
+    private final RecordFormat format;
+    private final int recordBytes;
+    private final int segmentShift;
+    private final long segmentMask;
+    private final long size;
+
+    // Set to null when the arena is closed
+    private volatile ByteBuffer[] segments;
+
+    /**
+     * Allocates the segments of an off-heap array. Only called by
+     * OffHeapArena.
+     *
+     * @param size         the number of keys
+     * @param format       the key format, binaryInt or binaryLong
+     * @param segmentBytes the size of each segment, a power of two of at
+     *                     least 8 bytes and at most 1 GB
+     */
+    OffHeapArray(long size, RecordFormat format, int segmentBytes) {
+        if (format.getRecordBytes() == 0) {
+            throw new IllegalArgumentException("Only fixed-width keys can be stored off-heap: " + format.getName());
+        }
+        if (Integer.bitCount(segmentBytes) != 1 || segmentBytes < Long.BYTES) {
+            throw new IllegalArgumentException("Segment size must be a power of two of at least 8: " + segmentBytes);
+        }
+        if (size < 0) {
+            throw new IllegalArgumentException("Size must not be negative: " + size);
+        }
+        this.format = format;
+        this.recordBytes = format.getRecordBytes();
+        this.segmentShift = Integer.numberOfTrailingZeros(segmentBytes);
+        this.segmentMask = segmentBytes - 1;
+        this.size = size;
+
+        long bytes = size * recordBytes;
+        int count = (int) ((bytes + segmentMask) >>> segmentShift);
+        ByteBuffer[] allocated = new ByteBuffer[count];
+        for (int segment = 0; segment < count; segment++) {
+            long position = (long) segment << segmentShift;
+            int length = (int) Math.min(segmentBytes, bytes - position);
+            allocated[segment] = ByteBuffer.allocateDirect(length).order(ByteOrder.nativeOrder());
+        }
+        this.segments = allocated;
+    }
+
+    @Override
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Gets the format of the keys.
+     *
+     * @return binaryInt or binaryLong
+     */
+    public RecordFormat getFormat() {
+        return format;
+    }
+
+    /**
+     * Gets the size of the segments, so a scratch array can be laid out
+     * alike for copyFrom.
+     *
+     * @return the segment size in bytes
+     */
+    int getSegmentBytes() {
+        return (int) segmentMask + 1;
+    }
+
+    /**
+     * Gets the key at the specified index.
+     *
+     * @param index the index of the key
+     * @return the key, widened to a long
+     * @throws IllegalStateException if the arena of the array is closed
+     */
+    public long get(long index) {
+        long position = index * recordBytes;
+        ByteBuffer segment = segment(position);
+        int offset = (int) (position & segmentMask);
+        return recordBytes == Integer.BYTES ? segment.getInt(offset) : segment.getLong(offset);
+    }
+
+    /**
+     * Sets the key at the specified index.
+     *
+     * @param index the index of the key
+     * @param value the new key, narrowed to an int for int keys
+     * @throws IllegalStateException if the arena of the array is closed
+     */
+    public void set(long index, long value) {
+        long position = index * recordBytes;
+        ByteBuffer segment = segment(position);
+        int offset = (int) (position & segmentMask);
+        if (recordBytes == Integer.BYTES) {
+            segment.putInt(offset, (int) value);
+        } else {
+            segment.putLong(offset, value);
+        }
+    }
+
+    @Override
+    public int compare(long index1, long index2) {
+        return Long.compare(get(index1), get(index2));
+    }
+
+    @Override
+    public void swap(long index1, long index2) {
+        long temp = get(index1);
+        set(index1, get(index2));
+        set(index2, temp);
+    }
+
+    /**
+     * Copies every key of another array of the same size, format and
+     * segment size into this one, a segment at a time.
+     *
+     * @param source the array to copy
+     * @throws IllegalArgumentException if the arrays are not laid out alike
+     * @throws IllegalStateException if the arena of either array is closed
+     */
+    public void copyFrom(OffHeapArray source) {
+        if (source.size != size || source.recordBytes != recordBytes || source.segmentShift != segmentShift) {
+            throw new IllegalArgumentException("Off-heap arrays of different layouts cannot be copied");
+        }
+        ByteBuffer[] from = source.checkedSegments();
+        ByteBuffer[] to = checkedSegments();
+        for (int segment = 0; segment < to.length; segment++) {
+            to[segment].duplicate().put(from[segment].duplicate());
+        }
+    }
+
+    /**
+     * Finds the segment holding a byte position.
+     *
+     * @param position the byte position
+     * @return the segment
+     * @throws IllegalStateException if the arena of the array is closed
+     */
+    private ByteBuffer segment(long position) {
+        return checkedSegments()[(int) (position >>> segmentShift)];
+    }
+
+    /**
+     * Gets the segments, checking that they have not been released.
+     *
+     * @return the segments
+     * @throws IllegalStateException if the arena of the array is closed
+     */
+    private ByteBuffer[] checkedSegments() {
+        ByteBuffer[] current = segments;
+        if (current == null) {
+            throw new IllegalStateException("Off-heap array used after its arena was closed");
+        }
+        return current;
+    }
+
+    /**
+     * Drops the segments, so the memory can be freed. Only called by
+     * OffHeapArena when it is closed.
+     */
+    void release() {
+        segments = null;
+    }
+}
@@ -0,0 +1,192 @@
+package helpers;
+
+import java.util.Arrays;
+
+/**
+ * OffHeapSorting sorts the int and long keys of an OffHeapArray without
+ * moving them onto the heap. Quick sort works in place through the
+ * IndexedSortable methods; merge sort and LSD radix sort need a scratch
+ * array as large as the data, which they allocate off-heap from their own
+ * arena and release as soon as they finish. Like the array sorts, they
+ * count their work with a MonitoredComparator published when they finish.
+ *
+ * @author JaniOC
+ */
+public class OffHeapSorting {
+    // Length of the runs merge sort sorts with insertion sort before merging
+    private static final int INSERTION_RUN_LENGTH = 32;
+
+    // Bits per digit of the radix sort
+    private static final int RADIX_BITS = RadixSorting.DEFAULT_RADIX_BITS;
+
+    /**
+     * Sorts the specified off-heap array in place using the introspective
+     * quick sort of IndexedSorting.
+     *
+     * @param data the array to be sorted
+     */
+    public static void quickSort(OffHeapArray data) {
+        IndexedSorting.introSort(data);
+    }
+
+    /**
+     * Sorts the specified off-heap array using a bottom-up merge sort. Runs
+     * of INSERTION_RUN_LENGTH keys are first sorted with insertion sort, and
+     * then merged back and forth between the data and an off-heap buffer.
+     * The merge sort is stable.
+     *
+     * @param data the array to be sorted
+     */
+    public static void mergeSort(OffHeapArray data) {
+        MonitoredComparator<Long> comparator = new MonitoredComparator<>();
+        long length = data.size();
+        if (length > 1) {
+            try (OffHeapArena scratch = new OffHeapArena()) {
+                for (long first = 0; first < length; first += INSERTION_RUN_LENGTH) {
+                    insertionSort(data, first, Math.min(first + INSERTION_RUN_LENGTH, length) - 1, comparator);
+                }
+
+                OffHeapArray source = data;
+                OffHeapArray destination = scratch.allocate(length, data.getFormat(), data.getSegmentBytes());
+                for (long width = INSERTION_RUN_LENGTH; width < length; width *= 2) {
+                    for (long first = 0; first < length; first += 2 * width) {
+                        long mid = Math.min(first + width - 1, length - 1);
+                        long last = Math.min(first + 2 * width - 1, length - 1);
+                        merge(source, destination, first, mid, last, comparator);
+                    }
+                    OffHeapArray temp = source;
+                    source = destination;
+                    destination = temp;
+                }
+
+                // after an odd number of passes the sorted data is in the buffer
+                if (source != data) {
+                    data.copyFrom(source);
+                    comparator.recordMoves(length);
+                }
+            }
+        }
+        comparator.publish();
+    }
+
+    /**
+     * Sorts a range of an off-heap array with insertion sort, shifting the
+     * larger keys up instead of swapping.
+     *
+     * @param data the array to be sorted
+     * @param min  the index of the first key
+     * @param max  the index of the last key
+     * @param comparator the MonitoredComparator tracking comparisons
+     */
+    private static void insertionSort(OffHeapArray data, long min, long max, MonitoredComparator<Long> comparator) {
+        for (long index = min + 1; index <= max; index++) {
+            long key = data.get(index);
+            long position = index;
+            while (position > min && comparator.compare(data.get(position - 1), key) > 0) {
+                data.set(position, data.get(position - 1));
+                comparator.recordMoves(1);
+                position--;
+            }
+            data.set(position, key);
+        }
+    }
+
+    /**
+     * Merges two sorted ranges of the source array into the same positions
+     * of the destination array. Equal keys are taken from the first range
+     * first, so the merge is stable.
+     *
+     * @param source      the array holding the two sorted ranges
+     * @param destination the array the merged range is written to
+     * @param first       the index of the first range
+     * @param mid         the index of the last key of the first range
+     * @param last        the index of the last key of the second range
+     * @param comparator  the MonitoredComparator tracking comparisons
+     */
+    private static void merge(OffHeapArray source, OffHeapArray destination, long first, long mid, long last,
+                              MonitoredComparator<Long> comparator) {
+        long index1 = first, index2 = mid + 1;
+        for (long index = first; index <= last; index++) {
+            if (index2 > last || (index1 <= mid && comparator.compare(source.get(index1), source.get(index2)) <= 0)) {
+                destination.set(index, source.get(index1++));
+            } else {
+                destination.set(index, source.get(index2++));
+            }
+        }
+        comparator.recordMoves(last - first + 1);
+    }
+
+    /**
+     * Sorts the specified off-heap array using a least significant digit
+     * radix sort. Each pass distributes the keys stably by one digit into an
+     * off-heap buffer, alternating between the data and the buffer, and
+     * passes where every key has the same digit are skipped. Negative keys
+     * are handled by flipping the sign bit like RadixSorting does.
+     *
+     * @param data the array to be sorted
+     */
+    public static void lsdRadixSort(OffHeapArray data) {
+        MonitoredComparator<Long> comparator = new MonitoredComparator<>();
+        long length = data.size();
+        if (length > 1) {
+            int keyBits = data.getFormat().getRecordBytes() * Byte.SIZE;
+            long passBytes = length * data.getFormat().getRecordBytes();
+            int radix = 1 << RADIX_BITS;
+            int mask = radix - 1;
+            long[] count = new long[radix + 1];
+
+            try (OffHeapArena scratch = new OffHeapArena()) {
+                OffHeapArray source = data;
+                OffHeapArray destination = scratch.allocate(length, data.getFormat(), data.getSegmentBytes());
+
+                for (int shift = 0; shift < keyBits; shift += RADIX_BITS) {
+                    Arrays.fill(count, 0);
+                    for (long index = 0; index < length; index++) {
+                        count[digit(source.get(index), keyBits, shift, mask) + 1]++;
+                    }
+
+                    // every key has the same digit, so this pass would not change the order
+                    if (count[digit(source.get(0), keyBits, shift, mask) + 1] == length) {
+                        continue;
+                    }
+
+                    for (int r = 0; r < radix; r++) {
+                        count[r + 1] += count[r];
+                    }
+                    for (long index = 0; index < length; index++) {
+                        long value = source.get(index);
+                        destination.set(count[digit(value, keyBits, shift, mask)]++, value);
+                    }
+                    comparator.recordMoves(length);
+                    comparator.recordPass(passBytes);
+
+                    OffHeapArray temp = source;
+                    source = destination;
+                    destination = temp;
+                }
+
+                // after an odd number of passes the sorted data is in the buffer
+                if (source != data) {
+                    data.copyFrom(source);
+                    comparator.recordMoves(length);
+                    comparator.recordPass(passBytes);
+                }
+            }
+        }
+        comparator.publish();
+    }
+
+    /**
+     * Extracts a digit of an int or long key with its sign bit flipped.
+     *
+     * @param value   the key, widened to a long
+     * @param keyBits the width of the key, 32 or 64
+     * @param shift   the position of the lowest bit of the digit
+     * @param mask    the mask of a digit
+     * @return the digit, between 0 and mask
+     */
+    private static int digit(long value, int keyBits, int shift, int mask) {
+        return keyBits == Integer.SIZE ? RadixSorting.digit((int) value, shift, mask)
+                                       : RadixSorting.digit(value, shift, mask);
+    }
+}
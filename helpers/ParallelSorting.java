@@ -0,0 +1,622 @@
+package helpers;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * ParallelSorting demonstrates sorts that keep every thread busy for the
+ * whole sort, for arrays far larger than the fork-join sorts in Sorting
+ * handle well. Those split one recursion, so the top-level partition or
+ * merge runs on a single thread. Here every step is split into one block
+ * of the data per thread instead:
+ *
+ * - the sample sort picks splitters from a sample of the data, buckets each
+ *   block by them into that thread's own slice of every bucket, and then
+ *   sorts the buckets independently with the sequential natural merge sort;
+ * - the LSD radix sort counts the digits of each block in parallel and
+ *   scatters each block into its own slice of every digit, one pass per
+ *   digit.
+ *
+ * Arrays up to Sorting.DEFAULT_PARALLEL_THRESHOLD elements, and pools of a
+ * single thread, are sorted sequentially.
+ *
+ * @author JaniOC
+ */
+public class ParallelSorting
+{
+    // Number of buckets per thread, so an uneven bucket does not leave the other threads idle
+    private static final int BUCKETS_PER_THREAD = 4;
+
+    // Largest number of buckets, so a bucket number fits in a byte
+    private static final int MAX_BUCKETS = 256;
+
+    // Number of sampled elements per bucket, from which one splitter is picked
+    private static final int OVERSAMPLING = 32;
+
+    // Seed of the sample of the sample sort
+    private static final long SEED = 42L;
+
+    // Bits per digit of the parallel radix sort
+    private static final int RADIX_BITS = RadixSorting.DEFAULT_RADIX_BITS;
+
+    /**
+     * Sorts the specified array of objects using a parallel sample sort on
+     * the common fork-join pool.
+     *
+     * @param data the array to be sorted
+     */
+    public static <T extends Comparable<T>>
+    void parallelSampleSort(T[] data) {
+        parallelSampleSort(data, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Sorts the specified array of objects using a parallel sample sort.
+     *
+     * @param data        the array to be sorted
+     * @param parallelism the number of worker threads to use
+     */
+    public static <T extends Comparable<T>>
+    void parallelSampleSort(T[] data, int parallelism) {
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            parallelSampleSort(data, pool);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Runs a parallel sample sort of the specified array on the given pool.
+     * Elements are bucketed by the splitters in block order and each bucket
+     * is sorted by a stable sort, so the sample sort is stable too.
+     *
+     * @param data the array to be sorted
+     * @param pool the fork-join pool to run on
+     */
+    @SuppressWarnings("unchecked")
+    static <T extends Comparable<T>>
+    void parallelSampleSort(T[] data, ForkJoinPool pool) {
+        MonitoredComparator<T> comparator = new MonitoredComparator<>();
+        int length = data.length;
+        int blocks = pool.getParallelism();
+        if (length <= Sorting.DEFAULT_PARALLEL_THRESHOLD || blocks == 1) {
+            Sorting.naturalMergeSort(data, 0, length, comparator);
+            comparator.publish(data);
+            return;
+        }
+
+        int buckets = Math.min(MAX_BUCKETS, blocks * BUCKETS_PER_THREAD);
+        T[] splitters = chooseSplitters(data, buckets, comparator);
+
+        // classify every element of each block and count the bucket sizes of the block
+        byte[] bucketOf = new byte[length];
+        int[][] counts = new int[blocks][buckets];
+        List<MonitoredComparator<T>> children = new ArrayList<>();
+        List<Runnable> tasks = new ArrayList<>();
+        for (int block = 0; block < blocks; block++) {
+            int first = blockStart(length, blocks, block);
+            int end = blockStart(length, blocks, block + 1);
+            int[] count = counts[block];
+            MonitoredComparator<T> child = comparator.fork();
+            children.add(child);
+            tasks.add(() -> {
+                for (int index = first; index < end; index++) {
+                    int bucket = classify(data[index], splitters, child);
+                    bucketOf[index] = (byte) bucket;
+                    count[bucket]++;
+                }
+            });
+        }
+        invokeAll(pool, tasks);
+
+        // move each block into its own slice of every bucket, then sort every bucket
+        int[] bucketStarts = toSliceStarts(counts, buckets);
+        T[] buffer = (T[])(new Comparable<?>[length]);
+        tasks.clear();
+        for (int block = 0; block < blocks; block++) {
+            int first = blockStart(length, blocks, block);
+            int end = blockStart(length, blocks, block + 1);
+            int[] next = counts[block];
+            tasks.add(() -> {
+                for (int index = first; index < end; index++) {
+                    buffer[next[bucketOf[index] & 0xFF]++] = data[index];
+                }
+            });
+        }
+        invokeAll(pool, tasks);
+        comparator.recordMoves(length);
+
+        tasks.clear();
+        for (int bucket = 0; bucket < buckets; bucket++) {
+            int first = bucketStarts[bucket];
+            int end = bucketStarts[bucket + 1];
+            MonitoredComparator<T> child = comparator.fork();
+            children.add(child);
+            tasks.add(() -> {
+                System.arraycopy(buffer, first, data, first, end - first);
+                Sorting.naturalMergeSort(data, first, end, child);
+            });
+        }
+        invokeAll(pool, tasks);
+        comparator.recordMoves(length);
+
+        for (MonitoredComparator<T> child : children) {
+            comparator.join(child);
+        }
+        comparator.publish(data);
+    }
+
+    /**
+     * Picks the splitters of the sample sort from a sorted random sample of
+     * the data. Splitter i is the upper bound of bucket i.
+     *
+     * @param data       the array to be sorted
+     * @param buckets    the number of buckets
+     * @param comparator the MonitoredComparator tracking comparisons
+     * @return buckets - 1 splitters in ascending order
+     */
+    @SuppressWarnings("unchecked")
+    private static <T extends Comparable<T>>
+    T[] chooseSplitters(T[] data, int buckets, MonitoredComparator<T> comparator) {
+        SplittableRandom random = new SplittableRandom(SEED);
+        T[] sample = (T[])(new Comparable<?>[buckets * OVERSAMPLING]);
+        for (int index = 0; index < sample.length; index++) {
+            sample[index] = data[random.nextInt(data.length)];
+        }
+        Sorting.naturalMergeSort(sample, 0, sample.length, comparator);
+
+        T[] splitters = (T[])(new Comparable<?>[buckets - 1]);
+        for (int index = 0; index < splitters.length; index++) {
+            splitters[index] = sample[(index + 1) * OVERSAMPLING];
+        }
+        return splitters;
+    }
+
+    /**
+     * Finds the bucket of an element with a binary search of the splitters:
+     * the number of splitters that are smaller than or equal to it.
+     *
+     * @param element    the element to classify
+     * @param splitters  the splitters in ascending order
+     * @param comparator the MonitoredComparator tracking comparisons
+     * @return the bucket of the element
+     */
+    private static <T extends Comparable<T>>
+    int classify(T element, T[] splitters, MonitoredComparator<T> comparator) {
+        int low = 0, high = splitters.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (comparator.compare(splitters[mid], element) <= 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Sorts the specified array of ints using a parallel sample sort on the
+     * common fork-join pool.
+     *
+     * @param data the array to be sorted
+     */
+    public static void parallelSampleSort(int[] data) {
+        parallelSampleSort(data, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Sorts the specified array of ints using a parallel sample sort.
+     *
+     * @param data        the array to be sorted
+     * @param parallelism the number of worker threads to use
+     */
+    public static void parallelSampleSort(int[] data, int parallelism) {
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            parallelSampleSort(data, pool);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Runs a parallel sample sort of the specified array of ints on the
+     * given pool.
+     *
+     * @param data the array to be sorted
+     * @param pool the fork-join pool to run on
+     */
+    static void parallelSampleSort(int[] data, ForkJoinPool pool) {
+        MonitoredComparator<Integer> comparator = new MonitoredComparator<>();
+        int length = data.length;
+        int blocks = pool.getParallelism();
+        if (length <= Sorting.DEFAULT_PARALLEL_THRESHOLD || blocks == 1) {
+            Sorting.naturalMergeSort(data, 0, length, comparator);
+            comparator.publish(data);
+            return;
+        }
+
+        int buckets = Math.min(MAX_BUCKETS, blocks * BUCKETS_PER_THREAD);
+        int[] splitters = chooseSplitters(data, buckets, comparator);
+
+        // classify every element of each block and count the bucket sizes of the block
+        byte[] bucketOf = new byte[length];
+        int[][] counts = new int[blocks][buckets];
+        List<MonitoredComparator<Integer>> children = new ArrayList<>();
+        List<Runnable> tasks = new ArrayList<>();
+        for (int block = 0; block < blocks; block++) {
+            int first = blockStart(length, blocks, block);
+            int end = blockStart(length, blocks, block + 1);
+            int[] count = counts[block];
+            MonitoredComparator<Integer> child = comparator.fork();
+            children.add(child);
+            tasks.add(() -> {
+                for (int index = first; index < end; index++) {
+                    int bucket = classify(data[index], splitters, child);
+                    bucketOf[index] = (byte) bucket;
+                    count[bucket]++;
+                }
+            });
+        }
+        invokeAll(pool, tasks);
+
+        // move each block into its own slice of every bucket, then sort every bucket
+        int[] bucketStarts = toSliceStarts(counts, buckets);
+        int[] buffer = new int[length];
+        tasks.clear();
+        for (int block = 0; block < blocks; block++) {
+            int first = blockStart(length, blocks, block);
+            int end = blockStart(length, blocks, block + 1);
+            int[] next = counts[block];
+            tasks.add(() -> {
+                for (int index = first; index < end; index++) {
+                    buffer[next[bucketOf[index] & 0xFF]++] = data[index];
+                }
+            });
+        }
+        invokeAll(pool, tasks);
+        comparator.recordMoves(length);
+
+        tasks.clear();
+        for (int bucket = 0; bucket < buckets; bucket++) {
+            int first = bucketStarts[bucket];
+            int end = bucketStarts[bucket + 1];
+            MonitoredComparator<Integer> child = comparator.fork();
+            children.add(child);
+            tasks.add(() -> {
+                System.arraycopy(buffer, first, data, first, end - first);
+                Sorting.naturalMergeSort(data, first, end, child);
+            });
+        }
+        invokeAll(pool, tasks);
+        comparator.recordMoves(length);
+
+        for (MonitoredComparator<Integer> child : children) {
+            comparator.join(child);
+        }
+        comparator.publish(data);
+    }
+
+    /**
+     * Picks the splitters of the sample sort of ints from a sorted random
+     * sample of the data.
+     *
+     * @param data       the array to be sorted
+     * @param buckets    the number of buckets
+     * @param comparator the MonitoredComparator tracking comparisons
+     * @return buckets - 1 splitters in ascending order
+     */
+    private static int[] chooseSplitters(int[] data, int buckets, MonitoredComparator<Integer> comparator) {
+        SplittableRandom random = new SplittableRandom(SEED);
+        int[] sample = new int[buckets * OVERSAMPLING];
+        for (int index = 0; index < sample.length; index++) {
+            sample[index] = data[random.nextInt(data.length)];
+        }
+        Sorting.naturalMergeSort(sample, 0, sample.length, comparator);
+
+        int[] splitters = new int[buckets - 1];
+        for (int index = 0; index < splitters.length; index++) {
+            splitters[index] = sample[(index + 1) * OVERSAMPLING];
+        }
+        return splitters;
+    }
+
+    /**
+     * Finds the bucket of an int with a binary search of the splitters.
+     *
+     * @param element    the int to classify
+     * @param splitters  the splitters in ascending order
+     * @param comparator the MonitoredComparator tracking comparisons
+     * @return the bucket of the int
+     */
+    private static int classify(int element, int[] splitters, MonitoredComparator<Integer> comparator) {
+        int low = 0, high = splitters.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (comparator.compare(splitters[mid], element) <= 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Sorts the specified array of ints using a parallel least significant
+     * digit radix sort on the common fork-join pool.
+     *
+     * @param data the array to be sorted
+     */
+    public static void parallelLsdRadixSort(int[] data) {
+        parallelLsdRadixSort(data, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Sorts the specified array of ints using a parallel least significant
+     * digit radix sort.
+     *
+     * @param data        the array to be sorted
+     * @param parallelism the number of worker threads to use
+     */
+    public static void parallelLsdRadixSort(int[] data, int parallelism) {
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            parallelLsdRadixSort(data, pool);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Runs a parallel LSD radix sort of the specified array of ints on the
+     * given pool. Each pass counts the digits of every block in parallel,
+     * turns the counts into the start of each block's slice of every digit,
+     * and scatters the blocks in parallel. Blocks are scattered in order, so
+     * every pass is stable like the sequential one.
+     *
+     * @param data the array to be sorted
+     * @param pool the fork-join pool to run on
+     */
+    private static void parallelLsdRadixSort(int[] data, ForkJoinPool pool) {
+        int length = data.length;
+        int blocks = pool.getParallelism();
+        if (length <= Sorting.DEFAULT_PARALLEL_THRESHOLD || blocks == 1) {
+            RadixSorting.lsdRadixSort(data, RADIX_BITS);
+            return;
+        }
+
+        MonitoredComparator<Integer> comparator = new MonitoredComparator<>();
+        int radix = 1 << RADIX_BITS;
+        int mask = radix - 1;
+        int[][] counts = new int[blocks][radix];
+        int[] source = data;
+        int[] destination = new int[length];
+
+        for (int shift = 0; shift < 32; shift += RADIX_BITS) {
+            int digitShift = shift;
+            int[] from = source;
+            int[] to = destination;
+
+            List<Runnable> tasks = new ArrayList<>();
+            for (int block = 0; block < blocks; block++) {
+                int first = blockStart(length, blocks, block);
+                int end = blockStart(length, blocks, block + 1);
+                int[] count = counts[block];
+                tasks.add(() -> {
+                    Arrays.fill(count, 0);
+                    for (int index = first; index < end; index++) {
+                        count[RadixSorting.digit(from[index], digitShift, mask)]++;
+                    }
+                });
+            }
+            invokeAll(pool, tasks);
+
+            // every key has the same digit, so this pass would not change the order
+            int digit = RadixSorting.digit(from[0], digitShift, mask);
+            int keys = 0;
+            for (int[] count : counts) {
+                keys += count[digit];
+            }
+            if (keys == length) {
+                continue;
+            }
+
+            toSliceStarts(counts, radix);
+            tasks.clear();
+            for (int block = 0; block < blocks; block++) {
+                int first = blockStart(length, blocks, block);
+                int end = blockStart(length, blocks, block + 1);
+                int[] next = counts[block];
+                tasks.add(() -> {
+                    for (int index = first; index < end; index++) {
+                        int value = from[index];
+                        to[next[RadixSorting.digit(value, digitShift, mask)]++] = value;
+                    }
+                });
+            }
+            invokeAll(pool, tasks);
+            comparator.recordMoves(length);
+            comparator.recordPass((long) length * Integer.BYTES);
+
+            source = to;
+            destination = from;
+        }
+
+        // after an odd number of passes the sorted data is in the buffer
+        if (source != data) {
+            System.arraycopy(source, 0, data, 0, length);
+            comparator.recordMoves(length);
+            comparator.recordPass((long) length * Integer.BYTES);
+        }
+        comparator.publish(data);
+    }
+
+    /**
+     * Sorts the specified array of longs using a parallel least significant
+     * digit radix sort on the common fork-join pool.
+     *
+     * @param data the array to be sorted
+     */
+    public static void parallelLsdRadixSort(long[] data) {
+        parallelLsdRadixSort(data, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Sorts the specified array of longs using a parallel least significant
+     * digit radix sort.
+     *
+     * @param data        the array to be sorted
+     * @param parallelism the number of worker threads to use
+     */
+    public static void parallelLsdRadixSort(long[] data, int parallelism) {
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            parallelLsdRadixSort(data, pool);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Runs a parallel LSD radix sort of the specified array of longs on the
+     * given pool.
+     *
+     * @param data the array to be sorted
+     * @param pool the fork-join pool to run on
+     */
+    private static void parallelLsdRadixSort(long[] data, ForkJoinPool pool) {
+        int length = data.length;
+        int blocks = pool.getParallelism();
+        if (length <= Sorting.DEFAULT_PARALLEL_THRESHOLD || blocks == 1) {
+            RadixSorting.lsdRadixSort(data, RADIX_BITS);
+            return;
+        }
+
+        MonitoredComparator<Long> comparator = new MonitoredComparator<>();
+        int radix = 1 << RADIX_BITS;
+        int mask = radix - 1;
+        int[][] counts = new int[blocks][radix];
+        long[] source = data;
+        long[] destination = new long[length];
+
+        for (int shift = 0; shift < 64; shift += RADIX_BITS) {
+            int digitShift = shift;
+            long[] from = source;
+            long[] to = destination;
+
+            List<Runnable> tasks = new ArrayList<>();
+            for (int block = 0; block < blocks; block++) {
+                int first = blockStart(length, blocks, block);
+                int end = blockStart(length, blocks, block + 1);
+                int[] count = counts[block];
+                tasks.add(() -> {
+                    Arrays.fill(count, 0);
+                    for (int index = first; index < end; index++) {
+                        count[RadixSorting.digit(from[index], digitShift, mask)]++;
+                    }
+                });
+            }
+            invokeAll(pool, tasks);
+
+            // every key has the same digit, so this pass would not change the order
+            int digit = RadixSorting.digit(from[0], digitShift, mask);
+            int keys = 0;
+            for (int[] count : counts) {
+                keys += count[digit];
+            }
+            if (keys == length) {
+                continue;
+            }
+
+            toSliceStarts(counts, radix);
+            tasks.clear();
+            for (int block = 0; block < blocks; block++) {
+                int first = blockStart(length, blocks, block);
+                int end = blockStart(length, blocks, block + 1);
+                int[] next = counts[block];
+                tasks.add(() -> {
+                    for (int index = first; index < end; index++) {
+                        long value = from[index];
+                        to[next[RadixSorting.digit(value, digitShift, mask)]++] = value;
+                    }
+                });
+            }
+            invokeAll(pool, tasks);
+            comparator.recordMoves(length);
+            comparator.recordPass((long) length * Long.BYTES);
+
+            source = to;
+            destination = from;
+        }
+
+        // after an odd number of passes the sorted data is in the buffer
+        if (source != data) {
+            System.arraycopy(source, 0, data, 0, length);
+            comparator.recordMoves(length);
+            comparator.recordPass((long) length * Long.BYTES);
+        }
+        comparator.publish(data);
+    }
+
+    /**
+     * Turns the per-block counts of every bucket into the index where each
+     * block's slice of the bucket starts, in place. The slices of a bucket
+     * follow each other in block order, and the buckets follow each other
+     * in bucket order.
+     *
+     * @param counts  the count of every bucket in every block, replaced by the slice starts
+     * @param buckets the number of buckets
+     * @return the index where each bucket starts, followed by the total count
+     */
+    private static int[] toSliceStarts(int[][] counts, int buckets) {
+        int[] bucketStarts = new int[buckets + 1];
+        int start = 0;
+        for (int bucket = 0; bucket < buckets; bucket++) {
+            bucketStarts[bucket] = start;
+            for (int[] count : counts) {
+                int size = count[bucket];
+                count[bucket] = start;
+                start += size;
+            }
+        }
+        bucketStarts[buckets] = start;
+        return bucketStarts;
+    }
+
+    /**
+     * Calculates where a block of the data starts. The blocks differ in
+     * size by at most one element.
+     *
+     * @param length the length of the data
+     * @param blocks the number of blocks
+     * @param block  the block, or the number of blocks for the end of the data
+     * @return the index of the first element of the block
+     */
+    private static int blockStart(int length, int blocks, int block) {
+        return (int) ((long) length * block / blocks);
+    }
+
+    /**
+     * Runs tasks in parallel on a pool and waits for all of them. An
+     * exception thrown by a task is rethrown.
+     *
+     * @param pool  the fork-join pool to run on
+     * @param tasks the tasks to run
+     */
+    private static void invokeAll(ForkJoinPool pool, List<Runnable> tasks) {
+        List<ForkJoinTask<?>> forked = new ArrayList<>();
+        for (Runnable task : tasks) {
+            forked.add(ForkJoinTask.adapt(task));
+        }
+        pool.invoke(ForkJoinTask.adapt(() -> {
+            ForkJoinTask.invokeAll(forked);
+        }));
+    }
+}
@@ -1,11 +1,22 @@
 package helpers;
 
-import java.util.Random;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 
 /**
  * A class that prints a performance table for various sorting algorithms.
  * The table shows the number of comparisons and the sorting time (in
- * milliseconds) for different array sizes.
+ * milliseconds) for different array sizes, both for boxed Integer arrays
+ * and for primitive int arrays, along with the bytes allocated per sort.
+ * Every algorithm is run on each of a set of seeded input distributions,
+ * so the same table can be reproduced run after run. The counting and
+ * radix sorts show passes and bytes moved in place of comparisons.
+ * Cells for algorithms without a primitive version are shown as "-".
+ * Each cell is a single cold run; use SweepEngine for repeated trials
+ * with percentiles written to a file, or the JMH benchmarks in the
+ * benchmarks module for warmed-up timings with error bounds.
  *
  * @author JaniOC
  */
@@ -14,13 +25,45 @@ public class PerformanceTable {
     private final int[] arraySizes = {1000, 2000, 3000, 4000, 5000, 6000, 7000, 8000, 9000, 10000};
 
     // Array of algorithm names to test
-    private final String[] algorithms = {"bubbleSort", "insertionSort", "mergeSort", "quickSort", "selectionSort"};
+    private final String[] algorithms = SortRunner.ALGORITHMS;
+
+    // Array of element types to test, boxed first so rows line up side by side
+    private final String[] elementTypes = SortRunner.ELEMENT_TYPES;
+
+    // Input distributions to test
+    private final InputGenerator[] distributions;
+
+    // Seed of the input generators
+    private final long seed = 42L;
+
+    // Array sizes and thread counts for the parallel speedup table
+    private final int[] parallelArraySizes = {10000, 20000, 40000};
+    private final int[] threadCounts = calculateThreadCounts();
+
+    // Range size at or below which the parallel sorts in the speedup table go sequential
+    private final int parallelThreshold = 1000;
+
+    // Number of timed runs per speedup cell, the fastest of which is reported
+    private final int speedupTrials = 3;
 
     /**
-     * Constructor that prints the performance table when the object is created.
+     * Constructor that prints the performance table for all the standard
+     * input distributions when the object is created.
      */
     public PerformanceTable() {
+        this(InputDistribution.values());
+    }
+
+    /**
+     * Constructor that prints the performance table for the given input
+     * distributions when the object is created.
+     *
+     * @param distributions the input generators to run every algorithm on
+     */
+    public PerformanceTable(InputGenerator... distributions) {
+        this.distributions = distributions;
         printTable();
+        printSpeedupTable();
     }
 
     /**
@@ -38,34 +81,182 @@ public class PerformanceTable {
         }
         System.out.println();
 
-        // Print performance data for each algorithm
+        // Print performance data for each algorithm, element type and distribution
         for (String algo : algorithms) {
-            printAlgorithmPerformance(algo, firstColumnWidth);
+            for (String type : elementTypes) {
+                for (InputGenerator distribution : distributions) {
+                    printAlgorithmPerformance(algo, type, distribution, firstColumnWidth);
+                }
+            }
         }
         System.out.println();
     }
 
     /**
      * Prints the performance data (comparisons and time) for a specific
-     * algorithm.
+     * algorithm, element type and input distribution. Non-comparison sorts
+     * show their passes over the data and bytes moved instead of comparisons,
+     * and adaptiveSort shows all three, as it may route to either kind.
+     * Every size is measured once and all the rows are printed from the
+     * same results.
      *
      * @param algorithm the sorting algorithm to test
+     * @param type the element type to sort, "Integer" or "int"
+     * @param distribution the generator of the input data
      * @param firstColumnWidth the width for the first column in the table
      */
-    private void printAlgorithmPerformance(String algorithm, int firstColumnWidth) {
-        System.out.printf(" %-" + firstColumnWidth + "s ", algorithm + "." + "random.comparisons");
+    private void printAlgorithmPerformance(String algorithm, String type, InputGenerator distribution,
+                                           int firstColumnWidth) {
+        List<Results<SortMetrics, Long>> results = new ArrayList<>();
         for (int size : arraySizes) {
-            Results<Long, Long> results = calculatePerformance(algorithm, size);
-            System.out.printf(" %-10d ", results.getCount()); // Print comparisons left-aligned
+            results.add(calculatePerformance(algorithm, type, distribution, size));
+        }
+
+        String label = algorithm + "." + type + "." + distribution.getName();
+        if (SortRunner.isComparisonSort(algorithm)) {
+            printRow(label + ".comparisons", results, firstColumnWidth,
+                     result -> result.getCount().getComparisons());
+        }
+        if (SortRunner.mayMakePasses(algorithm)) {
+            printRow(label + ".passes", results, firstColumnWidth,
+                     result -> result.getCount().getPasses());
+            printRow(label + ".bytesMoved", results, firstColumnWidth,
+                     result -> result.getCount().getBytesMoved());
+        }
+        printRow(label + ".ms", results, firstColumnWidth, Results::getTime);
+        printRow(label + ".bytes", results, firstColumnWidth, Results::getBytes);
+    }
+
+    /**
+     * Prints one row of the table from the results of every array size.
+     *
+     * @param label the row label
+     * @param results the results of each array size, null where the
+     *                algorithm has no version for the element type
+     * @param firstColumnWidth the width for the first column in the table
+     * @param value picks the value to print from the results
+     */
+    private void printRow(String label, List<Results<SortMetrics, Long>> results, int firstColumnWidth,
+                          Function<Results<SortMetrics, Long>, Long> value) {
+        System.out.printf(" %-" + firstColumnWidth + "s ", label);
+        for (Results<SortMetrics, Long> result : results) {
+            printCell(result == null ? null : value.apply(result)); // Print values left-aligned
         }
         System.out.println();
+    }
 
-        System.out.printf(" %-" + firstColumnWidth + "s ", algorithm + "." + "random" + ".ms");
-        for (int size : arraySizes) {
-            Results<Long, Long> results = calculatePerformance(algorithm, size);
-            System.out.printf(" %-10d ", results.getTime()); // Print milliseconds left-aligned
+    /**
+     * Prints a single left-aligned table cell, or "-" when there is no value.
+     *
+     * @param value the value to print, or null
+     */
+    private void printCell(Long value) {
+        if (value == null || value < 0) {
+            System.out.printf(" %-10s ", "-");
+        } else {
+            System.out.printf(" %-10d ", value);
+        }
+    }
+
+    /**
+     * Prints the speedup of the parallel merge sort and quick sort over their
+     * sequential versions for each thread count. A value of 2.00 means the
+     * parallel sort took half as long as the sequential one.
+     */
+    public void printSpeedupTable() {
+        String[] parallelAlgorithms = {"mergeSort", "quickSort"};
+        int firstColumnWidth = 0;
+        for (String algo : parallelAlgorithms) {
+            firstColumnWidth = Math.max(firstColumnWidth, speedupLabel(algo, Integer.MAX_VALUE).length());
+        }
+
+        System.out.printf(" %-" + firstColumnWidth + "s ", "");
+        for (int size : parallelArraySizes) {
+            System.out.printf(" %-10d ", size);
         }
         System.out.println();
+
+        for (String algo : parallelAlgorithms) {
+            for (int threads : threadCounts) {
+                System.out.printf(" %-" + firstColumnWidth + "s ", speedupLabel(algo, threads));
+                for (int size : parallelArraySizes) {
+                    System.out.printf(" %-10.2f ", calculateSpeedup(algo, threads, size));
+                }
+                System.out.println();
+            }
+        }
+        System.out.println();
+    }
+
+    /**
+     * Builds the row label of the speedup table.
+     *
+     * @param algorithm the sequential algorithm the parallel one is compared to
+     * @param threads the number of worker threads
+     * @return the row label
+     */
+    private String speedupLabel(String algorithm, int threads) {
+        return "parallel." + algorithm + "." + threads + "threads.speedup";
+    }
+
+    /**
+     * Calculates the speedup of the parallel version of an algorithm over the
+     * sequential one on the same random input. The sequential reference uses
+     * the same code as the parallel leaves: the buffered merge sort, and the
+     * parallel quick sort run as a single task on one thread. Each version is
+     * run several times and the fastest run is used.
+     *
+     * @param algorithm the sorting algorithm to test, "mergeSort" or "quickSort"
+     * @param threads the number of worker threads for the parallel version
+     * @param size the size of the array to sort
+     * @return the sequential time divided by the parallel time
+     */
+    private double calculateSpeedup(String algorithm, int threads, int size) {
+        Integer[] input = SortRunner.box(InputDistribution.RANDOM.generate(size, seed));
+        long sequential = Long.MAX_VALUE;
+        long parallel = Long.MAX_VALUE;
+
+        for (int trial = 0; trial < speedupTrials; trial++) {
+            Integer[] array = input.clone();
+            long startTime = System.nanoTime();
+            if (algorithm.equals("mergeSort")) {
+                Sorting.mergeSortBuffered(array);
+            } else {
+                Sorting.parallelQuickSort(array, size, 1);
+            }
+            sequential = Math.min(sequential, System.nanoTime() - startTime);
+
+            array = input.clone();
+            startTime = System.nanoTime();
+            if (algorithm.equals("mergeSort")) {
+                Sorting.parallelMergeSort(array, parallelThreshold, threads);
+            } else {
+                Sorting.parallelQuickSort(array, parallelThreshold, threads);
+            }
+            parallel = Math.min(parallel, System.nanoTime() - startTime);
+        }
+        return (double) sequential / Math.max(1, parallel);
+    }
+
+    /**
+     * Calculates the thread counts for the speedup table: powers of two up to
+     * the number of available processors, plus that number itself.
+     *
+     * @return the thread counts in ascending order
+     */
+    private static int[] calculateThreadCounts() {
+        int processors = Runtime.getRuntime().availableProcessors();
+        int count = 0;
+        for (int threads = 1; threads < processors; threads *= 2) {
+            count++;
+        }
+        int[] counts = new int[count + 1];
+        int index = 0;
+        for (int threads = 1; threads < processors; threads *= 2) {
+            counts[index++] = threads;
+        }
+        counts[index] = processors;
+        return counts;
     }
 
     /**
@@ -77,75 +268,41 @@ public class PerformanceTable {
     private int calculateFirstColumnWidth() {
         int maxLength = 0;
         for (String algo : algorithms) {
-            String comparisonsLabel = algo + ".random.comparisons";
+            for (String type : elementTypes) {
+                for (InputGenerator distribution : distributions) {
+                    String comparisonsLabel = algo + "." + type + "." + distribution.getName() + ".comparisons";
 
-            // Determine the longest string
-            maxLength = Math.max(maxLength, comparisonsLabel.length());
+                    // Determine the longest string
+                    maxLength = Math.max(maxLength, comparisonsLabel.length());
+                }
+            }
         }
         return maxLength;
     }
 
     /**
      * Calculates the performance of a specific algorithm on an array of a given size.
-     * This includes the number of comparisons and the time taken in milliseconds.
+     * This includes the metrics of the sort, the time taken in milliseconds and
+     * the bytes allocated.
      *
      * @param algorithm the sorting algorithm to test
+     * @param type the element type to sort, "Integer" or "int"
+     * @param distribution the generator of the input data
      * @param size the size of the array to sort
-     * @return a Results object containing the number of comparisons and time in ms
+     * @return a Results object containing the metrics of the sort, time in ms
+     *         and bytes allocated, or null if the algorithm has no version for
+     *         the element type
      */
-    private Results<Long, Long> calculatePerformance(String algorithm, int size) {
-        // Generate a random array of the specified size
-        Integer[] array = generateRandomArray(size);
-
-        // Reset the shared comparison counter before sorting
-        MonitoredComparator.resetComparisonCount();
-
-        // Measure sorting time and count comparisons
-        long startTime = System.currentTimeMillis();
-
-        // Perform the sorting based on the selected algorithm
-        switch (algorithm) {
-            case "bubbleSort":
-                Sorting.bubbleSort(array);
-                break;
-            case "insertionSort":
-                Sorting.insertionSort(array);
-                break;
-            case "mergeSort":
-                Sorting.mergeSort(array);
-                break;
-            case "quickSort":
-                Sorting.quickSort(array);
-                break;
-            case "selectionSort":
-                Sorting.selectionSort(array);
-                break;
-            default:
-                throw new IllegalArgumentException("Unknown algorithm: " + algorithm);
-        }
-
-        long endTime = System.currentTimeMillis();
-
-        // Retrieve the comparison count and elapsed time
-        long comparisons = MonitoredComparator.getComparisonCount();
-        long milliseconds = endTime - startTime;
-
-        return new Results<>(comparisons, milliseconds);
-    }
+    private Results<SortMetrics, Long> calculatePerformance(String algorithm, String type,
+                                                            InputGenerator distribution, int size) {
+        // Generate an array of the specified size and distribution
+        int[] values = distribution.generate(size, seed);
 
-    /**
-     * Generates a random array of integers with values between 0 and the specified
-     * size.
-     *
-     * @param size the size of the array to generate
-     * @return a randomly generated array of integers
-     */
-    private Integer[] generateRandomArray(int size) {
-        Integer[] array = new Integer[size];
-        Random rand = new Random();
-        for (int i = 0; i < size; i++) {
-            array[i] = rand.nextInt(size);
+        Results<SortMetrics, Long> results = SortRunner.run(algorithm, type, distribution.getName(), values);
+        if (results == null) {
+            return null;
         }
-        return array;
+        long milliseconds = TimeUnit.NANOSECONDS.toMillis(results.getTime());
+        return new Results<>(results.getCount(), milliseconds, results.getBytes());
     }
 }
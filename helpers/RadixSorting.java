@@ -0,0 +1,742 @@
+package helpers;
+
+import java.util.Arrays;
+
+/**
+ * RadixSorting demonstrates non-comparison sorts for integer keys:
+ * counting sort and least and most significant digit radix sort, for
+ * int, long and Integer arrays. Negative values are handled by flipping
+ * the sign bit of each key, which orders them before the positive ones.
+ * Instead of comparisons, the sorts report the passes they make over the
+ * data and the bytes of keys they move through a MonitoredComparator.
+ *
+ * @author JaniOC
+ */
+public class RadixSorting
+{
+    // Number of bits per digit used when none is given
+    public static final int DEFAULT_RADIX_BITS = 8;
+
+    // Largest number of bits per digit, which keeps the count arrays small
+    public static final int MAX_RADIX_BITS = 16;
+
+    // Largest difference between the smallest and largest value counting sort accepts
+    public static final int MAX_COUNTING_RANGE = 1 << 26;
+
+    // Bucket size at or below which the MSD radix sort finishes with insertion sort
+    private static final int MSD_INSERTION_THRESHOLD = 32;
+
+    // Size of a key in bytes, for the bytes moved counts
+    private static final int INT_BYTES = Integer.BYTES;
+    private static final int LONG_BYTES = Long.BYTES;
+
+    /**
+     * Sorts the specified array of ints using counting sort. The difference
+     * between the largest and smallest value must be below
+     * MAX_COUNTING_RANGE.
+     *
+     * @param data the array to be sorted
+     * @throws IllegalArgumentException if the values span too wide a range
+     */
+    public static void countingSort(int[] data) {
+        MonitoredComparator<Integer> comparator = new MonitoredComparator<>();
+        if (data.length > 1) {
+            // find the range of values
+            int min = data[0], max = data[0];
+            for (int value : data) {
+                if (value < min) {
+                    min = value;
+                }
+                if (value > max) {
+                    max = value;
+                }
+            }
+            comparator.recordPass(0);
+
+            int[] count = new int[countingRange(min, max)];
+            for (int value : data) {
+                count[value - min]++;
+            }
+            comparator.recordPass(0);
+
+            // write every value back as many times as it was counted
+            int index = 0;
+            for (int offset = 0; offset < count.length; offset++) {
+                for (int times = count[offset]; times > 0; times--) {
+                    data[index++] = min + offset;
+                }
+            }
+            comparator.recordPass((long) data.length * INT_BYTES);
+        }
+        comparator.publish(data);
+    }
+
+    /**
+     * Sorts the specified array of ints using a least significant digit
+     * radix sort with DEFAULT_RADIX_BITS bits per digit.
+     *
+     * @param data the array to be sorted
+     */
+    public static void lsdRadixSort(int[] data) {
+        lsdRadixSort(data, DEFAULT_RADIX_BITS);
+    }
+
+    /**
+     * Sorts the specified array of ints using a least significant digit
+     * radix sort. Each pass distributes the keys stably by one digit, from
+     * the lowest digit to the highest, alternating between the data and a
+     * single buffer. Passes where every key has the same digit are skipped.
+     *
+     * @param data the array to be sorted
+     * @param bits the number of bits per digit, from 1 to MAX_RADIX_BITS
+     */
+    public static void lsdRadixSort(int[] data, int bits) {
+        checkRadixBits(bits);
+        MonitoredComparator<Integer> comparator = new MonitoredComparator<>();
+        int length = data.length;
+        if (length > 1) {
+            int radix = 1 << bits;
+            int mask = radix - 1;
+            int[] count = new int[radix + 1];
+            int[] source = data;
+            int[] destination = new int[length];
+
+            for (int shift = 0; shift < 32; shift += bits) {
+                Arrays.fill(count, 0);
+                for (int value : source) {
+                    count[digit(value, shift, mask) + 1]++;
+                }
+
+                // every key has the same digit, so this pass would not change the order
+                if (count[digit(source[0], shift, mask) + 1] == length) {
+                    continue;
+                }
+
+                for (int r = 0; r < radix; r++) {
+                    count[r + 1] += count[r];
+                }
+                for (int value : source) {
+                    destination[count[digit(value, shift, mask)]++] = value;
+                }
+                comparator.recordMoves(length);
+                comparator.recordPass((long) length * INT_BYTES);
+
+                int[] temp = source;
+                source = destination;
+                destination = temp;
+            }
+
+            // after an odd number of passes the sorted data is in the buffer
+            if (source != data) {
+                System.arraycopy(source, 0, data, 0, length);
+                comparator.recordMoves(length);
+                comparator.recordPass((long) length * INT_BYTES);
+            }
+        }
+        comparator.publish(data);
+    }
+
+    /**
+     * Sorts the specified array of ints using a most significant digit
+     * radix sort with DEFAULT_RADIX_BITS bits per digit.
+     *
+     * @param data the array to be sorted
+     */
+    public static void msdRadixSort(int[] data) {
+        msdRadixSort(data, DEFAULT_RADIX_BITS);
+    }
+
+    /**
+     * Sorts the specified array of ints using a most significant digit
+     * radix sort. The keys are distributed into buckets by their highest
+     * digit and each bucket is then sorted by the next digit. Small buckets
+     * are finished with insertion sort, whose comparisons are counted.
+     *
+     * @param data the array to be sorted
+     * @param bits the number of bits per digit, from 1 to MAX_RADIX_BITS
+     */
+    public static void msdRadixSort(int[] data, int bits) {
+        checkRadixBits(bits);
+        MonitoredComparator<Integer> comparator = new MonitoredComparator<>();
+        int[] buffer = new int[data.length];
+        msdRadixSort(data, buffer, 0, data.length - 1, 32 - bits, bits, comparator);
+        comparator.publish(data);
+    }
+
+    /**
+     * Recursively sorts a range of ints by the digit at the given shift and
+     * then each of the resulting buckets by the following digits.
+     *
+     * @param data   the array to be sorted
+     * @param buffer scratch space as long as data
+     * @param min    the index of the first element
+     * @param max    the index of the last element
+     * @param shift  the position of the lowest bit of the digit, negative for
+     *               a last digit that is narrower than the others
+     * @param bits   the number of bits per digit
+     * @param comparator the MonitoredComparator tracking the passes
+     */
+    private static void msdRadixSort(int[] data, int[] buffer, int min, int max, int shift, int bits,
+                                     MonitoredComparator<Integer> comparator) {
+        int length = max - min + 1;
+        if (length <= MSD_INSERTION_THRESHOLD) {
+            insertionSort(data, min, max, comparator);
+            return;
+        }
+
+        comparator.enter();
+        int radix = 1 << bits;
+        int mask = radix - 1;
+        int[] count = new int[radix + 1];
+        for (int index = min; index <= max; index++) {
+            count[digit(data[index], shift, mask) + 1]++;
+        }
+
+        // every key has the same digit, so go straight to the next one
+        if (count[digit(data[min], shift, mask) + 1] == length) {
+            if (shift > 0) {
+                msdRadixSort(data, buffer, min, max, shift - bits, bits, comparator);
+            }
+            comparator.exit();
+            return;
+        }
+
+        for (int r = 0; r < radix; r++) {
+            count[r + 1] += count[r];
+        }
+
+        // afterwards count[r] is where bucket r ends, and where bucket r+1 starts
+        for (int index = min; index <= max; index++) {
+            buffer[min + count[digit(data[index], shift, mask)]++] = data[index];
+        }
+        System.arraycopy(buffer, min, data, min, length);
+        comparator.recordMoves(2L * length);
+        comparator.recordPass(2L * length * INT_BYTES);
+
+        if (shift > 0) {
+            int start = 0;
+            for (int r = 0; r < radix; r++) {
+                if (count[r] - start > 1) {
+                    msdRadixSort(data, buffer, min + start, min + count[r] - 1, shift - bits, bits, comparator);
+                }
+                start = count[r];
+            }
+        }
+        comparator.exit();
+    }
+
+    /**
+     * Sorts a small range of ints with insertion sort. Used to finish the
+     * buckets of the MSD radix sort.
+     *
+     * @param data the array to be sorted
+     * @param min  the index of the first element
+     * @param max  the index of the last element
+     * @param comparator the MonitoredComparator tracking comparisons
+     */
+    private static void insertionSort(int[] data, int min, int max, MonitoredComparator<Integer> comparator) {
+        for (int index = min + 1; index <= max; index++) {
+            int key = data[index];
+            int position = index;
+            while (position > min && comparator.compare(data[position - 1], key) > 0) {
+                data[position] = data[position - 1];
+                comparator.recordMoves(1);
+                position--;
+            }
+            data[position] = key;
+        }
+    }
+
+    /**
+     * Sorts the specified array of longs using counting sort. The difference
+     * between the largest and smallest value must be below
+     * MAX_COUNTING_RANGE.
+     *
+     * @param data the array to be sorted
+     * @throws IllegalArgumentException if the values span too wide a range
+     */
+    public static void countingSort(long[] data) {
+        MonitoredComparator<Long> comparator = new MonitoredComparator<>();
+        if (data.length > 1) {
+            // find the range of values
+            long min = data[0], max = data[0];
+            for (long value : data) {
+                if (value < min) {
+                    min = value;
+                }
+                if (value > max) {
+                    max = value;
+                }
+            }
+            comparator.recordPass(0);
+
+            int[] count = new int[countingRange(min, max)];
+            for (long value : data) {
+                count[(int) (value - min)]++;
+            }
+            comparator.recordPass(0);
+
+            // write every value back as many times as it was counted
+            int index = 0;
+            for (int offset = 0; offset < count.length; offset++) {
+                for (int times = count[offset]; times > 0; times--) {
+                    data[index++] = min + offset;
+                }
+            }
+            comparator.recordPass((long) data.length * LONG_BYTES);
+        }
+        comparator.publish(data);
+    }
+
+    /**
+     * Sorts the specified array of longs using a least significant digit
+     * radix sort with DEFAULT_RADIX_BITS bits per digit.
+     *
+     * @param data the array to be sorted
+     */
+    public static void lsdRadixSort(long[] data) {
+        lsdRadixSort(data, DEFAULT_RADIX_BITS);
+    }
+
+    /**
+     * Sorts the specified array of longs using a least significant digit
+     * radix sort. Each pass distributes the keys stably by one digit, from
+     * the lowest digit to the highest, alternating between the data and a
+     * single buffer. Passes where every key has the same digit are skipped.
+     *
+     * @param data the array to be sorted
+     * @param bits the number of bits per digit, from 1 to MAX_RADIX_BITS
+     */
+    public static void lsdRadixSort(long[] data, int bits) {
+        checkRadixBits(bits);
+        MonitoredComparator<Long> comparator = new MonitoredComparator<>();
+        int length = data.length;
+        if (length > 1) {
+            int radix = 1 << bits;
+            int mask = radix - 1;
+            int[] count = new int[radix + 1];
+            long[] source = data;
+            long[] destination = new long[length];
+
+            for (int shift = 0; shift < 64; shift += bits) {
+                Arrays.fill(count, 0);
+                for (long value : source) {
+                    count[digit(value, shift, mask) + 1]++;
+                }
+
+                // every key has the same digit, so this pass would not change the order
+                if (count[digit(source[0], shift, mask) + 1] == length) {
+                    continue;
+                }
+
+                for (int r = 0; r < radix; r++) {
+                    count[r + 1] += count[r];
+                }
+                for (long value : source) {
+                    destination[count[digit(value, shift, mask)]++] = value;
+                }
+                comparator.recordMoves(length);
+                comparator.recordPass((long) length * LONG_BYTES);
+
+                long[] temp = source;
+                source = destination;
+                destination = temp;
+            }
+
+            // after an odd number of passes the sorted data is in the buffer
+            if (source != data) {
+                System.arraycopy(source, 0, data, 0, length);
+                comparator.recordMoves(length);
+                comparator.recordPass((long) length * LONG_BYTES);
+            }
+        }
+        comparator.publish(data);
+    }
+
+    /**
+     * Sorts the specified array of longs using a most significant digit
+     * radix sort with DEFAULT_RADIX_BITS bits per digit.
+     *
+     * @param data the array to be sorted
+     */
+    public static void msdRadixSort(long[] data) {
+        msdRadixSort(data, DEFAULT_RADIX_BITS);
+    }
+
+    /**
+     * Sorts the specified array of longs using a most significant digit
+     * radix sort. The keys are distributed into buckets by their highest
+     * digit and each bucket is then sorted by the next digit. Small buckets
+     * are finished with insertion sort, whose comparisons are counted.
+     *
+     * @param data the array to be sorted
+     * @param bits the number of bits per digit, from 1 to MAX_RADIX_BITS
+     */
+    public static void msdRadixSort(long[] data, int bits) {
+        checkRadixBits(bits);
+        MonitoredComparator<Long> comparator = new MonitoredComparator<>();
+        long[] buffer = new long[data.length];
+        msdRadixSort(data, buffer, 0, data.length - 1, 64 - bits, bits, comparator);
+        comparator.publish(data);
+    }
+
+    /**
+     * Recursively sorts a range of longs by the digit at the given shift and
+     * then each of the resulting buckets by the following digits.
+     *
+     * @param data   the array to be sorted
+     * @param buffer scratch space as long as data
+     * @param min    the index of the first element
+     * @param max    the index of the last element
+     * @param shift  the position of the lowest bit of the digit, negative for
+     *               a last digit that is narrower than the others
+     * @param bits   the number of bits per digit
+     * @param comparator the MonitoredComparator tracking the passes
+     */
+    private static void msdRadixSort(long[] data, long[] buffer, int min, int max, int shift, int bits,
+                                     MonitoredComparator<Long> comparator) {
+        int length = max - min + 1;
+        if (length <= MSD_INSERTION_THRESHOLD) {
+            insertionSort(data, min, max, comparator);
+            return;
+        }
+
+        comparator.enter();
+        int radix = 1 << bits;
+        int mask = radix - 1;
+        int[] count = new int[radix + 1];
+        for (int index = min; index <= max; index++) {
+            count[digit(data[index], shift, mask) + 1]++;
+        }
+
+        // every key has the same digit, so go straight to the next one
+        if (count[digit(data[min], shift, mask) + 1] == length) {
+            if (shift > 0) {
+                msdRadixSort(data, buffer, min, max, shift - bits, bits, comparator);
+            }
+            comparator.exit();
+            return;
+        }
+
+        for (int r = 0; r < radix; r++) {
+            count[r + 1] += count[r];
+        }
+
+        // afterwards count[r] is where bucket r ends, and where bucket r+1 starts
+        for (int index = min; index <= max; index++) {
+            buffer[min + count[digit(data[index], shift, mask)]++] = data[index];
+        }
+        System.arraycopy(buffer, min, data, min, length);
+        comparator.recordMoves(2L * length);
+        comparator.recordPass(2L * length * LONG_BYTES);
+
+        if (shift > 0) {
+            int start = 0;
+            for (int r = 0; r < radix; r++) {
+                if (count[r] - start > 1) {
+                    msdRadixSort(data, buffer, min + start, min + count[r] - 1, shift - bits, bits, comparator);
+                }
+                start = count[r];
+            }
+        }
+        comparator.exit();
+    }
+
+    /**
+     * Sorts a small range of longs with insertion sort. Used to finish the
+     * buckets of the MSD radix sort.
+     *
+     * @param data the array to be sorted
+     * @param min  the index of the first element
+     * @param max  the index of the last element
+     * @param comparator the MonitoredComparator tracking comparisons
+     */
+    private static void insertionSort(long[] data, int min, int max, MonitoredComparator<Long> comparator) {
+        for (int index = min + 1; index <= max; index++) {
+            long key = data[index];
+            int position = index;
+            while (position > min && comparator.compare(data[position - 1], key) > 0) {
+                data[position] = data[position - 1];
+                comparator.recordMoves(1);
+                position--;
+            }
+            data[position] = key;
+        }
+    }
+
+    /**
+     * Sorts the specified array of Integers using a stable counting sort.
+     * The difference between the largest and smallest value must be below
+     * MAX_COUNTING_RANGE.
+     *
+     * @param data the array to be sorted
+     * @throws IllegalArgumentException if the values span too wide a range
+     */
+    public static void countingSort(Integer[] data) {
+        MonitoredComparator<Integer> comparator = new MonitoredComparator<>();
+        int length = data.length;
+        if (length > 1) {
+            // find the range of values
+            int min = data[0], max = data[0];
+            for (int value : data) {
+                min = Math.min(min, value);
+                max = Math.max(max, value);
+            }
+            comparator.recordPass(0);
+
+            int[] count = new int[countingRange(min, max) + 1];
+            for (int value : data) {
+                count[value - min + 1]++;
+            }
+            for (int offset = 1; offset < count.length; offset++) {
+                count[offset] += count[offset - 1];
+            }
+            comparator.recordPass(0);
+
+            // distribute the elements by value, keeping equal ones in order
+            Integer[] buffer = new Integer[length];
+            for (Integer value : data) {
+                buffer[count[value - min]++] = value;
+            }
+            System.arraycopy(buffer, 0, data, 0, length);
+            comparator.recordMoves(2L * length);
+            comparator.recordPass(2L * length * INT_BYTES);
+        }
+        comparator.publish(data);
+    }
+
+    /**
+     * Sorts the specified array of Integers using a least significant digit
+     * radix sort with DEFAULT_RADIX_BITS bits per digit.
+     *
+     * @param data the array to be sorted
+     */
+    public static void lsdRadixSort(Integer[] data) {
+        lsdRadixSort(data, DEFAULT_RADIX_BITS);
+    }
+
+    /**
+     * Sorts the specified array of Integers using a least significant digit
+     * radix sort. Each pass distributes the keys stably by one digit, from
+     * the lowest digit to the highest, alternating between the data and a
+     * single buffer. Passes where every key has the same digit are skipped.
+     *
+     * @param data the array to be sorted
+     * @param bits the number of bits per digit, from 1 to MAX_RADIX_BITS
+     */
+    public static void lsdRadixSort(Integer[] data, int bits) {
+        checkRadixBits(bits);
+        MonitoredComparator<Integer> comparator = new MonitoredComparator<>();
+        int length = data.length;
+        if (length > 1) {
+            int radix = 1 << bits;
+            int mask = radix - 1;
+            int[] count = new int[radix + 1];
+            Integer[] source = data;
+            Integer[] destination = new Integer[length];
+
+            for (int shift = 0; shift < 32; shift += bits) {
+                Arrays.fill(count, 0);
+                for (Integer value : source) {
+                    count[digit(value, shift, mask) + 1]++;
+                }
+
+                // every key has the same digit, so this pass would not change the order
+                if (count[digit(source[0], shift, mask) + 1] == length) {
+                    continue;
+                }
+
+                for (int r = 0; r < radix; r++) {
+                    count[r + 1] += count[r];
+                }
+                for (Integer value : source) {
+                    destination[count[digit(value, shift, mask)]++] = value;
+                }
+                comparator.recordMoves(length);
+                comparator.recordPass((long) length * INT_BYTES);
+
+                Integer[] temp = source;
+                source = destination;
+                destination = temp;
+            }
+
+            // after an odd number of passes the sorted data is in the buffer
+            if (source != data) {
+                System.arraycopy(source, 0, data, 0, length);
+                comparator.recordMoves(length);
+                comparator.recordPass((long) length * INT_BYTES);
+            }
+        }
+        comparator.publish(data);
+    }
+
+    /**
+     * Sorts the specified array of Integers using a most significant digit
+     * radix sort with DEFAULT_RADIX_BITS bits per digit.
+     *
+     * @param data the array to be sorted
+     */
+    public static void msdRadixSort(Integer[] data) {
+        msdRadixSort(data, DEFAULT_RADIX_BITS);
+    }
+
+    /**
+     * Sorts the specified array of Integers using a most significant digit
+     * radix sort. The keys are distributed into buckets by their highest
+     * digit and each bucket is then sorted by the next digit. Small buckets
+     * are finished with insertion sort, whose comparisons are counted.
+     *
+     * @param data the array to be sorted
+     * @param bits the number of bits per digit, from 1 to MAX_RADIX_BITS
+     */
+    public static void msdRadixSort(Integer[] data, int bits) {
+        checkRadixBits(bits);
+        MonitoredComparator<Integer> comparator = new MonitoredComparator<>();
+        Integer[] buffer = new Integer[data.length];
+        msdRadixSort(data, buffer, 0, data.length - 1, 32 - bits, bits, comparator);
+        comparator.publish(data);
+    }
+
+    /**
+     * Recursively sorts a range of Integers by the digit at the given shift and
+     * then each of the resulting buckets by the following digits.
+     *
+     * @param data   the array to be sorted
+     * @param buffer scratch space as long as data
+     * @param min    the index of the first element
+     * @param max    the index of the last element
+     * @param shift  the position of the lowest bit of the digit, negative for
+     *               a last digit that is narrower than the others
+     * @param bits   the number of bits per digit
+     * @param comparator the MonitoredComparator tracking the passes
+     */
+    private static void msdRadixSort(Integer[] data, Integer[] buffer, int min, int max, int shift, int bits,
+                                     MonitoredComparator<Integer> comparator) {
+        int length = max - min + 1;
+        if (length <= MSD_INSERTION_THRESHOLD) {
+            insertionSort(data, min, max, comparator);
+            return;
+        }
+
+        comparator.enter();
+        int radix = 1 << bits;
+        int mask = radix - 1;
+        int[] count = new int[radix + 1];
+        for (int index = min; index <= max; index++) {
+            count[digit(data[index], shift, mask) + 1]++;
+        }
+
+        // every key has the same digit, so go straight to the next one
+        if (count[digit(data[min], shift, mask) + 1] == length) {
+            if (shift > 0) {
+                msdRadixSort(data, buffer, min, max, shift - bits, bits, comparator);
+            }
+            comparator.exit();
+            return;
+        }
+
+        for (int r = 0; r < radix; r++) {
+            count[r + 1] += count[r];
+        }
+
+        // afterwards count[r] is where bucket r ends, and where bucket r+1 starts
+        for (int index = min; index <= max; index++) {
+            buffer[min + count[digit(data[index], shift, mask)]++] = data[index];
+        }
+        System.arraycopy(buffer, min, data, min, length);
+        comparator.recordMoves(2L * length);
+        comparator.recordPass(2L * length * INT_BYTES);
+
+        if (shift > 0) {
+            int start = 0;
+            for (int r = 0; r < radix; r++) {
+                if (count[r] - start > 1) {
+                    msdRadixSort(data, buffer, min + start, min + count[r] - 1, shift - bits, bits, comparator);
+                }
+                start = count[r];
+            }
+        }
+        comparator.exit();
+    }
+
+    /**
+     * Sorts a small range of Integers with insertion sort. Used to finish the
+     * buckets of the MSD radix sort.
+     *
+     * @param data the array to be sorted
+     * @param min  the index of the first element
+     * @param max  the index of the last element
+     * @param comparator the MonitoredComparator tracking comparisons
+     */
+    private static void insertionSort(Integer[] data, int min, int max, MonitoredComparator<Integer> comparator) {
+        for (int index = min + 1; index <= max; index++) {
+            Integer key = data[index];
+            int position = index;
+            while (position > min && comparator.compare(data[position - 1], key) > 0) {
+                data[position] = data[position - 1];
+                comparator.recordMoves(1);
+                position--;
+            }
+            data[position] = key;
+        }
+    }
+
+    /**
+     * Checks that the number of bits per digit is supported.
+     *
+     * @param bits the number of bits per digit
+     * @throws IllegalArgumentException if bits is not between 1 and MAX_RADIX_BITS
+     */
+    private static void checkRadixBits(int bits) {
+        if (bits < 1 || bits > MAX_RADIX_BITS) {
+            throw new IllegalArgumentException("Radix bits must be between 1 and " + MAX_RADIX_BITS + ": " + bits);
+        }
+    }
+
+    /**
+     * Calculates the number of counters counting sort needs for a range of
+     * values.
+     *
+     * @param min the smallest value
+     * @param max the largest value
+     * @return the number of values from min to max
+     * @throws IllegalArgumentException if the range is MAX_COUNTING_RANGE or wider
+     */
+    private static int countingRange(long min, long max) {
+        long span = max - min;
+        // a negative span means the subtraction overflowed
+        if (span < 0 || span >= MAX_COUNTING_RANGE) {
+            throw new IllegalArgumentException("Values from " + min + " to " + max
+                    + " span too wide a range for counting sort");
+        }
+        return (int) span + 1;
+    }
+
+    /**
+     * Extracts a digit of an int key with its sign bit flipped.
+     *
+     * @param value the key
+     * @param shift the position of the lowest bit of the digit, negative when
+     *              the digit extends below bit 0
+     * @param mask  the mask of a digit
+     * @return the digit, between 0 and mask
+     */
+    static int digit(int value, int shift, int mask) {
+        int key = value ^ Integer.MIN_VALUE;
+        return (shift >= 0 ? key >>> shift : key << -shift) & mask;
+    }
+
+    /**
+     * Extracts a digit of a long key with its sign bit flipped.
+     *
+     * @param value the key
+     * @param shift the position of the lowest bit of the digit, negative when
+     *              the digit extends below bit 0
+     * @param mask  the mask of a digit
+     * @return the digit, between 0 and mask
+     */
+    static int digit(long value, int shift, int mask) {
+        long key = value ^ Long.MIN_VALUE;
+        return (int) ((shift >= 0 ? key >>> shift : key << -shift) & mask);
+    }
+}
@@ -0,0 +1,59 @@
+package helpers;
+
+/**
+ * The file formats the external and file sorts can read and write.
+ *
+ * @author JaniOC
+ */
+public enum RecordFormat {
+    /** 4-byte big-endian int records. */
+    BINARY_INT("binaryInt", Integer.BYTES),
+
+    /** 8-byte big-endian long records. */
+    BINARY_LONG("binaryLong", Long.BYTES),
+
+    /** One decimal integer per line. */
+    TEXT("text", 0);
+
+    private final String name;
+    private final int recordBytes;
+
+    RecordFormat(String name, int recordBytes) {
+        this.name = name;
+        this.recordBytes = recordBytes;
+    }
+
+    /**
+     * Gets the name of the format, as accepted by fromName.
+     *
+     * @return the format name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Gets the size of one record in bytes.
+     *
+     * @return the record size, or 0 for the variable-width text format
+     */
+    public int getRecordBytes() {
+        return recordBytes;
+    }
+
+    /**
+     * Finds the format with the given name.
+     *
+     * @param name the format name, as returned by getName
+     * @return the matching format
+     * @throws IllegalArgumentException if no format has that name
+     */
+    public static RecordFormat fromName(String name) {
+        for (RecordFormat format : values()) {
+            if (format.name.equalsIgnoreCase(name)) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("Unknown record format: " + name);
+    }
+}
@@ -2,13 +2,15 @@ package helpers;
 
 /**
  * A class that holds the results of performance measurements, including
- * the number of comparisons and the time taken for an operation.
+ * the number of comparisons and the time taken for an operation, and
+ * optionally the number of bytes allocated during it.
  *
  * @author JaniOC
  */
 public class Results<N, S> {
     private final N count; // Number of comparisons
     private final S time;  // Time taken in milliseconds
+    private final long bytes; // Bytes allocated, or -1 if not measured
 
     /**
      * Constructs a new Results object to store the number of comparisons
@@ -18,8 +20,21 @@ public class Results<N, S> {
      * @param milliseconds the time taken in milliseconds
      */
     public Results(N comparisons, S milliseconds) {
+        this(comparisons, milliseconds, -1);
+    }
+
+    /**
+     * Constructs a new Results object that also stores the number of bytes
+     * allocated during the operation.
+     *
+     * @param comparisons the number of comparisons
+     * @param milliseconds the time taken in milliseconds
+     * @param bytes the number of bytes allocated, or -1 if not measured
+     */
+    public Results(N comparisons, S milliseconds, long bytes) {
         this.count = comparisons;
         this.time = milliseconds;
+        this.bytes = bytes;
     }
 
     /**
@@ -39,4 +54,13 @@ public class Results<N, S> {
     public S getTime() {
         return time;
     }
+
+    /**
+     * Gets the number of bytes allocated.
+     *
+     * @return the bytes allocated, or -1 if not measured
+     */
+    public long getBytes() {
+        return bytes;
+    }
 }
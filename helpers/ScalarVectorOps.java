@@ -0,0 +1,51 @@
+package helpers;
+
+/**
+ * The scalar VectorOps, one element at a time. Used when the Vector API is
+ * not available, for the tails of vectorized loops, and as the baseline of
+ * the vector benchmarks.
+ *
+ * @author JaniOC
+ */
+public class ScalarVectorOps implements VectorOps {
+    @Override
+    public String getName() {
+        return "scalar";
+    }
+
+    @Override
+    public int indexOf(int[] data, int from, int to, int target) {
+        for (int index = from; index < to; index++) {
+            if (data[index] == target) {
+                return index;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public int indexOfMin(int[] data, int from, int to) {
+        int min = from;
+        for (int index = from + 1; index < to; index++) {
+            if (data[index] < data[min]) {
+                min = index;
+            }
+        }
+        return min;
+    }
+
+    @Override
+    public void sortSmall(int[] data, int from, int to) {
+        for (int index = from + 1; index < to; index++) {
+            int key = data[index];
+            int position = index;
+
+            // shift larger values to the right
+            while (position > from && data[position - 1] > key) {
+                data[position] = data[position - 1];
+                position--;
+            }
+            data[position] = key;
+        }
+    }
+}
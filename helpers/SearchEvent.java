@@ -0,0 +1,76 @@
+package helpers;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A JDK Flight Recorder event for one call of a search in Searching: a
+ * single lookup, or a batch of lookups for the batch searches. The duration
+ * of the event is the time of the call in nanoseconds. The distribution is
+ * only known when a harness such as the search performance table names it
+ * for the thread. When no recording is running the event costs next to
+ * nothing.
+ *
+ * @author JaniOC
+ */
+@Name("helpers.Search")
+@Label("Search")
+@Category({"Sorting Performance", "Searching"})
+@Description("One lookup in a sorted seeded input")
+@StackTrace(false)
+class SearchEvent extends Event {
+    // Name of the input distribution being searched on each thread, set by the harnesses
+    private static final ThreadLocal<String> currentDistribution = new ThreadLocal<>();
+
+    @Label("Algorithm")
+    String algorithm;
+
+    @Label("Distribution")
+    String distribution;
+
+    @Label("Size")
+    int size;
+
+    @Label("Lookups")
+    int lookups;
+
+    @Label("Probes")
+    @Description("Elements the search looked at, or 0 if it does not count them")
+    long probes;
+
+    /**
+     * Fills in the fields of this event and commits it. Called once the
+     * event has ended, if it should be committed.
+     *
+     * @param algorithm the search algorithm
+     * @param size the number of elements searched
+     * @param lookups the number of targets looked up
+     * @param probes the elements the search looked at, or 0 if not counted
+     */
+    void commit(String algorithm, int size, int lookups, long probes) {
+        this.algorithm = algorithm;
+        this.distribution = currentDistribution.get();
+        this.size = size;
+        this.lookups = lookups;
+        this.probes = probes;
+        commit();
+    }
+
+    /**
+     * Names the input distribution the following searches on this thread
+     * look in, for their events.
+     *
+     * @param distribution the distribution name, or null to clear it
+     */
+    static void setDistribution(String distribution) {
+        if (distribution == null) {
+            currentDistribution.remove();
+        } else {
+            currentDistribution.set(distribution);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package helpers;
+
+/**
+ * A read-only search structure built once from a sorted array of ints and
+ * then queried many times. Lookups answer like Searching.binarySearch on
+ * the array the index was built from.
+ *
+ * @author JaniOC
+ */
+public interface SearchIndex {
+    /**
+     * Gets the number of values in the index.
+     *
+     * @return the number of values
+     */
+    int size();
+
+    /**
+     * Searches the index for a value.
+     *
+     * @param target the value being searched for
+     * @return the index of the first occurrence of the target in the sorted
+     *         array the index was built from, otherwise
+     *         (-(insertion point) - 1), as in Arrays.binarySearch
+     */
+    int search(int target);
+}
@@ -0,0 +1,177 @@
+package helpers;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * A class that prints a performance table for the search algorithms. For
+ * every algorithm and input distribution it shows the average number of
+ * probes and the average time (in nanoseconds) per lookup at different
+ * array sizes. The input is sorted before it is searched, and each cell
+ * answers the same seeded batch of lookups, half of them for values that
+ * are in the array and half for random values that may be missing.
+ *
+ * @author JaniOC
+ */
+public class SearchPerformanceTable {
+    // Array of array sizes to test
+    private final int[] arraySizes = {1000, 10000, 100000, 1000000};
+
+    // Array of algorithm names to test
+    private final String[] algorithms = {"binarySearch", "interpolationSearch", "exponentialSearch"};
+
+    // Number of lookups per cell
+    private final int lookups = 10000;
+
+    // Input distributions to test
+    private final InputGenerator[] distributions;
+
+    // Seed of the input generators and the lookups
+    private final long seed = 42L;
+
+    /**
+     * Constructor that prints the search performance table for all the
+     * standard input distributions when the object is created.
+     */
+    public SearchPerformanceTable() {
+        this(InputDistribution.values());
+    }
+
+    /**
+     * Constructor that prints the search performance table for the given
+     * input distributions when the object is created.
+     *
+     * @param distributions the input generators to search
+     */
+    public SearchPerformanceTable(InputGenerator... distributions) {
+        this.distributions = distributions;
+        printTable();
+    }
+
+    /**
+     * Prints the performance table, showing the probes and the time in
+     * nanoseconds per lookup for each search algorithm.
+     */
+    public void printTable() {
+        int firstColumnWidth = calculateFirstColumnWidth();
+
+        System.out.printf(" %-" + firstColumnWidth + "s ", "");
+        for (int size : arraySizes) {
+            System.out.printf(" %-10d ", size);
+        }
+        System.out.println();
+
+        for (String algo : algorithms) {
+            for (InputGenerator distribution : distributions) {
+                // measure every size once, then print both rows from the results
+                List<Results<Double, Double>> results = new ArrayList<>();
+                for (int size : arraySizes) {
+                    results.add(calculatePerformance(algo, distribution, size));
+                }
+
+                String label = algo + "." + distribution.getName();
+                System.out.printf(" %-" + firstColumnWidth + "s ", label + ".probes");
+                for (Results<Double, Double> result : results) {
+                    System.out.printf(" %-10.2f ", result.getCount());
+                }
+                System.out.println();
+
+                System.out.printf(" %-" + firstColumnWidth + "s ", label + ".ns");
+                for (Results<Double, Double> result : results) {
+                    System.out.printf(" %-10.1f ", result.getTime());
+                }
+                System.out.println();
+            }
+        }
+        System.out.println();
+    }
+
+    /**
+     * Calculates the width required for the first column in the table based
+     * on the longest label.
+     *
+     * @return the width of the first column
+     */
+    private int calculateFirstColumnWidth() {
+        int maxLength = 0;
+        for (String algo : algorithms) {
+            for (InputGenerator distribution : distributions) {
+                String probesLabel = algo + "." + distribution.getName() + ".probes";
+                maxLength = Math.max(maxLength, probesLabel.length());
+            }
+        }
+        return maxLength;
+    }
+
+    /**
+     * Calculates the performance of a search algorithm on a sorted array of
+     * a given size and distribution. The distribution is named for the
+     * thread, so the SearchEvent of every lookup carries it.
+     *
+     * @param algorithm the search algorithm to test
+     * @param distribution the generator of the input data
+     * @param size the size of the array to search
+     * @return a Results object containing the average probes and the
+     *         average time in nanoseconds per lookup
+     */
+    private Results<Double, Double> calculatePerformance(String algorithm, InputGenerator distribution, int size) {
+        int[] data = distribution.generate(size, seed);
+        Arrays.sort(data);
+        int[] targets = generateTargets(data);
+
+        long probes = 0;
+        SearchEvent.setDistribution(distribution.getName());
+        long startTime = System.nanoTime();
+        try {
+            for (int target : targets) {
+                probes += search(algorithm, data, target);
+            }
+        } finally {
+            SearchEvent.setDistribution(null);
+        }
+        long endTime = System.nanoTime();
+
+        return new Results<>((double) probes / lookups, (double) (endTime - startTime) / lookups);
+    }
+
+    /**
+     * Generates the lookups of a cell: every other one is a value of the
+     * array, the rest are random values in the range of the distributions.
+     *
+     * @param data the sorted array to be searched
+     * @return the targets to look up
+     */
+    private int[] generateTargets(int[] data) {
+        Random rand = new Random(seed + 1);
+        int[] targets = new int[lookups];
+        for (int i = 0; i < lookups; i++) {
+            targets[i] = i % 2 == 0 ? data[rand.nextInt(data.length)] : rand.nextInt(data.length);
+        }
+        return targets;
+    }
+
+    /**
+     * Looks up a target with the selected algorithm.
+     *
+     * @param algorithm the search algorithm to use
+     * @param data the sorted array to search
+     * @param target the value to look up
+     * @return the number of probes the lookup made
+     */
+    private long search(String algorithm, int[] data, int target) {
+        switch (algorithm) {
+            case "binarySearch":
+                return Searching.binarySearchProbes(data.length, Searching.binarySearch(data, target));
+            case "interpolationSearch":
+                Searching.interpolationSearch(data, target);
+                return MonitoredComparator.getComparisonCount();
+            case "exponentialSearch":
+                Searching.exponentialSearch(data, target);
+                return MonitoredComparator.getComparisonCount();
+            default:
+                throw new IllegalArgumentException("Unknown algorithm: " + algorithm);
+        }
+    }
+}
@@ -1,5 +1,9 @@
 package helpers;
 
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
 /**
  * Searching demonstrates various search algorithms on an array
  * of objects.
@@ -9,6 +13,12 @@ package helpers;
  */
 public class Searching
 {
+    // Number of sorted targets at or below which a batch search runs sequentially
+    private static final int PARALLEL_SEARCH_THRESHOLD = 4096;
+
+    // Interpolation probes in a row that may fail to halve the range before bisecting
+    private static final int BISECT_AFTER_MISSES = 2;
+
     /**
      * Searches the specified array of objects using a linear search
      * algorithm.
@@ -22,6 +32,8 @@ public class Searching
     public static <T>
     boolean linearSearch(T[] data, int min, int max, T target)
     {
+        SearchEvent event = new SearchEvent();
+        event.begin();
         int index = min;
         boolean found = false;
 
@@ -31,9 +43,32 @@ public class Searching
             index++;
         }
 
+        event.end();
+        if (event.shouldCommit())
+            event.commit("linearSearch", max - min + 1, 1, index - min);
         return found;
     }
 
+    /**
+     * Searches the specified array of ints using a linear search, which
+     * compares a whole vector of values with the target at a time when the
+     * Vector API is available.
+     *
+     * @param data   the array to be searched
+     * @param target the value being searched for
+     * @return       the index of the first occurrence of the target, or -1
+     */
+    public static int linearSearch(int[] data, int target)
+    {
+        SearchEvent event = new SearchEvent();
+        event.begin();
+        int index = VectorOps.INSTANCE.indexOf(data, 0, data.length, target);
+        event.end();
+        if (event.shouldCommit())
+            event.commit("linearSearch", data.length, 1, index >= 0 ? index + 1 : data.length);
+        return index;
+    }
+
     /**
      * Searches the specified array of objects using a binary search
      * algorithm.
@@ -46,6 +81,28 @@ public class Searching
      */
     public static <T extends Comparable<T>>
     boolean binarySearch(T[] data, int min, int max, T target)
+    {
+        SearchEvent event = new SearchEvent();
+        event.begin();
+        boolean found = recursiveBinarySearch(data, min, max, target);
+        event.end();
+        if (event.shouldCommit())
+            event.commit("binarySearch", max - min + 1, 1, 0);
+        return found;
+    }
+
+    /**
+     * Recursively searches a range of the specified array of objects using
+     * a binary search algorithm.
+     *
+     * @param data   the array to be searched
+     * @param min    the integer representation of the minimum value
+     * @param max    the integer representation of the maximum value
+     * @param target the element being searched for
+     * @return       true if the desired element is found
+     */
+    private static <T extends Comparable<T>>
+    boolean recursiveBinarySearch(T[] data, int min, int max, T target)
     {
         boolean found = false;
         int midpoint = (min + max) / 2;  // determine the midpoint
@@ -56,13 +113,874 @@ public class Searching
         else if (data[midpoint].compareTo(target) > 0)
         {
             if (min <= midpoint - 1)
-                found = binarySearch(data, min, midpoint - 1, target);
+                found = recursiveBinarySearch(data, min, midpoint - 1, target);
         }
 
         else if (midpoint + 1 <= max)
-            found = binarySearch(data, midpoint + 1, max, target);
+            found = recursiveBinarySearch(data, midpoint + 1, max, target);
 
         return found;
     }
-}
 
+    /**
+     * Searches the specified sorted array of objects using an iterative
+     * binary search. Every level costs one comparison, and the loop runs a
+     * fixed number of times for a given length whatever the target, which
+     * lets the JIT pick the half with a conditional move instead of a branch.
+     *
+     * @param data   the sorted array to be searched
+     * @param target the element being searched for
+     * @return       the index of the target if it is found, otherwise
+     *               (-(insertion point) - 1), as in Arrays.binarySearch
+     */
+    public static <T extends Comparable<T>>
+    int binarySearch(T[] data, T target)
+    {
+        SearchEvent event = new SearchEvent();
+        event.begin();
+        int lower = lowerBound(data, 0, data.length, target);
+        int result = lower < data.length && data[lower].compareTo(target) == 0 ? lower : -(lower + 1);
+        event.end();
+        if (event.shouldCommit())
+            event.commit("binarySearch", data.length, 1, binarySearchProbes(data.length, result));
+        return result;
+    }
+
+    /**
+     * Finds the first element of a sorted range that is not less than the
+     * target, without branching on the comparisons.
+     *
+     * @param data   the sorted array to be searched
+     * @param from   the index of the first element of the range
+     * @param to     the index after the last element of the range
+     * @param target the element being searched for
+     * @return       the index of the first element not less than the
+     *               target, or to if there is none
+     */
+    private static <T extends Comparable<T>>
+    int lowerBound(T[] data, int from, int to, T target)
+    {
+        int length = to - from;
+        if (length == 0)
+            return from;
+
+        int base = from;
+        while (length > 1)
+        {
+            int half = length >>> 1;
+            base += data[base + half].compareTo(target) < 0 ? half : 0;
+            length -= half;
+        }
+        return base + (data[base].compareTo(target) < 0 ? 1 : 0);
+    }
+
+    /**
+     * Calculates the probes of a branch-free binary search, which does not
+     * count them itself: they only depend on the size of the array and on
+     * whether the target is past its end.
+     *
+     * @param size   the size of the searched array
+     * @param result the result of the search
+     * @return       the number of probes of the search
+     */
+    static long binarySearchProbes(int size, int result)
+    {
+        if (size == 0)
+            return 0;
+
+        long probes = 1;  // the last probe that settles the lower bound
+        for (int length = size; length > 1; length -= length >>> 1)
+            probes++;
+        int lower = result >= 0 ? result : -result - 1;
+        return lower < size ? probes + 1 : probes;  // and the probe that checks for a match
+    }
+
+    /**
+     * Searches the specified sorted array for many targets at once. The
+     * targets are sorted and answered in one merged pass over the data:
+     * each search starts where the previous one ended and gallops forward,
+     * so close targets share the cost of reaching their part of the array.
+     *
+     * @param data    the sorted array to be searched
+     * @param targets the elements being searched for, in any order
+     * @return        the result of binarySearch(data, target) for each
+     *                target, in the order of the targets
+     */
+    public static <T extends Comparable<T>>
+    int[] binarySearchAll(T[] data, T[] targets)
+    {
+        SearchEvent event = new SearchEvent();
+        event.begin();
+        int[] results = new int[targets.length];
+        searchSorted(data, targets, sortedOrder(targets.length, (i, j) -> targets[i].compareTo(targets[j])),
+                results, 0, targets.length);
+        event.end();
+        if (event.shouldCommit())
+            event.commit("binarySearchAll", data.length, targets.length, 0);
+        return results;
+    }
+
+    /**
+     * Searches the specified sorted array for many targets at once, like
+     * binarySearchAll, answering blocks of the sorted targets in parallel
+     * on the common fork-join pool.
+     *
+     * @param data    the sorted array to be searched
+     * @param targets the elements being searched for, in any order
+     * @return        the result of binarySearch(data, target) for each
+     *                target, in the order of the targets
+     */
+    public static <T extends Comparable<T>>
+    int[] parallelBinarySearchAll(T[] data, T[] targets)
+    {
+        SearchEvent event = new SearchEvent();
+        event.begin();
+        int[] results = new int[targets.length];
+        int[] order = sortedOrder(targets.length, (i, j) -> targets[i].compareTo(targets[j]));
+        ForkJoinPool.commonPool().invoke(new SearchTask(0, targets.length,
+                (from, to) -> searchSorted(data, targets, order, results, from, to)));
+        event.end();
+        if (event.shouldCommit())
+            event.commit("parallelBinarySearchAll", data.length, targets.length, 0);
+        return results;
+    }
+
+    /**
+     * Answers a range of the sorted targets in one merged pass.
+     *
+     * @param data    the sorted array to be searched
+     * @param targets the elements being searched for
+     * @param order   the indexes of the targets in sorted order
+     * @param results the array to store the result of each target in
+     * @param from    the first position in order to answer
+     * @param to      the position in order after the last one to answer
+     */
+    private static <T extends Comparable<T>>
+    void searchSorted(T[] data, T[] targets, int[] order, int[] results, int from, int to)
+    {
+        int position = 0;  // every element before position is less than the current target
+        for (int i = from; i < to; i++)
+        {
+            T target = targets[order[i]];
+
+            // gallop forward until an element is not less than the target
+            int high = position;
+            int step = 1;
+            while (high < data.length && data[high].compareTo(target) < 0)
+            {
+                position = high + 1;
+                high += Math.min(step, data.length - high);
+                step <<= 1;
+            }
+
+            position = lowerBound(data, position, high, target);
+            boolean found = position < data.length && data[position].compareTo(target) == 0;
+            results[order[i]] = found ? position : -(position + 1);
+        }
+    }
+
+    /**
+     * Searches the specified sorted array of ints using an iterative,
+     * branch-free binary search.
+     *
+     * @param data   the sorted array to be searched
+     * @param target the value being searched for
+     * @return       the index of the target if it is found, otherwise
+     *               (-(insertion point) - 1), as in Arrays.binarySearch
+     */
+    public static int binarySearch(int[] data, int target)
+    {
+        SearchEvent event = new SearchEvent();
+        event.begin();
+        int lower = lowerBound(data, 0, data.length, target);
+        int result = lower < data.length && data[lower] == target ? lower : -(lower + 1);
+        event.end();
+        if (event.shouldCommit())
+            event.commit("binarySearch", data.length, 1, binarySearchProbes(data.length, result));
+        return result;
+    }
+
+    /**
+     * Finds the first value of a sorted range of ints that is not less
+     * than the target, without branching on the comparisons.
+     *
+     * @param data   the sorted array to be searched
+     * @param from   the index of the first value of the range
+     * @param to     the index after the last value of the range
+     * @param target the value being searched for
+     * @return       the index of the first value not less than the
+     *               target, or to if there is none
+     */
+    private static int lowerBound(int[] data, int from, int to, int target)
+    {
+        int length = to - from;
+        if (length == 0)
+            return from;
+
+        int base = from;
+        while (length > 1)
+        {
+            int half = length >>> 1;
+            base += data[base + half] < target ? half : 0;
+            length -= half;
+        }
+        return base + (data[base] < target ? 1 : 0);
+    }
+
+    /**
+     * Searches the specified sorted array of ints for many targets at
+     * once in one merged pass over the data.
+     *
+     * @param data    the sorted array to be searched
+     * @param targets the values being searched for, in any order
+     * @return        the result of binarySearch(data, target) for each
+     *                target, in the order of the targets
+     */
+    public static int[] binarySearchAll(int[] data, int[] targets)
+    {
+        SearchEvent event = new SearchEvent();
+        event.begin();
+        int[] results = new int[targets.length];
+        searchSorted(data, targets, sortedOrder(targets, false), results, 0, targets.length);
+        event.end();
+        if (event.shouldCommit())
+            event.commit("binarySearchAll", data.length, targets.length, 0);
+        return results;
+    }
+
+    /**
+     * Searches the specified sorted array of ints for many targets at
+     * once, sorting the targets and answering blocks of them in parallel
+     * on the common fork-join pool.
+     *
+     * @param data    the sorted array to be searched
+     * @param targets the values being searched for, in any order
+     * @return        the result of binarySearch(data, target) for each
+     *                target, in the order of the targets
+     */
+    public static int[] parallelBinarySearchAll(int[] data, int[] targets)
+    {
+        SearchEvent event = new SearchEvent();
+        event.begin();
+        int[] results = new int[targets.length];
+        int[] order = sortedOrder(targets, true);
+        ForkJoinPool.commonPool().invoke(new SearchTask(0, targets.length,
+                (from, to) -> searchSorted(data, targets, order, results, from, to)));
+        event.end();
+        if (event.shouldCommit())
+            event.commit("parallelBinarySearchAll", data.length, targets.length, 0);
+        return results;
+    }
+
+    /**
+     * Answers a range of the sorted int targets in one merged pass.
+     *
+     * @param data    the sorted array to be searched
+     * @param targets the values being searched for
+     * @param order   the indexes of the targets in sorted order
+     * @param results the array to store the result of each target in
+     * @param from    the first position in order to answer
+     * @param to      the position in order after the last one to answer
+     */
+    private static void searchSorted(int[] data, int[] targets, int[] order, int[] results, int from, int to)
+    {
+        int position = 0;  // every value before position is less than the current target
+        for (int i = from; i < to; i++)
+        {
+            int target = targets[order[i]];
+
+            // gallop forward until a value is not less than the target
+            int high = position;
+            int step = 1;
+            while (high < data.length && data[high] < target)
+            {
+                position = high + 1;
+                high += Math.min(step, data.length - high);
+                step <<= 1;
+            }
+
+            position = lowerBound(data, position, high, target);
+            boolean found = position < data.length && data[position] == target;
+            results[order[i]] = found ? position : -(position + 1);
+        }
+    }
+
+    /**
+     * Gets the indexes of the int targets in sorted order. Each target is
+     * packed with its index into a long, so sorting the longs sorts the
+     * targets without boxing.
+     *
+     * @param targets  the targets to order
+     * @param parallel whether to sort with Arrays.parallelSort
+     * @return         the indexes of the targets, sorted by target
+     */
+    private static int[] sortedOrder(int[] targets, boolean parallel)
+    {
+        long[] packed = new long[targets.length];
+        for (int i = 0; i < targets.length; i++)
+            packed[i] = ((long) targets[i] << 32) | i;
+        if (parallel)
+            Arrays.parallelSort(packed);
+        else
+            Arrays.sort(packed);
+
+        int[] order = new int[targets.length];
+        for (int i = 0; i < order.length; i++)
+            order[i] = (int) packed[i];
+        return order;
+    }
+
+    /**
+     * Searches the specified sorted array of longs using an iterative,
+     * branch-free binary search.
+     *
+     * @param data   the sorted array to be searched
+     * @param target the value being searched for
+     * @return       the index of the target if it is found, otherwise
+     *               (-(insertion point) - 1), as in Arrays.binarySearch
+     */
+    public static int binarySearch(long[] data, long target)
+    {
+        SearchEvent event = new SearchEvent();
+        event.begin();
+        int lower = lowerBound(data, 0, data.length, target);
+        int result = lower < data.length && data[lower] == target ? lower : -(lower + 1);
+        event.end();
+        if (event.shouldCommit())
+            event.commit("binarySearch", data.length, 1, binarySearchProbes(data.length, result));
+        return result;
+    }
+
+    /**
+     * Finds the first value of a sorted range of longs that is not less
+     * than the target, without branching on the comparisons.
+     *
+     * @param data   the sorted array to be searched
+     * @param from   the index of the first value of the range
+     * @param to     the index after the last value of the range
+     * @param target the value being searched for
+     * @return       the index of the first value not less than the
+     *               target, or to if there is none
+     */
+    private static int lowerBound(long[] data, int from, int to, long target)
+    {
+        int length = to - from;
+        if (length == 0)
+            return from;
+
+        int base = from;
+        while (length > 1)
+        {
+            int half = length >>> 1;
+            base += data[base + half] < target ? half : 0;
+            length -= half;
+        }
+        return base + (data[base] < target ? 1 : 0);
+    }
+
+    /**
+     * Searches the specified sorted array of longs for many targets at
+     * once in one merged pass over the data.
+     *
+     * @param data    the sorted array to be searched
+     * @param targets the values being searched for, in any order
+     * @return        the result of binarySearch(data, target) for each
+     *                target, in the order of the targets
+     */
+    public static int[] binarySearchAll(long[] data, long[] targets)
+    {
+        SearchEvent event = new SearchEvent();
+        event.begin();
+        int[] results = new int[targets.length];
+        searchSorted(data, targets, sortedOrder(targets.length, (i, j) -> Long.compare(targets[i], targets[j])),
+                results, 0, targets.length);
+        event.end();
+        if (event.shouldCommit())
+            event.commit("binarySearchAll", data.length, targets.length, 0);
+        return results;
+    }
+
+    /**
+     * Searches the specified sorted array of longs for many targets at
+     * once, answering blocks of the sorted targets in parallel on the
+     * common fork-join pool.
+     *
+     * @param data    the sorted array to be searched
+     * @param targets the values being searched for, in any order
+     * @return        the result of binarySearch(data, target) for each
+     *                target, in the order of the targets
+     */
+    public static int[] parallelBinarySearchAll(long[] data, long[] targets)
+    {
+        SearchEvent event = new SearchEvent();
+        event.begin();
+        int[] results = new int[targets.length];
+        int[] order = sortedOrder(targets.length, (i, j) -> Long.compare(targets[i], targets[j]));
+        ForkJoinPool.commonPool().invoke(new SearchTask(0, targets.length,
+                (from, to) -> searchSorted(data, targets, order, results, from, to)));
+        event.end();
+        if (event.shouldCommit())
+            event.commit("parallelBinarySearchAll", data.length, targets.length, 0);
+        return results;
+    }
+
+    /**
+     * Answers a range of the sorted long targets in one merged pass.
+     *
+     * @param data    the sorted array to be searched
+     * @param targets the values being searched for
+     * @param order   the indexes of the targets in sorted order
+     * @param results the array to store the result of each target in
+     * @param from    the first position in order to answer
+     * @param to      the position in order after the last one to answer
+     */
+    private static void searchSorted(long[] data, long[] targets, int[] order, int[] results, int from, int to)
+    {
+        int position = 0;  // every value before position is less than the current target
+        for (int i = from; i < to; i++)
+        {
+            long target = targets[order[i]];
+
+            // gallop forward until a value is not less than the target
+            int high = position;
+            int step = 1;
+            while (high < data.length && data[high] < target)
+            {
+                position = high + 1;
+                high += Math.min(step, data.length - high);
+                step <<= 1;
+            }
+
+            position = lowerBound(data, position, high, target);
+            boolean found = position < data.length && data[position] == target;
+            results[order[i]] = found ? position : -(position + 1);
+        }
+    }
+
+    /**
+     * Gets the indexes of a batch of targets in sorted order, using a
+     * bottom-up merge sort of the indexes. Runs that are already in order
+     * are copied without merging, so sorted batches cost a single pass.
+     *
+     * @param length the number of targets
+     * @param order  compares the targets at two indexes
+     * @return       the indexes of the targets, sorted by target
+     */
+    private static int[] sortedOrder(int length, IndexOrder order)
+    {
+        int[] indexes = new int[length];
+        int[] buffer = new int[length];
+        for (int i = 0; i < length; i++)
+            indexes[i] = i;
+
+        for (int width = 1; width < length; width <<= 1)
+        {
+            for (int first = 0; first < length; first += 2 * width)
+            {
+                int mid = Math.min(first + width, length);
+                int last = Math.min(first + 2 * width, length);
+                if (mid == last || order.compare(indexes[mid - 1], indexes[mid]) <= 0)
+                {
+                    System.arraycopy(indexes, first, buffer, first, last - first);
+                    continue;
+                }
+
+                int left = first;
+                int right = mid;
+                for (int k = first; k < last; k++)
+                {
+                    if (right >= last || (left < mid && order.compare(indexes[left], indexes[right]) <= 0))
+                        buffer[k] = indexes[left++];
+                    else
+                        buffer[k] = indexes[right++];
+                }
+            }
+            int[] temp = indexes;
+            indexes = buffer;
+            buffer = temp;
+        }
+        return indexes;
+    }
+
+    /**
+     * Compares the targets of a batch at two indexes.
+     */
+    private interface IndexOrder
+    {
+        int compare(int index1, int index2);
+    }
+
+    /**
+     * Searches the specified sorted array of ints using an interpolation
+     * search. Instead of halving the range, each probe is placed where the
+     * target would be if the values grew linearly between the ends of the
+     * range, which takes O(log log n) probes on uniformly distributed keys.
+     * When two probes in a row fail to halve the range the next probe
+     * bisects it, so skewed keys cost about as many probes as a binary
+     * search instead of degrading towards a linear scan. Every probe is
+     * counted as a comparison in the metrics.
+     *
+     * @param data   the sorted array to be searched
+     * @param target the value being searched for
+     * @return       the index of the first occurrence of the target if it is
+     *               found, otherwise (-(insertion point) - 1)
+     */
+    public static int interpolationSearch(int[] data, int target)
+    {
+        SearchEvent event = new SearchEvent();
+        event.begin();
+        MonitoredComparator<Integer> comparator = new MonitoredComparator<>();
+        int lower = interpolationLowerBound(data, target, comparator);
+        boolean found = lower < data.length && comparator.compare(data[lower], target) == 0;
+        comparator.publish();
+        event.end();
+        if (event.shouldCommit())
+            event.commit("interpolationSearch", data.length, 1, MonitoredComparator.getComparisonCount());
+        return found ? lower : -(lower + 1);
+    }
+
+    /**
+     * Finds the first value of a sorted array of ints that is not less
+     * than the target using interpolation probes.
+     *
+     * @param data   the sorted array to be searched
+     * @param target the value being searched for
+     * @param comparator the MonitoredComparator counting the probes
+     * @return       the index of the first value not less than the target,
+     *               or the length of the array if there is none
+     */
+    private static int interpolationLowerBound(int[] data, int target, MonitoredComparator<Integer> comparator)
+    {
+        int low = 0;
+        int high = data.length - 1;
+        if (high < 0 || comparator.compare(data[low], target) >= 0)
+            return 0;
+        if (comparator.compare(data[high], target) < 0)
+            return data.length;
+
+        // data[low] < target <= data[high], so the answer is in (low, high]
+        long lowValue = data[low];
+        long highValue = data[high];
+        int reference = high - low;  // width when the range last halved
+        int misses = 0;              // probes since the range last halved
+        while (high - low > 1)
+        {
+            int probe;
+            // interpolating towards a high end equal to the target creeps down one value at a
+            // time, which finds the first of a unique key at once but is slow on a run of duplicates
+            boolean bisect = misses >= BISECT_AFTER_MISSES || (misses > 0 && highValue == target);
+            if (bisect)
+                probe = (low + high) >>> 1;
+            else
+            {
+                probe = low + (int) ((target - lowValue) / (double) (highValue - lowValue) * (high - low));
+                probe = Math.max(low + 1, Math.min(high - 1, probe));
+            }
+
+            if (comparator.compare(data[probe], target) < 0)
+            {
+                low = probe;
+                lowValue = data[probe];
+            }
+            else
+            {
+                high = probe;
+                highValue = data[probe];
+            }
+
+            if (bisect || 2 * (high - low) <= reference)
+            {
+                reference = high - low;
+                misses = 0;
+            }
+            else
+                misses++;
+        }
+        return high;
+    }
+
+    /**
+     * Searches the specified sorted array of longs using an interpolation
+     * search, bisecting when two probes in a row fail to halve the range.
+     *
+     * @param data   the sorted array to be searched
+     * @param target the value being searched for
+     * @return       the index of the first occurrence of the target if it is
+     *               found, otherwise (-(insertion point) - 1)
+     */
+    public static int interpolationSearch(long[] data, long target)
+    {
+        SearchEvent event = new SearchEvent();
+        event.begin();
+        MonitoredComparator<Long> comparator = new MonitoredComparator<>();
+        int lower = interpolationLowerBound(data, target, comparator);
+        boolean found = lower < data.length && comparator.compare(data[lower], target) == 0;
+        comparator.publish();
+        event.end();
+        if (event.shouldCommit())
+            event.commit("interpolationSearch", data.length, 1, MonitoredComparator.getComparisonCount());
+        return found ? lower : -(lower + 1);
+    }
+
+    /**
+     * Finds the first value of a sorted array of longs that is not less
+     * than the target using interpolation probes. The values are compared as
+     * longs; only the position is computed in double precision, as the
+     * difference of two longs can overflow.
+     *
+     * @param data   the sorted array to be searched
+     * @param target the value being searched for
+     * @param comparator the MonitoredComparator counting the probes
+     * @return       the index of the first value not less than the target,
+     *               or the length of the array if there is none
+     */
+    private static int interpolationLowerBound(long[] data, long target, MonitoredComparator<Long> comparator)
+    {
+        int low = 0;
+        int high = data.length - 1;
+        if (high < 0 || comparator.compare(data[low], target) >= 0)
+            return 0;
+        if (comparator.compare(data[high], target) < 0)
+            return data.length;
+
+        // data[low] < target <= data[high], so the answer is in (low, high]
+        long lowValue = data[low];
+        long highValue = data[high];
+        int reference = high - low;  // width when the range last halved
+        int misses = 0;              // probes since the range last halved
+        while (high - low > 1)
+        {
+            int probe;
+            boolean bisect = misses >= BISECT_AFTER_MISSES || (misses > 0 && highValue == target);
+            if (bisect)
+                probe = (low + high) >>> 1;
+            else
+            {
+                probe = low + (int) (((double) target - lowValue) / ((double) highValue - lowValue) * (high - low));
+                probe = Math.max(low + 1, Math.min(high - 1, probe));
+            }
+
+            if (comparator.compare(data[probe], target) < 0)
+            {
+                low = probe;
+                lowValue = data[probe];
+            }
+            else
+            {
+                high = probe;
+                highValue = data[probe];
+            }
+
+            if (bisect || 2 * (high - low) <= reference)
+            {
+                reference = high - low;
+                misses = 0;
+            }
+            else
+                misses++;
+        }
+        return high;
+    }
+
+    /**
+     * Searches the specified sorted array of objects using an exponential
+     * (galloping) search from the start of the array.
+     *
+     * @param data   the sorted array to be searched
+     * @param target the element being searched for
+     * @return       the index of the first occurrence of the target if it is
+     *               found, otherwise (-(insertion point) - 1)
+     */
+    public static <T extends Comparable<T>>
+    int exponentialSearch(T[] data, T target)
+    {
+        return exponentialSearch(data, 0, target);
+    }
+
+    /**
+     * Searches the specified sorted array of objects using an exponential
+     * (galloping) search from a hint. The search steps away from the hint
+     * by 1, 2, 4, ... elements until it passes the target and then binary
+     * searches the last step, so it takes O(log d) probes where d is the
+     * distance from the hint to the target, whatever the length of the
+     * array. Every probe is counted as a comparison in the metrics.
+     *
+     * @param data   the sorted array to be searched
+     * @param hint   the index to start from, such as the previous result
+     * @param target the element being searched for
+     * @return       the index of the first occurrence of the target if it is
+     *               found, otherwise (-(insertion point) - 1)
+     */
+    public static <T extends Comparable<T>>
+    int exponentialSearch(T[] data, int hint, T target)
+    {
+        SearchEvent event = new SearchEvent();
+        event.begin();
+        MonitoredComparator<T> comparator = new MonitoredComparator<>();
+        hint = Math.max(0, Math.min(hint, data.length));
+        int low;
+        int high;
+
+        if (hint < data.length && comparator.compare(data[hint], target) < 0)
+        {
+            // gallop right until a value is not less than the target
+            int previous = hint;
+            long step = 1;
+            while (step < data.length - hint && comparator.compare(data[(int) (hint + step)], target) < 0)
+            {
+                previous = (int) (hint + step);
+                step <<= 1;
+            }
+            low = previous + 1;
+            high = (int) Math.min(hint + step, data.length);
+        }
+        else
+        {
+            // gallop left until a value is less than the target
+            int previous = hint;
+            long step = 1;
+            while (step <= hint && comparator.compare(data[(int) (hint - step)], target) >= 0)
+            {
+                previous = (int) (hint - step);
+                step <<= 1;
+            }
+            low = step <= hint ? (int) (hint - step + 1) : 0;
+            high = previous;
+        }
+
+        // binary search the last step, the answer being in [low, high]
+        while (low < high)
+        {
+            int mid = (low + high) >>> 1;
+            if (comparator.compare(data[mid], target) < 0)
+                low = mid + 1;
+            else
+                high = mid;
+        }
+
+        boolean found = low < data.length && comparator.compare(data[low], target) == 0;
+        comparator.publish();
+        event.end();
+        if (event.shouldCommit())
+            event.commit("exponentialSearch", data.length, 1, MonitoredComparator.getComparisonCount());
+        return found ? low : -(low + 1);
+    }
+
+    /**
+     * Searches the specified sorted array of ints using an exponential
+     * (galloping) search from the start of the array.
+     *
+     * @param data   the sorted array to be searched
+     * @param target the value being searched for
+     * @return       the index of the first occurrence of the target if it is
+     *               found, otherwise (-(insertion point) - 1)
+     */
+    public static int exponentialSearch(int[] data, int target)
+    {
+        return exponentialSearch(data, 0, target);
+    }
+
+    /**
+     * Searches the specified sorted array of ints using an exponential
+     * (galloping) search from a hint, in O(log d) probes where d is the
+     * distance from the hint to the target.
+     *
+     * @param data   the sorted array to be searched
+     * @param hint   the index to start from, such as the previous result
+     * @param target the value being searched for
+     * @return       the index of the first occurrence of the target if it is
+     *               found, otherwise (-(insertion point) - 1)
+     */
+    public static int exponentialSearch(int[] data, int hint, int target)
+    {
+        SearchEvent event = new SearchEvent();
+        event.begin();
+        MonitoredComparator<Integer> comparator = new MonitoredComparator<>();
+        hint = Math.max(0, Math.min(hint, data.length));
+        int low;
+        int high;
+
+        if (hint < data.length && comparator.compare(data[hint], target) < 0)
+        {
+            // gallop right until a value is not less than the target
+            int previous = hint;
+            long step = 1;
+            while (step < data.length - hint && comparator.compare(data[(int) (hint + step)], target) < 0)
+            {
+                previous = (int) (hint + step);
+                step <<= 1;
+            }
+            low = previous + 1;
+            high = (int) Math.min(hint + step, data.length);
+        }
+        else
+        {
+            // gallop left until a value is less than the target
+            int previous = hint;
+            long step = 1;
+            while (step <= hint && comparator.compare(data[(int) (hint - step)], target) >= 0)
+            {
+                previous = (int) (hint - step);
+                step <<= 1;
+            }
+            low = step <= hint ? (int) (hint - step + 1) : 0;
+            high = previous;
+        }
+
+        // binary search the last step, the answer being in [low, high]
+        while (low < high)
+        {
+            int mid = (low + high) >>> 1;
+            if (comparator.compare(data[mid], target) < 0)
+                low = mid + 1;
+            else
+                high = mid;
+        }
+
+        boolean found = low < data.length && comparator.compare(data[low], target) == 0;
+        comparator.publish();
+        event.end();
+        if (event.shouldCommit())
+            event.commit("exponentialSearch", data.length, 1, MonitoredComparator.getComparisonCount());
+        return found ? low : -(low + 1);
+    }
+
+    /**
+     * Answers a range of positions in the sorted order of a batch of targets.
+     */
+    private interface RangeSearch
+    {
+        void search(int from, int to);
+    }
+
+    /**
+     * Fork-join task that answers a range of sorted targets, splitting it
+     * in two while it holds more than the parallel search threshold.
+     */
+    private static class SearchTask extends RecursiveAction
+    {
+        private static final long serialVersionUID = 1L;
+
+        private final int from, to;
+        private final RangeSearch search;
+
+        SearchTask(int from, int to, RangeSearch search)
+        {
+            this.from = from;
+            this.to = to;
+            this.search = search;
+        }
+
+        @Override
+        protected void compute()
+        {
+            if (to - from <= PARALLEL_SEARCH_THRESHOLD)
+            {
+                search.search(from, to);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new SearchTask(from, mid, search), new SearchTask(mid, to, search));
+        }
+    }
+}
@@ -0,0 +1,559 @@
+package helpers;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PrimitiveIterator;
+
+/**
+ * Selection finds the k smallest elements of an array or a stream without
+ * sorting all of it. Quick select partitions with Sorting.partition and
+ * keeps only the side holding the wanted rank, which takes linear time on
+ * average. If the partitions stop shrinking fast enough it falls back to
+ * the median of medians pivot with three-way partitioning, which is
+ * linear in the worst case too, even on inputs full of duplicates.
+ * Comparisons and moves are counted with a MonitoredComparator and
+ * published like those of the sorts.
+ *
+ * @author JaniOC
+ */
+public class Selection
+{
+    // Range size at or below which selection finishes with insertion sort
+    private static final int INSERTION_THRESHOLD = 16;
+
+    // Size of the groups whose medians the median of medians is taken of
+    private static final int GROUP_SIZE = 5;
+
+    private Selection() {
+    }
+
+    /**
+     * Finds the element that would be at index k if the array were sorted.
+     * The array is rearranged so that it is at index k, with no larger
+     * element before it and no smaller element after it.
+     *
+     * @param data the array to select from
+     * @param k    the rank to find, from 0 for the smallest element
+     * @return the element of rank k
+     * @throws IllegalArgumentException if k is not an index of the array
+     */
+    public static <T extends Comparable<T>>
+    T quickSelect(T[] data, int k) {
+        checkRank(k, data.length);
+        MonitoredComparator<T> comparator = new MonitoredComparator<>();
+        select(data, 0, data.length - 1, k, comparator);
+        comparator.publish();
+        return data[k];
+    }
+
+    /**
+     * Finds the element at a percentile of the array, by the nearest-rank
+     * method: the smallest element that at least the given percentage of
+     * the elements are no larger than. The array is rearranged as by
+     * quickSelect.
+     *
+     * @param data    the array to select from
+     * @param percent the percentile, from 0 to 100; 50 gives the median
+     * @return the element at the percentile
+     * @throws IllegalArgumentException if the array is empty or the
+     *         percentile is outside 0 to 100
+     */
+    public static <T extends Comparable<T>>
+    T percentile(T[] data, double percent) {
+        return quickSelect(data, percentileRank(data.length, percent));
+    }
+
+    /**
+     * Sorts the k smallest elements of the array into its first k positions.
+     * The order of the rest of the array is unspecified.
+     *
+     * @param data the array to partially sort
+     * @param k    the number of elements to sort, from 0 to the length
+     * @throws IllegalArgumentException if k is negative or larger than the length
+     */
+    public static <T extends Comparable<T>>
+    void partialSort(T[] data, int k) {
+        checkCount(k, data.length);
+        MonitoredComparator<T> comparator = new MonitoredComparator<>();
+        if (k > 0) {
+            select(data, 0, data.length - 1, k - 1, comparator);
+            Sorting.heapSort(data, 0, k - 1, comparator);
+        }
+        comparator.publish();
+    }
+
+    /**
+     * Finds the k smallest elements of a stream, holding no more than k of
+     * them at a time. A max-heap of the k smallest elements so far is kept,
+     * and each new element only costs a comparison with the root unless
+     * it replaces it. Use stream.iterator() to pass a Stream.
+     *
+     * @param elements the elements to select from
+     * @param k        the number of elements to keep
+     * @return the k smallest elements in ascending order, or all of them if
+     *         there are fewer than k
+     * @throws IllegalArgumentException if k is negative
+     */
+    @SuppressWarnings("unchecked")
+    public static <T extends Comparable<T>>
+    List<T> topK(Iterator<T> elements, int k) {
+        checkCount(k, Integer.MAX_VALUE);
+        MonitoredComparator<T> comparator = new MonitoredComparator<>();
+        T[] heap = (T[])(new Comparable<?>[k]);
+        int size = 0;
+
+        while (elements.hasNext()) {
+            T element = elements.next();
+            if (size < k) {
+                heap[size++] = element;
+                if (size == k) {
+                    // turn the first k elements into a max-heap
+                    for (int parent = k / 2 - 1; parent >= 0; parent--) {
+                        Sorting.siftDown(heap, 0, parent, k, comparator);
+                    }
+                }
+            } else if (k > 0 && comparator.compare(element, heap[0]) < 0) {
+                heap[0] = element;
+                comparator.recordWrite();
+                Sorting.siftDown(heap, 0, 0, k, comparator);
+            }
+        }
+
+        if (size > 0) {
+            Sorting.heapSort(heap, 0, size - 1, comparator);
+        }
+        comparator.publish();
+        return new ArrayList<>(Arrays.asList(heap).subList(0, size));
+    }
+
+    /**
+     * Selects rank k within a range with quick select. Every two partitions
+     * must at least halve the range; if they do not, the rest of the
+     * selection uses the median of medians, so the total work stays linear.
+     *
+     * @param data the array to select from
+     * @param min  the minimum index in the range
+     * @param max  the maximum index in the range
+     * @param k    the rank to find, within the range
+     * @param comparator the MonitoredComparator tracking comparisons
+     */
+    private static <T extends Comparable<T>>
+    void select(T[] data, int min, int max, int k, MonitoredComparator<T> comparator) {
+        int checkpoint = max - min + 1;
+        int rounds = 0;
+        while (max - min + 1 > INSERTION_THRESHOLD) {
+            int indexofpartition = Sorting.partition(data, min, max, comparator);
+            if (k == indexofpartition) {
+                return;
+            } else if (k < indexofpartition) {
+                max = indexofpartition - 1;
+            } else {
+                min = indexofpartition + 1;
+            }
+
+            if (++rounds == 2) {
+                int size = max - min + 1;
+                if (size > checkpoint / 2) {
+                    medianOfMediansSelect(data, min, max, k, comparator);
+                    return;
+                }
+                checkpoint = size;
+                rounds = 0;
+            }
+        }
+        insertionSort(data, min, max, comparator);
+    }
+
+    /**
+     * Selects rank k within a range using the median of medians of groups
+     * of five as the pivot, which is guaranteed to have at least 30% of the
+     * range on each side, and three-way partitioning, so elements equal to
+     * the pivot are settled at once.
+     *
+     * @param data the array to select from
+     * @param min  the minimum index in the range
+     * @param max  the maximum index in the range
+     * @param k    the rank to find, within the range
+     * @param comparator the MonitoredComparator tracking comparisons
+     */
+    private static <T extends Comparable<T>>
+    void medianOfMediansSelect(T[] data, int min, int max, int k, MonitoredComparator<T> comparator) {
+        comparator.enter();
+        while (max - min + 1 > INSERTION_THRESHOLD) {
+            T pivot = data[medianOfMedians(data, min, max, comparator)];
+            comparator.recordRead();
+
+            // data[min..less-1] < pivot, data[less..scan-1] == pivot, data[greater+1..max] > pivot
+            int less = min, scan = min, greater = max;
+            while (scan <= greater) {
+                int result = comparator.compare(data[scan], pivot);
+                if (result < 0) {
+                    Sorting.swap(data, less++, scan++, comparator);
+                } else if (result > 0) {
+                    Sorting.swap(data, scan, greater--, comparator);
+                } else {
+                    scan++;
+                }
+            }
+
+            if (k < less) {
+                max = less - 1;
+            } else if (k > greater) {
+                min = greater + 1;
+            } else {
+                comparator.exit();
+                return;
+            }
+        }
+        insertionSort(data, min, max, comparator);
+        comparator.exit();
+    }
+
+    /**
+     * Finds the median of the medians of groups of five in a range. The
+     * median of each group is moved to the front of the range and the
+     * median of those is selected recursively.
+     *
+     * @param data the array holding the range
+     * @param min  the minimum index in the range
+     * @param max  the maximum index in the range
+     * @param comparator the MonitoredComparator tracking comparisons
+     * @return the index of the median of medians
+     */
+    private static <T extends Comparable<T>>
+    int medianOfMedians(T[] data, int min, int max, MonitoredComparator<T> comparator) {
+        int medians = 0;
+        for (int first = min; first <= max; first += GROUP_SIZE) {
+            int last = Math.min(first + GROUP_SIZE - 1, max);
+            insertionSort(data, first, last, comparator);
+            Sorting.swap(data, min + medians, (first + last) / 2, comparator);
+            medians++;
+        }
+        int middle = min + (medians - 1) / 2;
+        medianOfMediansSelect(data, min, min + medians - 1, middle, comparator);
+        return middle;
+    }
+
+    /**
+     * Sorts a small range of objects with insertion sort.
+     *
+     * @param data the array holding the range
+     * @param min  the minimum index in the range
+     * @param max  the maximum index in the range
+     * @param comparator the MonitoredComparator tracking comparisons
+     */
+    private static <T extends Comparable<T>>
+    void insertionSort(T[] data, int min, int max, MonitoredComparator<T> comparator) {
+        for (int index = min + 1; index <= max; index++) {
+            T key = data[index];
+            int position = index;
+            while (position > min && comparator.compare(data[position - 1], key) > 0) {
+                data[position] = data[position - 1];
+                position--;
+            }
+            data[position] = key;
+            comparator.recordMoves(index - position + 1);
+        }
+    }
+
+    /**
+     * Finds the int that would be at index k if the array were sorted.
+     * The array is rearranged so that it is at index k, with no larger
+     * value before it and no smaller value after it.
+     *
+     * @param data the array to select from
+     * @param k    the rank to find, from 0 for the smallest value
+     * @return the value of rank k
+     * @throws IllegalArgumentException if k is not an index of the array
+     */
+    public static int quickSelect(int[] data, int k) {
+        checkRank(k, data.length);
+        MonitoredComparator<Integer> comparator = new MonitoredComparator<>();
+        select(data, 0, data.length - 1, k, comparator);
+        comparator.publish();
+        return data[k];
+    }
+
+    /**
+     * Finds the int at a percentile of the array, by the nearest-rank
+     * method. The array is rearranged as by quickSelect.
+     *
+     * @param data    the array to select from
+     * @param percent the percentile, from 0 to 100; 50 gives the median
+     * @return the value at the percentile
+     * @throws IllegalArgumentException if the array is empty or the
+     *         percentile is outside 0 to 100
+     */
+    public static int percentile(int[] data, double percent) {
+        return quickSelect(data, percentileRank(data.length, percent));
+    }
+
+    /**
+     * Sorts the k smallest ints of the array into its first k positions.
+     * The order of the rest of the array is unspecified.
+     *
+     * @param data the array to partially sort
+     * @param k    the number of values to sort, from 0 to the length
+     * @throws IllegalArgumentException if k is negative or larger than the length
+     */
+    public static void partialSort(int[] data, int k) {
+        checkCount(k, data.length);
+        MonitoredComparator<Integer> comparator = new MonitoredComparator<>();
+        if (k > 0) {
+            select(data, 0, data.length - 1, k - 1, comparator);
+            heapSort(data, k, comparator);
+        }
+        comparator.publish();
+    }
+
+    /**
+     * Finds the k smallest ints of a stream, holding no more than k of them
+     * at a time in a max-heap. Use intStream.iterator() to pass an IntStream.
+     *
+     * @param values the values to select from
+     * @param k      the number of values to keep
+     * @return the k smallest values in ascending order, or all of them if
+     *         there are fewer than k
+     * @throws IllegalArgumentException if k is negative
+     */
+    public static int[] topK(PrimitiveIterator.OfInt values, int k) {
+        checkCount(k, Integer.MAX_VALUE);
+        MonitoredComparator<Integer> comparator = new MonitoredComparator<>();
+        int[] heap = new int[k];
+        int size = 0;
+
+        while (values.hasNext()) {
+            int value = values.nextInt();
+            if (size < k) {
+                heap[size++] = value;
+                if (size == k) {
+                    // turn the first k values into a max-heap
+                    for (int parent = k / 2 - 1; parent >= 0; parent--) {
+                        siftDown(heap, parent, k, comparator);
+                    }
+                }
+            } else if (k > 0 && comparator.compare(value, heap[0]) < 0) {
+                heap[0] = value;
+                comparator.recordWrite();
+                siftDown(heap, 0, k, comparator);
+            }
+        }
+
+        int[] smallest = Arrays.copyOf(heap, size);
+        heapSort(smallest, size, comparator);
+        comparator.publish();
+        return smallest;
+    }
+
+    /**
+     * Selects rank k within a range of ints with quick select, falling back
+     * to the median of medians when two partitions fail to halve the range.
+     *
+     * @param data the array to select from
+     * @param min  the minimum index in the range
+     * @param max  the maximum index in the range
+     * @param k    the rank to find, within the range
+     * @param comparator the MonitoredComparator tracking comparisons
+     */
+    private static void select(int[] data, int min, int max, int k, MonitoredComparator<Integer> comparator) {
+        int checkpoint = max - min + 1;
+        int rounds = 0;
+        while (max - min + 1 > INSERTION_THRESHOLD) {
+            int indexofpartition = Sorting.partition(data, min, max, comparator);
+            if (k == indexofpartition) {
+                return;
+            } else if (k < indexofpartition) {
+                max = indexofpartition - 1;
+            } else {
+                min = indexofpartition + 1;
+            }
+
+            if (++rounds == 2) {
+                int size = max - min + 1;
+                if (size > checkpoint / 2) {
+                    medianOfMediansSelect(data, min, max, k, comparator);
+                    return;
+                }
+                checkpoint = size;
+                rounds = 0;
+            }
+        }
+        insertionSort(data, min, max, comparator);
+    }
+
+    /**
+     * Selects rank k within a range of ints using the median of medians as
+     * the pivot and three-way partitioning.
+     *
+     * @param data the array to select from
+     * @param min  the minimum index in the range
+     * @param max  the maximum index in the range
+     * @param k    the rank to find, within the range
+     * @param comparator the MonitoredComparator tracking comparisons
+     */
+    private static void medianOfMediansSelect(int[] data, int min, int max, int k,
+                                              MonitoredComparator<Integer> comparator) {
+        comparator.enter();
+        while (max - min + 1 > INSERTION_THRESHOLD) {
+            int pivot = data[medianOfMedians(data, min, max, comparator)];
+            comparator.recordRead();
+
+            // data[min..less-1] < pivot, data[less..scan-1] == pivot, data[greater+1..max] > pivot
+            int less = min, scan = min, greater = max;
+            while (scan <= greater) {
+                int result = comparator.compare(data[scan], pivot);
+                if (result < 0) {
+                    Sorting.swap(data, less++, scan++, comparator);
+                } else if (result > 0) {
+                    Sorting.swap(data, scan, greater--, comparator);
+                } else {
+                    scan++;
+                }
+            }
+
+            if (k < less) {
+                max = less - 1;
+            } else if (k > greater) {
+                min = greater + 1;
+            } else {
+                comparator.exit();
+                return;
+            }
+        }
+        insertionSort(data, min, max, comparator);
+        comparator.exit();
+    }
+
+    /**
+     * Finds the median of the medians of groups of five in a range of ints.
+     *
+     * @param data the array holding the range
+     * @param min  the minimum index in the range
+     * @param max  the maximum index in the range
+     * @param comparator the MonitoredComparator tracking comparisons
+     * @return the index of the median of medians
+     */
+    private static int medianOfMedians(int[] data, int min, int max, MonitoredComparator<Integer> comparator) {
+        int medians = 0;
+        for (int first = min; first <= max; first += GROUP_SIZE) {
+            int last = Math.min(first + GROUP_SIZE - 1, max);
+            insertionSort(data, first, last, comparator);
+            Sorting.swap(data, min + medians, (first + last) / 2, comparator);
+            medians++;
+        }
+        int middle = min + (medians - 1) / 2;
+        medianOfMediansSelect(data, min, min + medians - 1, middle, comparator);
+        return middle;
+    }
+
+    /**
+     * Sorts a small range of ints with insertion sort.
+     *
+     * @param data the array holding the range
+     * @param min  the minimum index in the range
+     * @param max  the maximum index in the range
+     * @param comparator the MonitoredComparator tracking comparisons
+     */
+    private static void insertionSort(int[] data, int min, int max, MonitoredComparator<Integer> comparator) {
+        for (int index = min + 1; index <= max; index++) {
+            int key = data[index];
+            int position = index;
+            while (position > min && comparator.compare(data[position - 1], key) > 0) {
+                data[position] = data[position - 1];
+                position--;
+            }
+            data[position] = key;
+            comparator.recordMoves(index - position + 1);
+        }
+    }
+
+    /**
+     * Sorts the first values of an int array with heap sort.
+     *
+     * @param data   the array to be sorted
+     * @param length the number of values at the start of the array to sort
+     * @param comparator the MonitoredComparator tracking comparisons
+     */
+    private static void heapSort(int[] data, int length, MonitoredComparator<Integer> comparator) {
+        for (int parent = length / 2 - 1; parent >= 0; parent--) {
+            siftDown(data, parent, length, comparator);
+        }
+        for (int last = length - 1; last > 0; last--) {
+            Sorting.swap(data, 0, last, comparator);
+            siftDown(data, 0, last, comparator);
+        }
+    }
+
+    /**
+     * Moves a value of an int max-heap down until both its children are no
+     * larger than it.
+     *
+     * @param heap   the array containing the heap
+     * @param parent the position of the value to move down
+     * @param length the number of values in the heap
+     * @param comparator the MonitoredComparator tracking comparisons
+     */
+    private static void siftDown(int[] heap, int parent, int length, MonitoredComparator<Integer> comparator) {
+        int child = 2 * parent + 1;
+        while (child < length) {
+            // pick the larger of the two children
+            if (child + 1 < length && comparator.compare(heap[child], heap[child + 1]) < 0) {
+                child++;
+            }
+            if (comparator.compare(heap[parent], heap[child]) >= 0) {
+                return;
+            }
+            Sorting.swap(heap, parent, child, comparator);
+            parent = child;
+            child = 2 * parent + 1;
+        }
+    }
+
+    /**
+     * Converts a percentile into a rank with the nearest-rank method.
+     *
+     * @param length  the number of elements
+     * @param percent the percentile, from 0 to 100
+     * @return the rank of the element at the percentile
+     * @throws IllegalArgumentException if there are no elements or the
+     *         percentile is outside 0 to 100
+     */
+    private static int percentileRank(int length, double percent) {
+        if (length == 0) {
+            throw new IllegalArgumentException("Percentile of an empty array");
+        }
+        if (!(percent >= 0 && percent <= 100)) {
+            throw new IllegalArgumentException("Percentile must be between 0 and 100: " + percent);
+        }
+        int rank = (int) Math.ceil(percent / 100 * length);
+        return Math.max(0, rank - 1);
+    }
+
+    /**
+     * Checks that a rank is an index of an array.
+     *
+     * @param k      the rank
+     * @param length the length of the array
+     * @throws IllegalArgumentException if k is not an index of the array
+     */
+    private static void checkRank(int k, int length) {
+        if (k < 0 || k >= length) {
+            throw new IllegalArgumentException("Rank " + k + " out of range for length " + length);
+        }
+    }
+
+    /**
+     * Checks that a number of elements to select is between 0 and a limit.
+     *
+     * @param k     the number of elements
+     * @param limit the largest allowed number
+     * @throws IllegalArgumentException if k is negative or above the limit
+     */
+    private static void checkCount(int k, int limit) {
+        if (k < 0 || k > limit) {
+            throw new IllegalArgumentException("Count " + k + " out of range 0.." + limit);
+        }
+    }
+}
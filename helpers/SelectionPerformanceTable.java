@@ -0,0 +1,141 @@
+package helpers;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A class that prints a performance table for the selection algorithms
+ * next to a full sort. For every algorithm and input distribution it shows
+ * the number of comparisons and the time (in microseconds) at different
+ * array sizes: a full merge sort, a quick select of the median, a partial
+ * sort of the k smallest values and a bounded-heap top-k over a stream of
+ * the values.
+ *
+ * @author JaniOC
+ */
+public class SelectionPerformanceTable {
+    // Array of array sizes to test
+    private final int[] arraySizes = {1000, 10000, 100000, 1000000};
+
+    // Array of algorithm names to test, the full sort first as the baseline
+    private final String[] algorithms = {"mergeSort", "quickSelect", "partialSort", "topK"};
+
+    // Number of smallest values the partial sort and top-k keep
+    private final int k = 100;
+
+    // Input distributions to test
+    private final InputGenerator[] distributions;
+
+    // Seed of the input generators
+    private final long seed = 42L;
+
+    /**
+     * Constructor that prints the selection performance table for all the
+     * standard input distributions when the object is created.
+     */
+    public SelectionPerformanceTable() {
+        this(InputDistribution.values());
+    }
+
+    /**
+     * Constructor that prints the selection performance table for the given
+     * input distributions when the object is created.
+     *
+     * @param distributions the input generators to select from
+     */
+    public SelectionPerformanceTable(InputGenerator... distributions) {
+        this.distributions = distributions;
+        printTable();
+    }
+
+    /**
+     * Prints the performance table, showing the comparisons and the time in
+     * microseconds for each algorithm.
+     */
+    public void printTable() {
+        int firstColumnWidth = calculateFirstColumnWidth();
+
+        System.out.printf(" %-" + firstColumnWidth + "s ", "");
+        for (int size : arraySizes) {
+            System.out.printf(" %-10d ", size);
+        }
+        System.out.println();
+
+        for (String algo : algorithms) {
+            for (InputGenerator distribution : distributions) {
+                // measure every size once, then print both rows from the results
+                List<Results<Long, Long>> results = new ArrayList<>();
+                for (int size : arraySizes) {
+                    results.add(calculatePerformance(algo, distribution, size));
+                }
+
+                String label = algo + "." + distribution.getName();
+                System.out.printf(" %-" + firstColumnWidth + "s ", label + ".comparisons");
+                for (Results<Long, Long> result : results) {
+                    System.out.printf(" %-10d ", result.getCount());
+                }
+                System.out.println();
+
+                System.out.printf(" %-" + firstColumnWidth + "s ", label + ".us");
+                for (Results<Long, Long> result : results) {
+                    System.out.printf(" %-10d ", result.getTime());
+                }
+                System.out.println();
+            }
+        }
+        System.out.println();
+    }
+
+    /**
+     * Calculates the width required for the first column in the table based
+     * on the longest label.
+     *
+     * @return the width of the first column
+     */
+    private int calculateFirstColumnWidth() {
+        int maxLength = 0;
+        for (String algo : algorithms) {
+            for (InputGenerator distribution : distributions) {
+                String comparisonsLabel = algo + "." + distribution.getName() + ".comparisons";
+                maxLength = Math.max(maxLength, comparisonsLabel.length());
+            }
+        }
+        return maxLength;
+    }
+
+    /**
+     * Calculates the performance of an algorithm on an array of a given size
+     * and distribution.
+     *
+     * @param algorithm the algorithm to test
+     * @param distribution the generator of the input data
+     * @param size the size of the array
+     * @return a Results object containing the comparisons and the time in
+     *         microseconds
+     */
+    private Results<Long, Long> calculatePerformance(String algorithm, InputGenerator distribution, int size) {
+        int[] data = distribution.generate(size, seed);
+
+        long startTime = System.nanoTime();
+        switch (algorithm) {
+            case "mergeSort":
+                Sorting.mergeSort(data);
+                break;
+            case "quickSelect":
+                Selection.quickSelect(data, size / 2);
+                break;
+            case "partialSort":
+                Selection.partialSort(data, Math.min(k, size));
+                break;
+            case "topK":
+                Selection.topK(Arrays.stream(data).iterator(), k);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown algorithm: " + algorithm);
+        }
+        long endTime = System.nanoTime();
+
+        return new Results<>(MonitoredComparator.getComparisonCount(), (endTime - startTime) / 1000);
+    }
+}
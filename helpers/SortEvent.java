@@ -0,0 +1,74 @@
+package helpers;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A JDK Flight Recorder event for one call of an array sort in Sorting,
+ * RadixSorting, ParallelSorting or AdaptiveSorting, committed through
+ * MonitoredComparator.publish. The duration of the event is the time of the
+ * sort in nanoseconds; the fields describe the input and the metrics of the
+ * sort. A sort built on another, such as adaptiveSort, records an event for
+ * each. The distribution is only known when a harness such as the sweep
+ * names it for the thread. When no recording is running the event costs
+ * next to nothing.
+ *
+ * @author JaniOC
+ */
+@Name("helpers.Sort")
+@Label("Sort")
+@Category({"Sorting Performance", "Sorting"})
+@Description("One sort of a seeded input")
+@StackTrace(false)
+class SortEvent extends Event {
+    // Name of the input distribution being sorted on each thread, set by the harnesses
+    private static final ThreadLocal<String> currentDistribution = new ThreadLocal<>();
+
+    @Label("Algorithm")
+    String algorithm;
+
+    @Label("Element Type")
+    String elementType;
+
+    @Label("Distribution")
+    String distribution;
+
+    @Label("Size")
+    int size;
+
+    @Label("Comparisons")
+    long comparisons;
+
+    @Label("Swaps")
+    long swaps;
+
+    @Label("Recursion Depth")
+    int maxDepth;
+
+    /**
+     * Gets the name of the input distribution being sorted on this thread.
+     *
+     * @return the distribution name, or null if no harness named it
+     */
+    static String getDistribution() {
+        return currentDistribution.get();
+    }
+
+    /**
+     * Names the input distribution the following sorts on this thread are
+     * given, for their events.
+     *
+     * @param distribution the distribution name, or null to clear it
+     */
+    static void setDistribution(String distribution) {
+        if (distribution == null) {
+            currentDistribution.remove();
+        } else {
+            currentDistribution.set(distribution);
+        }
+    }
+}
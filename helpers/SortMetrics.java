@@ -0,0 +1,130 @@
+package helpers;
+
+/**
+ * An immutable snapshot of the operation counts gathered by a
+ * MonitoredComparator during a single sort or search.
+ *
+ * @author JaniOC
+ */
+public class SortMetrics {
+    // Metrics of a run that did nothing
+    public static final SortMetrics EMPTY = new SortMetrics(0, 0, 0, 0, 0, 0, 0);
+
+    private final long comparisons;  // Number of comparisons
+    private final long swaps;        // Number of element swaps
+    private final long reads;        // Array reads made to move elements
+    private final long writes;       // Array writes made to move elements
+    private final int maxDepth;      // Deepest recursion level reached
+    private final long passes;       // Distribution passes of non-comparison sorts
+    private final long bytesMoved;   // Bytes of keys moved by non-comparison sorts
+
+    /**
+     * Constructs a new snapshot of operation counts.
+     *
+     * @param comparisons the number of comparisons
+     * @param swaps the number of swaps
+     * @param reads the number of array reads made to move elements
+     * @param writes the number of array writes
+     * @param maxDepth the deepest recursion level reached
+     */
+    public SortMetrics(long comparisons, long swaps, long reads, long writes, int maxDepth) {
+        this(comparisons, swaps, reads, writes, maxDepth, 0, 0);
+    }
+
+    /**
+     * Constructs a new snapshot of operation counts, including the passes
+     * and bytes moved of a non-comparison sort.
+     *
+     * @param comparisons the number of comparisons
+     * @param swaps the number of swaps
+     * @param reads the number of array reads made to move elements
+     * @param writes the number of array writes
+     * @param maxDepth the deepest recursion level reached
+     * @param passes the number of passes over the data
+     * @param bytesMoved the number of bytes of keys moved
+     */
+    public SortMetrics(long comparisons, long swaps, long reads, long writes, int maxDepth,
+                       long passes, long bytesMoved) {
+        this.comparisons = comparisons;
+        this.swaps = swaps;
+        this.reads = reads;
+        this.writes = writes;
+        this.maxDepth = maxDepth;
+        this.passes = passes;
+        this.bytesMoved = bytesMoved;
+    }
+
+    /**
+     * Gets the number of comparisons.
+     *
+     * @return the number of comparisons
+     */
+    public long getComparisons() {
+        return comparisons;
+    }
+
+    /**
+     * Gets the number of swaps. Each swap is also counted as two reads and
+     * two writes.
+     *
+     * @return the number of swaps
+     */
+    public long getSwaps() {
+        return swaps;
+    }
+
+    /**
+     * Gets the number of array reads made to move elements. Reads made only
+     * to compare elements are reflected in the comparison count instead.
+     *
+     * @return the number of reads
+     */
+    public long getReads() {
+        return reads;
+    }
+
+    /**
+     * Gets the number of array writes.
+     *
+     * @return the number of writes
+     */
+    public long getWrites() {
+        return writes;
+    }
+
+    /**
+     * Gets the deepest recursion level reached, 0 for non-recursive algorithms.
+     *
+     * @return the maximum recursion depth
+     */
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    /**
+     * Gets the number of passes a non-comparison sort made over the data,
+     * 0 for comparison sorts.
+     *
+     * @return the number of passes
+     */
+    public long getPasses() {
+        return passes;
+    }
+
+    /**
+     * Gets the number of bytes of keys a non-comparison sort moved,
+     * 0 for comparison sorts.
+     *
+     * @return the number of bytes moved
+     */
+    public long getBytesMoved() {
+        return bytesMoved;
+    }
+
+    @Override
+    public String toString() {
+        return "comparisons=" + comparisons + ", swaps=" + swaps + ", reads=" + reads
+                + ", writes=" + writes + ", maxDepth=" + maxDepth
+                + ", passes=" + passes + ", bytesMoved=" + bytesMoved;
+    }
+}
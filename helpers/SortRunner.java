@@ -0,0 +1,307 @@
+package helpers;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Runs a sorting algorithm by name on a copy of an input and measures it.
+ * Shared by the performance table and the sweep engine, so both measure
+ * the algorithms in exactly the same way.
+ *
+ * @author JaniOC
+ */
+final class SortRunner {
+    // Names of the algorithms that can be run
+    static final String[] ALGORITHMS = {"bubbleSort", "insertionSort", "mergeSort", "mergeSortBuffered",
+                                        "bottomUpMergeSort", "naturalMergeSort", "quickSort", "threeWayQuickSort",
+                                        "dualPivotQuickSort", "introSort", "selectionSort",
+                                        "countingSort", "lsdRadixSort", "msdRadixSort", "adaptiveSort",
+                                        "parallelSampleSort"};
+
+    // Algorithms that do not compare elements, reported by passes and bytes moved
+    static final String[] NON_COMPARISON_ALGORITHMS = {"countingSort", "lsdRadixSort", "msdRadixSort"};
+
+    // Algorithms that may hand the data to a non-comparison sort, reported by both
+    static final String[] ROUTING_ALGORITHMS = {"adaptiveSort"};
+
+    // Algorithms that only have a version for boxed Integers
+    static final String[] BOXED_ONLY_ALGORITHMS = {"mergeSortBuffered", "bottomUpMergeSort", "threeWayQuickSort",
+                                                   "dualPivotQuickSort", "introSort"};
+
+    // Element types the algorithms can sort, boxed first
+    static final String[] ELEMENT_TYPES = {"Integer", "int"};
+
+    private SortRunner() {
+    }
+
+    /**
+     * Checks whether an algorithm is one of the algorithms that can be run.
+     *
+     * @param algorithm the sorting algorithm
+     * @return true if the algorithm is in ALGORITHMS
+     */
+    static boolean isKnown(String algorithm) {
+        for (String known : ALGORITHMS) {
+            if (known.equals(algorithm)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks whether an algorithm sorts by comparing elements.
+     *
+     * @param algorithm the sorting algorithm
+     * @return false for the counting and radix sorts
+     */
+    static boolean isComparisonSort(String algorithm) {
+        for (String nonComparison : NON_COMPARISON_ALGORITHMS) {
+            if (nonComparison.equals(algorithm)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Checks whether an algorithm may sort without comparing elements, so
+     * its passes over the data and bytes moved are worth reporting.
+     *
+     * @param algorithm the sorting algorithm
+     * @return true for the counting and radix sorts and the sorts that may route to them
+     */
+    static boolean mayMakePasses(String algorithm) {
+        for (String routing : ROUTING_ALGORITHMS) {
+            if (routing.equals(algorithm)) {
+                return true;
+            }
+        }
+        return !isComparisonSort(algorithm);
+    }
+
+    /**
+     * Checks whether an algorithm has a version for an element type.
+     *
+     * @param algorithm the sorting algorithm
+     * @param type the element type, "Integer" or "int"
+     * @return true if the algorithm can sort that type
+     */
+    static boolean isAvailable(String algorithm, String type) {
+        if (type.equals("Integer")) {
+            return true;
+        }
+        for (String boxedOnly : BOXED_ONLY_ALGORITHMS) {
+            if (boxedOnly.equals(algorithm)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Sorts a copy of the input with an algorithm and measures the sort.
+     * Copying the input is not part of the measurement. The distribution is
+     * named for the thread, so the SortEvent of the sort carries it.
+     *
+     * @param algorithm the sorting algorithm to run
+     * @param type the element type to sort, "Integer" or "int"
+     * @param distribution the name of the distribution of the input, for the event
+     * @param input the values to sort, left unchanged
+     * @return a Results object containing the metrics of the sort, time in
+     *         nanoseconds and bytes allocated, or null if the algorithm has
+     *         no version for the element type
+     */
+    static Results<SortMetrics, Long> run(String algorithm, String type, String distribution, int[] input) {
+        return run(algorithm, type, distribution, input, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Sorts a copy of the input with an algorithm and measures the sort,
+     * running the parallel sorts on the given pool.
+     *
+     * @param algorithm the sorting algorithm to run
+     * @param type the element type to sort, "Integer" or "int"
+     * @param distribution the name of the distribution of the input, for the event
+     * @param input the values to sort, left unchanged
+     * @param pool the fork-join pool of the parallel sorts
+     * @return a Results object as for run without a pool, or null if the
+     *         algorithm has no version for the element type
+     */
+    static Results<SortMetrics, Long> run(String algorithm, String type, String distribution, int[] input,
+                                          ForkJoinPool pool) {
+        int[] values = input.clone();
+        Integer[] boxed = type.equals("Integer") ? box(values) : null;
+
+        // Reset the comparison counter of this thread before sorting
+        MonitoredComparator.resetComparisonCount();
+
+        SortEvent.setDistribution(distribution);
+        long startBytes = allocatedBytes();
+        long startTime = System.nanoTime();
+        try {
+            if (boxed != null) {
+                sortBoxed(algorithm, boxed, pool);
+            } else if (!sortPrimitive(algorithm, values, pool)) {
+                return null;
+            }
+        } finally {
+            SortEvent.setDistribution(null);
+        }
+        long endTime = System.nanoTime();
+        long endBytes = allocatedBytes();
+
+        SortMetrics metrics = MonitoredComparator.getLastMetrics();
+        long bytes = startBytes < 0 ? -1 : endBytes - startBytes;
+        return new Results<>(metrics, endTime - startTime, bytes);
+    }
+
+    /**
+     * Returns the number of bytes allocated so far by the current thread, as
+     * reported by the HotSpot thread MXBean.
+     *
+     * @return the allocated bytes, or -1 if the JVM does not support it
+     */
+    private static long allocatedBytes() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean hotspot = (com.sun.management.ThreadMXBean) bean;
+            if (hotspot.isThreadAllocatedMemorySupported() && hotspot.isThreadAllocatedMemoryEnabled()) {
+                return hotspot.getThreadAllocatedBytes(Thread.currentThread().getId());
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Sorts a boxed Integer array with the selected algorithm.
+     *
+     * @param algorithm the sorting algorithm to use
+     * @param array the array to sort
+     * @param pool the fork-join pool of the parallel sorts
+     */
+    private static void sortBoxed(String algorithm, Integer[] array, ForkJoinPool pool) {
+        switch (algorithm) {
+            case "bubbleSort":
+                Sorting.bubbleSort(array);
+                break;
+            case "insertionSort":
+                Sorting.insertionSort(array);
+                break;
+            case "mergeSort":
+                Sorting.mergeSort(array);
+                break;
+            case "mergeSortBuffered":
+                Sorting.mergeSortBuffered(array);
+                break;
+            case "bottomUpMergeSort":
+                Sorting.bottomUpMergeSort(array);
+                break;
+            case "naturalMergeSort":
+                Sorting.naturalMergeSort(array);
+                break;
+            case "quickSort":
+                Sorting.quickSort(array);
+                break;
+            case "threeWayQuickSort":
+                Sorting.threeWayQuickSort(array);
+                break;
+            case "dualPivotQuickSort":
+                Sorting.dualPivotQuickSort(array);
+                break;
+            case "introSort":
+                Sorting.introSort(array);
+                break;
+            case "selectionSort":
+                Sorting.selectionSort(array);
+                break;
+            case "countingSort":
+                RadixSorting.countingSort(array);
+                break;
+            case "lsdRadixSort":
+                RadixSorting.lsdRadixSort(array);
+                break;
+            case "msdRadixSort":
+                RadixSorting.msdRadixSort(array);
+                break;
+            case "adaptiveSort":
+                AdaptiveSorting.adaptiveSort(array, pool);
+                break;
+            case "parallelSampleSort":
+                ParallelSorting.parallelSampleSort(array, pool);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown algorithm: " + algorithm);
+        }
+    }
+
+    /**
+     * Sorts a primitive int array with the selected algorithm.
+     *
+     * @param algorithm the sorting algorithm to use
+     * @param array the array to sort
+     * @param pool the fork-join pool of the parallel sorts
+     * @return false if the algorithm has no primitive version
+     */
+    private static boolean sortPrimitive(String algorithm, int[] array, ForkJoinPool pool) {
+        switch (algorithm) {
+            case "bubbleSort":
+                Sorting.bubbleSort(array);
+                break;
+            case "insertionSort":
+                Sorting.insertionSort(array);
+                break;
+            case "mergeSort":
+                Sorting.mergeSort(array);
+                break;
+            case "naturalMergeSort":
+                Sorting.naturalMergeSort(array);
+                break;
+            case "quickSort":
+                Sorting.quickSort(array);
+                break;
+            case "selectionSort":
+                Sorting.selectionSort(array);
+                break;
+            case "countingSort":
+                RadixSorting.countingSort(array);
+                break;
+            case "lsdRadixSort":
+                RadixSorting.lsdRadixSort(array);
+                break;
+            case "msdRadixSort":
+                RadixSorting.msdRadixSort(array);
+                break;
+            case "adaptiveSort":
+                AdaptiveSorting.adaptiveSort(array);
+                break;
+            case "parallelSampleSort":
+                ParallelSorting.parallelSampleSort(array, pool);
+                break;
+            case "mergeSortBuffered":
+            case "bottomUpMergeSort":
+            case "threeWayQuickSort":
+            case "dualPivotQuickSort":
+            case "introSort":
+                return false;
+            default:
+                throw new IllegalArgumentException("Unknown algorithm: " + algorithm);
+        }
+        return true;
+    }
+
+    /**
+     * Copies an int array into a new array of boxed Integers.
+     *
+     * @param values the values to box
+     * @return a boxed copy of the values
+     */
+    static Integer[] box(int[] values) {
+        Integer[] array = new Integer[values.length];
+        for (int i = 0; i < values.length; i++) {
+            array[i] = values[i];
+        }
+        return array;
+    }
+}
@@ -0,0 +1,41 @@
+package helpers;
+
+/**
+ * The algorithms AdaptiveSorting can route an input to.
+ *
+ * @author JaniOC
+ */
+public enum SortStrategy {
+    /** Insertion sort, for inputs small enough that its low overhead wins. */
+    INSERTION("insertionSort"),
+
+    /** Natural merge sort, for presorted inputs made of long runs. */
+    NATURAL_MERGE("naturalMergeSort"),
+
+    /** Three-way quick sort, for inputs with many repeated keys. */
+    THREE_WAY_QUICK("threeWayQuickSort"),
+
+    /** Counting sort for dense keys, LSD radix sort otherwise; integer keys only. */
+    RADIX("lsdRadixSort"),
+
+    /** Parallel merge sort through a single buffer on the common fork-join pool, for large inputs. */
+    PARALLEL("parallelMergeSort"),
+
+    /** The general purpose sort when nothing else fits: introsort, or quick sort for ints. */
+    GENERAL("introSort");
+
+    private final String name;
+
+    SortStrategy(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Gets the name of the algorithm the strategy runs.
+     *
+     * @return the algorithm name
+     */
+    public String getName() {
+        return name;
+    }
+}
@@ -0,0 +1,315 @@
+package helpers;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * The thresholds AdaptiveSorting routes inputs by. The defaults suit small
+ * arrays on a typical desktop JVM; calibrate replaces the size thresholds
+ * with the crossover points measured by a performance sweep, and the
+ * result can be stored and loaded as a properties file.
+ *
+ * @author JaniOC
+ */
+public class SortThresholds {
+    // Size at or below which insertion sort is used
+    private int insertionMaxSize = 32;
+
+    // Average ascending run length from which an input counts as presorted
+    private int minRunLength = 32;
+
+    // Inversion ratio at or below which an input counts as presorted
+    private double maxInversionRatio = 0.05;
+
+    // Duplicate ratio from which three-way quick sort is used
+    private double minDuplicateRatio = 0.5;
+
+    // Size from which integer keys are radix sorted
+    private int radixMinSize = 256;
+
+    // Size from which objects are sorted in parallel
+    private int parallelMinSize = 1 << 16;
+
+    /**
+     * Gets the size at or below which insertion sort is used.
+     *
+     * @return the insertion sort threshold
+     */
+    public int getInsertionMaxSize() {
+        return insertionMaxSize;
+    }
+
+    /**
+     * Sets the size at or below which insertion sort is used.
+     *
+     * @param insertionMaxSize the insertion sort threshold
+     * @throws IllegalArgumentException if the threshold is negative
+     */
+    public void setInsertionMaxSize(int insertionMaxSize) {
+        if (insertionMaxSize < 0) {
+            throw new IllegalArgumentException("Insertion sort threshold must not be negative: "
+                                               + insertionMaxSize);
+        }
+        this.insertionMaxSize = insertionMaxSize;
+    }
+
+    /**
+     * Gets the average run length from which an input counts as presorted.
+     *
+     * @return the minimum average run length
+     */
+    public int getMinRunLength() {
+        return minRunLength;
+    }
+
+    /**
+     * Sets the average run length from which an input counts as presorted.
+     *
+     * @param minRunLength the minimum average run length
+     * @throws IllegalArgumentException if the length is below 2
+     */
+    public void setMinRunLength(int minRunLength) {
+        if (minRunLength < 2) {
+            throw new IllegalArgumentException("Minimum run length must be at least 2: " + minRunLength);
+        }
+        this.minRunLength = minRunLength;
+    }
+
+    /**
+     * Gets the inversion ratio at or below which an input counts as presorted.
+     *
+     * @return the maximum inversion ratio
+     */
+    public double getMaxInversionRatio() {
+        return maxInversionRatio;
+    }
+
+    /**
+     * Sets the inversion ratio at or below which an input counts as presorted.
+     *
+     * @param maxInversionRatio the maximum inversion ratio, from 0 to 1
+     * @throws IllegalArgumentException if the ratio is outside 0 to 1
+     */
+    public void setMaxInversionRatio(double maxInversionRatio) {
+        checkRatio("Maximum inversion ratio", maxInversionRatio);
+        this.maxInversionRatio = maxInversionRatio;
+    }
+
+    /**
+     * Gets the duplicate ratio from which three-way quick sort is used.
+     *
+     * @return the minimum duplicate ratio
+     */
+    public double getMinDuplicateRatio() {
+        return minDuplicateRatio;
+    }
+
+    /**
+     * Sets the duplicate ratio from which three-way quick sort is used.
+     *
+     * @param minDuplicateRatio the minimum duplicate ratio, from 0 to 1
+     * @throws IllegalArgumentException if the ratio is outside 0 to 1
+     */
+    public void setMinDuplicateRatio(double minDuplicateRatio) {
+        checkRatio("Minimum duplicate ratio", minDuplicateRatio);
+        this.minDuplicateRatio = minDuplicateRatio;
+    }
+
+    /**
+     * Gets the size from which integer keys are radix sorted.
+     *
+     * @return the radix sort threshold
+     */
+    public int getRadixMinSize() {
+        return radixMinSize;
+    }
+
+    /**
+     * Sets the size from which integer keys are radix sorted.
+     *
+     * @param radixMinSize the radix sort threshold
+     * @throws IllegalArgumentException if the threshold is negative
+     */
+    public void setRadixMinSize(int radixMinSize) {
+        if (radixMinSize < 0) {
+            throw new IllegalArgumentException("Radix sort threshold must not be negative: " + radixMinSize);
+        }
+        this.radixMinSize = radixMinSize;
+    }
+
+    /**
+     * Gets the size from which objects are sorted in parallel.
+     *
+     * @return the parallel sort threshold
+     */
+    public int getParallelMinSize() {
+        return parallelMinSize;
+    }
+
+    /**
+     * Sets the size from which objects are sorted in parallel.
+     *
+     * @param parallelMinSize the parallel sort threshold
+     * @throws IllegalArgumentException if the threshold is negative
+     */
+    public void setParallelMinSize(int parallelMinSize) {
+        if (parallelMinSize < 0) {
+            throw new IllegalArgumentException("Parallel sort threshold must not be negative: "
+                                               + parallelMinSize);
+        }
+        this.parallelMinSize = parallelMinSize;
+    }
+
+    /**
+     * Derives thresholds from the results of a performance sweep on random
+     * input. The insertion sort threshold becomes the largest size at which
+     * insertion sort still beats merge sort, and the radix sort threshold the
+     * smallest size from which LSD radix sort beats quick sort on ints. If
+     * an algorithm never wins, its threshold is moved just past the measured
+     * sizes. Thresholds the sweep has no data for keep their defaults, so
+     * the sweep should include small sizes and warmup trials.
+     *
+     * @param results the results of a sweep, such as those read by SweepFormat.read
+     * @return the calibrated thresholds
+     */
+    public static SortThresholds calibrate(List<SweepResult> results) {
+        SortThresholds thresholds = new SortThresholds();
+        Map<String, SweepResult> cells = new HashMap<>();
+        for (SweepResult result : results) {
+            cells.put(result.getKey(), result);
+        }
+
+        // largest size up to which insertion sort wins at every measured size
+        int smallest = -1;
+        int insertionMaxSize = -1;
+        for (int size : sizes(results)) {
+            SweepResult insertion = cells.get(SweepResult.key("insertionSort", "Integer", "random", size));
+            SweepResult merge = cells.get(SweepResult.key("mergeSort", "Integer", "random", size));
+            if (insertion == null || merge == null) {
+                continue;
+            }
+            if (smallest < 0) {
+                smallest = size;
+            }
+            if (insertion.getMedianNanos() > merge.getMedianNanos()) {
+                break;
+            }
+            insertionMaxSize = size;
+        }
+        if (insertionMaxSize >= 0) {
+            thresholds.setInsertionMaxSize(insertionMaxSize);
+        } else if (smallest >= 0) {
+            thresholds.setInsertionMaxSize(smallest - 1);
+        }
+
+        // smallest size from which radix sort wins at every measured size
+        int largest = -1;
+        int radixMinSize = -1;
+        for (int size : sizes(results)) {
+            SweepResult radix = cells.get(SweepResult.key("lsdRadixSort", "int", "random", size));
+            SweepResult quick = cells.get(SweepResult.key("quickSort", "int", "random", size));
+            if (radix == null || quick == null) {
+                continue;
+            }
+            largest = size;
+            if (radix.getMedianNanos() > quick.getMedianNanos()) {
+                radixMinSize = -1;
+            } else if (radixMinSize < 0) {
+                radixMinSize = size;
+            }
+        }
+        if (radixMinSize >= 0) {
+            thresholds.setRadixMinSize(radixMinSize);
+        } else if (largest >= 0) {
+            thresholds.setRadixMinSize(largest + 1);
+        }
+        return thresholds;
+    }
+
+    /**
+     * Loads thresholds from a properties file. Thresholds missing from the
+     * file keep their defaults.
+     *
+     * @param file the properties file
+     * @return the loaded thresholds
+     * @throws IOException if the file cannot be read
+     * @throws IllegalArgumentException if a value is invalid
+     */
+    public static SortThresholds load(Path file) throws IOException {
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        }
+        SortThresholds thresholds = new SortThresholds();
+        thresholds.setInsertionMaxSize(Integer.parseInt(properties.getProperty("insertionMaxSize",
+                String.valueOf(thresholds.insertionMaxSize))));
+        thresholds.setMinRunLength(Integer.parseInt(properties.getProperty("minRunLength",
+                String.valueOf(thresholds.minRunLength))));
+        thresholds.setMaxInversionRatio(Double.parseDouble(properties.getProperty("maxInversionRatio",
+                String.valueOf(thresholds.maxInversionRatio))));
+        thresholds.setMinDuplicateRatio(Double.parseDouble(properties.getProperty("minDuplicateRatio",
+                String.valueOf(thresholds.minDuplicateRatio))));
+        thresholds.setRadixMinSize(Integer.parseInt(properties.getProperty("radixMinSize",
+                String.valueOf(thresholds.radixMinSize))));
+        thresholds.setParallelMinSize(Integer.parseInt(properties.getProperty("parallelMinSize",
+                String.valueOf(thresholds.parallelMinSize))));
+        return thresholds;
+    }
+
+    /**
+     * Stores the thresholds in a properties file.
+     *
+     * @param file the properties file
+     * @throws IOException if the file cannot be written
+     */
+    public void store(Path file) throws IOException {
+        Properties properties = new Properties();
+        properties.setProperty("insertionMaxSize", String.valueOf(insertionMaxSize));
+        properties.setProperty("minRunLength", String.valueOf(minRunLength));
+        properties.setProperty("maxInversionRatio", String.valueOf(maxInversionRatio));
+        properties.setProperty("minDuplicateRatio", String.valueOf(minDuplicateRatio));
+        properties.setProperty("radixMinSize", String.valueOf(radixMinSize));
+        properties.setProperty("parallelMinSize", String.valueOf(parallelMinSize));
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            properties.store(writer, "AdaptiveSorting thresholds");
+        }
+    }
+
+    /**
+     * Collects the distinct sizes of sweep results in ascending order.
+     *
+     * @param results the results of a sweep
+     * @return the sizes
+     */
+    private static int[] sizes(List<SweepResult> results) {
+        return results.stream().mapToInt(SweepResult::getSize).distinct().sorted().toArray();
+    }
+
+    /**
+     * Checks that a ratio lies between 0 and 1.
+     *
+     * @param name the name of the ratio, for the error message
+     * @param ratio the ratio to check
+     * @throws IllegalArgumentException if the ratio is outside 0 to 1
+     */
+    private static void checkRatio(String name, double ratio) {
+        if (!(ratio >= 0 && ratio <= 1)) {
+            throw new IllegalArgumentException(name + " must be between 0 and 1: " + ratio);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "insertionMaxSize=" + insertionMaxSize + ", minRunLength=" + minRunLength
+                + ", maxInversionRatio=" + maxInversionRatio + ", minDuplicateRatio=" + minDuplicateRatio
+                + ", radixMinSize=" + radixMinSize + ", parallelMinSize=" + parallelMinSize;
+    }
+}
@@ -1,15 +1,35 @@
 package helpers;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
 /**
  * Sorting demonstrates sorting and searching on an array
  * of objects. The methods utilize a MonitoredComparator
- * to track the number of comparisons during sorting
+ * to track the comparisons, swaps, moves and recursion depth
+ * of each sort, published when the sort finishes.
+ * The basic algorithms are also overloaded for int, long and
+ * double arrays so numeric data can be sorted without boxing.
  *
  * @author Lewis and Chase
  * @version 4.0 (Edited by JaniOC, updated with MonitoredComparator support)
  */
 public class Sorting
 {
+    // Range size at or below which the parallel sorts fall back to sequential code
+    public static final int DEFAULT_PARALLEL_THRESHOLD = 8192;
+
+    // Range size at or below which introsort finishes with insertion sort
+    private static final int INSERTION_SORT_THRESHOLD = 16;
+
+    // Largest minimum run length of the natural merge sort
+    private static final int MIN_MERGE = 32;
+
+    // Wins in a row of one run after which a natural merge sort merge starts galloping
+    private static final int MIN_GALLOP = 7;
+
     /**
      * Sorts the specified array of integers using the selection
      * sort algorithm.
@@ -19,7 +39,6 @@ public class Sorting
     public static <T extends Comparable<T>>
     void selectionSort(T[] data) {
         MonitoredComparator<T> comparator = new MonitoredComparator<>();
-        MonitoredComparator.resetComparisonCount();
 
         int min;
         T temp;
@@ -33,8 +52,9 @@ public class Sorting
                 }
             }
 
-            swap(data, min, index);
+            swap(data, min, index, comparator);
         }
+        comparator.publish(data);
     }
 
     /**
@@ -43,9 +63,11 @@ public class Sorting
      * @param data   the array in which the elements are swapped
      * @param index1 the index of the first element to be swapped
      * @param index2 the index of the second element to be swapped
+     * @param comparator the MonitoredComparator tracking the swap
      */
-    private static <T extends Comparable<T>>
-    void swap(T[] data, int index1, int index2) {
+    static <T extends Comparable<T>>
+    void swap(T[] data, int index1, int index2, MonitoredComparator<T> comparator) {
+        comparator.recordSwap();
         T temp = data[index1];
         data[index1] = data[index2];
         data[index2] = temp;
@@ -60,18 +82,35 @@ public class Sorting
     public static <T extends Comparable<T>>
     void insertionSort(T[] data) {
         MonitoredComparator<T> comparator = new MonitoredComparator<>();
-        MonitoredComparator.resetComparisonCount();
-        for (int index = 1; index < data.length; index++) {
+        insertionSort(data, 0, data.length - 1, comparator);
+        comparator.publish(data);
+    }
+
+    /**
+     * Sorts a range of objects in the specified array using an insertion
+     * sort algorithm.
+     *
+     * @param data the array to be sorted
+     * @param min  the index of the first element
+     * @param max  the index of the last element
+     * @param comparator the MonitoredComparator tracking comparisons
+     */
+    private static <T extends Comparable<T>>
+    void insertionSort(T[] data, int min, int max, MonitoredComparator<T> comparator) {
+        for (int index = min + 1; index <= max; index++) {
             T key = data[index];
+            comparator.recordRead();
             int position = index;
 
             // shift larger values to the right
-            while (position > 0 && comparator.compare(data[position - 1], key) > 0) {
+            while (position > min && comparator.compare(data[position - 1], key) > 0) {
                 data[position] = data[position-1];
+                comparator.recordMoves(1);
                 position--;
             }
 
             data[position] = key;
+            comparator.recordWrite();
         }
     }
 
@@ -84,7 +123,6 @@ public class Sorting
     public static <T extends Comparable<T>>
     void bubbleSort(T[] data) {
         MonitoredComparator<T> comparator = new MonitoredComparator<>();
-        MonitoredComparator.resetComparisonCount();
 
         int position, scan;
         T temp;
@@ -92,10 +130,11 @@ public class Sorting
         for (position =  data.length - 1; position >= 0; position--) {
             for (scan = 0; scan <= position - 1; scan++) {
                 if (comparator.compare(data[scan], data[scan + 1]) > 0) {
-                    swap(data, scan, scan + 1);
+                    swap(data, scan, scan + 1, comparator);
                 }
             }
         }
+        comparator.publish(data);
     }
 
     /**
@@ -107,8 +146,8 @@ public class Sorting
     public static <T extends Comparable<T>>
     void mergeSort(T[] data) {
         MonitoredComparator<T> comparator = new MonitoredComparator<>();
-        MonitoredComparator.resetComparisonCount();
         mergeSort(data, 0, data.length - 1, comparator);
+        comparator.publish(data);
     }
 
     /**
@@ -124,10 +163,12 @@ public class Sorting
     void mergeSort(T[] data, int min, int max, MonitoredComparator<T> comparator) {
         if (min < max)
         {
+            comparator.enter();
             int mid = (min + max) / 2;
             mergeSort(data, min, mid, comparator);
             mergeSort(data, mid + 1, max, comparator);
             merge(data, min, mid, max, comparator);
+            comparator.exit();
         }
     }
 
@@ -180,6 +221,375 @@ public class Sorting
         for (index = first; index <= last; index++) {
             data[index] = temp[index];
         }
+
+        //  Every element was moved into temp and back
+        comparator.recordMoves(2L * (last - first + 1));
+    }
+
+    /**
+     * Sorts the specified array of objects using a merge sort that
+     * allocates a single auxiliary buffer for the whole sort.
+     *
+     * @param data the array to be sorted
+     */
+    @SuppressWarnings("unchecked")
+    public static <T extends Comparable<T>>
+    void mergeSortBuffered(T[] data) {
+        mergeSort(data, (T[])(new Comparable<?>[data.length]));
+    }
+
+    /**
+     * Sorts the specified array of objects using a merge sort that uses
+     * the caller-supplied buffer as its only scratch space, so repeated
+     * sorts can reuse one buffer and allocate nothing. Instead of copying
+     * each merged range back, the data and the buffer swap roles as source
+     * and destination at every level of the recursion.
+     *
+     * @param data   the array to be sorted
+     * @param buffer scratch space at least as long as data
+     */
+    public static <T extends Comparable<T>>
+    void mergeSort(T[] data, T[] buffer) {
+        if (buffer.length < data.length) {
+            throw new IllegalArgumentException("Buffer of length " + buffer.length
+                    + " is shorter than the data length " + data.length);
+        }
+        MonitoredComparator<T> comparator = new MonitoredComparator<>();
+        System.arraycopy(data, 0, buffer, 0, data.length);
+        comparator.recordMoves(data.length);
+        mergeSort(buffer, data, 0, data.length - 1, comparator);
+        comparator.publish(data);
+    }
+
+    /**
+     * Recursively sorts a range of the source array into the same range of
+     * the destination array. Both arrays must hold the same elements in the
+     * range when called; the halves are sorted into the source and then
+     * merged into the destination.
+     *
+     * @param source      the array the range is read from
+     * @param destination the array the sorted range is written to
+     * @param min         the index of the first element
+     * @param max         the index of the last element
+     * @param comparator  the MonitoredComparator tracking comparisons
+     */
+    private static <T extends Comparable<T>>
+    void mergeSort(T[] source, T[] destination, int min, int max, MonitoredComparator<T> comparator) {
+        if (min < max)
+        {
+            comparator.enter();
+            int mid = (min + max) / 2;
+            mergeSort(destination, source, min, mid, comparator);
+            mergeSort(destination, source, mid + 1, max, comparator);
+            merge(source, destination, min, mid, max, comparator);
+            comparator.exit();
+        }
+    }
+
+    /**
+     * Sorts the specified array of objects using an iterative bottom-up
+     * merge sort. Runs of width 1, 2, 4, ... are merged back and forth
+     * between the data and a single auxiliary buffer, so there is no
+     * recursion at all.
+     *
+     * @param data the array to be sorted
+     */
+    @SuppressWarnings("unchecked")
+    public static <T extends Comparable<T>>
+    void bottomUpMergeSort(T[] data) {
+        MonitoredComparator<T> comparator = new MonitoredComparator<>();
+
+        int length = data.length;
+        T[] source = data;
+        T[] destination = (T[])(new Comparable<?>[length]);
+
+        for (int width = 1; width < length; width *= 2) {
+            for (int first = 0; first < length; first += 2 * width) {
+                int mid = Math.min(first + width - 1, length - 1);
+                int last = Math.min(first + 2 * width - 1, length - 1);
+                merge(source, destination, first, mid, last, comparator);
+            }
+            T[] temp = source;
+            source = destination;
+            destination = temp;
+        }
+
+        // after an odd number of passes the sorted data is in the buffer
+        if (source != data) {
+            System.arraycopy(source, 0, data, 0, length);
+            comparator.recordMoves(length);
+        }
+        comparator.publish(data);
+    }
+
+    /**
+     * Merges two sorted ranges of the source array into the same positions
+     * of the destination array. Equal elements are taken from the first
+     * range first, so the merge is stable.
+     *
+     * @param source      the array holding the two sorted ranges
+     * @param destination the array the merged range is written to
+     * @param first       the beginning index of the first range
+     * @param mid         the ending index of the first range
+     * @param last        the ending index of the second range
+     * @param comparator  the MonitoredComparator tracking comparisons
+     */
+    private static <T extends Comparable<T>>
+    void merge(T[] source, T[] destination, int first, int mid, int last, MonitoredComparator<T> comparator) {
+        int first1 = first, first2 = mid + 1;
+        for (int index = first; index <= last; index++) {
+            if (first2 > last || (first1 <= mid && comparator.compare(source[first1], source[first2]) <= 0)) {
+                destination[index] = source[first1++];
+            } else {
+                destination[index] = source[first2++];
+            }
+        }
+        comparator.recordMoves(last - first + 1);
+    }
+
+    /**
+     * Sorts the specified array of objects using a natural merge sort in the
+     * style of TimSort. The array is scanned for ascending and strictly
+     * descending runs, descending runs are reversed, and runs shorter than
+     * a minimum length are extended with binary insertion sort. The runs are
+     * kept on a stack and merged so their lengths stay roughly balanced, and
+     * merges gallop past long stretches taken from one run. Already ordered
+     * data is sorted in a single pass, and data made of a few sorted batches
+     * in about n log(batches) comparisons.
+     *
+     * @param data the array to be sorted
+     */
+    public static <T extends Comparable<T>>
+    void naturalMergeSort(T[] data) {
+        MonitoredComparator<T> comparator = new MonitoredComparator<>();
+        naturalMergeSort(data, 0, data.length, comparator);
+        comparator.publish(data);
+    }
+
+    /**
+     * Sorts a range of an array of objects using the natural merge sort.
+     * Used to sort the buckets of the parallel sorts in place.
+     *
+     * @param data       the array holding the range
+     * @param start      the index of the first element
+     * @param end        the index after the last element
+     * @param comparator the MonitoredComparator tracking comparisons
+     */
+    @SuppressWarnings("unchecked")
+    static <T extends Comparable<T>>
+    void naturalMergeSort(T[] data, int start, int end, MonitoredComparator<T> comparator) {
+        int length = end - start;
+        if (length > 1) {
+            T[] buffer = (T[])(new Comparable<?>[length]);
+            RunStack runs = new RunStack();
+            int minRun = minRunLength(length);
+
+            for (int first = start; first < end; ) {
+                int runLength = countRunAndMakeAscending(data, first, end, comparator);
+
+                // extend a short run to minRun elements with binary insertion sort
+                if (runLength < minRun) {
+                    int forced = Math.min(minRun, end - first);
+                    binaryInsertionSort(data, first, first + forced, first + runLength, comparator);
+                    runLength = forced;
+                }
+
+                runs.push(first, runLength);
+                for (int index = runs.collapseAt(); index >= 0; index = runs.collapseAt()) {
+                    mergeRuns(data, buffer, runs.base[index], runs.length[index], runs.base[index + 1],
+                              runs.length[index + 1], comparator);
+                    runs.merged(index);
+                }
+                first += runLength;
+            }
+
+            for (int index = runs.forceCollapseAt(); index >= 0; index = runs.forceCollapseAt()) {
+                mergeRuns(data, buffer, runs.base[index], runs.length[index], runs.base[index + 1],
+                          runs.length[index + 1], comparator);
+                runs.merged(index);
+            }
+        }
+    }
+
+    /**
+     * Finds the length of the run starting at first, reversing it in place
+     * if it is strictly descending. Descending runs must be strict so that
+     * reversing them keeps equal elements in order.
+     *
+     * @param data       the array to be sorted
+     * @param first      the index the run starts at
+     * @param end        the index after the last element of the array
+     * @param comparator the MonitoredComparator tracking comparisons
+     * @return the length of the run, at least 1
+     */
+    private static <T extends Comparable<T>>
+    int countRunAndMakeAscending(T[] data, int first, int end, MonitoredComparator<T> comparator) {
+        int runEnd = first + 1;
+        if (runEnd == end) {
+            return 1;
+        }
+
+        if (comparator.compare(data[runEnd++], data[first]) < 0) {
+            while (runEnd < end && comparator.compare(data[runEnd], data[runEnd - 1]) < 0) {
+                runEnd++;
+            }
+            for (int low = first, high = runEnd - 1; low < high; low++, high--) {
+                swap(data, low, high, comparator);
+            }
+        } else {
+            while (runEnd < end && comparator.compare(data[runEnd], data[runEnd - 1]) >= 0) {
+                runEnd++;
+            }
+        }
+        return runEnd - first;
+    }
+
+    /**
+     * Sorts a range of objects with insertion sort, finding the place of each
+     * element by binary search. The start of the range is already sorted.
+     * Equal elements are inserted after each other, so the sort is stable.
+     *
+     * @param data       the array to be sorted
+     * @param first      the index of the first element of the range
+     * @param end        the index after the last element of the range
+     * @param start      the index of the first element not yet in order
+     * @param comparator the MonitoredComparator tracking comparisons
+     */
+    private static <T extends Comparable<T>>
+    void binaryInsertionSort(T[] data, int first, int end, int start, MonitoredComparator<T> comparator) {
+        for (int index = start; index < end; index++) {
+            T key = data[index];
+            int low = first, high = index;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (comparator.compare(key, data[mid]) < 0) {
+                    high = mid;
+                } else {
+                    low = mid + 1;
+                }
+            }
+            System.arraycopy(data, low, data, low + 1, index - low);
+            data[low] = key;
+            comparator.recordMoves(index - low + 1);
+        }
+    }
+
+    /**
+     * Merges two adjacent sorted runs. Elements at the start of the first run
+     * that are no larger than the start of the second, and elements at the
+     * end of the second run that are smaller than the end of the first, are
+     * already in place and are skipped by galloping. The rest of the first
+     * run is copied to the buffer and merged back, galloping whenever one run
+     * wins MIN_GALLOP times in a row. Equal elements are taken from the first
+     * run first, so the merge is stable.
+     *
+     * @param data       the array holding both runs
+     * @param buffer     scratch space at least as long as the first run
+     * @param base1      the index of the first run
+     * @param length1    the length of the first run
+     * @param base2      the index of the second run, right after the first
+     * @param length2    the length of the second run
+     * @param comparator the MonitoredComparator tracking comparisons
+     */
+    private static <T extends Comparable<T>>
+    void mergeRuns(T[] data, T[] buffer, int base1, int length1, int base2, int length2,
+                   MonitoredComparator<T> comparator) {
+        // skip the elements of each run that are already in their final place
+        int inPlace = gallop(data[base2], data, base1, length1, true, comparator);
+        base1 += inPlace;
+        length1 -= inPlace;
+        if (length1 == 0) {
+            return;
+        }
+        int end2 = base2 + gallop(data[base1 + length1 - 1], data, base2, length2, false, comparator);
+        if (end2 == base2) {
+            return;
+        }
+
+        System.arraycopy(data, base1, buffer, 0, length1);
+        int cursor1 = 0, cursor2 = base2, destination = base1;
+        while (cursor1 < length1 && cursor2 < end2) {
+            // take one element at a time until a run wins MIN_GALLOP times in a row
+            int wins1 = 0, wins2 = 0;
+            while (cursor1 < length1 && cursor2 < end2 && wins1 < MIN_GALLOP && wins2 < MIN_GALLOP) {
+                if (comparator.compare(data[cursor2], buffer[cursor1]) < 0) {
+                    data[destination++] = data[cursor2++];
+                    wins2++;
+                    wins1 = 0;
+                } else {
+                    data[destination++] = buffer[cursor1++];
+                    wins1++;
+                    wins2 = 0;
+                }
+            }
+
+            // then copy whole stretches of each run while they stay long
+            while (cursor1 < length1 && cursor2 < end2) {
+                int count1 = gallop(data[cursor2], buffer, cursor1, length1 - cursor1, true, comparator);
+                System.arraycopy(buffer, cursor1, data, destination, count1);
+                destination += count1;
+                cursor1 += count1;
+                if (cursor1 == length1) {
+                    break;
+                }
+                data[destination++] = data[cursor2++];
+                if (cursor2 == end2) {
+                    break;
+                }
+
+                int count2 = gallop(buffer[cursor1], data, cursor2, end2 - cursor2, false, comparator);
+                System.arraycopy(data, cursor2, data, destination, count2);
+                destination += count2;
+                cursor2 += count2;
+                if (cursor2 == end2) {
+                    break;
+                }
+                data[destination++] = buffer[cursor1++];
+
+                if (count1 < MIN_GALLOP && count2 < MIN_GALLOP) {
+                    break;
+                }
+            }
+        }
+
+        // whatever is left of the second run is already in place
+        System.arraycopy(buffer, cursor1, data, destination, length1 - cursor1);
+        comparator.recordMoves(2L * length1 + (cursor2 - base2));
+    }
+
+    /**
+     * Counts the elements at the start of a sorted range that are smaller
+     * than the key, or no larger than the key if inclusive. Probes 1, 3, 7,
+     * ... elements in until it overshoots and then binary searches, so the
+     * cost is logarithmic in the count rather than in the range.
+     *
+     * @param key        the key to place
+     * @param data       the array holding the range
+     * @param base       the index of the range
+     * @param length     the length of the range
+     * @param inclusive  true to count elements equal to the key too
+     * @param comparator the MonitoredComparator tracking comparisons
+     * @return the number of elements before the key's place in the range
+     */
+    private static <T extends Comparable<T>>
+    int gallop(T key, T[] data, int base, int length, boolean inclusive, MonitoredComparator<T> comparator) {
+        int limit = inclusive ? 0 : -1;
+        int low = 0, offset = 1;
+        while (offset <= length && comparator.compare(data[base + offset - 1], key) <= limit) {
+            low = offset;
+            offset = 2 * offset + 1;
+        }
+
+        int high = Math.min(offset - 1, length);
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (comparator.compare(data[base + mid], key) <= limit) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
     }
 
     /**
@@ -190,8 +600,8 @@ public class Sorting
     public static <T extends Comparable<T>>
     void quickSort(T[] data) {
         MonitoredComparator<T> comparator = new MonitoredComparator<>();
-        MonitoredComparator.resetComparisonCount();
         quickSort(data, 0, data.length - 1, comparator);
+        comparator.publish(data);
     }
 
     /**
@@ -207,6 +617,8 @@ public class Sorting
     void quickSort(T[] data, int min, int max, MonitoredComparator<T> comparator) {
         if (min < max)
         {
+            comparator.enter();
+
             // create partitions
             int indexofpartition = partition(data, min, max, comparator);
 
@@ -215,6 +627,8 @@ public class Sorting
 
             // sort the right partition (higher values)
             quickSort(data, indexofpartition + 1, max, comparator);
+
+            comparator.exit();
         }
     }
 
@@ -226,7 +640,7 @@ public class Sorting
      * @param max  the maximum index in the range to be sorted
      * @param comparator the MonitoredComparator tracking comparisons
      */
-    private static <T extends Comparable<T>>
+    static <T extends Comparable<T>>
     int partition(T[] data, int min, int max, MonitoredComparator<T> comparator) {
 
         T partitionelement;
@@ -235,8 +649,9 @@ public class Sorting
 
         // use the middle data value as the partition element
         partitionelement = data[middle];
+        comparator.recordRead();
         // move it out of the way for now
-        swap(data, middle, min);
+        swap(data, middle, min, comparator);
 
         left = min;
         right = max;
@@ -255,14 +670,1627 @@ public class Sorting
 
             // swap the elements
             if (left < right) {
-                swap(data, left, right);
+                swap(data, left, right, comparator);
             }
         }
 
         // move the partition element into place
-        swap(data, min, right);
+        swap(data, min, right, comparator);
 
         return right;
     }
-}
 
+    /**
+     * Sorts the specified array of objects using introsort: a quick sort
+     * with median-of-three pivots that finishes small ranges with insertion
+     * sort and switches to heap sort when the recursion gets too deep. It
+     * only recurses into the smaller partition, so it runs in O(n log n)
+     * time with O(log n) stack in the worst case.
+     *
+     * @param data the array to be sorted
+     */
+    public static <T extends Comparable<T>>
+    void introSort(T[] data) {
+        MonitoredComparator<T> comparator = new MonitoredComparator<>();
+        if (data.length > 1) {
+            int depthLimit = 2 * (31 - Integer.numberOfLeadingZeros(data.length));
+            introSort(data, 0, data.length - 1, depthLimit, comparator);
+        }
+        comparator.publish(data);
+    }
+
+    /**
+     * Sorts a range of objects in the specified array using introsort.
+     * Loops on the larger partition and recurses on the smaller one.
+     *
+     * @param data       the array to be sorted
+     * @param min        the minimum index in the range to be sorted
+     * @param max        the maximum index in the range to be sorted
+     * @param depthLimit the number of partitioning levels left before
+     *                   falling back to heap sort
+     * @param comparator the MonitoredComparator tracking comparisons
+     */
+    private static <T extends Comparable<T>>
+    void introSort(T[] data, int min, int max, int depthLimit, MonitoredComparator<T> comparator) {
+        comparator.enter();
+        while (max - min + 1 > INSERTION_SORT_THRESHOLD && depthLimit > 0) {
+            depthLimit--;
+
+            // put the median of the first, middle and last values where partition takes its pivot
+            medianOfThree(data, min, max, comparator);
+            int indexofpartition = partition(data, min, max, comparator);
+
+            if (indexofpartition - min < max - indexofpartition) {
+                introSort(data, min, indexofpartition - 1, depthLimit, comparator);
+                min = indexofpartition + 1;
+            } else {
+                introSort(data, indexofpartition + 1, max, depthLimit, comparator);
+                max = indexofpartition - 1;
+            }
+        }
+
+        if (max - min + 1 > INSERTION_SORT_THRESHOLD) {
+            heapSort(data, min, max, comparator);
+        } else {
+            insertionSort(data, min, max, comparator);
+        }
+        comparator.exit();
+    }
+
+    /**
+     * Orders the first, middle and last values of a range so that the
+     * median of the three ends up in the middle, where partition takes
+     * its pivot from.
+     *
+     * @param data the array containing the range
+     * @param min  the minimum index in the range
+     * @param max  the maximum index in the range
+     * @param comparator the MonitoredComparator tracking comparisons
+     */
+    private static <T extends Comparable<T>>
+    void medianOfThree(T[] data, int min, int max, MonitoredComparator<T> comparator) {
+        int middle = (min + max) / 2;
+        if (comparator.compare(data[middle], data[min]) < 0) {
+            swap(data, middle, min, comparator);
+        }
+        if (comparator.compare(data[max], data[middle]) < 0) {
+            swap(data, max, middle, comparator);
+            if (comparator.compare(data[middle], data[min]) < 0) {
+                swap(data, middle, min, comparator);
+            }
+        }
+    }
+
+    /**
+     * Sorts the specified array of objects using the heap sort algorithm.
+     *
+     * @param data the array to be sorted
+     */
+    public static <T extends Comparable<T>>
+    void heapSort(T[] data) {
+        MonitoredComparator<T> comparator = new MonitoredComparator<>();
+        heapSort(data, 0, data.length - 1, comparator);
+        comparator.publish(data);
+    }
+
+    /**
+     * Sorts a range of objects in the specified array using heap sort, by
+     * building a max-heap over the range and repeatedly moving its root
+     * to the end.
+     *
+     * @param data the array to be sorted
+     * @param min  the minimum index in the range to be sorted
+     * @param max  the maximum index in the range to be sorted
+     * @param comparator the MonitoredComparator tracking comparisons
+     */
+    static <T extends Comparable<T>>
+    void heapSort(T[] data, int min, int max, MonitoredComparator<T> comparator) {
+        int length = max - min + 1;
+        for (int parent = length / 2 - 1; parent >= 0; parent--) {
+            siftDown(data, min, parent, length, comparator);
+        }
+        for (int last = length - 1; last > 0; last--) {
+            swap(data, min, min + last, comparator);
+            siftDown(data, min, 0, last, comparator);
+        }
+    }
+
+    /**
+     * Moves an element of a heap down until both its children are no
+     * larger than it. Heap positions are relative to the start of the range.
+     *
+     * @param data   the array containing the heap
+     * @param offset the index of the root of the heap
+     * @param parent the heap position of the element to move down
+     * @param length the number of elements in the heap
+     * @param comparator the MonitoredComparator tracking comparisons
+     */
+    static <T extends Comparable<T>>
+    void siftDown(T[] data, int offset, int parent, int length, MonitoredComparator<T> comparator) {
+        int child = 2 * parent + 1;
+        while (child < length) {
+            // pick the larger of the two children
+            if (child + 1 < length && comparator.compare(data[offset + child], data[offset + child + 1]) < 0) {
+                child++;
+            }
+            if (comparator.compare(data[offset + parent], data[offset + child]) >= 0) {
+                return;
+            }
+            swap(data, offset + parent, offset + child, comparator);
+            parent = child;
+            child = 2 * parent + 1;
+        }
+    }
+
+    /**
+     * Sorts the specified array of objects using a quick sort with
+     * three-way (Dutch national flag) partitioning. Elements equal to the
+     * pivot are gathered in the middle and never looked at again, which
+     * makes it fast on data with many duplicate keys.
+     *
+     * @param data the array to be sorted
+     */
+    public static <T extends Comparable<T>>
+    void threeWayQuickSort(T[] data) {
+        MonitoredComparator<T> comparator = new MonitoredComparator<>();
+        threeWayQuickSort(data, 0, data.length - 1, comparator);
+        comparator.publish(data);
+    }
+
+    /**
+     * Recursively sorts a range of objects in the specified array using
+     * three-way partitioning into values less than, equal to and greater
+     * than the pivot.
+     *
+     * @param data the array to be sorted
+     * @param min  the minimum index in the range to be sorted
+     * @param max  the maximum index in the range to be sorted
+     * @param comparator the MonitoredComparator tracking comparisons
+     */
+    private static <T extends Comparable<T>>
+    void threeWayQuickSort(T[] data, int min, int max, MonitoredComparator<T> comparator) {
+        if (min < max)
+        {
+            comparator.enter();
+
+            // use the middle data value as the partition element
+            swap(data, (min + max) / 2, min, comparator);
+            T partitionelement = data[min];
+            comparator.recordRead();
+
+            // data[min..less-1] < pivot, data[less..scan-1] == pivot, data[greater+1..max] > pivot
+            int less = min, scan = min + 1, greater = max;
+            while (scan <= greater) {
+                int result = comparator.compare(data[scan], partitionelement);
+                if (result < 0) {
+                    swap(data, less++, scan++, comparator);
+                } else if (result > 0) {
+                    swap(data, scan, greater--, comparator);
+                } else {
+                    scan++;
+                }
+            }
+
+            threeWayQuickSort(data, min, less - 1, comparator);
+            threeWayQuickSort(data, greater + 1, max, comparator);
+
+            comparator.exit();
+        }
+    }
+
+    /**
+     * Sorts the specified array of objects using a dual-pivot quick sort,
+     * which splits every range into three parts around two pivots.
+     *
+     * @param data the array to be sorted
+     */
+    public static <T extends Comparable<T>>
+    void dualPivotQuickSort(T[] data) {
+        MonitoredComparator<T> comparator = new MonitoredComparator<>();
+        dualPivotQuickSort(data, 0, data.length - 1, comparator);
+        comparator.publish(data);
+    }
+
+    /**
+     * Recursively sorts a range of objects in the specified array using
+     * two pivots taken from a third and two thirds of the way through
+     * the range. When both pivots are equal the middle part holds only
+     * copies of the pivot and is not sorted again.
+     *
+     * @param data the array to be sorted
+     * @param min  the minimum index in the range to be sorted
+     * @param max  the maximum index in the range to be sorted
+     * @param comparator the MonitoredComparator tracking comparisons
+     */
+    private static <T extends Comparable<T>>
+    void dualPivotQuickSort(T[] data, int min, int max, MonitoredComparator<T> comparator) {
+        if (min < max)
+        {
+            comparator.enter();
+
+            // move the pivot candidates to the ends, smaller one first
+            int third = (max - min) / 3;
+            swap(data, min, min + third, comparator);
+            swap(data, max, max - third, comparator);
+            if (comparator.compare(data[max], data[min]) < 0) {
+                swap(data, min, max, comparator);
+            }
+            T lowPivot = data[min];
+            T highPivot = data[max];
+            comparator.recordRead();
+            comparator.recordRead();
+
+            // data[min+1..less-1] < lowPivot, data[greater+1..max-1] > highPivot
+            int less = min + 1, scan = min + 1, greater = max - 1;
+            while (scan <= greater) {
+                if (comparator.compare(data[scan], lowPivot) < 0) {
+                    swap(data, scan++, less++, comparator);
+                } else if (comparator.compare(data[scan], highPivot) > 0) {
+                    swap(data, scan, greater--, comparator);
+                } else {
+                    scan++;
+                }
+            }
+
+            // move the pivots into place
+            swap(data, min, --less, comparator);
+            swap(data, max, ++greater, comparator);
+
+            dualPivotQuickSort(data, min, less - 1, comparator);
+            if (comparator.compare(lowPivot, highPivot) < 0) {
+                dualPivotQuickSort(data, less + 1, greater - 1, comparator);
+            }
+            dualPivotQuickSort(data, greater + 1, max, comparator);
+
+            comparator.exit();
+        }
+    }
+
+    /**
+     * Sorts the specified array of objects using a parallel merge sort on
+     * the common fork-join pool with the default parallelism threshold.
+     *
+     * @param data the array to be sorted
+     */
+    public static <T extends Comparable<T>>
+    void parallelMergeSort(T[] data) {
+        parallelMergeSort(data, DEFAULT_PARALLEL_THRESHOLD, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Sorts the specified array of objects using a parallel merge sort.
+     * Ranges larger than the threshold are split into fork-join tasks,
+     * smaller ranges are sorted by the sequential merge sort. Like
+     * mergeSortBuffered, the whole sort uses a single auxiliary buffer
+     * that swaps roles with the data at every level.
+     *
+     * @param data        the array to be sorted
+     * @param threshold   the range size at or below which sorting is sequential
+     * @param parallelism the number of worker threads to use
+     */
+    public static <T extends Comparable<T>>
+    void parallelMergeSort(T[] data, int threshold, int parallelism) {
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            parallelMergeSort(data, threshold, pool);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Runs a parallel merge sort of the specified array on the given pool.
+     *
+     * @param data      the array to be sorted
+     * @param threshold the range size at or below which sorting is sequential
+     * @param pool      the fork-join pool to run on
+     */
+    static <T extends Comparable<T>>
+    void parallelMergeSort(T[] data, int threshold, ForkJoinPool pool) {
+        MonitoredComparator<T> comparator = new MonitoredComparator<>();
+        T[] buffer = data.clone();
+        comparator.recordMoves(data.length);
+        pool.invoke(new MergeSortTask<>(buffer, data, 0, data.length - 1, Math.max(1, threshold), comparator));
+        comparator.publish(data);
+    }
+
+    /**
+     * Sorts the specified array of objects using a parallel quick sort on
+     * the common fork-join pool with the default parallelism threshold.
+     *
+     * @param data the array to be sorted
+     */
+    public static <T extends Comparable<T>>
+    void parallelQuickSort(T[] data) {
+        parallelQuickSort(data, DEFAULT_PARALLEL_THRESHOLD, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Sorts the specified array of objects using a parallel quick sort.
+     * Each range is split with a median of three pivot and three-way
+     * partitioning, so duplicate keys cannot unbalance it. The smaller side
+     * is forked as a separate task while it is larger than the threshold,
+     * and the larger side is partitioned again in the same task, which
+     * keeps the stack of every worker logarithmic in the array length.
+     *
+     * @param data        the array to be sorted
+     * @param threshold   the range size at or below which sorting is sequential
+     * @param parallelism the number of worker threads to use
+     */
+    public static <T extends Comparable<T>>
+    void parallelQuickSort(T[] data, int threshold, int parallelism) {
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            parallelQuickSort(data, threshold, pool);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Runs a parallel quick sort of the specified array on the given pool.
+     *
+     * @param data      the array to be sorted
+     * @param threshold the range size at or below which sorting is sequential
+     * @param pool      the fork-join pool to run on
+     */
+    private static <T extends Comparable<T>>
+    void parallelQuickSort(T[] data, int threshold, ForkJoinPool pool) {
+        MonitoredComparator<T> comparator = new MonitoredComparator<>();
+        pool.invoke(new QuickSortTask<>(data, 0, data.length - 1, Math.max(1, threshold), comparator));
+        comparator.publish(data);
+    }
+
+    /**
+     * Fork-join task that merge sorts a range of the source array into the
+     * same range of the destination array, splitting it in two while it is
+     * larger than the threshold. Both arrays must hold the same elements in
+     * the range, as for the buffered mergeSort. Each task counts into its
+     * own comparator, which its parent joins once the task is done.
+     */
+    private static class MergeSortTask<T extends Comparable<T>> extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final T[] source, destination;
+        private final int min, max, threshold;
+        private final MonitoredComparator<T> comparator;
+
+        MergeSortTask(T[] source, T[] destination, int min, int max, int threshold,
+                      MonitoredComparator<T> comparator) {
+            this.source = source;
+            this.destination = destination;
+            this.min = min;
+            this.max = max;
+            this.threshold = threshold;
+            this.comparator = comparator;
+        }
+
+        @Override
+        protected void compute() {
+            if (max - min + 1 <= threshold) {
+                mergeSort(source, destination, min, max, comparator);
+                return;
+            }
+            comparator.enter();
+            int mid = (min + max) / 2;
+
+            // the halves are sorted into the source, then merged into the destination
+            MergeSortTask<T> left = new MergeSortTask<>(destination, source, min, mid, threshold,
+                                                        comparator.fork());
+            MergeSortTask<T> right = new MergeSortTask<>(destination, source, mid + 1, max, threshold,
+                                                         comparator.fork());
+            invokeAll(left, right);
+            comparator.join(left.comparator);
+            comparator.join(right.comparator);
+            merge(source, destination, min, mid, max, comparator);
+            comparator.exit();
+        }
+    }
+
+    /**
+     * Fork-join task that quick sorts a range. While the range is larger
+     * than the threshold, it is partitioned three ways, the smaller side is
+     * forked and the task carries on with the larger side; the remainder is
+     * sorted sequentially the same way. Each task counts into its own
+     * comparator, which is joined once the forked tasks are done.
+     */
+    private static class QuickSortTask<T extends Comparable<T>> extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final T[] data;
+        private final int min, max, threshold;
+        private final MonitoredComparator<T> comparator;
+
+        QuickSortTask(T[] data, int min, int max, int threshold, MonitoredComparator<T> comparator) {
+            this.data = data;
+            this.min = min;
+            this.max = max;
+            this.threshold = threshold;
+            this.comparator = comparator;
+        }
+
+        @Override
+        protected void compute() {
+            comparator.enter();
+            List<QuickSortTask<T>> forked = new ArrayList<>();
+            int low = min, high = max;
+            while (high - low + 1 > threshold) {
+                int[] bounds = partitionThreeWay(data, low, high, comparator);
+                QuickSortTask<T> task;
+                if (bounds[0] - low < high - bounds[1]) {
+                    task = new QuickSortTask<>(data, low, bounds[0] - 1, threshold, comparator.fork());
+                    low = bounds[1] + 1;
+                } else {
+                    task = new QuickSortTask<>(data, bounds[1] + 1, high, threshold, comparator.fork());
+                    high = bounds[0] - 1;
+                }
+                task.fork();
+                forked.add(task);
+            }
+            sort(low, high);
+
+            // join in reverse, so tasks still in this worker's queue run here
+            for (int index = forked.size() - 1; index >= 0; index--) {
+                QuickSortTask<T> task = forked.get(index);
+                task.join();
+                comparator.join(task.comparator);
+            }
+            comparator.exit();
+        }
+
+        /**
+         * Sequentially sorts a range, recursing into the smaller side of
+         * each partition and looping on the larger one.
+         *
+         * @param low  the minimum index in the range to be sorted
+         * @param high the maximum index in the range to be sorted
+         */
+        private void sort(int low, int high) {
+            while (high - low + 1 > INSERTION_SORT_THRESHOLD) {
+                comparator.enter();
+                int[] bounds = partitionThreeWay(data, low, high, comparator);
+                if (bounds[0] - low < high - bounds[1]) {
+                    sort(low, bounds[0] - 1);
+                    low = bounds[1] + 1;
+                } else {
+                    sort(bounds[1] + 1, high);
+                    high = bounds[0] - 1;
+                }
+                comparator.exit();
+            }
+            insertionSort(data, low, high, comparator);
+        }
+    }
+
+    /**
+     * Partitions a range of the specified array three ways around a median
+     * of three pivot, into values less than, equal to and greater than it.
+     *
+     * @param data the array to be partitioned
+     * @param min  the minimum index in the range, below max
+     * @param max  the maximum index in the range
+     * @param comparator the MonitoredComparator tracking comparisons
+     * @return the first and last index of the values equal to the pivot
+     */
+    private static <T extends Comparable<T>>
+    int[] partitionThreeWay(T[] data, int min, int max, MonitoredComparator<T> comparator) {
+        medianOfThree(data, min, max, comparator);
+        swap(data, (min + max) / 2, min, comparator);
+        T partitionelement = data[min];
+        comparator.recordRead();
+
+        // data[min..less-1] < pivot, data[less..scan-1] == pivot, data[greater+1..max] > pivot
+        int less = min, scan = min + 1, greater = max;
+        while (scan <= greater) {
+            int result = comparator.compare(data[scan], partitionelement);
+            if (result < 0) {
+                swap(data, less++, scan++, comparator);
+            } else if (result > 0) {
+                swap(data, scan, greater--, comparator);
+            } else {
+                scan++;
+            }
+        }
+        return new int[] {less, greater};
+    }
+
+    /**
+     * Calculates the minimum run length of a natural merge sort: a number
+     * between MIN_MERGE / 2 and MIN_MERGE such that length / minRun is a
+     * power of two or just below one, which keeps the final merges balanced.
+     *
+     * @param length the length of the array to be sorted
+     * @return the minimum run length
+     */
+    private static int minRunLength(int length) {
+        int lowBits = 0;
+        while (length >= MIN_MERGE) {
+            lowBits |= length & 1;
+            length >>= 1;
+        }
+        return length + lowBits;
+    }
+
+    /**
+     * The stack of runs a natural merge sort has found but not yet merged,
+     * the newest run on top. Runs are merged so that, from the top down,
+     * every run is longer than the one above it and longer than the two
+     * above it together. The run lengths then grow at least as fast as the
+     * Fibonacci numbers, so the stack stays shallow and merges stay balanced.
+     */
+    private static class RunStack {
+        // Enough for any int length, as run lengths grow like Fibonacci numbers
+        private static final int CAPACITY = 49;
+
+        final int[] base = new int[CAPACITY];
+        final int[] length = new int[CAPACITY];
+        int size;
+
+        /**
+         * Pushes a new run on top of the stack.
+         *
+         * @param runBase   the index of the run
+         * @param runLength the length of the run
+         */
+        void push(int runBase, int runLength) {
+            base[size] = runBase;
+            length[size] = runLength;
+            size++;
+        }
+
+        /**
+         * Finds the pair of runs to merge next to restore the invariants.
+         *
+         * @return the index of the lower run of the pair, or -1 if the
+         *         invariants hold
+         */
+        int collapseAt() {
+            if (size < 2) {
+                return -1;
+            }
+            int index = size - 2;
+            if ((index > 0 && length[index - 1] <= length[index] + length[index + 1])
+                    || (index > 1 && length[index - 2] <= length[index - 1] + length[index])) {
+                return length[index - 1] < length[index + 1] ? index - 1 : index;
+            }
+            return length[index] <= length[index + 1] ? index : -1;
+        }
+
+        /**
+         * Finds the pair of runs to merge next once all runs are found.
+         *
+         * @return the index of the lower run of the pair, or -1 if only one
+         *         run is left
+         */
+        int forceCollapseAt() {
+            if (size < 2) {
+                return -1;
+            }
+            int index = size - 2;
+            return index > 0 && length[index - 1] < length[index + 1] ? index - 1 : index;
+        }
+
+        /**
+         * Replaces the runs at index and index + 1 with their merged run.
+         *
+         * @param index the index of the lower run
+         */
+        void merged(int index) {
+            length[index] += length[index + 1];
+            if (index == size - 3) {
+                base[index + 1] = base[index + 2];
+                length[index + 1] = length[index + 2];
+            }
+            size--;
+        }
+    }
+
+    /**
+     * Sorts the specified array of ints using the selection
+     * sort algorithm.
+     *
+     * @param data the array to be sorted
+     */
+    public static void selectionSort(int[] data) {
+        MonitoredComparator<Integer> comparator = new MonitoredComparator<>();
+
+        int min;
+
+        for (int index = 0; index < data.length-1; index++)
+        {
+            min = index;
+            for (int scan = index+1; scan < data.length; scan++){
+                if (comparator.compare(data[scan], data[min]) < 0){
+                    min = scan;
+                }
+            }
+
+            swap(data, min, index, comparator);
+        }
+        comparator.publish(data);
+    }
+
+    /**
+     * Swaps to elements in an array of ints.
+     *
+     * @param data   the array in which the elements are swapped
+     * @param index1 the index of the first element to be swapped
+     * @param index2 the index of the second element to be swapped
+     * @param comparator the MonitoredComparator tracking the swap
+     */
+    static void swap(int[] data, int index1, int index2, MonitoredComparator<Integer> comparator) {
+        comparator.recordSwap();
+        int temp = data[index1];
+        data[index1] = data[index2];
+        data[index2] = temp;
+    }
+
+    /**
+     * Sorts the specified array of ints using an insertion
+     * sort algorithm.
+     *
+     * @param data the array to be sorted
+     */
+    public static void insertionSort(int[] data) {
+        MonitoredComparator<Integer> comparator = new MonitoredComparator<>();
+        for (int index = 1; index < data.length; index++) {
+            int key = data[index];
+            comparator.recordRead();
+            int position = index;
+
+            // shift larger values to the right
+            while (position > 0 && comparator.compare(data[position - 1], key) > 0) {
+                data[position] = data[position-1];
+                comparator.recordMoves(1);
+                position--;
+            }
+
+            data[position] = key;
+            comparator.recordWrite();
+        }
+        comparator.publish(data);
+    }
+
+    /**
+     * Sorts the specified array of ints using a bubble sort
+     * algorithm.
+     *
+     * @param data the array to be sorted
+     */
+    public static void bubbleSort(int[] data) {
+        MonitoredComparator<Integer> comparator = new MonitoredComparator<>();
+
+        int position, scan;
+
+        for (position =  data.length - 1; position >= 0; position--) {
+            for (scan = 0; scan <= position - 1; scan++) {
+                if (comparator.compare(data[scan], data[scan + 1]) > 0) {
+                    swap(data, scan, scan + 1, comparator);
+                }
+            }
+        }
+        comparator.publish(data);
+    }
+
+    /**
+     * Sorts the specified array of ints using the merge sort
+     * algorithm.
+     *
+     * @param data the array to be sorted
+     */
+    public static void mergeSort(int[] data) {
+        MonitoredComparator<Integer> comparator = new MonitoredComparator<>();
+        mergeSort(data, 0, data.length - 1, comparator);
+        comparator.publish(data);
+    }
+
+    /**
+     * Recursively sorts a range of ints in the specified array using the
+     * merge sort algorithm.
+     *
+     * @param data the array to be sorted
+     * @param min  the index of the first element
+     * @param max  the index of the last element
+     * @param comparator the MonitoredComparator tracking comparisons
+     */
+    private static void mergeSort(int[] data, int min, int max, MonitoredComparator<Integer> comparator) {
+        if (min < max)
+        {
+            comparator.enter();
+            int mid = (min + max) / 2;
+            mergeSort(data, min, mid, comparator);
+            mergeSort(data, mid + 1, max, comparator);
+            merge(data, min, mid, max, comparator);
+            comparator.exit();
+        }
+    }
+
+    /**
+     * Merges two sorted subarrays of the specified array of ints.
+     *
+     * @param data the array to be sorted
+     * @param first the beginning index of the first subarray
+     * @param mid the ending index fo the first subarray
+     * @param last the ending index of the second subarray
+     * @param comparator the MonitoredComparator tracking comparisons
+     */
+    private static void merge(int[] data, int first, int mid, int last, MonitoredComparator<Integer> comparator) {
+        int[] temp = new int[last - first + 1];
+
+        int first1 = first, last1 = mid;  // endpoints of first subarray
+        int first2 = mid+1, last2 = last;  // endpoints of second subarray
+        int index = 0;  // next index open in temp array
+
+        //  Copy smaller item from each subarray into temp until one
+        //  of the subarrays is exhausted
+        while (first1 <= last1 && first2 <= last2) {
+            if (comparator.compare(data[first1], data[first2]) < 0) {
+                temp[index] = data[first1];
+                first1++;
+            } else {
+                temp[index] = data[first2];
+                first2++;
+            }
+            index++;
+        }
+
+        //  Copy remaining elements from first subarray, if any
+        while (first1 <= last1) {
+            temp[index] = data[first1];
+            first1++;
+            index++;
+        }
+
+        //  Copy remaining elements from second subarray, if any
+        while (first2 <= last2) {
+            temp[index] = data[first2];
+            first2++;
+            index++;
+        }
+
+        //  Copy merged data into original array
+        System.arraycopy(temp, 0, data, first, temp.length);
+
+        //  Every element was moved into temp and back
+        comparator.recordMoves(2L * temp.length);
+    }
+
+    /**
+     * Sorts the specified array of ints using a natural merge sort in the
+     * style of TimSort. The array is scanned for ascending and strictly
+     * descending runs, descending runs are reversed, and runs shorter than
+     * a minimum length are extended with binary insertion sort. The runs are
+     * kept on a stack and merged so their lengths stay roughly balanced, and
+     * merges gallop past long stretches taken from one run. Already ordered
+     * data is sorted in a single pass, and data made of a few sorted batches
+     * in about n log(batches) comparisons.
+     *
+     * @param data the array to be sorted
+     */
+    public static void naturalMergeSort(int[] data) {
+        MonitoredComparator<Integer> comparator = new MonitoredComparator<>();
+        naturalMergeSort(data, 0, data.length, comparator);
+        comparator.publish(data);
+    }
+
+    /**
+     * Sorts a range of an array of ints using the natural merge sort.
+     * Used to sort the buckets of the parallel sorts in place.
+     *
+     * @param data       the array holding the range
+     * @param start      the index of the first element
+     * @param end        the index after the last element
+     * @param comparator the MonitoredComparator tracking comparisons
+     */
+    static void naturalMergeSort(int[] data, int start, int end, MonitoredComparator<Integer> comparator) {
+        int length = end - start;
+        if (length > 1) {
+            int[] buffer = new int[length];
+            RunStack runs = new RunStack();
+            int minRun = minRunLength(length);
+
+            for (int first = start; first < end; ) {
+                int runLength = countRunAndMakeAscending(data, first, end, comparator);
+
+                // extend a short run to minRun elements with binary insertion sort
+                if (runLength < minRun) {
+                    int forced = Math.min(minRun, end - first);
+                    binaryInsertionSort(data, first, first + forced, first + runLength, comparator);
+                    runLength = forced;
+                }
+
+                runs.push(first, runLength);
+                for (int index = runs.collapseAt(); index >= 0; index = runs.collapseAt()) {
+                    mergeRuns(data, buffer, runs.base[index], runs.length[index], runs.base[index + 1],
+                              runs.length[index + 1], comparator);
+                    runs.merged(index);
+                }
+                first += runLength;
+            }
+
+            for (int index = runs.forceCollapseAt(); index >= 0; index = runs.forceCollapseAt()) {
+                mergeRuns(data, buffer, runs.base[index], runs.length[index], runs.base[index + 1],
+                          runs.length[index + 1], comparator);
+                runs.merged(index);
+            }
+        }
+    }
+
+    /**
+     * Finds the length of the run starting at first, reversing it in place
+     * if it is strictly descending. Descending runs must be strict so that
+     * reversing them keeps equal elements in order.
+     *
+     * @param data       the array to be sorted
+     * @param first      the index the run starts at
+     * @param end        the index after the last element of the array
+     * @param comparator the MonitoredComparator tracking comparisons
+     * @return the length of the run, at least 1
+     */
+    private static int countRunAndMakeAscending(int[] data, int first, int end,
+                                                MonitoredComparator<Integer> comparator) {
+        int runEnd = first + 1;
+        if (runEnd == end) {
+            return 1;
+        }
+
+        if (comparator.compare(data[runEnd++], data[first]) < 0) {
+            while (runEnd < end && comparator.compare(data[runEnd], data[runEnd - 1]) < 0) {
+                runEnd++;
+            }
+            for (int low = first, high = runEnd - 1; low < high; low++, high--) {
+                swap(data, low, high, comparator);
+            }
+        } else {
+            while (runEnd < end && comparator.compare(data[runEnd], data[runEnd - 1]) >= 0) {
+                runEnd++;
+            }
+        }
+        return runEnd - first;
+    }
+
+    /**
+     * Sorts a range of ints with insertion sort, finding the place of each
+     * element by binary search. The start of the range is already sorted.
+     * Equal elements are inserted after each other, so the sort is stable.
+     *
+     * @param data       the array to be sorted
+     * @param first      the index of the first element of the range
+     * @param end        the index after the last element of the range
+     * @param start      the index of the first element not yet in order
+     * @param comparator the MonitoredComparator tracking comparisons
+     */
+    private static void binaryInsertionSort(int[] data, int first, int end, int start,
+                                            MonitoredComparator<Integer> comparator) {
+        for (int index = start; index < end; index++) {
+            int key = data[index];
+            int low = first, high = index;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (comparator.compare(key, data[mid]) < 0) {
+                    high = mid;
+                } else {
+                    low = mid + 1;
+                }
+            }
+            System.arraycopy(data, low, data, low + 1, index - low);
+            data[low] = key;
+            comparator.recordMoves(index - low + 1);
+        }
+    }
+
+    /**
+     * Merges two adjacent sorted runs of ints. Elements at the start of the first run
+     * that are no larger than the start of the second, and elements at the
+     * end of the second run that are smaller than the end of the first, are
+     * already in place and are skipped by galloping. The rest of the first
+     * run is copied to the buffer and merged back, galloping whenever one run
+     * wins MIN_GALLOP times in a row. Equal elements are taken from the first
+     * run first, so the merge is stable.
+     *
+     * @param data       the array holding both runs
+     * @param buffer     scratch space at least as long as the first run
+     * @param base1      the index of the first run
+     * @param length1    the length of the first run
+     * @param base2      the index of the second run, right after the first
+     * @param length2    the length of the second run
+     * @param comparator the MonitoredComparator tracking comparisons
+     */
+    private static void mergeRuns(int[] data, int[] buffer, int base1, int length1, int base2, int length2,
+                                  MonitoredComparator<Integer> comparator) {
+        // skip the elements of each run that are already in their final place
+        int inPlace = gallop(data[base2], data, base1, length1, true, comparator);
+        base1 += inPlace;
+        length1 -= inPlace;
+        if (length1 == 0) {
+            return;
+        }
+        int end2 = base2 + gallop(data[base1 + length1 - 1], data, base2, length2, false, comparator);
+        if (end2 == base2) {
+            return;
+        }
+
+        System.arraycopy(data, base1, buffer, 0, length1);
+        int cursor1 = 0, cursor2 = base2, destination = base1;
+        while (cursor1 < length1 && cursor2 < end2) {
+            // take one element at a time until a run wins MIN_GALLOP times in a row
+            int wins1 = 0, wins2 = 0;
+            while (cursor1 < length1 && cursor2 < end2 && wins1 < MIN_GALLOP && wins2 < MIN_GALLOP) {
+                if (comparator.compare(data[cursor2], buffer[cursor1]) < 0) {
+                    data[destination++] = data[cursor2++];
+                    wins2++;
+                    wins1 = 0;
+                } else {
+                    data[destination++] = buffer[cursor1++];
+                    wins1++;
+                    wins2 = 0;
+                }
+            }
+
+            // then copy whole stretches of each run while they stay long
+            while (cursor1 < length1 && cursor2 < end2) {
+                int count1 = gallop(data[cursor2], buffer, cursor1, length1 - cursor1, true, comparator);
+                System.arraycopy(buffer, cursor1, data, destination, count1);
+                destination += count1;
+                cursor1 += count1;
+                if (cursor1 == length1) {
+                    break;
+                }
+                data[destination++] = data[cursor2++];
+                if (cursor2 == end2) {
+                    break;
+                }
+
+                int count2 = gallop(buffer[cursor1], data, cursor2, end2 - cursor2, false, comparator);
+                System.arraycopy(data, cursor2, data, destination, count2);
+                destination += count2;
+                cursor2 += count2;
+                if (cursor2 == end2) {
+                    break;
+                }
+                data[destination++] = buffer[cursor1++];
+
+                if (count1 < MIN_GALLOP && count2 < MIN_GALLOP) {
+                    break;
+                }
+            }
+        }
+
+        // whatever is left of the second run is already in place
+        System.arraycopy(buffer, cursor1, data, destination, length1 - cursor1);
+        comparator.recordMoves(2L * length1 + (cursor2 - base2));
+    }
+
+    /**
+     * Counts the ints at the start of a sorted range that are smaller
+     * than the key, or no larger than the key if inclusive. Probes 1, 3, 7,
+     * ... elements in until it overshoots and then binary searches, so the
+     * cost is logarithmic in the count rather than in the range.
+     *
+     * @param key        the key to place
+     * @param data       the array holding the range
+     * @param base       the index of the range
+     * @param length     the length of the range
+     * @param inclusive  true to count elements equal to the key too
+     * @param comparator the MonitoredComparator tracking comparisons
+     * @return the number of elements before the key's place in the range
+     */
+    private static int gallop(int key, int[] data, int base, int length, boolean inclusive,
+                              MonitoredComparator<Integer> comparator) {
+        int limit = inclusive ? 0 : -1;
+        int low = 0, offset = 1;
+        while (offset <= length && comparator.compare(data[base + offset - 1], key) <= limit) {
+            low = offset;
+            offset = 2 * offset + 1;
+        }
+
+        int high = Math.min(offset - 1, length);
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (comparator.compare(data[base + mid], key) <= limit) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Sorts the specified array of ints using the quick sort algorithm.
+     *
+     * @param data the array to be sorted
+     */
+    public static void quickSort(int[] data) {
+        MonitoredComparator<Integer> comparator = new MonitoredComparator<>();
+        quickSort(data, 0, data.length - 1, comparator);
+        comparator.publish(data);
+    }
+
+    /**
+     * Recursively sorts a range of ints in the specified array using the
+     * quick sort algorithm.
+     *
+     * @param data the array to be sorted
+     * @param min  the minimum index in the range to be sorted
+     * @param max  the maximum index in the range to be sorted
+     * @param comparator the MonitoredComparator tracking comparisons
+     */
+    private static void quickSort(int[] data, int min, int max, MonitoredComparator<Integer> comparator) {
+        if (min < max)
+        {
+            comparator.enter();
+
+            // create partitions
+            int indexofpartition = partition(data, min, max, comparator);
+
+            // sort the left partition (lower values)
+            quickSort(data, min, indexofpartition - 1, comparator);
+
+            // sort the right partition (higher values)
+            quickSort(data, indexofpartition + 1, max, comparator);
+
+            comparator.exit();
+        }
+    }
+
+    /**
+     * Used by the quick sort algorithm to find the partition of an
+     * array of ints.
+     *
+     * @param data the array to be sorted
+     * @param min  the minimum index in the range to be sorted
+     * @param max  the maximum index in the range to be sorted
+     * @param comparator the MonitoredComparator tracking comparisons
+     */
+    static int partition(int[] data, int min, int max, MonitoredComparator<Integer> comparator) {
+
+        int partitionelement;
+        int left, right;
+        int middle = (min + max) / 2;
+
+        // use the middle data value as the partition element
+        partitionelement = data[middle];
+        comparator.recordRead();
+        // move it out of the way for now
+        swap(data, middle, min, comparator);
+
+        left = min;
+        right = max;
+
+        while (left < right)
+        {
+            // search for an element that is > the partition element
+            while (left < right && comparator.compare(data[left], partitionelement) <= 0) {
+                left++;
+            }
+
+            // search for an element that is < the partition element
+            while (comparator.compare(data[right], partitionelement) > 0) {
+                right--;
+            }
+
+            // swap the elements
+            if (left < right) {
+                swap(data, left, right, comparator);
+            }
+        }
+
+        // move the partition element into place
+        swap(data, min, right, comparator);
+
+        return right;
+    }
+
+    /**
+     * Sorts the specified array of longs using the selection
+     * sort algorithm.
+     *
+     * @param data the array to be sorted
+     */
+    public static void selectionSort(long[] data) {
+        MonitoredComparator<Long> comparator = new MonitoredComparator<>();
+
+        int min;
+
+        for (int index = 0; index < data.length-1; index++)
+        {
+            min = index;
+            for (int scan = index+1; scan < data.length; scan++){
+                if (comparator.compare(data[scan], data[min]) < 0){
+                    min = scan;
+                }
+            }
+
+            swap(data, min, index, comparator);
+        }
+        comparator.publish(data);
+    }
+
+    /**
+     * Swaps to elements in an array of longs.
+     *
+     * @param data   the array in which the elements are swapped
+     * @param index1 the index of the first element to be swapped
+     * @param index2 the index of the second element to be swapped
+     * @param comparator the MonitoredComparator tracking the swap
+     */
+    private static void swap(long[] data, int index1, int index2, MonitoredComparator<Long> comparator) {
+        comparator.recordSwap();
+        long temp = data[index1];
+        data[index1] = data[index2];
+        data[index2] = temp;
+    }
+
+    /**
+     * Sorts the specified array of longs using an insertion
+     * sort algorithm.
+     *
+     * @param data the array to be sorted
+     */
+    public static void insertionSort(long[] data) {
+        MonitoredComparator<Long> comparator = new MonitoredComparator<>();
+        for (int index = 1; index < data.length; index++) {
+            long key = data[index];
+            comparator.recordRead();
+            int position = index;
+
+            // shift larger values to the right
+            while (position > 0 && comparator.compare(data[position - 1], key) > 0) {
+                data[position] = data[position-1];
+                comparator.recordMoves(1);
+                position--;
+            }
+
+            data[position] = key;
+            comparator.recordWrite();
+        }
+        comparator.publish(data);
+    }
+
+    /**
+     * Sorts the specified array of longs using a bubble sort
+     * algorithm.
+     *
+     * @param data the array to be sorted
+     */
+    public static void bubbleSort(long[] data) {
+        MonitoredComparator<Long> comparator = new MonitoredComparator<>();
+
+        int position, scan;
+
+        for (position =  data.length - 1; position >= 0; position--) {
+            for (scan = 0; scan <= position - 1; scan++) {
+                if (comparator.compare(data[scan], data[scan + 1]) > 0) {
+                    swap(data, scan, scan + 1, comparator);
+                }
+            }
+        }
+        comparator.publish(data);
+    }
+
+    /**
+     * Sorts the specified array of longs using the merge sort
+     * algorithm.
+     *
+     * @param data the array to be sorted
+     */
+    public static void mergeSort(long[] data) {
+        MonitoredComparator<Long> comparator = new MonitoredComparator<>();
+        mergeSort(data, 0, data.length - 1, comparator);
+        comparator.publish(data);
+    }
+
+    /**
+     * Recursively sorts a range of longs in the specified array using the
+     * merge sort algorithm.
+     *
+     * @param data the array to be sorted
+     * @param min  the index of the first element
+     * @param max  the index of the last element
+     * @param comparator the MonitoredComparator tracking comparisons
+     */
+    private static void mergeSort(long[] data, int min, int max, MonitoredComparator<Long> comparator) {
+        if (min < max)
+        {
+            comparator.enter();
+            int mid = (min + max) / 2;
+            mergeSort(data, min, mid, comparator);
+            mergeSort(data, mid + 1, max, comparator);
+            merge(data, min, mid, max, comparator);
+            comparator.exit();
+        }
+    }
+
+    /**
+     * Merges two sorted subarrays of the specified array of longs.
+     *
+     * @param data the array to be sorted
+     * @param first the beginning index of the first subarray
+     * @param mid the ending index fo the first subarray
+     * @param last the ending index of the second subarray
+     * @param comparator the MonitoredComparator tracking comparisons
+     */
+    private static void merge(long[] data, int first, int mid, int last, MonitoredComparator<Long> comparator) {
+        long[] temp = new long[last - first + 1];
+
+        int first1 = first, last1 = mid;  // endpoints of first subarray
+        int first2 = mid+1, last2 = last;  // endpoints of second subarray
+        int index = 0;  // next index open in temp array
+
+        //  Copy smaller item from each subarray into temp until one
+        //  of the subarrays is exhausted
+        while (first1 <= last1 && first2 <= last2) {
+            if (comparator.compare(data[first1], data[first2]) < 0) {
+                temp[index] = data[first1];
+                first1++;
+            } else {
+                temp[index] = data[first2];
+                first2++;
+            }
+            index++;
+        }
+
+        //  Copy remaining elements from first subarray, if any
+        while (first1 <= last1) {
+            temp[index] = data[first1];
+            first1++;
+            index++;
+        }
+
+        //  Copy remaining elements from second subarray, if any
+        while (first2 <= last2) {
+            temp[index] = data[first2];
+            first2++;
+            index++;
+        }
+
+        //  Copy merged data into original array
+        System.arraycopy(temp, 0, data, first, temp.length);
+
+        //  Every element was moved into temp and back
+        comparator.recordMoves(2L * temp.length);
+    }
+
+    /**
+     * Sorts the specified array of longs using the quick sort algorithm.
+     *
+     * @param data the array to be sorted
+     */
+    public static void quickSort(long[] data) {
+        MonitoredComparator<Long> comparator = new MonitoredComparator<>();
+        quickSort(data, 0, data.length - 1, comparator);
+        comparator.publish(data);
+    }
+
+    /**
+     * Recursively sorts a range of longs in the specified array using the
+     * quick sort algorithm.
+     *
+     * @param data the array to be sorted
+     * @param min  the minimum index in the range to be sorted
+     * @param max  the maximum index in the range to be sorted
+     * @param comparator the MonitoredComparator tracking comparisons
+     */
+    private static void quickSort(long[] data, int min, int max, MonitoredComparator<Long> comparator) {
+        if (min < max)
+        {
+            comparator.enter();
+
+            // create partitions
+            int indexofpartition = partition(data, min, max, comparator);
+
+            // sort the left partition (lower values)
+            quickSort(data, min, indexofpartition - 1, comparator);
+
+            // sort the right partition (higher values)
+            quickSort(data, indexofpartition + 1, max, comparator);
+
+            comparator.exit();
+        }
+    }
+
+    /**
+     * Used by the quick sort algorithm to find the partition of an
+     * array of longs.
+     *
+     * @param data the array to be sorted
+     * @param min  the minimum index in the range to be sorted
+     * @param max  the maximum index in the range to be sorted
+     * @param comparator the MonitoredComparator tracking comparisons
+     */
+    private static int partition(long[] data, int min, int max, MonitoredComparator<Long> comparator) {
+
+        long partitionelement;
+        int left, right;
+        int middle = (min + max) / 2;
+
+        // use the middle data value as the partition element
+        partitionelement = data[middle];
+        comparator.recordRead();
+        // move it out of the way for now
+        swap(data, middle, min, comparator);
+
+        left = min;
+        right = max;
+
+        while (left < right)
+        {
+            // search for an element that is > the partition element
+            while (left < right && comparator.compare(data[left], partitionelement) <= 0) {
+                left++;
+            }
+
+            // search for an element that is < the partition element
+            while (comparator.compare(data[right], partitionelement) > 0) {
+                right--;
+            }
+
+            // swap the elements
+            if (left < right) {
+                swap(data, left, right, comparator);
+            }
+        }
+
+        // move the partition element into place
+        swap(data, min, right, comparator);
+
+        return right;
+    }
+
+    /**
+     * Sorts the specified array of doubles using the selection
+     * sort algorithm.
+     *
+     * @param data the array to be sorted
+     */
+    public static void selectionSort(double[] data) {
+        MonitoredComparator<Double> comparator = new MonitoredComparator<>();
+
+        int min;
+
+        for (int index = 0; index < data.length-1; index++)
+        {
+            min = index;
+            for (int scan = index+1; scan < data.length; scan++){
+                if (comparator.compare(data[scan], data[min]) < 0){
+                    min = scan;
+                }
+            }
+
+            swap(data, min, index, comparator);
+        }
+        comparator.publish(data);
+    }
+
+    /**
+     * Swaps to elements in an array of doubles.
+     *
+     * @param data   the array in which the elements are swapped
+     * @param index1 the index of the first element to be swapped
+     * @param index2 the index of the second element to be swapped
+     * @param comparator the MonitoredComparator tracking the swap
+     */
+    private static void swap(double[] data, int index1, int index2, MonitoredComparator<Double> comparator) {
+        comparator.recordSwap();
+        double temp = data[index1];
+        data[index1] = data[index2];
+        data[index2] = temp;
+    }
+
+    /**
+     * Sorts the specified array of doubles using an insertion
+     * sort algorithm.
+     *
+     * @param data the array to be sorted
+     */
+    public static void insertionSort(double[] data) {
+        MonitoredComparator<Double> comparator = new MonitoredComparator<>();
+        for (int index = 1; index < data.length; index++) {
+            double key = data[index];
+            comparator.recordRead();
+            int position = index;
+
+            // shift larger values to the right
+            while (position > 0 && comparator.compare(data[position - 1], key) > 0) {
+                data[position] = data[position-1];
+                comparator.recordMoves(1);
+                position--;
+            }
+
+            data[position] = key;
+            comparator.recordWrite();
+        }
+        comparator.publish(data);
+    }
+
+    /**
+     * Sorts the specified array of doubles using a bubble sort
+     * algorithm.
+     *
+     * @param data the array to be sorted
+     */
+    public static void bubbleSort(double[] data) {
+        MonitoredComparator<Double> comparator = new MonitoredComparator<>();
+
+        int position, scan;
+
+        for (position =  data.length - 1; position >= 0; position--) {
+            for (scan = 0; scan <= position - 1; scan++) {
+                if (comparator.compare(data[scan], data[scan + 1]) > 0) {
+                    swap(data, scan, scan + 1, comparator);
+                }
+            }
+        }
+        comparator.publish(data);
+    }
+
+    /**
+     * Sorts the specified array of doubles using the merge sort
+     * algorithm.
+     *
+     * @param data the array to be sorted
+     */
+    public static void mergeSort(double[] data) {
+        MonitoredComparator<Double> comparator = new MonitoredComparator<>();
+        mergeSort(data, 0, data.length - 1, comparator);
+        comparator.publish(data);
+    }
+
+    /**
+     * Recursively sorts a range of doubles in the specified array using the
+     * merge sort algorithm.
+     *
+     * @param data the array to be sorted
+     * @param min  the index of the first element
+     * @param max  the index of the last element
+     * @param comparator the MonitoredComparator tracking comparisons
+     */
+    private static void mergeSort(double[] data, int min, int max, MonitoredComparator<Double> comparator) {
+        if (min < max)
+        {
+            comparator.enter();
+            int mid = (min + max) / 2;
+            mergeSort(data, min, mid, comparator);
+            mergeSort(data, mid + 1, max, comparator);
+            merge(data, min, mid, max, comparator);
+            comparator.exit();
+        }
+    }
+
+    /**
+     * Merges two sorted subarrays of the specified array of doubles.
+     *
+     * @param data the array to be sorted
+     * @param first the beginning index of the first subarray
+     * @param mid the ending index fo the first subarray
+     * @param last the ending index of the second subarray
+     * @param comparator the MonitoredComparator tracking comparisons
+     */
+    private static void merge(double[] data, int first, int mid, int last, MonitoredComparator<Double> comparator) {
+        double[] temp = new double[last - first + 1];
+
+        int first1 = first, last1 = mid;  // endpoints of first subarray
+        int first2 = mid+1, last2 = last;  // endpoints of second subarray
+        int index = 0;  // next index open in temp array
+
+        //  Copy smaller item from each subarray into temp until one
+        //  of the subarrays is exhausted
+        while (first1 <= last1 && first2 <= last2) {
+            if (comparator.compare(data[first1], data[first2]) < 0) {
+                temp[index] = data[first1];
+                first1++;
+            } else {
+                temp[index] = data[first2];
+                first2++;
+            }
+            index++;
+        }
+
+        //  Copy remaining elements from first subarray, if any
+        while (first1 <= last1) {
+            temp[index] = data[first1];
+            first1++;
+            index++;
+        }
+
+        //  Copy remaining elements from second subarray, if any
+        while (first2 <= last2) {
+            temp[index] = data[first2];
+            first2++;
+            index++;
+        }
+
+        //  Copy merged data into original array
+        System.arraycopy(temp, 0, data, first, temp.length);
+
+        //  Every element was moved into temp and back
+        comparator.recordMoves(2L * temp.length);
+    }
+
+    /**
+     * Sorts the specified array of doubles using the quick sort algorithm.
+     *
+     * @param data the array to be sorted
+     */
+    public static void quickSort(double[] data) {
+        MonitoredComparator<Double> comparator = new MonitoredComparator<>();
+        quickSort(data, 0, data.length - 1, comparator);
+        comparator.publish(data);
+    }
+
+    /**
+     * Recursively sorts a range of doubles in the specified array using the
+     * quick sort algorithm.
+     *
+     * @param data the array to be sorted
+     * @param min  the minimum index in the range to be sorted
+     * @param max  the maximum index in the range to be sorted
+     * @param comparator the MonitoredComparator tracking comparisons
+     */
+    private static void quickSort(double[] data, int min, int max, MonitoredComparator<Double> comparator) {
+        if (min < max)
+        {
+            comparator.enter();
+
+            // create partitions
+            int indexofpartition = partition(data, min, max, comparator);
+
+            // sort the left partition (lower values)
+            quickSort(data, min, indexofpartition - 1, comparator);
+
+            // sort the right partition (higher values)
+            quickSort(data, indexofpartition + 1, max, comparator);
+
+            comparator.exit();
+        }
+    }
+
+    /**
+     * Used by the quick sort algorithm to find the partition of an
+     * array of doubles.
+     *
+     * @param data the array to be sorted
+     * @param min  the minimum index in the range to be sorted
+     * @param max  the maximum index in the range to be sorted
+     * @param comparator the MonitoredComparator tracking comparisons
+     */
+    private static int partition(double[] data, int min, int max, MonitoredComparator<Double> comparator) {
+
+        double partitionelement;
+        int left, right;
+        int middle = (min + max) / 2;
+
+        // use the middle data value as the partition element
+        partitionelement = data[middle];
+        comparator.recordRead();
+        // move it out of the way for now
+        swap(data, middle, min, comparator);
+
+        left = min;
+        right = max;
+
+        while (left < right)
+        {
+            // search for an element that is > the partition element
+            while (left < right && comparator.compare(data[left], partitionelement) <= 0) {
+                left++;
+            }
+
+            // search for an element that is < the partition element
+            while (comparator.compare(data[right], partitionelement) > 0) {
+                right--;
+            }
+
+            // swap the elements
+            if (left < right) {
+                swap(data, left, right, comparator);
+            }
+        }
+
+        // move the partition element into place
+        swap(data, min, right, comparator);
+
+        return right;
+    }
+}
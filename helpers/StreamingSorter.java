@@ -0,0 +1,432 @@
+package helpers;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Sorts elements as they arrive instead of all at once at the end. Added
+ * elements are collected into chunks of runSize elements; every full chunk
+ * is sorted into a run in the background, and runs of the same size are
+ * merged in the background too, so there are only about log(n / runSize)
+ * runs at any time. A sorted snapshot or iterator merges the current runs
+ * on the fly, so reading the sorted data never sorts it from scratch.
+ * Equal elements keep the order they were added in.
+ *
+ * Background work runs on the given executor, the common fork-join pool
+ * by default. All methods may be called from any thread.
+ *
+ * @author JaniOC
+ */
+public class StreamingSorter<T extends Comparable<T>> implements AutoCloseable {
+    // Number of elements per run when none is given
+    public static final int DEFAULT_RUN_SIZE = 4096;
+
+    private final int runSize;
+    private final Executor executor;
+
+    // Guards every field below
+    private final Object lock = new Object();
+
+    // Runs and chunks in the order their elements were added
+    private final List<Run<T>> runs = new ArrayList<>();
+
+    // Elements added since the last chunk was handed off
+    private List<T> pending = new ArrayList<>();
+
+    // Metrics of all the background sorts and merges
+    private final MonitoredComparator<T> metrics = new MonitoredComparator<>();
+
+    private int size;
+    private int inFlight;
+    private boolean closed;
+    private RuntimeException failure;
+
+    /**
+     * Constructs a streaming sorter with the default run size, working in
+     * the background on the common fork-join pool.
+     */
+    public StreamingSorter() {
+        this(DEFAULT_RUN_SIZE, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructs a streaming sorter.
+     *
+     * @param runSize  the number of elements collected before they are
+     *                 sorted into a run
+     * @param executor the executor the runs are sorted and merged on
+     * @throws IllegalArgumentException if the run size is not positive
+     */
+    public StreamingSorter(int runSize, Executor executor) {
+        if (runSize < 1) {
+            throw new IllegalArgumentException("Run size must be positive: " + runSize);
+        }
+        this.runSize = runSize;
+        this.executor = executor;
+    }
+
+    /**
+     * Adds an element.
+     *
+     * @param element the element to add
+     * @throws IllegalStateException if the sorter is closed
+     */
+    public void add(T element) {
+        synchronized (lock) {
+            checkOpen();
+            pending.add(element);
+            size++;
+            if (pending.size() >= runSize) {
+                handOff();
+            }
+        }
+    }
+
+    /**
+     * Adds a batch of elements.
+     *
+     * @param batch the elements to add
+     * @throws IllegalStateException if the sorter is closed
+     */
+    public void addAll(Collection<? extends T> batch) {
+        synchronized (lock) {
+            checkOpen();
+            for (T element : batch) {
+                pending.add(element);
+                size++;
+                if (pending.size() >= runSize) {
+                    handOff();
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets the number of elements added so far.
+     *
+     * @return the number of elements
+     */
+    public int size() {
+        synchronized (lock) {
+            return size;
+        }
+    }
+
+    /**
+     * Returns an iterator over the elements added so far, in sorted order.
+     * The iterator merges the runs that exist when it is created and is not
+     * affected by elements added later.
+     *
+     * @return a sorted iterator over the elements
+     * @throws IllegalStateException if a background sort failed
+     */
+    public Iterator<T> iterator() {
+        List<T[]> sortedRuns = new ArrayList<>();
+        List<Integer> unsorted = new ArrayList<>();
+        synchronized (lock) {
+            checkFailure();
+            for (Run<T> run : runs) {
+                if (!run.sorted) {
+                    unsorted.add(sortedRuns.size());
+                }
+                sortedRuns.add(run.elements);
+            }
+            if (!pending.isEmpty()) {
+                unsorted.add(sortedRuns.size());
+                sortedRuns.add(toArray(pending));
+            }
+        }
+
+        // chunks still waiting for the background are sorted on a copy, in
+        // their place among the runs so that equal elements keep their order
+        for (int index : unsorted) {
+            T[] copy = sortedRuns.get(index).clone();
+            Sorting.naturalMergeSort(copy);
+            sortedRuns.set(index, copy);
+        }
+        return new MergingIterator<>(sortedRuns);
+    }
+
+    /**
+     * Returns the elements added so far in sorted order.
+     *
+     * @return a new sorted list of the elements
+     * @throws IllegalStateException if a background sort failed
+     */
+    public List<T> snapshot() {
+        List<T> sorted = new ArrayList<>();
+        for (Iterator<T> iterator = iterator(); iterator.hasNext(); ) {
+            sorted.add(iterator.next());
+        }
+        return sorted;
+    }
+
+    /**
+     * Waits until no background sort or merge is running or queued.
+     *
+     * @throws InterruptedException if interrupted while waiting
+     * @throws IllegalStateException if a background sort failed
+     */
+    public void awaitIdle() throws InterruptedException {
+        synchronized (lock) {
+            while (inFlight > 0) {
+                lock.wait();
+            }
+            checkFailure();
+        }
+    }
+
+    /**
+     * Gets the metrics of all the background sorts and merges finished so far.
+     *
+     * @return the accumulated metrics
+     */
+    public SortMetrics getMetrics() {
+        synchronized (lock) {
+            return metrics.getMetrics();
+        }
+    }
+
+    /**
+     * Stops accepting elements and waits for the background work to finish.
+     * The sorted data can still be read after closing.
+     *
+     * @throws IllegalStateException if interrupted while waiting or a
+     *                               background sort failed
+     */
+    @Override
+    public void close() {
+        synchronized (lock) {
+            closed = true;
+            if (!pending.isEmpty()) {
+                handOff();
+            }
+        }
+        try {
+            awaitIdle();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for background sorts", e);
+        }
+    }
+
+    /**
+     * Turns the pending elements into a chunk and sorts it in the background.
+     * Called with the lock held.
+     */
+    private void handOff() {
+        Run<T> chunk = new Run<>(toArray(pending), false);
+        pending = new ArrayList<>();
+        runs.add(chunk);
+        submit(() -> {
+            // sort a copy, as iterators may be copying the chunk at the same time
+            T[] elements = chunk.elements.clone();
+            Sorting.naturalMergeSort(elements);
+            SortMetrics sortMetrics = MonitoredComparator.getLastMetrics();
+            synchronized (lock) {
+                runs.set(runs.indexOf(chunk), new Run<>(elements, true));
+                metrics.add(sortMetrics);
+                scheduleMerges();
+            }
+        });
+    }
+
+    /**
+     * Starts a background merge of every pair of neighbouring sorted runs of
+     * the same level that are not being merged already. Only neighbours are
+     * merged, so the runs stay in the order their elements were added.
+     * Called with the lock held.
+     */
+    private void scheduleMerges() {
+        for (int index = 0; index + 1 < runs.size(); index++) {
+            Run<T> first = runs.get(index);
+            Run<T> second = runs.get(index + 1);
+            if (first.isIdle() && second.isIdle() && first.level(runSize) == second.level(runSize)) {
+                first.merging = true;
+                second.merging = true;
+                submit(() -> {
+                    MonitoredComparator<T> comparator = new MonitoredComparator<>();
+                    Run<T> merged = new Run<>(merge(first.elements, second.elements, comparator), true);
+                    synchronized (lock) {
+                        int position = runs.indexOf(first);
+                        runs.set(position, merged);
+                        runs.remove(position + 1);
+                        metrics.add(comparator.getMetrics());
+                        scheduleMerges();
+                    }
+                });
+                index++;
+            }
+        }
+    }
+
+    /**
+     * Runs a task on the executor, counting it as in flight until it ends
+     * and recording the first failure. Called with the lock held.
+     *
+     * @param task the task to run
+     */
+    private void submit(Runnable task) {
+        inFlight++;
+        executor.execute(() -> {
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                synchronized (lock) {
+                    if (failure == null) {
+                        failure = e;
+                    }
+                }
+            } finally {
+                synchronized (lock) {
+                    inFlight--;
+                    lock.notifyAll();
+                }
+            }
+        });
+    }
+
+    /**
+     * Merges two sorted arrays into a new one. Equal elements are taken from
+     * the first array first, so the merge is stable.
+     *
+     * @param first      the first sorted array
+     * @param second     the second sorted array
+     * @param comparator the MonitoredComparator tracking comparisons
+     * @return the merged array
+     */
+    private static <T extends Comparable<T>> T[] merge(T[] first, T[] second, MonitoredComparator<T> comparator) {
+        T[] merged = Arrays.copyOf(first, first.length + second.length);
+        int index1 = 0, index2 = 0;
+        for (int index = 0; index < merged.length; index++) {
+            if (index2 == second.length
+                    || (index1 < first.length && comparator.compare(first[index1], second[index2]) <= 0)) {
+                merged[index] = first[index1++];
+            } else {
+                merged[index] = second[index2++];
+            }
+        }
+        comparator.recordMoves(merged.length);
+        return merged;
+    }
+
+    /**
+     * Copies a list of elements into an array that can be sorted.
+     *
+     * @param elements the elements to copy
+     * @return a new array holding the elements
+     */
+    @SuppressWarnings("unchecked")
+    private static <T extends Comparable<T>> T[] toArray(List<T> elements) {
+        return elements.toArray((T[])(new Comparable<?>[elements.size()]));
+    }
+
+    /**
+     * Throws if elements can no longer be added. Called with the lock held.
+     *
+     * @throws IllegalStateException if the sorter is closed or a background sort failed
+     */
+    private void checkOpen() {
+        if (closed) {
+            throw new IllegalStateException("Streaming sorter is closed");
+        }
+        checkFailure();
+    }
+
+    /**
+     * Throws if a background sort or merge failed. Called with the lock held.
+     *
+     * @throws IllegalStateException if a background sort failed
+     */
+    private void checkFailure() {
+        if (failure != null) {
+            throw new IllegalStateException("Background sort failed", failure);
+        }
+    }
+
+    /**
+     * A run of elements, either a chunk waiting to be sorted or a sorted run.
+     * The elements of a run never change: sorting a chunk and merging runs
+     * replace them with new runs, so iterators can read them without the lock.
+     */
+    private static class Run<T> {
+        final T[] elements;
+        final boolean sorted;
+        boolean merging;  // guarded by the sorter's lock
+
+        Run(T[] elements, boolean sorted) {
+            this.elements = elements;
+            this.sorted = sorted;
+        }
+
+        /**
+         * Checks whether the run is sorted and not part of a merge.
+         *
+         * @return true if the run can be merged
+         */
+        boolean isIdle() {
+            return sorted && !merging;
+        }
+
+        /**
+         * Gets the level of the run: 0 for a single chunk, one more for
+         * every doubling of its length.
+         *
+         * @param runSize the length of a chunk
+         * @return the level of the run
+         */
+        int level(int runSize) {
+            return 31 - Integer.numberOfLeadingZeros(Math.max(1, elements.length / runSize));
+        }
+    }
+
+    /**
+     * Iterates over several sorted runs in sorted order, merging them with a
+     * priority queue of one cursor per run. Cursors of equal elements are
+     * ordered by run, which keeps the merge stable.
+     */
+    private static class MergingIterator<T extends Comparable<T>> implements Iterator<T> {
+        private final PriorityQueue<int[]> cursors;
+        private final List<T[]> sortedRuns;
+
+        MergingIterator(List<T[]> sortedRuns) {
+            this.sortedRuns = sortedRuns;
+            // each cursor is {run, position}
+            this.cursors = new PriorityQueue<>(Math.max(1, sortedRuns.size()), (a, b) -> {
+                int result = sortedRuns.get(a[0])[a[1]].compareTo(sortedRuns.get(b[0])[b[1]]);
+                return result != 0 ? result : Integer.compare(a[0], b[0]);
+            });
+            for (int run = 0; run < sortedRuns.size(); run++) {
+                if (sortedRuns.get(run).length > 0) {
+                    cursors.add(new int[] {run, 0});
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !cursors.isEmpty();
+        }
+
+        @Override
+        public T next() {
+            int[] cursor = cursors.poll();
+            if (cursor == null) {
+                throw new NoSuchElementException();
+            }
+            T[] run = sortedRuns.get(cursor[0]);
+            T element = run[cursor[1]++];
+            if (cursor[1] < run.length) {
+                cursors.add(cursor);
+            }
+            return element;
+        }
+    }
+}
@@ -0,0 +1,402 @@
+package helpers;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Settings of a SweepEngine: which algorithms, element types, input
+ * distributions and sizes make up the grid of cells, how many times each
+ * cell is run, how the cells are isolated from each other and where the
+ * results and latency histograms are written. Instead of generated input
+ * distributions, the cells can sort the values of a file.
+ *
+ * @author JaniOC
+ */
+public class SweepConfig {
+    // Sorting algorithms to run
+    private String[] algorithms = SortRunner.ALGORITHMS;
+
+    // Element types to sort, "Integer" and/or "int"
+    private String[] types = SortRunner.ELEMENT_TYPES;
+
+    // Input distributions to sort
+    private InputDistribution[] distributions = InputDistribution.values();
+
+    // Array sizes to sort
+    private int[] sizes = {1000, 2000, 5000, 10000};
+
+    // Timed runs per cell
+    private int trials = 5;
+
+    // Untimed runs per cell before the timed ones
+    private int warmupTrials = 1;
+
+    // Number of cells run at the same time in shared isolation
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+
+    // Worker threads of the parallel sorts, or 0 for the common fork-join pool
+    private int sortParallelism = 0;
+
+    // How cells are isolated from each other
+    private SweepIsolation isolation = SweepIsolation.SHARED;
+
+    // Seed of the input generators
+    private long seed = 42L;
+
+    // File the results are written to
+    private Path output = Paths.get("sweep.csv");
+
+    // Format of the output file
+    private SweepFormat format = SweepFormat.CSV;
+
+    // Whether cells already in the output file are skipped
+    private boolean resume = true;
+
+    // Directory the latency histogram of every cell is written to, or null for none
+    private Path histograms;
+
+    // File of values sorted instead of the generated distributions, or null to generate them
+    private Path input;
+
+    // Record format of the input file
+    private RecordFormat inputFormat = RecordFormat.TEXT;
+
+    /**
+     * Gets the sorting algorithms to run.
+     *
+     * @return the algorithm names
+     */
+    public String[] getAlgorithms() {
+        return algorithms.clone();
+    }
+
+    /**
+     * Sets the sorting algorithms to run.
+     *
+     * @param algorithms the algorithm names, as used by PerformanceTable
+     * @throws IllegalArgumentException if no algorithm is given or one is unknown
+     */
+    public void setAlgorithms(String... algorithms) {
+        if (algorithms.length == 0) {
+            throw new IllegalArgumentException("At least one algorithm is needed");
+        }
+        for (String algorithm : algorithms) {
+            if (!SortRunner.isKnown(algorithm)) {
+                throw new IllegalArgumentException("Unknown algorithm: " + algorithm);
+            }
+        }
+        this.algorithms = algorithms.clone();
+    }
+
+    /**
+     * Gets the element types to sort.
+     *
+     * @return the element types
+     */
+    public String[] getTypes() {
+        return types.clone();
+    }
+
+    /**
+     * Sets the element types to sort.
+     *
+     * @param types the element types, "Integer" and/or "int"
+     * @throws IllegalArgumentException if no type is given or one is unknown
+     */
+    public void setTypes(String... types) {
+        if (types.length == 0) {
+            throw new IllegalArgumentException("At least one element type is needed");
+        }
+        for (String type : types) {
+            if (!type.equals("Integer") && !type.equals("int")) {
+                throw new IllegalArgumentException("Unknown element type: " + type);
+            }
+        }
+        this.types = types.clone();
+    }
+
+    /**
+     * Gets the input distributions to sort.
+     *
+     * @return the input distributions
+     */
+    public InputDistribution[] getDistributions() {
+        return distributions.clone();
+    }
+
+    /**
+     * Sets the input distributions to sort.
+     *
+     * @param distributions the input distributions
+     * @throws IllegalArgumentException if no distribution is given
+     */
+    public void setDistributions(InputDistribution... distributions) {
+        if (distributions.length == 0) {
+            throw new IllegalArgumentException("At least one distribution is needed");
+        }
+        this.distributions = distributions.clone();
+    }
+
+    /**
+     * Gets the array sizes to sort.
+     *
+     * @return the array sizes
+     */
+    public int[] getSizes() {
+        return sizes.clone();
+    }
+
+    /**
+     * Sets the array sizes to sort.
+     *
+     * @param sizes the array sizes
+     * @throws IllegalArgumentException if no size is given or one is negative
+     */
+    public void setSizes(int... sizes) {
+        if (sizes.length == 0) {
+            throw new IllegalArgumentException("At least one size is needed");
+        }
+        for (int size : sizes) {
+            if (size < 0) {
+                throw new IllegalArgumentException("Size must not be negative: " + size);
+            }
+        }
+        this.sizes = sizes.clone();
+    }
+
+    /**
+     * Gets the number of timed runs per cell.
+     *
+     * @return the number of trials
+     */
+    public int getTrials() {
+        return trials;
+    }
+
+    /**
+     * Sets the number of timed runs per cell. The median and percentiles
+     * are taken over these runs.
+     *
+     * @param trials the number of trials
+     * @throws IllegalArgumentException if the number of trials is not positive
+     */
+    public void setTrials(int trials) {
+        if (trials < 1) {
+            throw new IllegalArgumentException("Trials must be positive: " + trials);
+        }
+        this.trials = trials;
+    }
+
+    /**
+     * Gets the number of untimed runs per cell.
+     *
+     * @return the number of warmup trials
+     */
+    public int getWarmupTrials() {
+        return warmupTrials;
+    }
+
+    /**
+     * Sets the number of untimed runs made before the timed ones of each cell.
+     *
+     * @param warmupTrials the number of warmup trials
+     * @throws IllegalArgumentException if the number is negative
+     */
+    public void setWarmupTrials(int warmupTrials) {
+        if (warmupTrials < 0) {
+            throw new IllegalArgumentException("Warmup trials must not be negative: " + warmupTrials);
+        }
+        this.warmupTrials = warmupTrials;
+    }
+
+    /**
+     * Gets the number of cells run at the same time.
+     *
+     * @return the parallelism
+     */
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Sets the number of cells run at the same time. Exclusive isolation
+     * always runs one cell at a time.
+     *
+     * @param parallelism the parallelism
+     * @throws IllegalArgumentException if the parallelism is not positive
+     */
+    public void setParallelism(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be positive: " + parallelism);
+        }
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Gets the number of worker threads the parallel sorts run on.
+     *
+     * @return the sort parallelism, or 0 for the common fork-join pool
+     */
+    public int getSortParallelism() {
+        return sortParallelism;
+    }
+
+    /**
+     * Sets the number of worker threads the parallel sorts run on. The sweep
+     * gives them a fork-join pool of that many threads, shared by all the
+     * cells, instead of the common pool.
+     *
+     * @param sortParallelism the sort parallelism, or 0 for the common fork-join pool
+     * @throws IllegalArgumentException if the sort parallelism is negative
+     */
+    public void setSortParallelism(int sortParallelism) {
+        if (sortParallelism < 0) {
+            throw new IllegalArgumentException("Sort parallelism must not be negative: " + sortParallelism);
+        }
+        this.sortParallelism = sortParallelism;
+    }
+
+    /**
+     * Gets how cells are isolated from each other.
+     *
+     * @return the isolation
+     */
+    public SweepIsolation getIsolation() {
+        return isolation;
+    }
+
+    /**
+     * Sets how cells are isolated from each other.
+     *
+     * @param isolation the isolation
+     */
+    public void setIsolation(SweepIsolation isolation) {
+        this.isolation = isolation;
+    }
+
+    /**
+     * Gets the seed of the input generators.
+     *
+     * @return the seed
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Sets the seed of the input generators.
+     *
+     * @param seed the seed
+     */
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * Gets the file the results are written to.
+     *
+     * @return the output file
+     */
+    public Path getOutput() {
+        return output;
+    }
+
+    /**
+     * Sets the file the results are written to.
+     *
+     * @param output the output file
+     */
+    public void setOutput(Path output) {
+        this.output = output;
+    }
+
+    /**
+     * Gets the format of the output file.
+     *
+     * @return the output format
+     */
+    public SweepFormat getFormat() {
+        return format;
+    }
+
+    /**
+     * Sets the format of the output file.
+     *
+     * @param format the output format
+     */
+    public void setFormat(SweepFormat format) {
+        this.format = format;
+    }
+
+    /**
+     * Tells whether cells already in the output file are skipped.
+     *
+     * @return true if an existing output file is resumed
+     */
+    public boolean isResume() {
+        return resume;
+    }
+
+    /**
+     * Sets whether cells already in the output file are skipped. When not
+     * resuming, an existing output file is overwritten.
+     *
+     * @param resume true to resume an existing output file
+     */
+    public void setResume(boolean resume) {
+        this.resume = resume;
+    }
+
+    /**
+     * Gets the directory the latency histograms of the cells are written to.
+     *
+     * @return the histogram directory, or null if no histograms are written
+     */
+    public Path getHistograms() {
+        return histograms;
+    }
+
+    /**
+     * Sets the directory the latency histograms of the cells are written to.
+     * Each measured cell writes the times of its trials, in microseconds, to
+     * a file named after the cell with the .hgrm extension of HdrHistogram.
+     *
+     * @param histograms the histogram directory, or null to write none
+     */
+    public void setHistograms(Path histograms) {
+        this.histograms = histograms;
+    }
+
+    /**
+     * Gets the file of values sorted instead of the generated distributions.
+     *
+     * @return the input file, or null if the input is generated
+     */
+    public Path getInput() {
+        return input;
+    }
+
+    /**
+     * Gets the record format of the input file.
+     *
+     * @return the input format
+     */
+    public RecordFormat getInputFormat() {
+        return inputFormat;
+    }
+
+    /**
+     * Sets a file of values to sort instead of the generated distributions.
+     * The file takes the place of the distributions in the grid, under its
+     * file name, and each cell sorts the first size values of it; sizes
+     * larger than the file sort the whole file. The values must fit in an
+     * int.
+     *
+     * @param input  the input file, or null to generate the input
+     * @param format the record format of the file
+     */
+    public void setInput(Path input, RecordFormat format) {
+        this.input = input;
+        this.inputFormat = format;
+    }
+}
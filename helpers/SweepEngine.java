@@ -0,0 +1,558 @@
+package helpers;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Runs a performance sweep: every combination of algorithm, element type,
+ * input distribution and size is a cell, measured once with a number of
+ * warmup and timed trials on the same seeded input. Independent cells run
+ * on a pool of worker threads, or one at a time, or each in its own JVM,
+ * depending on the isolation of the SweepConfig. The parallel sorts run on
+ * the common fork-join pool, or on a pool of their own when the config sets
+ * a sort parallelism. When the config names an input file, its values are
+ * sorted instead of the generated distributions.
+ *
+ * Each finished cell is written to the output file straight away, so an
+ * interrupted sweep keeps everything it measured. Run again with resume
+ * on, the cells already in the file are read back instead of measured.
+ *
+ * @author JaniOC
+ */
+public class SweepEngine {
+    // Largest number of values an input file can hold, the largest array the JVM allocates
+    private static final int MAX_INPUT_VALUES = Integer.MAX_VALUE - 8;
+
+    private final SweepConfig config;
+
+    /**
+     * Constructs a sweep engine.
+     *
+     * @param config the settings of the sweep
+     */
+    public SweepEngine(SweepConfig config) {
+        this.config = config;
+    }
+
+    /**
+     * Runs the sweep, measuring every cell that is not already in the output
+     * file and appending it to the file as soon as it finishes.
+     *
+     * @return the results of every cell, in the order of the grid, including
+     *         the cells read back from the output file
+     * @throws IOException if the output or input file cannot be read or
+     *         written, or a forked JVM fails
+     */
+    public List<SweepResult> run() throws IOException {
+        int[] values = config.getInput() == null ? null : readValues(config.getInput(), config.getInputFormat());
+        Map<String, SweepResult> finished = config.isResume() ? readFinished() : new LinkedHashMap<>();
+        if (!config.isResume()) {
+            Files.deleteIfExists(config.getOutput());
+        }
+
+        // the parallel sorts of every cell share one pool of the configured size
+        ForkJoinPool sortPool = config.getSortParallelism() > 0 ? new ForkJoinPool(config.getSortParallelism())
+                                                                : ForkJoinPool.commonPool();
+        List<String> keys = new ArrayList<>();
+        List<Callable<SweepResult>> cells = new ArrayList<>();
+        for (String algorithm : config.getAlgorithms()) {
+            for (String type : config.getTypes()) {
+                for (String distribution : distributionNames()) {
+                    for (int size : cellSizes(values)) {
+                        if (!SortRunner.isAvailable(algorithm, type)) {
+                            continue;
+                        }
+                        String key = SweepResult.key(algorithm, type, distribution, size);
+                        keys.add(key);
+                        if (!finished.containsKey(key)) {
+                            cells.add(() -> measureCell(algorithm, type, distribution, size, values, sortPool));
+                        }
+                    }
+                }
+            }
+        }
+
+        int threads = config.getIsolation() == SweepIsolation.EXCLUSIVE ? 1 : config.getParallelism();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try (ResultWriter writer = new ResultWriter(config.getOutput(), config.getFormat())) {
+            List<Future<SweepResult>> pending = new ArrayList<>();
+            for (Callable<SweepResult> cell : cells) {
+                pending.add(executor.submit(() -> writer.write(cell.call())));
+            }
+            for (Future<SweepResult> future : pending) {
+                SweepResult result = await(future);
+                finished.put(result.getKey(), result);
+            }
+        } finally {
+            executor.shutdownNow();
+            if (sortPool != ForkJoinPool.commonPool()) {
+                sortPool.shutdownNow();
+            }
+        }
+
+        List<SweepResult> results = new ArrayList<>();
+        for (String key : keys) {
+            results.add(finished.get(key));
+        }
+        return results;
+    }
+
+    /**
+     * Gets the names of the input distributions of the grid: the configured
+     * distributions, or the file name of the input file in their place.
+     *
+     * @return the distribution names
+     */
+    private List<String> distributionNames() {
+        List<String> names = new ArrayList<>();
+        if (config.getInput() != null) {
+            names.add(config.getInput().getFileName().toString());
+        } else {
+            for (InputDistribution distribution : config.getDistributions()) {
+                names.add(distribution.getName());
+            }
+        }
+        return names;
+    }
+
+    /**
+     * Gets the sizes of the grid. With an input file, sizes larger than the
+     * file are cut down to its length, and sizes that end up the same are
+     * measured once.
+     *
+     * @param values the values of the input file, or null if the input is generated
+     * @return the sizes
+     */
+    private int[] cellSizes(int[] values) {
+        if (values == null) {
+            return config.getSizes();
+        }
+        LinkedHashSet<Integer> sizes = new LinkedHashSet<>();
+        for (int size : config.getSizes()) {
+            sizes.add(Math.min(size, values.length));
+        }
+        return sizes.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Measures one cell with the isolation of the sweep.
+     *
+     * @param algorithm the sorting algorithm
+     * @param type the element type, "Integer" or "int"
+     * @param distribution the name of the input distribution
+     * @param size the size of the input
+     * @param values the values of the input file, or null if the input is generated
+     * @param sortPool the fork-join pool of the parallel sorts, when not forked
+     * @return the result of the cell
+     * @throws IOException if a forked JVM fails
+     */
+    private SweepResult measureCell(String algorithm, String type, String distribution, int size, int[] values,
+                                    ForkJoinPool sortPool) throws IOException {
+        if (config.getIsolation() == SweepIsolation.FORKED) {
+            return measureForked(algorithm, type, distribution, size);
+        }
+        if (config.getIsolation() == SweepIsolation.EXCLUSIVE) {
+            // Collect the garbage of the previous cell so it is not charged to this one
+            System.gc();
+        }
+        int[] input = values != null ? Arrays.copyOf(values, size)
+                                     : InputDistribution.fromName(distribution).generate(size, config.getSeed());
+        return measure(algorithm, type, distribution, input, config.getTrials(), config.getWarmupTrials(),
+                       config.getHistograms(), sortPool);
+    }
+
+    /**
+     * Measures one cell in a new JVM running main of this class, and parses
+     * the line it prints.
+     *
+     * @param algorithm the sorting algorithm
+     * @param type the element type, "Integer" or "int"
+     * @param distribution the name of the input distribution
+     * @param size the size of the input
+     * @return the result of the cell
+     * @throws IOException if the JVM cannot be started, fails or prints no result
+     */
+    private SweepResult measureForked(String algorithm, String type, String distribution, int size)
+            throws IOException {
+        String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+        List<String> command = new ArrayList<>(Arrays.asList(java, "-cp", System.getProperty("java.class.path"),
+                SweepEngine.class.getName(), algorithm, type, distribution, String.valueOf(size),
+                String.valueOf(config.getTrials()), String.valueOf(config.getWarmupTrials()),
+                String.valueOf(config.getSeed())));
+        if (config.getHistograms() != null) {
+            command.add("--histograms=" + config.getHistograms().toAbsolutePath());
+        }
+        if (config.getSortParallelism() > 0) {
+            command.add("--sort-threads=" + config.getSortParallelism());
+        }
+        if (config.getInput() != null) {
+            command.add("--input=" + config.getInput().toAbsolutePath());
+            command.add("--input-format=" + config.getInputFormat().getName());
+        }
+        ProcessBuilder builder = new ProcessBuilder(command);
+        builder.redirectError(ProcessBuilder.Redirect.INHERIT);
+        Process process = builder.start();
+
+        SweepResult result = null;
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                SweepResult parsed = SweepFormat.CSV.parse(line);
+                if (parsed != null) {
+                    result = parsed;
+                }
+            }
+        }
+        try {
+            int exitCode = process.waitFor();
+            if (exitCode != 0 || result == null) {
+                throw new IOException("Forked JVM failed on " + SweepResult.key(algorithm, type,
+                        distribution, size) + " with exit code " + exitCode);
+            }
+        } catch (InterruptedException e) {
+            process.destroy();
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for a forked JVM");
+        }
+        return result;
+    }
+
+    /**
+     * Measures one cell in this JVM: sorts the same input warmupTrials times
+     * untimed and then trials times timed. The times of the timed trials are
+     * also written as a latency histogram when a directory for them is given.
+     *
+     * @param algorithm the sorting algorithm
+     * @param type the element type, "Integer" or "int"
+     * @param distribution the name of the input distribution
+     * @param input the values to sort, left unchanged
+     * @param trials the number of timed trials
+     * @param warmupTrials the number of untimed trials before them
+     * @param histograms the directory of the latency histograms, or null
+     * @param sortPool the fork-join pool of the parallel sorts
+     * @return the result of the cell
+     * @throws IOException if the histogram cannot be written
+     */
+    static SweepResult measure(String algorithm, String type, String distribution, int[] input,
+                               int trials, int warmupTrials, Path histograms, ForkJoinPool sortPool)
+            throws IOException {
+        for (int trial = 0; trial < warmupTrials; trial++) {
+            SortRunner.run(algorithm, type, distribution, input, sortPool);
+        }
+
+        long[] times = new long[trials];
+        long[] bytes = new long[trials];
+        SortMetrics metrics = null;
+        for (int trial = 0; trial < trials; trial++) {
+            Results<SortMetrics, Long> results = SortRunner.run(algorithm, type, distribution, input, sortPool);
+            if (results == null) {
+                throw new IllegalArgumentException(algorithm + " has no version for " + type);
+            }
+            times[trial] = results.getTime();
+            bytes[trial] = results.getBytes();
+            if (metrics == null) {
+                metrics = results.getCount();
+            }
+        }
+        if (histograms != null) {
+            writeHistogram(histograms, SweepResult.key(algorithm, type, distribution, input.length), times);
+        }
+        Arrays.sort(times);
+        Arrays.sort(bytes);
+        return new SweepResult(algorithm, type, distribution, input.length, trials,
+                               percentile(times, 50), percentile(times, 10), percentile(times, 90),
+                               times[0], times[trials - 1], percentile(bytes, 50), metrics);
+    }
+
+    /**
+     * Writes the times of a cell as a latency histogram in microseconds, in
+     * the .hgrm format of HdrHistogram.
+     *
+     * @param directory the directory of the histograms
+     * @param key the key of the cell, which names the file
+     * @param times the times of the trials in nanoseconds
+     * @throws IOException if the file cannot be written
+     */
+    private static void writeHistogram(Path directory, String key, long[] times) throws IOException {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long time : times) {
+            histogram.record(time);
+        }
+        Files.createDirectories(directory);
+        try (BufferedWriter writer = Files.newBufferedWriter(directory.resolve(key + ".hgrm"),
+                                                             StandardCharsets.UTF_8)) {
+            histogram.outputPercentileDistribution(writer, 1000.0);
+        }
+    }
+
+    /**
+     * Reads the values of an input file into an array. Text files hold one
+     * decimal value per line, blank lines skipped; binary files hold
+     * big-endian records, as written by the external sorter.
+     *
+     * @param file the file to read
+     * @param format the record format of the file
+     * @return the values in the order of the file
+     * @throws IOException if the file cannot be read, a value is invalid or
+     *         does not fit in an int, or the file holds too many values
+     */
+    static int[] readValues(Path file, RecordFormat format) throws IOException {
+        if (format == RecordFormat.TEXT) {
+            int[] values = new int[1024];
+            int count = 0;
+            try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                String line;
+                long lineNumber = 0;
+                while ((line = reader.readLine()) != null) {
+                    lineNumber++;
+                    line = line.trim();
+                    if (line.isEmpty()) {
+                        continue;
+                    }
+                    if (count == values.length) {
+                        if (count == MAX_INPUT_VALUES) {
+                            throw new IOException(file + " holds more than " + MAX_INPUT_VALUES + " values");
+                        }
+                        values = Arrays.copyOf(values, (int) Math.min(MAX_INPUT_VALUES, 2L * count));
+                    }
+                    try {
+                        values[count++] = toInt(Long.parseLong(line), file);
+                    } catch (NumberFormatException e) {
+                        throw new IOException("Invalid value on line " + lineNumber + " of " + file + ": " + line, e);
+                    }
+                }
+            }
+            return Arrays.copyOf(values, count);
+        }
+
+        long bytes = Files.size(file);
+        int recordBytes = format.getRecordBytes();
+        if (bytes % recordBytes != 0) {
+            throw new IOException(file + " is not a whole number of " + format.getName() + " records");
+        }
+        if (bytes / recordBytes > MAX_INPUT_VALUES) {
+            throw new IOException(file + " holds more than " + MAX_INPUT_VALUES + " values");
+        }
+        int[] values = new int[(int) (bytes / recordBytes)];
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file),
+                                                                              1 << 16))) {
+            for (int index = 0; index < values.length; index++) {
+                values[index] = recordBytes == Integer.BYTES ? in.readInt() : toInt(in.readLong(), file);
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Narrows a value read from an input file to an int.
+     *
+     * @param value the value
+     * @param file the file it was read from, for the message
+     * @return the value as an int
+     * @throws IOException if the value does not fit in an int
+     */
+    private static int toInt(long value, Path file) throws IOException {
+        if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+            throw new IOException("Value " + value + " of " + file + " does not fit in an int");
+        }
+        return (int) value;
+    }
+
+    /**
+     * Picks a percentile of sorted values with the nearest-rank method, so
+     * the result is always one of the measured values.
+     *
+     * @param sorted the values in ascending order
+     * @param percent the percentile, from 0 to 100
+     * @return the value at the percentile
+     */
+    private static long percentile(long[] sorted, int percent) {
+        int rank = (int) Math.ceil(percent / 100.0 * sorted.length);
+        return sorted[Math.max(0, rank - 1)];
+    }
+
+    /**
+     * Reads the cells already in the output file. A last line without a line
+     * separator was cut off by an interrupted sweep, so it is removed from
+     * the file and its cell is measured again.
+     *
+     * @return the finished cells by key, empty if there is no output file
+     * @throws IOException if the output file cannot be read or truncated
+     */
+    private Map<String, SweepResult> readFinished() throws IOException {
+        Map<String, SweepResult> finished = new LinkedHashMap<>();
+        Path output = config.getOutput();
+        if (!Files.exists(output)) {
+            return finished;
+        }
+
+        byte[] content = Files.readAllBytes(output);
+        int end = content.length;
+        while (end > 0 && content[end - 1] != '\n') {
+            end--;
+        }
+        if (end < content.length) {
+            try (FileChannel channel = FileChannel.open(output, StandardOpenOption.WRITE)) {
+                channel.truncate(end);
+            }
+        }
+
+        String text = new String(content, 0, end, StandardCharsets.UTF_8);
+        for (String line : text.split("\n")) {
+            SweepResult result = config.getFormat().parse(line.trim());
+            if (result != null) {
+                finished.put(result.getKey(), result);
+            }
+        }
+        return finished;
+    }
+
+    /**
+     * Waits for a cell to be measured and written.
+     *
+     * @param future the task measuring the cell
+     * @return the result of the cell
+     * @throws IOException if the task failed to write its result, or was interrupted
+     */
+    private static SweepResult await(Future<SweepResult> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while measuring a cell");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    /**
+     * Measures a single cell and prints it as a CSV line. This is the entry
+     * point of the JVMs forked by a sweep with forked isolation. With an
+     * input file, the distribution only names the cell and the first size
+     * values of the file are sorted.
+     *
+     * @param args algorithm, element type, distribution, size, trials,
+     *             warmup trials and seed, optionally followed by
+     *             --histograms=directory, --sort-threads=count, --input=file
+     *             and --input-format=format
+     * @throws IOException if the input file cannot be read or the histogram
+     *         cannot be written
+     */
+    public static void main(String[] args) throws IOException {
+        Path histograms = null;
+        int sortThreads = 0;
+        Path input = null;
+        RecordFormat inputFormat = RecordFormat.TEXT;
+        boolean valid = args.length >= 7;
+        for (int i = 7; i < args.length; i++) {
+            if (args[i].startsWith("--histograms=")) {
+                histograms = Paths.get(args[i].substring("--histograms=".length()));
+            } else if (args[i].startsWith("--sort-threads=")) {
+                sortThreads = Integer.parseInt(args[i].substring("--sort-threads=".length()));
+            } else if (args[i].startsWith("--input=")) {
+                input = Paths.get(args[i].substring("--input=".length()));
+            } else if (args[i].startsWith("--input-format=")) {
+                inputFormat = RecordFormat.fromName(args[i].substring("--input-format=".length()));
+            } else {
+                valid = false;
+            }
+        }
+        if (!valid) {
+            System.err.println("Usage: java helpers.SweepEngine <algorithm> <type> <distribution> <size> "
+                               + "<trials> <warmupTrials> <seed> [--histograms=<directory>] "
+                               + "[--sort-threads=<count>] [--input=<file> --input-format=<format>]");
+            System.exit(2);
+        }
+        int size = Integer.parseInt(args[3]);
+        int[] values = input != null ? Arrays.copyOf(readValues(input, inputFormat), size)
+                                     : InputDistribution.fromName(args[2]).generate(size, Long.parseLong(args[6]));
+        ForkJoinPool sortPool = sortThreads > 0 ? new ForkJoinPool(sortThreads) : ForkJoinPool.commonPool();
+        SweepResult result = measure(args[0], args[1], args[2], values, Integer.parseInt(args[4]),
+                                     Integer.parseInt(args[5]), histograms, sortPool);
+        System.out.println(SweepFormat.CSV.format(result));
+    }
+
+    /**
+     * Appends results to the output file, one line each, flushing after every
+     * line so finished cells survive an interrupted sweep. Shared by all the
+     * worker threads.
+     */
+    private static class ResultWriter implements AutoCloseable {
+        private final BufferedWriter writer;
+        private final SweepFormat format;
+
+        /**
+         * Opens the output file for appending, writing the header of the
+         * format if the file is new or empty.
+         *
+         * @param output the output file
+         * @param format the format of the output file
+         * @throws IOException if the file cannot be opened
+         */
+        ResultWriter(Path output, SweepFormat format) throws IOException {
+            Path parent = output.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            boolean empty = !Files.exists(output) || Files.size(output) == 0;
+            this.writer = Files.newBufferedWriter(output, StandardCharsets.UTF_8,
+                                                  StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            this.format = format;
+            if (empty && format.header() != null) {
+                writer.write(format.header());
+                writer.write('\n');
+                writer.flush();
+            }
+        }
+
+        /**
+         * Writes one result and flushes it to the file.
+         *
+         * @param result the result to write
+         * @return the result, so the call can end a cell task
+         * @throws IOException if the file cannot be written
+         */
+        synchronized SweepResult write(SweepResult result) throws IOException {
+            writer.write(format.format(result));
+            writer.write('\n');
+            writer.flush();
+            return result;
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.close();
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package helpers;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The file formats a performance sweep can stream its results to. Both
+ * write one line per cell as soon as it finishes, so a sweep that is
+ * interrupted leaves every finished cell on disk and can be resumed.
+ *
+ * @author JaniOC
+ */
+public enum SweepFormat {
+    /** Comma-separated values with a header line. */
+    CSV("csv") {
+        @Override
+        public String header() {
+            return String.join(",", FIELDS);
+        }
+
+        @Override
+        public String format(SweepResult result) {
+            StringBuilder line = new StringBuilder();
+            for (Object value : fieldValues(result)) {
+                if (line.length() > 0) {
+                    line.append(',');
+                }
+                line.append(value);
+            }
+            return line.toString();
+        }
+
+        @Override
+        public SweepResult parse(String line) {
+            String[] values = line.split(",", -1);
+            if (values.length != FIELDS.length || line.equals(header())) {
+                return null;
+            }
+            return fromValues(values);
+        }
+    },
+
+    /** JSON Lines: one JSON object per line, without an enclosing array so it can be appended to. */
+    JSON("json") {
+        @Override
+        public String header() {
+            return null;
+        }
+
+        @Override
+        public String format(SweepResult result) {
+            Object[] values = fieldValues(result);
+            StringBuilder line = new StringBuilder("{");
+            for (int i = 0; i < FIELDS.length; i++) {
+                if (i > 0) {
+                    line.append(',');
+                }
+                line.append('"').append(FIELDS[i]).append("\":");
+                if (values[i] instanceof String) {
+                    line.append('"').append(values[i]).append('"');
+                } else {
+                    line.append(values[i]);
+                }
+            }
+            return line.append('}').toString();
+        }
+
+        @Override
+        public SweepResult parse(String line) {
+            if (!line.startsWith("{") || !line.endsWith("}")) {
+                return null;
+            }
+            String[] values = new String[FIELDS.length];
+            Matcher matcher = JSON_FIELD.matcher(line);
+            while (matcher.find()) {
+                for (int i = 0; i < FIELDS.length; i++) {
+                    if (FIELDS[i].equals(matcher.group(1))) {
+                        values[i] = matcher.group(3) != null ? matcher.group(3) : matcher.group(2);
+                    }
+                }
+            }
+            for (String value : values) {
+                if (value == null) {
+                    return null;
+                }
+            }
+            return fromValues(values);
+        }
+    };
+
+    // Fields of every line, in order
+    private static final String[] FIELDS = {"algorithm", "type", "distribution", "size", "trials",
+                                            "medianNs", "p10Ns", "p90Ns", "minNs", "maxNs", "medianBytes",
+                                            "comparisons", "swaps", "reads", "writes", "maxDepth",
+                                            "passes", "bytesMoved"};
+
+    // A "name":value pair of the flat objects written by JSON, the value a string or an integer
+    private static final Pattern JSON_FIELD = Pattern.compile("\"(\\w+)\":(?:\"([^\"]*)\"|(-?\\d+))");
+
+    private final String name;
+
+    SweepFormat(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Gets the header line written at the start of a new file.
+     *
+     * @return the header line, or null if the format has none
+     */
+    public abstract String header();
+
+    /**
+     * Formats the result of a cell as one line, without the line separator.
+     *
+     * @param result the result to format
+     * @return the formatted line
+     */
+    public abstract String format(SweepResult result);
+
+    /**
+     * Parses a line written by format.
+     *
+     * @param line the line to parse
+     * @return the result, or null if the line is a header or is incomplete
+     */
+    public abstract SweepResult parse(String line);
+
+    /**
+     * Reads the results in a file written in this format. Headers and
+     * incomplete lines are skipped.
+     *
+     * @param file the file to read
+     * @return the results in the order of the file
+     * @throws IOException if the file cannot be read
+     */
+    public List<SweepResult> read(Path file) throws IOException {
+        List<SweepResult> results = new ArrayList<>();
+        for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+            SweepResult result = parse(line.trim());
+            if (result != null) {
+                results.add(result);
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Gets the name of the format, as accepted by fromName.
+     *
+     * @return the format name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Finds the format with the given name, ignoring case.
+     *
+     * @param name the name of the format
+     * @return the format
+     * @throws IllegalArgumentException if there is no format with that name
+     */
+    public static SweepFormat fromName(String name) {
+        for (SweepFormat format : values()) {
+            if (format.name.equalsIgnoreCase(name)) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("Unknown sweep format: " + name);
+    }
+
+    /**
+     * Gets the values of a result in the order of FIELDS.
+     *
+     * @param result the result
+     * @return the values, strings for the names and longs for the numbers
+     */
+    private static Object[] fieldValues(SweepResult result) {
+        SortMetrics metrics = result.getMetrics();
+        return new Object[] {result.getAlgorithm(), result.getType(), result.getDistribution(),
+                (long) result.getSize(), (long) result.getTrials(), result.getMedianNanos(),
+                result.getP10Nanos(), result.getP90Nanos(), result.getMinNanos(), result.getMaxNanos(),
+                result.getMedianBytes(), metrics.getComparisons(), metrics.getSwaps(), metrics.getReads(),
+                metrics.getWrites(), (long) metrics.getMaxDepth(), metrics.getPasses(),
+                metrics.getBytesMoved()};
+    }
+
+    /**
+     * Builds a result from its values in the order of FIELDS.
+     *
+     * @param values the values as strings
+     * @return the result, or null if a number does not parse
+     */
+    private static SweepResult fromValues(String[] values) {
+        try {
+            long[] numbers = new long[values.length];
+            for (int i = 3; i < values.length; i++) {
+                numbers[i] = Long.parseLong(values[i]);
+            }
+            SortMetrics metrics = new SortMetrics(numbers[11], numbers[12], numbers[13], numbers[14],
+                    (int) numbers[15], numbers[16], numbers[17]);
+            return new SweepResult(values[0], values[1], values[2], (int) numbers[3], (int) numbers[4],
+                    numbers[5], numbers[6], numbers[7], numbers[8], numbers[9], numbers[10], metrics);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
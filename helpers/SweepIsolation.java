@@ -0,0 +1,49 @@
+package helpers;
+
+/**
+ * How the cells of a performance sweep are kept from interfering with each
+ * other's measurements.
+ *
+ * @author JaniOC
+ */
+public enum SweepIsolation {
+    /** Cells run concurrently on a pool of threads in this JVM. Fastest, but cells share the heap, JIT and caches. */
+    SHARED("shared"),
+
+    /** One cell at a time in this JVM, with a garbage collection before each cell. */
+    EXCLUSIVE("exclusive"),
+
+    /** Every cell runs in a fresh JVM, so no cell sees another's garbage, JIT profile or heap state. */
+    FORKED("forked");
+
+    private final String name;
+
+    SweepIsolation(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Gets the name of the isolation mode, as accepted by fromName.
+     *
+     * @return the isolation mode name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Finds the isolation mode with the given name, ignoring case.
+     *
+     * @param name the name of the isolation mode
+     * @return the isolation mode
+     * @throws IllegalArgumentException if there is no mode with that name
+     */
+    public static SweepIsolation fromName(String name) {
+        for (SweepIsolation isolation : values()) {
+            if (isolation.name.equalsIgnoreCase(name)) {
+                return isolation;
+            }
+        }
+        throw new IllegalArgumentException("Unknown isolation: " + name);
+    }
+}
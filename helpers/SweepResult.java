@@ -0,0 +1,194 @@
+package helpers;
+
+/**
+ * The measurements of one cell of a performance sweep: an algorithm sorting
+ * one element type, input distribution and size. Times are the median and
+ * percentiles over the timed trials. The metrics are those of the first
+ * timed trial, as every trial sorts the same input.
+ *
+ * @author JaniOC
+ */
+public class SweepResult {
+    private final String algorithm;
+    private final String type;
+    private final String distribution;
+    private final int size;
+    private final int trials;
+    private final long medianNanos;
+    private final long p10Nanos;
+    private final long p90Nanos;
+    private final long minNanos;
+    private final long maxNanos;
+    private final long medianBytes;
+    private final SortMetrics metrics;
+
+    /**
+     * Constructs the result of a cell.
+     *
+     * @param algorithm the sorting algorithm
+     * @param type the element type, "Integer" or "int"
+     * @param distribution the name of the input distribution
+     * @param size the size of the input
+     * @param trials the number of timed trials
+     * @param medianNanos the median time of the trials in nanoseconds
+     * @param p10Nanos the 10th percentile time in nanoseconds
+     * @param p90Nanos the 90th percentile time in nanoseconds
+     * @param minNanos the fastest trial in nanoseconds
+     * @param maxNanos the slowest trial in nanoseconds
+     * @param medianBytes the median bytes allocated per trial, or -1 if not measured
+     * @param metrics the metrics of the sort
+     */
+    public SweepResult(String algorithm, String type, String distribution, int size, int trials,
+                       long medianNanos, long p10Nanos, long p90Nanos, long minNanos, long maxNanos,
+                       long medianBytes, SortMetrics metrics) {
+        this.algorithm = algorithm;
+        this.type = type;
+        this.distribution = distribution;
+        this.size = size;
+        this.trials = trials;
+        this.medianNanos = medianNanos;
+        this.p10Nanos = p10Nanos;
+        this.p90Nanos = p90Nanos;
+        this.minNanos = minNanos;
+        this.maxNanos = maxNanos;
+        this.medianBytes = medianBytes;
+        this.metrics = metrics;
+    }
+
+    /**
+     * Gets the key identifying the cell, used to skip finished cells when
+     * a sweep is resumed.
+     *
+     * @return the key of the cell
+     */
+    public String getKey() {
+        return key(algorithm, type, distribution, size);
+    }
+
+    /**
+     * Builds the key identifying a cell.
+     *
+     * @param algorithm the sorting algorithm
+     * @param type the element type
+     * @param distribution the name of the input distribution
+     * @param size the size of the input
+     * @return the key of the cell
+     */
+    static String key(String algorithm, String type, String distribution, int size) {
+        return algorithm + "." + type + "." + distribution + "." + size;
+    }
+
+    /**
+     * Gets the sorting algorithm.
+     *
+     * @return the algorithm name
+     */
+    public String getAlgorithm() {
+        return algorithm;
+    }
+
+    /**
+     * Gets the element type, "Integer" or "int".
+     *
+     * @return the element type
+     */
+    public String getType() {
+        return type;
+    }
+
+    /**
+     * Gets the name of the input distribution.
+     *
+     * @return the distribution name
+     */
+    public String getDistribution() {
+        return distribution;
+    }
+
+    /**
+     * Gets the size of the input.
+     *
+     * @return the input size
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Gets the number of timed trials.
+     *
+     * @return the number of trials
+     */
+    public int getTrials() {
+        return trials;
+    }
+
+    /**
+     * Gets the median time of the trials.
+     *
+     * @return the median time in nanoseconds
+     */
+    public long getMedianNanos() {
+        return medianNanos;
+    }
+
+    /**
+     * Gets the 10th percentile time of the trials.
+     *
+     * @return the 10th percentile time in nanoseconds
+     */
+    public long getP10Nanos() {
+        return p10Nanos;
+    }
+
+    /**
+     * Gets the 90th percentile time of the trials.
+     *
+     * @return the 90th percentile time in nanoseconds
+     */
+    public long getP90Nanos() {
+        return p90Nanos;
+    }
+
+    /**
+     * Gets the time of the fastest trial.
+     *
+     * @return the minimum time in nanoseconds
+     */
+    public long getMinNanos() {
+        return minNanos;
+    }
+
+    /**
+     * Gets the time of the slowest trial.
+     *
+     * @return the maximum time in nanoseconds
+     */
+    public long getMaxNanos() {
+        return maxNanos;
+    }
+
+    /**
+     * Gets the median bytes allocated per trial.
+     *
+     * @return the allocated bytes, or -1 if not measured
+     */
+    public long getMedianBytes() {
+        return medianBytes;
+    }
+
+    /**
+     * Gets the metrics of the sort.
+     *
+     * @return the sort metrics
+     */
+    public SortMetrics getMetrics() {
+        return metrics;
+    }
+
+    @Override
+    public String toString() {
+        return getKey() + ": median=" + medianNanos + "ns, p10=" + p10Nanos + "ns, p90=" + p90Nanos
+                + "ns, " + metrics;
+    }
+}
@@ -0,0 +1,72 @@
+package helpers;
+
+/**
+ * Primitive int kernels that can be vectorized: linear search, the minimum
+ * scan of selection sort, and sorting of small blocks. INSTANCE is the
+ * fastest implementation available at runtime. When the jdk.incubator.vector
+ * module is present (the JVM is started with
+ * {@code --add-modules jdk.incubator.vector} and helpers.vector is compiled)
+ * it is the Vector API implementation, otherwise the scalar one.
+ *
+ * @author JaniOC
+ */
+public interface VectorOps {
+    /** The fastest implementation available on this JVM. */
+    VectorOps INSTANCE = VectorOpsLoader.load();
+
+    /**
+     * Gets the name of the implementation, for benchmark and table labels.
+     *
+     * @return the implementation name
+     */
+    String getName();
+
+    /**
+     * Finds the first occurrence of a value in a range of an array.
+     *
+     * @param data   the array to be searched
+     * @param from   the index of the first element of the range
+     * @param to     the index after the last element of the range
+     * @param target the value being searched for
+     * @return the index of the first occurrence of the target, or -1
+     */
+    int indexOf(int[] data, int from, int to, int target);
+
+    /**
+     * Finds the first occurrence of the smallest value in a non-empty range
+     * of an array.
+     *
+     * @param data the array to be scanned
+     * @param from the index of the first element of the range
+     * @param to   the index after the last element of the range
+     * @return the index of the smallest value
+     */
+    int indexOfMin(int[] data, int from, int to);
+
+    /**
+     * Sorts a small range of an array, such as the blocks that quick sort
+     * and merge sort leave for insertion sort.
+     *
+     * @param data the array to be sorted
+     * @param from the index of the first element of the range
+     * @param to   the index after the last element of the range
+     */
+    void sortSmall(int[] data, int from, int to);
+
+    /**
+     * Sorts a range of an array using a selection sort, finding each
+     * minimum with indexOfMin.
+     *
+     * @param data the array to be sorted
+     * @param from the index of the first element of the range
+     * @param to   the index after the last element of the range
+     */
+    default void selectionSort(int[] data, int from, int to) {
+        for (int index = from; index < to - 1; index++) {
+            int min = indexOfMin(data, index, to);
+            int temp = data[min];
+            data[min] = data[index];
+            data[index] = temp;
+        }
+    }
+}
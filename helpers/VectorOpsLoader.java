@@ -0,0 +1,31 @@
+package helpers;
+
+/**
+ * Picks the VectorOps implementation when VectorOps is first used. The
+ * Vector API implementation is loaded by name, so the rest of the helpers
+ * package compiles and runs without the incubator module.
+ *
+ * @author JaniOC
+ */
+final class VectorOpsLoader {
+    // Class name of the Vector API implementation
+    private static final String VECTOR_IMPLEMENTATION = "helpers.vector.IncubatorVectorOps";
+
+    private VectorOpsLoader() {
+    }
+
+    /**
+     * Loads the Vector API implementation, or falls back to the scalar one
+     * if it was not compiled or the incubator module is missing.
+     *
+     * @return the implementation to use
+     */
+    static VectorOps load() {
+        try {
+            Class<?> type = Class.forName(VECTOR_IMPLEMENTATION);
+            return (VectorOps) type.getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return new ScalarVectorOps();
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package helpers.vector;
+
+import helpers.ScalarVectorOps;
+import helpers.VectorOps;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShuffle;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * VectorOps on the jdk.incubator.vector API, using the widest int vectors
+ * the processor supports. Compile and run with
+ * {@code --add-modules jdk.incubator.vector}; VectorOps.INSTANCE falls back
+ * to ScalarVectorOps when this class cannot be loaded.
+ *
+ * <p>Small blocks are sorted in registers by an odd-even transposition
+ * network: a block of up to one vector is loaded with the unused lanes set
+ * to Integer.MAX_VALUE, and each of the lane-count rounds compares every
+ * lane with its neighbour using one shuffle, a lane-wise min and max, and
+ * a blend. Larger blocks fall back to insertion sort.
+ *
+ * @author JaniOC
+ */
+public class IncubatorVectorOps implements VectorOps {
+    private static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_PREFERRED;
+    private static final int LANES = SPECIES.length();
+
+    // Neighbours in the even rounds, pairing lanes (0,1), (2,3), ...
+    private static final VectorShuffle<Integer> EVEN_PARTNERS =
+            VectorShuffle.fromOp(SPECIES, lane -> lane ^ 1);
+    private static final VectorMask<Integer> EVEN_UPPER =
+            VectorMask.fromLong(SPECIES, 0xAAAAAAAAAAAAAAAAL);
+
+    // Neighbours in the odd rounds, pairing lanes (1,2), (3,4), ...; the end lanes pair with themselves
+    private static final VectorShuffle<Integer> ODD_PARTNERS =
+            VectorShuffle.fromOp(SPECIES, lane -> lane % 2 == 1
+                    ? Math.min(lane + 1, LANES - 1)
+                    : Math.max(lane - 1, 0));
+    private static final VectorMask<Integer> ODD_UPPER =
+            VectorMask.fromLong(SPECIES, 0x5555555555555554L);
+
+    private final ScalarVectorOps scalar = new ScalarVectorOps();
+
+    @Override
+    public String getName() {
+        return "vector" + SPECIES.vectorBitSize();
+    }
+
+    @Override
+    public int indexOf(int[] data, int from, int to, int target) {
+        int index = from;
+        int bound = from + SPECIES.loopBound(to - from);
+        for (; index < bound; index += LANES) {
+            VectorMask<Integer> matches = IntVector.fromArray(SPECIES, data, index).eq(target);
+            if (matches.anyTrue()) {
+                return index + matches.firstTrue();
+            }
+        }
+        return scalar.indexOf(data, index, to, target);
+    }
+
+    @Override
+    public int indexOfMin(int[] data, int from, int to) {
+        if (to - from < 2 * LANES) {
+            return scalar.indexOfMin(data, from, to);
+        }
+
+        // find the smallest value lane-wise, then where it first occurs
+        IntVector mins = IntVector.fromArray(SPECIES, data, from);
+        int index = from + LANES;
+        int bound = from + SPECIES.loopBound(to - from);
+        for (; index < bound; index += LANES) {
+            mins = mins.min(IntVector.fromArray(SPECIES, data, index));
+        }
+        int min = mins.reduceLanes(VectorOperators.MIN);
+        for (; index < to; index++) {
+            min = Math.min(min, data[index]);
+        }
+        return indexOf(data, from, to, min);
+    }
+
+    @Override
+    public void sortSmall(int[] data, int from, int to) {
+        int length = to - from;
+        if (length < 2) {
+            return;
+        }
+        if (length > LANES) {
+            scalar.sortSmall(data, from, to);
+            return;
+        }
+
+        VectorMask<Integer> used = SPECIES.indexInRange(0, length);
+        IntVector block = IntVector.broadcast(SPECIES, Integer.MAX_VALUE)
+                .blend(IntVector.fromArray(SPECIES, data, from, used), used);
+        for (int round = 0; round < length; round += 2) {
+            block = compareExchange(block, EVEN_PARTNERS, EVEN_UPPER);
+            block = compareExchange(block, ODD_PARTNERS, ODD_UPPER);
+        }
+        block.intoArray(data, from, used);
+    }
+
+    /**
+     * Compares every lane with its partner, keeping the smaller value in
+     * the lower lane of each pair and the larger one in the upper lane.
+     *
+     * @param block    the values to compare
+     * @param partners the partner of every lane
+     * @param upper    the upper lane of every pair
+     * @return the compared values
+     */
+    private static IntVector compareExchange(IntVector block, VectorShuffle<Integer> partners,
+                                             VectorMask<Integer> upper) {
+        IntVector swapped = block.rearrange(partners);
+        return block.min(swapped).blend(block.max(swapped), upper);
+    }
+}